@@ -0,0 +1,115 @@
+package core.api;
+
+import io.restassured.response.Response;
+
+import java.util.Map;
+
+/**
+ * Base for clients (and decorators) built around a single {@link #send(ApiRequest)} funnel: every per-method
+ * overload of {@link ApiClient} is turned into an {@link ApiRequest} and sent through it.
+ */
+public abstract class AbstractApiClient implements ApiClient {
+
+    @Override
+    public abstract Response send(ApiRequest request);
+
+    // region GET
+    @Override
+    public Response get(String path) {
+        return send(ApiRequest.get(path));
+    }
+
+    @Override
+    public Response get(String path, Map<String, ?> queryParams) {
+        return send(ApiRequest.get(path).withQueryParams(queryParams));
+    }
+
+    @Override
+    public Response get(String path, Map<String, ?> queryParams, Map<String, String> headers) {
+        return send(ApiRequest.get(path).withQueryParams(queryParams).withHeaders(headers));
+    }
+    // endregion
+
+    // region POST
+    @Override
+    public Response post(String path) {
+        return send(ApiRequest.of("POST", path));
+    }
+
+    @Override
+    public Response post(String path, Object body) {
+        return send(ApiRequest.post(path, body));
+    }
+
+    @Override
+    public Response post(String path, Map<String, ?> queryParams, Object body) {
+        return send(ApiRequest.post(path, body).withQueryParams(queryParams));
+    }
+
+    @Override
+    public Response post(String path, Map<String, ?> queryParams, Map<String, String> headers, Object body) {
+        return send(ApiRequest.post(path, body).withQueryParams(queryParams).withHeaders(headers));
+    }
+    // endregion
+
+    // region PUT
+    @Override
+    public Response put(String path) {
+        return send(ApiRequest.of("PUT", path));
+    }
+
+    @Override
+    public Response put(String path, Object body) {
+        return send(ApiRequest.put(path, body));
+    }
+
+    @Override
+    public Response put(String path, Map<String, ?> queryParams, Object body) {
+        return send(ApiRequest.put(path, body).withQueryParams(queryParams));
+    }
+
+    @Override
+    public Response put(String path, Map<String, ?> queryParams, Map<String, String> headers, Object body) {
+        return send(ApiRequest.put(path, body).withQueryParams(queryParams).withHeaders(headers));
+    }
+    // endregion
+
+    // region PATCH
+    @Override
+    public Response patch(String path) {
+        return send(ApiRequest.of("PATCH", path));
+    }
+
+    @Override
+    public Response patch(String path, Object body) {
+        return send(ApiRequest.patch(path, body));
+    }
+
+    @Override
+    public Response patch(String path, Map<String, ?> queryParams, Object body) {
+        return send(ApiRequest.patch(path, body).withQueryParams(queryParams));
+    }
+
+    @Override
+    public Response patch(String path, Map<String, ?> queryParams, Map<String, String> headers, Object body) {
+        return send(ApiRequest.patch(path, body).withQueryParams(queryParams).withHeaders(headers));
+    }
+    // endregion
+
+    // region DELETE
+    @Override
+    public Response delete(String path) {
+        return send(ApiRequest.delete(path));
+    }
+
+    @Override
+    public Response delete(String path, Map<String, ?> queryParams) {
+        return send(ApiRequest.delete(path).withQueryParams(queryParams));
+    }
+
+    @Override
+    public Response delete(String path, Map<String, ?> queryParams, Map<String, String> headers) {
+        return send(ApiRequest.delete(path).withQueryParams(queryParams).withHeaders(headers));
+    }
+    // endregion
+}
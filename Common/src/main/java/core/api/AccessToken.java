@@ -0,0 +1,31 @@
+package core.api;
+
+import java.time.Instant;
+
+/**
+ * A token obtained by a {@link TokenProvider} and sent as the {@code Authorization} header.
+ *
+ * @param value     the token itself
+ * @param type      authorization scheme, e.g. {@code Bearer}
+ * @param expiresAt instant after which the server no longer accepts the token, or null when unknown
+ */
+public record AccessToken(String value, String type, Instant expiresAt) {
+    public AccessToken {
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("value cannot be empty");
+        type = type == null || type.isBlank() ? "Bearer" : type;
+    }
+
+    public static AccessToken bearer(String value, Instant expiresAt) {
+        return new AccessToken(value, "Bearer", expiresAt);
+    }
+
+    /** Value of the {@code Authorization} header. */
+    public String authorization() {
+        return type + " " + value;
+    }
+
+    /** True when the token is expired at {@code now}; tokens without an expiry never are. */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,137 @@
+package core.api;
+
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends many {@link ApiRequest}s concurrently with at most {@code parallelism} in flight, e.g. to seed test data.
+ * <p>
+ * Results come back in input order, one per request; a request that throws is reported as a failed
+ * {@link Result} instead of aborting the batch. {@linkplain ApiClient#isAsync() Asynchronous} clients are driven
+ * through {@code sendAsync}; blocking clients, decorated or not, get one worker thread per parallel slot. The
+ * default parallelism is {@code api.batch.parallelism} (8).
+ */
+public final class ApiBatch {
+    private static final int DEFAULT_PARALLELISM = Integer.getInteger("api.batch.parallelism", 8);
+
+    /**
+     * Outcome of one request of a batch.
+     *
+     * @param index    position of the request in the batch
+     * @param request  the request that was sent
+     * @param response the response, or null when the request failed
+     * @param error    why the request failed, or null when a response was received
+     */
+    public record Result(int index, ApiRequest request, Response response, Throwable error) {
+        /** True when a response was received, whatever its status. */
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /** The response status, or -1 when the request failed. */
+        public int statusCode() {
+            return response == null ? -1 : response.statusCode();
+        }
+    }
+
+    private final ApiClient client;
+    private final int parallelism;
+
+    public ApiBatch(ApiClient client) {
+        this(client, DEFAULT_PARALLELISM);
+    }
+
+    public ApiBatch(ApiClient client, int parallelism) {
+        if (client == null) throw new IllegalArgumentException("client cannot be null");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1");
+        this.client = client;
+        this.parallelism = parallelism;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /** Send every request and wait for all of them; the returned list is in input order. */
+    public List<Result> execute(List<ApiRequest> requests) {
+        if (requests == null) throw new IllegalArgumentException("requests cannot be null");
+        if (requests.isEmpty()) return List.of();
+        Result[] results = client.isAsync() && client instanceof AsyncApiClient async
+                ? executeAsync(async, requests)
+                : executeBlocking(requests);
+        return Collections.unmodifiableList(List.of(results));
+    }
+
+    private Result[] executeAsync(AsyncApiClient async, List<ApiRequest> requests) {
+        Result[] results = new Result[requests.size()];
+        Semaphore slots = new Semaphore(parallelism);
+        List<CompletableFuture<?>> pending = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            ApiRequest request = requests.get(i);
+            slots.acquireUninterruptibly();
+            CompletableFuture<Response> sent;
+            try {
+                sent = async.sendAsync(request);
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            pending.add(sent.handle((response, error) -> {
+                results[index] = new Result(index, request, response, unwrap(error));
+                slots.release();
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        return results;
+    }
+
+    private Result[] executeBlocking(List<ApiRequest> requests) {
+        Result[] results = new Result[requests.size()];
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(parallelism, requests.size());
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "api-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        List<CompletableFuture<Void>> done = new ArrayList<>(workers);
+        try {
+            // Each worker pulls the next unsent request, so a slow request never holds up a whole slice
+            for (int w = 0; w < workers; w++) {
+                done.add(CompletableFuture.runAsync(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < requests.size()) {
+                        results[index] = sendOne(index, requests.get(index));
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    private Result sendOne(int index, ApiRequest request) {
+        try {
+            return new Result(index, request, client.send(request), null);
+        } catch (Exception | AssertionError e) {
+            // RestAssured rethrows checked I/O exceptions undeclared
+            return new Result(index, request, null, e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -2,6 +2,7 @@ package core.api;
 
 import io.restassured.response.Response;
 
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -39,4 +40,66 @@ public interface ApiClient {
     Response delete(String path);
     Response delete(String path, Map<String, ?> queryParams);
     Response delete(String path, Map<String, ?> queryParams, Map<String, String> headers);
+
+    /**
+     * True when the client sends requests without holding a thread per request in flight, i.e. it is an
+     * {@link AsyncApiClient} all the way down. Decorators that are {@code AsyncApiClient}s themselves forward this
+     * to the client they wrap; when it is false their {@code sendAsync} runs the blocking call on
+     * {@link BlockingCalls}' threads.
+     */
+    default boolean isAsync() {
+        return false;
+    }
+
+    /**
+     * Send a fully described request. The default maps it onto the per-method overloads; implementations
+     * should override it to support any method and body-less requests with query parameters or headers.
+     */
+    default Response send(ApiRequest request) {
+        Map<String, ?> q = request.queryParams();
+        Map<String, String> h = request.headers();
+        Object body = request.body();
+        boolean bare = body == null && q.isEmpty() && h.isEmpty();
+        return switch (request.method()) {
+            case "GET" -> get(request.path(), q, h);
+            case "DELETE" -> delete(request.path(), q, h);
+            case "POST" -> bare ? post(request.path()) : post(request.path(), q, h, body);
+            case "PUT" -> bare ? put(request.path()) : put(request.path(), q, h, body);
+            case "PATCH" -> bare ? patch(request.path()) : patch(request.path(), q, h, body);
+            default -> throw new UnsupportedOperationException("Unsupported HTTP method: " + request.method());
+        };
+    }
+
+    /**
+     * Send a request without buffering the response body, for large payloads. The default buffers via
+     * {@link #send(ApiRequest)}; implementations should override it to read straight from the connection.
+     */
+    default StreamingResponse stream(ApiRequest request) {
+        return StreamingResponse.of(send(request));
+    }
+
+    /** PUT the contents of {@code file} as the raw request body, streamed from disk. */
+    default Response upload(String path, Path file) {
+        return send(ApiRequest.put(path, file));
+    }
+
+    /** POST {@code file} as a {@code multipart/form-data} part named {@code field}, streamed from disk. */
+    default Response uploadMultipart(String path, String field, Path file) {
+        return send(ApiRequest.post(path, Multipart.file(field, file)));
+    }
+
+    /** GET {@code path} and stream the body into {@code target}; see {@link #download(ApiRequest, Path)}. */
+    default Download download(String path, Path target) {
+        return download(ApiRequest.get(path), target);
+    }
+
+    /**
+     * Send the request and stream the response body into {@code target} with a SHA-256 computed on the way, so
+     * files of any size move with constant memory on clients that implement {@link #stream(ApiRequest)}.
+     */
+    default Download download(ApiRequest request, Path target) {
+        try (StreamingResponse response = stream(request)) {
+            return response.saveTo(target);
+        }
+    }
 }
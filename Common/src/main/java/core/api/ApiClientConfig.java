@@ -0,0 +1,107 @@
+package core.api;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable per-client settings for an {@link ApiClient}: base URI, default headers, authentication, timeouts,
+ * TLS validation and connection pooling. Every {@code with*} method returns a modified copy, so a config can be shared freely between
+ * clients and threads.
+ */
+public final class ApiClientConfig {
+    private static final ApiClientConfig DEFAULTS =
+            new ApiClientConfig(null, Map.of(), null, null, null, null, true, null);
+
+    private final String baseUri;
+    private final Map<String, String> headers;
+    private final String username;
+    private final String password;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final boolean relaxedHttpsValidation;
+    private final ConnectionPoolConfig connectionPool;
+
+    private ApiClientConfig(String baseUri, Map<String, String> headers, String username, String password,
+                            Duration connectTimeout, Duration readTimeout, boolean relaxedHttpsValidation,
+                            ConnectionPoolConfig connectionPool) {
+        this.baseUri = baseUri;
+        this.headers = headers;
+        this.username = username;
+        this.password = password;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.relaxedHttpsValidation = relaxedHttpsValidation;
+        this.connectionPool = connectionPool;
+    }
+
+    /** No base URI, no default headers or auth, client-default timeouts and relaxed HTTPS validation. */
+    public static ApiClientConfig defaults() {
+        return DEFAULTS;
+    }
+
+    public String baseUri() { return baseUri; }
+
+    /** Headers sent with every request; per-call headers with the same name are added alongside. */
+    public Map<String, String> headers() { return headers; }
+
+    /** Username for preemptive basic auth, or null when no auth is configured. */
+    public String username() { return username; }
+
+    public String password() { return password; }
+
+    /** Connect timeout, or null for the underlying client's default. */
+    public Duration connectTimeout() { return connectTimeout; }
+
+    /** Socket read timeout, or null for the underlying client's default. */
+    public Duration readTimeout() { return readTimeout; }
+
+    /** Whether any server certificate is trusted (the historical behavior of the RestAssured client). */
+    public boolean relaxedHttpsValidation() { return relaxedHttpsValidation; }
+
+    /** Connection pooling settings, or null to open a connection per request. */
+    public ConnectionPoolConfig connectionPool() { return connectionPool; }
+
+    public ApiClientConfig withBaseUri(String baseUri) {
+        return new ApiClientConfig(baseUri, headers, username, password, connectTimeout, readTimeout,
+                relaxedHttpsValidation, connectionPool);
+    }
+
+    public ApiClientConfig withHeader(String name, String value) {
+        if (name == null) throw new IllegalArgumentException("header name cannot be null");
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        if (value == null) {
+            copy.remove(name);
+        } else {
+            copy.put(name, value);
+        }
+        return new ApiClientConfig(baseUri, Collections.unmodifiableMap(copy), username, password,
+                connectTimeout, readTimeout, relaxedHttpsValidation, connectionPool);
+    }
+
+    public ApiClientConfig withBasicAuth(String username, String password) {
+        return new ApiClientConfig(baseUri, headers, username, password, connectTimeout, readTimeout,
+                relaxedHttpsValidation, connectionPool);
+    }
+
+    public ApiClientConfig withConnectTimeout(Duration connectTimeout) {
+        return new ApiClientConfig(baseUri, headers, username, password, connectTimeout, readTimeout,
+                relaxedHttpsValidation, connectionPool);
+    }
+
+    public ApiClientConfig withReadTimeout(Duration readTimeout) {
+        return new ApiClientConfig(baseUri, headers, username, password, connectTimeout, readTimeout,
+                relaxedHttpsValidation, connectionPool);
+    }
+
+    public ApiClientConfig withConnectionPool(ConnectionPoolConfig connectionPool) {
+        return new ApiClientConfig(baseUri, headers, username, password, connectTimeout, readTimeout,
+                relaxedHttpsValidation, connectionPool);
+    }
+
+    public ApiClientConfig withRelaxedHttpsValidation(boolean relaxed) {
+        return new ApiClientConfig(baseUri, headers, username, password, connectTimeout, readTimeout,
+                relaxed, connectionPool);
+    }
+}
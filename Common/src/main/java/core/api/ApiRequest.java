@@ -0,0 +1,66 @@
+package core.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable description of one HTTP call made through an {@link ApiClient}.
+ *
+ * @param method      HTTP method, upper-cased (GET, POST, ...)
+ * @param path        path relative to the client's base URI (or an absolute URL)
+ * @param queryParams query parameters; iterable values are sent as repeated parameters
+ * @param headers     per-request headers
+ * @param body        request body, or null for none: a String, byte[] or {@link JsonBody} is sent as-is, a
+ *                    {@link java.nio.file.Path} or {@link java.io.InputStream} is streamed, and anything else is
+ *                    serialized as JSON
+ */
+public record ApiRequest(String method, String path, Map<String, ?> queryParams, Map<String, String> headers,
+                         Object body) {
+    public ApiRequest {
+        if (method == null) throw new IllegalArgumentException("method cannot be null");
+        if (path == null) throw new IllegalArgumentException("path cannot be null");
+        method = method.toUpperCase(Locale.ROOT);
+        queryParams = queryParams == null || queryParams.isEmpty()
+                ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(queryParams));
+        headers = headers == null || headers.isEmpty()
+                ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+    }
+
+    public static ApiRequest of(String method, String path) {
+        return new ApiRequest(method, path, null, null, null);
+    }
+
+    public static ApiRequest get(String path) { return of("GET", path); }
+    public static ApiRequest post(String path, Object body) { return of("POST", path).withBody(body); }
+    public static ApiRequest put(String path, Object body) { return of("PUT", path).withBody(body); }
+    public static ApiRequest patch(String path, Object body) { return of("PATCH", path).withBody(body); }
+    public static ApiRequest delete(String path) { return of("DELETE", path); }
+
+    public ApiRequest withQueryParams(Map<String, ?> queryParams) {
+        return new ApiRequest(method, path, queryParams, headers, body);
+    }
+
+    public ApiRequest withHeaders(Map<String, String> headers) {
+        return new ApiRequest(method, path, queryParams, headers, body);
+    }
+
+    public ApiRequest withHeader(String name, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        copy.put(name, value);
+        return new ApiRequest(method, path, queryParams, copy, body);
+    }
+
+    public ApiRequest withBody(Object body) {
+        return new ApiRequest(method, path, queryParams, headers, body);
+    }
+
+    /** True for methods that may safely be repeated (GET, HEAD, OPTIONS, PUT, DELETE). */
+    public boolean isIdempotent() {
+        return switch (method) {
+            case "GET", "HEAD", "OPTIONS", "PUT", "DELETE" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package core.api;
+
+import io.restassured.response.Response;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An {@link ApiClient} that can also issue requests without blocking the caller. Responses are the same
+ * RestAssured {@link Response} type as the blocking methods, so they can be asserted the same way.
+ */
+public interface AsyncApiClient extends ApiClient {
+    /** True unless a decorator wraps a blocking client; see {@link ApiClient#isAsync()}. */
+    @Override
+    default boolean isAsync() {
+        return true;
+    }
+
+    /** Send the request asynchronously; the future completes exceptionally on I/O failure. */
+    CompletableFuture<Response> sendAsync(ApiRequest request);
+
+    // GET
+    default CompletableFuture<Response> getAsync(String path) {
+        return sendAsync(ApiRequest.get(path));
+    }
+    default CompletableFuture<Response> getAsync(String path, Map<String, ?> queryParams,
+                                                 Map<String, String> headers) {
+        return sendAsync(ApiRequest.get(path).withQueryParams(queryParams).withHeaders(headers));
+    }
+
+    // POST
+    default CompletableFuture<Response> postAsync(String path, Object body) {
+        return sendAsync(ApiRequest.post(path, body));
+    }
+    default CompletableFuture<Response> postAsync(String path, Map<String, ?> queryParams,
+                                                  Map<String, String> headers, Object body) {
+        return sendAsync(ApiRequest.post(path, body).withQueryParams(queryParams).withHeaders(headers));
+    }
+
+    // PUT
+    default CompletableFuture<Response> putAsync(String path, Object body) {
+        return sendAsync(ApiRequest.put(path, body));
+    }
+    default CompletableFuture<Response> putAsync(String path, Map<String, ?> queryParams,
+                                                 Map<String, String> headers, Object body) {
+        return sendAsync(ApiRequest.put(path, body).withQueryParams(queryParams).withHeaders(headers));
+    }
+
+    // PATCH
+    default CompletableFuture<Response> patchAsync(String path, Object body) {
+        return sendAsync(ApiRequest.patch(path, body));
+    }
+    default CompletableFuture<Response> patchAsync(String path, Map<String, ?> queryParams,
+                                                   Map<String, String> headers, Object body) {
+        return sendAsync(ApiRequest.patch(path, body).withQueryParams(queryParams).withHeaders(headers));
+    }
+
+    // DELETE
+    default CompletableFuture<Response> deleteAsync(String path) {
+        return sendAsync(ApiRequest.delete(path));
+    }
+    default CompletableFuture<Response> deleteAsync(String path, Map<String, ?> queryParams,
+                                                    Map<String, String> headers) {
+        return sendAsync(ApiRequest.delete(path).withQueryParams(queryParams).withHeaders(headers));
+    }
+}
@@ -0,0 +1,144 @@
+package core.api;
+
+import core.api.impl.JsonBodies;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator that sends requests with an {@code Authorization} header from a shared {@link TokenCache}.
+ * <p>
+ * Only requests to trusted hosts get a token, so absolute URLs to third parties never see it: the host of the base
+ * URI by default, or exactly the hosts passed to the constructor. Without a base URI, relative requests go
+ * without a token too.
+ * <p>
+ * A 401 response drops the token it was sent with and the request is sent once more with a freshly fetched one;
+ * a second 401 is returned as is. Requests with an {@link java.io.InputStream} body cannot be resent, and requests
+ * that already carry an {@code Authorization} header are passed through untouched.
+ */
+public final class AuthenticatedApiClient extends AbstractApiClient implements AsyncApiClient {
+    private final ApiClient delegate;
+    private final TokenCache cache;
+    private final String key;
+    private final TokenProvider provider;
+    private final Set<String> hosts;
+    private volatile String baseHost;
+
+    /**
+     * @param key      cache key of the tokens, identifying the client and scope they were issued for
+     * @param provider source of new tokens for {@code key}
+     */
+    public AuthenticatedApiClient(ApiClient delegate, TokenCache cache, String key, TokenProvider provider) {
+        this(delegate, cache, key, provider, List.of());
+    }
+
+    /**
+     * @param hosts the only hosts sent a token, e.g. {@code api.example.com}; empty for the host of the base URI
+     */
+    public AuthenticatedApiClient(ApiClient delegate, TokenCache cache, String key, TokenProvider provider,
+                                  Collection<String> hosts) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (cache == null) throw new IllegalArgumentException("cache cannot be null");
+        if (key == null) throw new IllegalArgumentException("key cannot be null");
+        if (provider == null) throw new IllegalArgumentException("provider cannot be null");
+        if (hosts == null) throw new IllegalArgumentException("hosts cannot be null");
+        this.delegate = delegate;
+        this.cache = cache;
+        this.key = key;
+        this.provider = provider;
+        Set<String> trusted = new HashSet<>();
+        for (String host : hosts) trusted.add(host.trim().toLowerCase(Locale.ROOT));
+        this.hosts = Set.copyOf(trusted);
+    }
+
+    public AuthenticatedApiClient(ApiClient delegate, TokenCache cache, ClientCredentialsTokenProvider provider) {
+        this(delegate, cache, provider.cacheKey(), provider);
+    }
+
+    public AuthenticatedApiClient(ApiClient delegate, TokenCache cache, ClientCredentialsTokenProvider provider,
+                                  Collection<String> hosts) {
+        this(delegate, cache, provider.cacheKey(), provider, hosts);
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        delegate.setBaseUri(baseUri);
+        baseHost = host(baseUri);
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        if (!needsToken(request)) return delegate.send(request);
+        AccessToken token = cache.token(key, provider);
+        Response response = delegate.send(authorized(request, token));
+        if (!shouldRetry(request, response.statusCode())) return response;
+        cache.invalidate(key, token);
+        return delegate.send(authorized(request, cache.token(key, provider)));
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        if (!(delegate instanceof AsyncApiClient async)) return BlockingCalls.supplyAsync(() -> send(request));
+        if (!needsToken(request)) return async.sendAsync(request);
+        // Fetching a token blocks; it is rare, and a cached token is returned at once
+        AccessToken token = cache.token(key, provider);
+        return async.sendAsync(authorized(request, token)).thenCompose(response -> {
+            if (!shouldRetry(request, response.statusCode())) return CompletableFuture.completedFuture(response);
+            cache.invalidate(key, token);
+            return BlockingCalls.supplyAsync(() -> authorized(request, cache.token(key, provider)))
+                    .thenCompose(async::sendAsync);
+        });
+    }
+
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        if (!needsToken(request)) return delegate.stream(request);
+        AccessToken token = cache.token(key, provider);
+        StreamingResponse response = delegate.stream(authorized(request, token));
+        if (!shouldRetry(request, response.statusCode())) return response;
+        response.close();
+        cache.invalidate(key, token);
+        return delegate.stream(authorized(request, cache.token(key, provider)));
+    }
+
+    private static boolean shouldRetry(ApiRequest request, int status) {
+        return status == 401 && !JsonBodies.isStreaming(request.body());
+    }
+
+    /** False for requests that carry their own {@code Authorization} header or go to an untrusted host. */
+    private boolean needsToken(ApiRequest request) {
+        for (String name : request.headers().keySet()) {
+            if ("Authorization".equalsIgnoreCase(name)) return false;
+        }
+        String base = baseHost;
+        String path = request.path();
+        String host = path.startsWith("http://") || path.startsWith("https://") ? host(path) : base;
+        if (host == null) return false;
+        return hosts.isEmpty() ? host.equals(base) : hosts.contains(host);
+    }
+
+    private static String host(String uri) {
+        if (uri == null) return null;
+        try {
+            String host = URI.create(uri).getHost();
+            return host == null ? null : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ApiRequest authorized(ApiRequest request, AccessToken token) {
+        return request.withHeader("Authorization", token.authorization());
+    }
+}
@@ -0,0 +1,37 @@
+package core.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Threads for decorators that offer {@link AsyncApiClient#sendAsync} on top of a blocking client, and for other
+ * blocking work they start asynchronously (e.g. fetching a token). A dedicated pool of up to
+ * {@code api.async.blockingThreads} (64) daemon threads, so blocking HTTP calls never occupy the common
+ * fork-join pool, which has only one thread per core but one.
+ * <p>
+ * Callers that need a given parallelism from a blocking client should check {@link ApiClient#isAsync()} and bring
+ * their own threads, as {@link ApiBatch} does.
+ */
+public final class BlockingCalls {
+    private static final int THREADS = Integer.getInteger("api.async.blockingThreads", 64);
+    private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "api-blocking");
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        POOL.allowCoreThreadTimeOut(true);
+    }
+
+    private BlockingCalls() { }
+
+    /** Run {@code call} on the pool; the future completes exceptionally when it throws. */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, POOL);
+    }
+}
@@ -0,0 +1,221 @@
+package core.api;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator that answers repeated GETs from a {@link ResponseCache}, following HTTP caching rules:
+ * <ul>
+ *     <li>Only 200 responses to GETs are stored, and never with {@code Cache-Control: no-store} or {@code Vary: *}.</li>
+ *     <li>A response is fresh for {@code max-age} (less its {@code Age}), or until {@code Expires}; fresh responses
+ *     are served without contacting the server.</li>
+ *     <li>Stale responses, and those marked {@code no-cache}, are revalidated with {@code If-None-Match} /
+ *     {@code If-Modified-Since}; a 304 reuses the cached body. Responses without freshness or validators are not
+ *     stored.</li>
+ *     <li>A successful POST, PUT, PATCH or DELETE evicts cached responses for the same URL.</li>
+ * </ul>
+ * Requests that carry their own conditional headers or {@code Cache-Control: no-cache/no-store} bypass the cache.
+ * Cache keys include the base URI, path, query and per-request headers, so the cache can be shared by clients
+ * pointing at different services.
+ */
+public final class CachingApiClient extends AbstractApiClient implements AsyncApiClient {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final ApiClient delegate;
+    private final ResponseCache cache;
+    private volatile String baseUri = "";
+
+    public CachingApiClient(ApiClient delegate, ResponseCache cache) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (cache == null) throw new IllegalArgumentException("cache cannot be null");
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    public ResponseCache cache() {
+        return cache;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        delegate.setBaseUri(baseUri);
+        this.baseUri = baseUri == null ? "" : baseUri;
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        if (!cacheable(request)) return invalidateAfter(request, delegate.send(request));
+        String key = key(request);
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null && entry.isFresh(cache.now())) {
+            cache.recordHit();
+            return copy(entry);
+        }
+        ApiRequest outgoing = outgoing(request, entry);
+        return complete(key, entry, outgoing != request, delegate.send(outgoing));
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        if (!cacheable(request)) return sendAsyncThrough(request).thenApply(r -> invalidateAfter(request, r));
+        String key = key(request);
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null && entry.isFresh(cache.now())) {
+            cache.recordHit();
+            return CompletableFuture.completedFuture(copy(entry));
+        }
+        ApiRequest outgoing = outgoing(request, entry);
+        return sendAsyncThrough(outgoing).thenApply(r -> complete(key, entry, outgoing != request, r));
+    }
+
+    /** Streams are never cached. */
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        return delegate.stream(request);
+    }
+
+    private CompletableFuture<Response> sendAsyncThrough(ApiRequest request) {
+        if (delegate instanceof AsyncApiClient async) return async.sendAsync(request);
+        return BlockingCalls.supplyAsync(() -> delegate.send(request));
+    }
+
+    /** The request to send on a miss: conditional when a stale entry can be revalidated. */
+    private ApiRequest outgoing(ApiRequest request, ResponseCache.Entry entry) {
+        if (entry == null || !entry.canRevalidate()) {
+            cache.recordMiss();
+            return request;
+        }
+        cache.recordRevalidation();
+        ApiRequest conditional = request;
+        if (entry.etag != null) conditional = conditional.withHeader("If-None-Match", entry.etag);
+        if (entry.lastModified != null) conditional = conditional.withHeader("If-Modified-Since", entry.lastModified);
+        return conditional;
+    }
+
+    private Response complete(String key, ResponseCache.Entry entry, boolean conditional, Response response) {
+        if (conditional && response.statusCode() == 304) {
+            cache.recordNotModified();
+            // A 304 may carry updated freshness; otherwise the original response's headers still apply
+            Long fresh = freshnessMillis(response);
+            if (fresh == null) fresh = freshnessMillis(entry.response);
+            entry.freshUntil = cache.now() + (fresh == null ? 0 : fresh);
+            return copy(entry);
+        }
+        store(key, response);
+        return response;
+    }
+
+    private void store(String key, Response response) {
+        if (response.statusCode() != 200) return;
+        String cacheControl = lower(response.header("Cache-Control"));
+        if (cacheControl.contains("no-store") || "*".equals(response.header("Vary"))) return;
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        boolean noCache = hasDirective(cacheControl, "no-cache");
+        Long fresh = freshnessMillis(response);
+        boolean validators = etag != null || lastModified != null;
+        if (!validators && (noCache || fresh == null || fresh <= 0)) return;
+        cache.put(key, new ResponseCache.Entry(response, response.asByteArray(), etag, lastModified, noCache,
+                cache.now() + (fresh == null ? 0 : fresh)));
+    }
+
+    private Response invalidateAfter(ApiRequest request, Response response) {
+        if (!request.method().equals("GET") && !request.method().equals("HEAD") && response.statusCode() < 400) {
+            cache.invalidate(uri(request) + "?");
+        }
+        return response;
+    }
+
+    private static boolean cacheable(ApiRequest request) {
+        if (!request.method().equals("GET")) return false;
+        for (Map.Entry<String, String> h : request.headers().entrySet()) {
+            String name = h.getKey().toLowerCase(Locale.ROOT);
+            if (name.equals("if-none-match") || name.equals("if-modified-since")) return false;
+            if (name.equals("cache-control") && (hasDirective(lower(h.getValue()), "no-cache")
+                    || hasDirective(lower(h.getValue()), "no-store"))) return false;
+        }
+        return true;
+    }
+
+    /** Milliseconds a response stays fresh from now, or null when it declares no freshness. */
+    static Long freshnessMillis(Response response) {
+        String cacheControl = lower(response.header("Cache-Control"));
+        for (String directive : cacheControl.split(",")) {
+            String d = directive.trim();
+            if (d.startsWith("max-age=")) {
+                try {
+                    long maxAge = Long.parseLong(d.substring("max-age=".length()).replace("\"", ""));
+                    long age = parseLong(response.header("Age"));
+                    return Math.max(0, maxAge - age) * 1000;
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        String expires = response.header("Expires");
+        if (expires == null) return null;
+        try {
+            long expiresAt = ZonedDateTime.parse(expires, HTTP_DATE).toInstant().toEpochMilli();
+            String date = response.header("Date");
+            long base = date == null ? System.currentTimeMillis()
+                    : ZonedDateTime.parse(date, HTTP_DATE).toInstant().toEpochMilli();
+            return Math.max(0, expiresAt - base);
+        } catch (DateTimeParseException e) {
+            // Invalid Expires (e.g. "0") means already expired
+            return 0L;
+        }
+    }
+
+    private String key(ApiRequest request) {
+        StringBuilder key = new StringBuilder(uri(request)).append('?');
+        int q = request.path().indexOf('?');
+        if (q >= 0) key.append(request.path(), q + 1, request.path().length()).append('&');
+        new TreeMap<>(request.queryParams()).forEach((k, v) -> key.append(k).append('=').append(v).append('&'));
+        key.append('|');
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+        headers.forEach((k, v) -> key.append(k.toLowerCase(Locale.ROOT)).append(':').append(v).append('\n'));
+        return key.toString();
+    }
+
+    private String uri(ApiRequest request) {
+        String path = request.path();
+        int q = path.indexOf('?');
+        if (q >= 0) path = path.substring(0, q);
+        if (path.startsWith("http://") || path.startsWith("https://")) return path;
+        return baseUri + path;
+    }
+
+    private static Response copy(ResponseCache.Entry entry) {
+        // Each caller gets its own Response so one scenario's reads cannot affect another's
+        return new ResponseBuilder().clone(entry.response).setBody(entry.body).build();
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        for (String d : cacheControl.split(",")) {
+            if (d.trim().equals(directive)) return true;
+        }
+        return false;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long parseLong(String value) {
+        return value == null ? 0 : Long.parseLong(value.trim());
+    }
+}
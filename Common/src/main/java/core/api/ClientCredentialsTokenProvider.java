@@ -0,0 +1,117 @@
+package core.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * OAuth 2.0 client credentials grant: POSTs {@code grant_type=client_credentials} with the client id, secret and
+ * optional scope as a form to the token endpoint and reads {@code access_token}, {@code token_type} and
+ * {@code expires_in} from the JSON answer.
+ */
+public final class ClientCredentialsTokenProvider implements TokenProvider {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+    private final URI tokenUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final String scope;
+    private final Clock clock;
+
+    public ClientCredentialsTokenProvider(URI tokenUrl, String clientId, String clientSecret, String scope) {
+        this(tokenUrl, clientId, clientSecret, scope, Clock.systemUTC());
+    }
+
+    /** @param clock time source turning {@code expires_in} into an expiry instant, replaceable in tests */
+    public ClientCredentialsTokenProvider(URI tokenUrl, String clientId, String clientSecret, String scope,
+                                          Clock clock) {
+        if (tokenUrl == null) throw new IllegalArgumentException("tokenUrl cannot be null");
+        if (clientId == null || clientId.isEmpty()) throw new IllegalArgumentException("clientId cannot be empty");
+        if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+        this.tokenUrl = tokenUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.scope = scope;
+        this.clock = clock;
+    }
+
+    /**
+     * Provider from {@code api.auth.tokenUrl}, {@code api.auth.clientId}, {@code api.auth.clientSecret} and
+     * {@code api.auth.scope}, or null when no token URL is configured.
+     */
+    public static ClientCredentialsTokenProvider fromSystemProperties() {
+        String url = System.getProperty("api.auth.tokenUrl");
+        if (url == null || url.isBlank()) return null;
+        return new ClientCredentialsTokenProvider(URI.create(url), System.getProperty("api.auth.clientId"),
+                System.getProperty("api.auth.clientSecret"), System.getProperty("api.auth.scope"));
+    }
+
+    /** Key identifying the tokens of this client and scope in a {@link TokenCache}. */
+    public String cacheKey() {
+        return tokenUrl + " " + clientId + " " + (scope == null ? "" : scope);
+    }
+
+    @Override
+    public AccessToken fetch() {
+        StringBuilder form = new StringBuilder("grant_type=client_credentials")
+                .append("&client_id=").append(encode(clientId));
+        if (clientSecret != null) form.append("&client_secret=").append(encode(clientSecret));
+        if (scope != null && !scope.isBlank()) form.append("&scope=").append(encode(scope));
+        HttpRequest request = HttpRequest.newBuilder(tokenUrl)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+                .build();
+        Instant requestedAt = clock.instant();
+        HttpResponse<String> response;
+        try {
+            response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Token request to " + tokenUrl + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while requesting a token from " + tokenUrl, e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Token endpoint " + tokenUrl + " returned " + response.statusCode());
+        }
+        JsonNode json;
+        try {
+            json = MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Token endpoint " + tokenUrl + " returned invalid JSON", e);
+        }
+        JsonNode token = json.get("access_token");
+        if (token == null || !token.isTextual()) {
+            throw new IllegalStateException("Token endpoint " + tokenUrl + " returned no access_token");
+        }
+        // Counted from when the request was sent, so the token never outlives what the server granted
+        long expiresIn = json.has("expires_in") ? json.get("expires_in").asLong(-1) : -1;
+        Instant expiresAt = expiresIn < 0 ? null : requestedAt.plusSeconds(expiresIn);
+        JsonNode type = json.get("token_type");
+        return new AccessToken(token.asText(), type == null ? null : capitalize(type.asText()), expiresAt);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /** Servers often answer {@code bearer}; the header scheme is conventionally written {@code Bearer}. */
+    private static String capitalize(String type) {
+        return "bearer".equalsIgnoreCase(type) ? "Bearer" : type;
+    }
+}
@@ -0,0 +1,205 @@
+package core.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JSON path expression compiled once and evaluated against a parsed Jackson tree.
+ * <p>
+ * Supports the subset of RestAssured's GPath used in assertions: dotted field names ({@code store.book}),
+ * quoted names ({@code 'a.b'}), array indexes including negative ones ({@code items[0]}, {@code items[-1]})
+ * and {@code size()}. A field applied to an array is collected from every element, like GPath does
+ * ({@code items.name}). Anything else (closures, filters) is rejected with {@link IllegalArgumentException}.
+ * <p>
+ * Compiled expressions are cached in a bounded LRU map, sized with {@code -Djsonpath.cacheSize} (default 512).
+ */
+public final class CompiledJsonPath {
+    private static final int CACHE_SIZE = Integer.getInteger("jsonpath.cacheSize", 512);
+    private static final Map<String, CompiledJsonPath> CACHE =
+            Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledJsonPath> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private sealed interface Step permits Field, Index, Size { }
+    private record Field(String name) implements Step { }
+    private record Index(int index) implements Step { }
+    private record Size() implements Step { }
+
+    private final String expression;
+    private final Step[] steps;
+
+    private CompiledJsonPath(String expression, Step[] steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /** The compiled form of {@code expression}, from the cache when it has been compiled before. */
+    public static CompiledJsonPath compile(String expression) {
+        if (expression == null) throw new IllegalArgumentException("expression cannot be null");
+        CompiledJsonPath cached = CACHE.get(expression);
+        if (cached != null) return cached;
+        CompiledJsonPath compiled = new CompiledJsonPath(expression, parse(expression));
+        CACHE.put(expression, compiled);
+        return compiled;
+    }
+
+    /** Number of compiled expressions currently cached. */
+    public static int cacheSize() {
+        return CACHE.size();
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    /** The node at this path, or a missing node when the path does not resolve. */
+    public JsonNode evaluate(JsonNode root) {
+        JsonNode node = root;
+        for (Step step : steps) {
+            node = apply(node, step);
+            if (node.isMissingNode()) return node;
+        }
+        return node;
+    }
+
+    /**
+     * The value at this path as a string, or null when it is missing or JSON null, rendered exactly as RestAssured's
+     * {@code JsonPath.getString} renders it: arrays and objects as Groovy lists and maps ({@code [a, b]},
+     * {@code [k:v]}) and decimals as the {@code Float} (or, out of its range, {@code Double}) RestAssured parses
+     * them into.
+     */
+    public String getString(JsonNode root) {
+        JsonNode node = evaluate(root);
+        if (node.isMissingNode() || node.isNull()) return null;
+        StringBuilder sb = new StringBuilder();
+        render(node, sb);
+        return sb.toString();
+    }
+
+    private static void render(JsonNode node, StringBuilder sb) {
+        if (node.isArray()) {
+            sb.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0) sb.append(", ");
+                render(node.get(i), sb);
+            }
+            sb.append(']');
+        } else if (node.isObject()) {
+            if (node.isEmpty()) {
+                sb.append("[:]");
+                return;
+            }
+            sb.append('[');
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                sb.append(field.getKey()).append(':');
+                render(field.getValue(), sb);
+                if (fields.hasNext()) sb.append(", ");
+            }
+            sb.append(']');
+        } else if (node.isFloatingPointNumber()) {
+            // RestAssured's default number type: Float when the value fits, Double otherwise
+            BigDecimal value = node.decimalValue();
+            float f = value.floatValue();
+            sb.append(Float.isInfinite(f) ? String.valueOf(value.doubleValue()) : String.valueOf(f));
+        } else {
+            sb.append(node.isNull() ? "null" : node.asText());
+        }
+    }
+
+    private static JsonNode apply(JsonNode node, Step step) {
+        if (step instanceof Field f) {
+            if (node.isArray()) {
+                ArrayNode collected = JsonNodeFactory.instance.arrayNode(node.size());
+                for (JsonNode element : node) {
+                    // Like GPath: nested arrays keep their shape and null elements are skipped
+                    if (element.isNull()) continue;
+                    JsonNode value = element.isArray() ? apply(element, step) : element.path(f.name());
+                    collected.add(value.isMissingNode() ? JsonNodeFactory.instance.nullNode() : value);
+                }
+                return collected;
+            }
+            return node.path(f.name());
+        }
+        if (step instanceof Index i) {
+            if (!node.isArray()) return MissingNode.getInstance();
+            int index = i.index() < 0 ? node.size() + i.index() : i.index();
+            return node.path(index);
+        }
+        if (!node.isContainerNode() && !node.isTextual()) return MissingNode.getInstance();
+        return JsonNodeFactory.instance.numberNode(node.isTextual() ? node.asText().length() : node.size());
+    }
+
+    private static Step[] parse(String expression) {
+        List<Step> steps = new ArrayList<>();
+        String s = expression.trim();
+        if (s.equals("$") || s.equals("")) return new Step[0];
+        if (s.startsWith("$.")) s = s.substring(2);
+        int i = 0;
+        boolean expectName = true;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '[') {
+                int end = s.indexOf(']', i);
+                if (end < 0) throw invalid(expression, "unclosed '['");
+                try {
+                    steps.add(new Index(Integer.parseInt(s.substring(i + 1, end).trim())));
+                } catch (NumberFormatException e) {
+                    throw invalid(expression, "only integer indexes are supported");
+                }
+                i = end + 1;
+                expectName = false;
+            } else if (c == '.') {
+                if (expectName) throw invalid(expression, "empty segment");
+                i++;
+                expectName = true;
+            } else if (!expectName) {
+                throw invalid(expression, "expected '.' or '[' at " + i);
+            } else if (c == '\'' || c == '"') {
+                int end = s.indexOf(c, i + 1);
+                if (end < 0) throw invalid(expression, "unclosed quote");
+                steps.add(new Field(s.substring(i + 1, end)));
+                i = end + 1;
+                expectName = false;
+            } else {
+                int end = i;
+                while (end < s.length() && s.charAt(end) != '.' && s.charAt(end) != '[') end++;
+                String name = s.substring(i, end);
+                if (name.equals("size()")) {
+                    steps.add(new Size());
+                } else if (name.isBlank() || name.contains("(") || name.contains("{") || name.contains(" ")) {
+                    throw invalid(expression, "unsupported segment '" + name + "'");
+                } else {
+                    steps.add(new Field(name));
+                }
+                i = end;
+                expectName = false;
+            }
+        }
+        if (expectName) throw invalid(expression, "trailing '.'");
+        return steps.toArray(new Step[0]);
+    }
+
+    private static IllegalArgumentException invalid(String expression, String reason) {
+        return new IllegalArgumentException("Unsupported JSON path '" + expression + "': " + reason);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
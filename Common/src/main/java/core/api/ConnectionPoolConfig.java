@@ -0,0 +1,25 @@
+package core.api;
+
+import java.time.Duration;
+
+/**
+ * Connection reuse settings for an {@link ApiClient}.
+ *
+ * @param maxPerRoute   maximum open connections to a single host/port
+ * @param maxTotal      maximum open connections across all hosts
+ * @param keepAlive     how long an idle connection may be kept when the server sends no Keep-Alive hint
+ * @param idleEviction  idle connections older than this are closed
+ */
+public record ConnectionPoolConfig(int maxPerRoute, int maxTotal, Duration keepAlive, Duration idleEviction) {
+    public ConnectionPoolConfig {
+        if (maxPerRoute < 1) throw new IllegalArgumentException("maxPerRoute must be at least 1");
+        if (maxTotal < maxPerRoute) throw new IllegalArgumentException("maxTotal must be >= maxPerRoute");
+        if (keepAlive == null || keepAlive.isNegative()) throw new IllegalArgumentException("keepAlive must be >= 0");
+        if (idleEviction == null || idleEviction.isNegative()) throw new IllegalArgumentException("idleEviction must be >= 0");
+    }
+
+    /** 20 connections per route, 100 in total, 30s keep-alive, idle connections closed after 60s. */
+    public static ConnectionPoolConfig defaults() {
+        return new ConnectionPoolConfig(20, 100, Duration.ofSeconds(30), Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,13 @@
+package core.api;
+
+/**
+ * Point-in-time view of an {@link ApiClient}'s connection pool.
+ *
+ * @param leased            connections currently executing a request
+ * @param available         idle connections ready for reuse
+ * @param pending           requests waiting for a connection
+ * @param max               maximum total connections
+ * @param connectionsOpened connections opened since the pool was created; each one is a TCP (and TLS) handshake,
+ *                          so a value far below the request count confirms reuse
+ */
+public record ConnectionPoolStats(int leased, int available, int pending, int max, long connectionsOpened) { }
@@ -0,0 +1,19 @@
+package core.api;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of streaming a response body to a file with {@link ApiClient#download}.
+ *
+ * @param statusCode  HTTP status of the response; the body is written whatever it is
+ * @param file        file the body was written to
+ * @param bytes       number of body bytes written
+ * @param sha256      lower-case hex SHA-256 of the body, computed while it was written
+ * @param contentType Content-Type of the response, or null
+ */
+public record Download(int statusCode, Path file, long bytes, String sha256, String contentType) {
+    /** True when the body's SHA-256 equals {@code expectedHex}, ignoring case. */
+    public boolean matches(String expectedHex) {
+        return sha256.equalsIgnoreCase(expectedHex);
+    }
+}
@@ -0,0 +1,217 @@
+package core.api;
+
+import core.load.LatencyHistogram;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe request counts, status classes, latency percentiles and payload sizes per endpoint, keyed by method
+ * and templated path: IDs in the path are collapsed to {@code {id}}, so {@code GET /users/42} and
+ * {@code GET /users/43} both count as {@code GET /users/{id}}. Fed by an {@link InstrumentedApiClient} through
+ * {@link #listener()} and exported with {@link #report()} and {@link #toJson()}.
+ */
+public final class EndpointMetrics {
+    private static final ObjectWriter JSON = new ObjectMapper().writerWithDefaultPrettyPrinter();
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern HEX = Pattern.compile("[0-9a-fA-F]{16,}");
+    // Long opaque tokens mixing letters and digits (e.g. ULIDs, Mongo ids, slugs with a numeric suffix)
+    private static final Pattern TOKEN = Pattern.compile("(?=.*\\d)(?=.*[A-Za-z])[A-Za-z0-9_-]{20,}");
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /** Listener recording every request under its {@link #key(ApiRequest) key}, with payload sizes. */
+    public RequestListener listener() {
+        return new RequestListener() {
+            @Override
+            public void onRequest(ApiRequest request, int status, long nanos, Throwable failure) {
+                record(key(request), status, nanos, -1, -1);
+            }
+
+            @Override
+            public void onExchange(ApiRequest request, int status, long nanos, long requestBytes, long responseBytes,
+                                   Throwable failure) {
+                record(key(request), failure == null ? status : -1, nanos, requestBytes, responseBytes);
+            }
+
+            @Override
+            public boolean measuresSizes() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Record one request.
+     *
+     * @param status        response status, or -1 when the request failed
+     * @param requestBytes  request body size, or -1 when unknown
+     * @param responseBytes response body size, or -1 when unknown
+     */
+    public void record(String key, int status, long nanos, long requestBytes, long responseBytes) {
+        endpoints.computeIfAbsent(key, k -> new Endpoint()).add(status, nanos, requestBytes, responseBytes);
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * {@code METHOD /templated/path}, without the query string. The one key of an endpoint: metrics, load reports
+     * and hedge delays are all kept under it.
+     */
+    public static String key(ApiRequest request) {
+        return request.method() + " " + template(request.path());
+    }
+
+    /** A key written by hand, e.g. {@code GET /users/42}, in {@link #key(ApiRequest)} form; others unchanged. */
+    public static String normalize(String key) {
+        int space = key.indexOf(' ');
+        return space < 0 ? key : key.substring(0, space) + " " + template(key.substring(space + 1).trim());
+    }
+
+    /**
+     * The path with its query string removed and every segment that looks like an ID (a number, a UUID, a long
+     * hex string or a long token mixing letters and digits) replaced by {@code {id}}. The scheme and host of an
+     * absolute URL are kept.
+     */
+    public static String template(String path) {
+        int q = path.indexOf('?');
+        if (q >= 0) path = path.substring(0, q);
+        int start = 0;
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            int slash = path.indexOf('/', path.indexOf("//") + 2);
+            if (slash < 0) return path;
+            start = slash;
+        }
+        String[] segments = path.substring(start).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (isId(segments[i])) segments[i] = "{id}";
+        }
+        return path.substring(0, start) + String.join("/", segments);
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && (NUMBER.matcher(segment).matches() || UUID.matcher(segment).matches()
+                || HEX.matcher(segment).matches() || TOKEN.matcher(segment).matches());
+    }
+
+    /** Snapshot of every endpoint ordered by key. */
+    public List<Summary> summaries() {
+        List<Summary> out = new ArrayList<>();
+        endpoints.forEach((key, e) -> out.add(e.summary(key)));
+        out.sort(Comparator.comparing(Summary::key));
+        return out;
+    }
+
+    /** Markdown table of {@link #summaries()}. */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Endpoint | Count | 2xx | 3xx | 4xx | 5xx | Failed | p50 ms | p95 ms | p99 ms | Max ms "
+                + "| Req bytes avg | Resp bytes avg | Resp bytes max |\n");
+        sb.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (Summary s : summaries()) {
+            sb.append("| `").append(s.key()).append("` | ")
+                    .append(s.count()).append(" | ")
+                    .append(s.status2xx()).append(" | ")
+                    .append(s.status3xx()).append(" | ")
+                    .append(s.status4xx()).append(" | ")
+                    .append(s.status5xx()).append(" | ")
+                    .append(s.failed()).append(" | ")
+                    .append(fmt(s.p50())).append(" | ")
+                    .append(fmt(s.p95())).append(" | ")
+                    .append(fmt(s.p99())).append(" | ")
+                    .append(fmt(s.maxMillis())).append(" | ")
+                    .append(Math.round(s.meanRequestBytes())).append(" | ")
+                    .append(Math.round(s.meanResponseBytes())).append(" | ")
+                    .append(s.maxResponseBytes()).append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    /** {@code {"endpoints": [...]}} with one object per {@link Summary}, pretty-printed. */
+    public String toJson() {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("endpoints", summaries());
+        try {
+            return JSON.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize endpoint metrics", e);
+        }
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /**
+     * Counters of one endpoint; latencies in milliseconds, sizes in bytes over the requests whose size was known.
+     *
+     * @param failed requests that failed without a response
+     */
+    public record Summary(String key, long count, long status2xx, long status3xx, long status4xx, long status5xx,
+                          long failed, double meanMillis, double p50, double p90, double p95, double p99,
+                          double maxMillis, long requestBytes, long responseBytes, long maxRequestBytes,
+                          long maxResponseBytes, long sizedRequests, long sizedResponses) {
+        public double meanRequestBytes() {
+            return sizedRequests == 0 ? 0 : (double) requestBytes / sizedRequests;
+        }
+
+        public double meanResponseBytes() {
+            return sizedResponses == 0 ? 0 : (double) responseBytes / sizedResponses;
+        }
+    }
+
+    private static final class Endpoint {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        // 1xx and other oddities are only counted in the total
+        private final LongAdder[] statusClasses = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder sizedRequests = new LongAdder();
+        private final LongAdder sizedResponses = new LongAdder();
+        private final LongAccumulator maxRequestBytes = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxResponseBytes = new LongAccumulator(Math::max, 0);
+
+        void add(int status, long nanos, long requestSize, long responseSize) {
+            latency.recordNanos(nanos);
+            if (status < 0) {
+                failed.increment();
+            } else if (status >= 200 && status < 600) {
+                statusClasses[status / 100 - 2].increment();
+            }
+            if (requestSize >= 0) {
+                requestBytes.add(requestSize);
+                sizedRequests.increment();
+                maxRequestBytes.accumulate(requestSize);
+            }
+            if (responseSize >= 0) {
+                responseBytes.add(responseSize);
+                sizedResponses.increment();
+                maxResponseBytes.accumulate(responseSize);
+            }
+        }
+
+        Summary summary(String key) {
+            return new Summary(key, latency.count(), statusClasses[0].sum(), statusClasses[1].sum(),
+                    statusClasses[2].sum(), statusClasses[3].sum(), failed.sum(), latency.meanMillis(),
+                    latency.percentileMillis(50), latency.percentileMillis(90), latency.percentileMillis(95),
+                    latency.percentileMillis(99), latency.maxMillis(), requestBytes.sum(), responseBytes.sum(),
+                    maxRequestBytes.get(), maxResponseBytes.get(), sizedRequests.sum(), sizedResponses.sum());
+        }
+    }
+}
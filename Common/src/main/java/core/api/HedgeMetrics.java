@@ -0,0 +1,126 @@
+package core.api;
+
+import core.load.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint state shared by {@link HedgingApiClient}s: the latency distribution the hedge delay is derived
+ * from, the hedge budget, and counters of how often hedging fired and what it saved. One instance is normally
+ * shared by every client of a run, so endpoints learn their latency across scenarios.
+ * <p>
+ * Every primary attempt feeds the latency distribution: with its response time when it answers first or
+ * finishes after a winning hedge, and with the time until the hedge answered when it was aborted or failed, a
+ * lower bound that keeps slow requests from dropping out of the percentile. Saved latency is the time between a
+ * winning hedge and its losing primary finishing anyway, which it does on blocking clients that cannot abort a
+ * request in flight. A primary that was actually aborted counts as zero, so the figure is a lower bound.
+ */
+public final class HedgeMetrics {
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /** Snapshot of every endpoint ordered by key. */
+    public List<Summary> summaries() {
+        List<Summary> out = new ArrayList<>();
+        endpoints.forEach((key, e) -> out.add(e.summary(key)));
+        out.sort(Comparator.comparing(Summary::key));
+        return out;
+    }
+
+    /** Markdown table of {@link #summaries()}. */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Request | Count | Hedged | Hedge wins | Saved ms | p95 ms |\n");
+        sb.append("|---|---:|---:|---:|---:|---:|\n");
+        for (Summary s : summaries()) {
+            sb.append("| `").append(s.key()).append("` | ")
+                    .append(s.requests()).append(" | ")
+                    .append(s.hedged()).append(" | ")
+                    .append(s.hedgeWins()).append(" | ")
+                    .append(String.format(Locale.ROOT, "%.2f", s.savedMillis())).append(" | ")
+                    .append(String.format(Locale.ROOT, "%.2f", s.p95())).append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    Endpoint endpoint(String key) {
+        return endpoints.computeIfAbsent(key, k -> new Endpoint());
+    }
+
+    /**
+     * Hedging counters of one endpoint.
+     *
+     * @param requests    idempotent requests sent
+     * @param hedged      requests for which a duplicate was sent
+     * @param hedgeWins   hedged requests answered by the duplicate
+     * @param savedMillis latency saved by winning duplicates, in total (a lower bound)
+     * @param p95         p95 of the latencies the hedge delay is derived from, in milliseconds
+     */
+    public record Summary(String key, long requests, long hedged, long hedgeWins, double savedMillis, double p95) {
+        /** Share of requests that were hedged. */
+        public double hedgeRate() {
+            return requests == 0 ? 0 : (double) hedged / requests;
+        }
+    }
+
+    static final class Endpoint {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder requests = new LongAdder();
+        private final AtomicLong hedged = new AtomicLong();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final LongAdder savedMicros = new LongAdder();
+
+        void countRequest() {
+            requests.increment();
+        }
+
+        /** Delay after which a request to this endpoint is hedged. */
+        long delayNanos(HedgePolicy policy, String key) {
+            Duration fixed = policy.endpointDelays().get(key);
+            if (fixed != null) return fixed.toNanos();
+            if (latency.count() < policy.minSamples()) return policy.initialDelay().toNanos();
+            long percentile = (long) (latency.percentileMillis(policy.percentile()) * 1_000_000);
+            return Math.max(policy.minDelay().toNanos(), percentile);
+        }
+
+        /** Take one hedge from the budget; false when the endpoint already hedged its share of requests. */
+        boolean tryHedge(HedgePolicy policy) {
+            // Always allow one hedge so a slow first request can be rescued
+            long allowed = Math.max(1, (long) (policy.budget() * requests.sum()));
+            long current;
+            do {
+                current = hedged.get();
+                if (current >= allowed || policy.budget() == 0) return false;
+            } while (!hedged.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void primaryAnswered(long nanos) {
+            latency.recordNanos(nanos);
+        }
+
+        void hedgeWon() {
+            hedgeWins.increment();
+        }
+
+        void saved(long nanos) {
+            savedMicros.add(Math.max(0, nanos / 1000));
+        }
+
+        Summary summary(String key) {
+            return new Summary(key, requests.sum(), hedged.get(), hedgeWins.sum(), savedMicros.sum() / 1000.0,
+                    latency.percentileMillis(95));
+        }
+    }
+}
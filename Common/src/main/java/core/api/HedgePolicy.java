@@ -0,0 +1,131 @@
+package core.api;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * When a {@link HedgingApiClient} sends a duplicate of a slow idempotent request.
+ * <p>
+ * The hedge delay of an endpoint is the {@code percentile} of its observed latencies, but never below
+ * {@code minDelay}; until {@code minSamples} responses have been seen, {@code initialDelay} is used instead.
+ * An entry in {@code endpointDelays} (keyed like {@code "GET /users/{id}"}, see {@link EndpointMetrics#key}) fixes
+ * the delay of that endpoint.
+ * Each endpoint may hedge at most {@code budget} of its requests (0.1 = 10%), so a slow server is not
+ * flooded with duplicates.
+ * <p>
+ * Only the read-only methods GET, HEAD and OPTIONS are hedged by default. PUT and DELETE are idempotent too, but
+ * a duplicate still reaches the server and may race with a later write, so they are opt-in via {@code methods}.
+ *
+ * @param percentile     latency percentile (0-100] after which a hedge is sent
+ * @param initialDelay   delay used while an endpoint has too few samples
+ * @param minDelay       lower bound of the computed delay
+ * @param minSamples     responses needed before the percentile is trusted
+ * @param budget         largest share of an endpoint's requests that may be hedged
+ * @param endpointDelays fixed delays by {@code METHOD /path}
+ * @param methods        idempotent methods that are hedged
+ */
+public record HedgePolicy(double percentile, Duration initialDelay, Duration minDelay, int minSamples, double budget,
+                          Map<String, Duration> endpointDelays, Set<String> methods) {
+    private static final Set<String> READ_ONLY = Set.of("GET", "HEAD", "OPTIONS");
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+    public HedgePolicy {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]: " + percentile);
+        }
+        if (initialDelay == null || initialDelay.isNegative()) {
+            throw new IllegalArgumentException("initialDelay must be zero or positive");
+        }
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("minDelay must be zero or positive");
+        }
+        if (minSamples < 1) throw new IllegalArgumentException("minSamples must be at least 1");
+        if (budget < 0 || budget > 1) throw new IllegalArgumentException("budget must be between 0 and 1: " + budget);
+        Map<String, Duration> delays = new LinkedHashMap<>();
+        if (endpointDelays != null) endpointDelays.forEach((k, v) -> delays.put(EndpointMetrics.normalize(k), v));
+        endpointDelays = Collections.unmodifiableMap(delays);
+        if (methods == null) throw new IllegalArgumentException("methods cannot be null");
+        methods = methods.stream().map(m -> m.trim().toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        for (String method : methods) {
+            if (!IDEMPOTENT.contains(method)) throw new IllegalArgumentException("method is not idempotent: " + method);
+        }
+    }
+
+    /**
+     * p95 delay, 1 s until 20 responses were seen, at least 20 ms, at most 10% of requests hedged, GET, HEAD and
+     * OPTIONS only.
+     */
+    public static HedgePolicy defaults() {
+        return new HedgePolicy(95, Duration.ofSeconds(1), Duration.ofMillis(20), 20, 0.1, null, READ_ONLY);
+    }
+
+    /**
+     * Policy from {@code api.hedge.percentile}, {@code api.hedge.initialDelayMs}, {@code api.hedge.minDelayMs},
+     * {@code api.hedge.minSamples}, {@code api.hedge.budget} and {@code api.hedge.methods} (comma-separated, e.g.
+     * {@code GET,PUT}), each falling back to {@link #defaults()}.
+     */
+    public static HedgePolicy fromSystemProperties() {
+        HedgePolicy d = defaults();
+        return new HedgePolicy(
+                Double.parseDouble(System.getProperty("api.hedge.percentile", String.valueOf(d.percentile))),
+                Duration.ofMillis(Long.getLong("api.hedge.initialDelayMs", d.initialDelay.toMillis())),
+                Duration.ofMillis(Long.getLong("api.hedge.minDelayMs", d.minDelay.toMillis())),
+                Integer.getInteger("api.hedge.minSamples", d.minSamples),
+                Double.parseDouble(System.getProperty("api.hedge.budget", String.valueOf(d.budget))),
+                null,
+                methods(System.getProperty("api.hedge.methods", String.join(",", d.methods))));
+    }
+
+    private static Set<String> methods(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).filter(m -> !m.isEmpty()).collect(Collectors.toSet());
+    }
+
+    /** True when requests with {@code method} are hedged. */
+    public boolean hedges(String method) {
+        return methods.contains(method);
+    }
+
+    public HedgePolicy withPercentile(double percentile) {
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, endpointDelays, methods);
+    }
+
+    public HedgePolicy withInitialDelay(Duration initialDelay) {
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, endpointDelays, methods);
+    }
+
+    public HedgePolicy withMinDelay(Duration minDelay) {
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, endpointDelays, methods);
+    }
+
+    public HedgePolicy withMinSamples(int minSamples) {
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, endpointDelays, methods);
+    }
+
+    public HedgePolicy withBudget(double budget) {
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, endpointDelays, methods);
+    }
+
+    /** Copy hedging {@code methods} only, e.g. {@code withMethods("GET", "PUT")} to opt PUT in. */
+    public HedgePolicy withMethods(String... methods) {
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, endpointDelays,
+                Set.of(methods));
+    }
+
+    /** Copy with a fixed hedge delay for one endpoint, e.g. {@code withEndpointDelay("GET /search", ofMillis(300))}. */
+    public HedgePolicy withEndpointDelay(String endpoint, Duration delay) {
+        if (endpoint == null) throw new IllegalArgumentException("endpoint cannot be null");
+        Map<String, Duration> copy = new LinkedHashMap<>(endpointDelays);
+        if (delay == null) {
+            copy.remove(EndpointMetrics.normalize(endpoint));
+        } else {
+            copy.put(endpoint, delay);
+        }
+        return new HedgePolicy(percentile, initialDelay, minDelay, minSamples, budget, copy, methods);
+    }
+}
@@ -0,0 +1,200 @@
+package core.api;
+
+import core.api.impl.JsonBodies;
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator that cuts tail latency by hedging: when an idempotent request (GET, HEAD and OPTIONS unless the
+ * {@link HedgePolicy} opts PUT or DELETE in) has no response after the delay chosen by the policy, an identical
+ * request is sent and whichever answers first wins. The other attempt is cancelled: an asynchronous client aborts
+ * the exchange, while a blocking one cannot be interrupted safely mid-read, so its late response is discarded.
+ * <p>
+ * A failed attempt only fails the call when the other attempt fails as well. Other methods, requests with an
+ * {@link java.io.InputStream} body and streamed responses pass straight through. Delays, budgets and counters
+ * live in a {@link HedgeMetrics} that is usually shared run-wide.
+ */
+public final class HedgingApiClient extends AbstractApiClient implements AsyncApiClient {
+    // Blocking delegates need a thread per attempt so the caller can stop waiting for a stalled one
+    private static final ExecutorService BLOCKING_ATTEMPTS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "api-hedge");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ApiClient delegate;
+    private final HedgePolicy policy;
+    private final HedgeMetrics metrics;
+
+    public HedgingApiClient(ApiClient delegate, HedgePolicy policy, HedgeMetrics metrics) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (policy == null) throw new IllegalArgumentException("policy cannot be null");
+        if (metrics == null) throw new IllegalArgumentException("metrics cannot be null");
+        this.delegate = delegate;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    public HedgeMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        delegate.setBaseUri(baseUri);
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        if (!hedgeable(request)) return delegate.send(request);
+        try {
+            return sendAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        if (!hedgeable(request)) {
+            if (delegate instanceof AsyncApiClient async) return async.sendAsync(request);
+            return CompletableFuture.supplyAsync(() -> delegate.send(request), BLOCKING_ATTEMPTS);
+        }
+        String key = EndpointMetrics.key(request);
+        HedgeMetrics.Endpoint endpoint = metrics.endpoint(key);
+        endpoint.countRequest();
+        Race race = new Race(request, endpoint);
+        race.begin(endpoint.delayNanos(policy, key));
+        return race.result;
+    }
+
+    /** Streams are never hedged. */
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        return delegate.stream(request);
+    }
+
+    /** Idempotent, hedged by the policy, and with a body that can be sent twice. */
+    private boolean hedgeable(ApiRequest request) {
+        return request.isIdempotent() && policy.hedges(request.method()) && !JsonBodies.isStreaming(request.body());
+    }
+
+    /** The primary attempt and, once the delay expires, its hedge. */
+    private final class Race {
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        private final ApiRequest request;
+        private final HedgeMetrics.Endpoint endpoint;
+        private final long start = System.nanoTime();
+        private Attempt primary;
+        private Attempt hedge;
+        private Attempt winner;
+        private long decidedAt;
+        private int running;
+
+        Race(ApiRequest request, HedgeMetrics.Endpoint endpoint) {
+            this.request = request;
+            this.endpoint = endpoint;
+        }
+
+        void begin(long delayNanos) {
+            synchronized (this) {
+                primary = launch(false);
+            }
+            if (!result.isDone()) {
+                CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(this::hedge);
+            }
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (result.isDone() || !endpoint.tryHedge(policy)) return;
+                hedge = launch(true);
+            }
+        }
+
+        private Attempt launch(boolean isHedge) {
+            Attempt attempt = new Attempt(isHedge);
+            running++;
+            if (delegate instanceof AsyncApiClient async) {
+                CompletableFuture<Response> sent;
+                try {
+                    sent = async.sendAsync(request);
+                } catch (RuntimeException e) {
+                    sent = CompletableFuture.failedFuture(e);
+                }
+                attempt.cancel = sent;
+                sent.whenComplete((response, error) -> finished(attempt, response, error));
+            } else {
+                attempt.cancel = BLOCKING_ATTEMPTS.submit(() -> {
+                    Response response;
+                    try {
+                        response = delegate.send(request);
+                    } catch (Exception | Error e) {
+                        finished(attempt, null, e);
+                        return;
+                    }
+                    finished(attempt, response, null);
+                });
+            }
+            return attempt;
+        }
+
+        private void finished(Attempt attempt, Response response, Throwable error) {
+            long now = System.nanoTime();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            Attempt other;
+            synchronized (this) {
+                running--;
+                if (winner != null) {
+                    if (attempt == primary && winner.isHedge && !winner.failed) {
+                        // A primary that finished anyway shows how long the caller would have waited; an aborted
+                        // or failed one took at least until the hedge answered, so the slow tail is still learned
+                        endpoint.primaryAnswered((cause == null ? now : decidedAt) - start);
+                        if (cause == null) endpoint.saved(now - decidedAt);
+                    }
+                    return;
+                }
+                if (cause != null && running > 0) return;
+                winner = attempt;
+                winner.failed = cause != null;
+                decidedAt = now;
+                other = attempt == primary ? hedge : primary;
+            }
+            if (cause != null) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (attempt.isHedge) {
+                endpoint.hedgeWon();
+            } else {
+                endpoint.primaryAnswered(now - start);
+            }
+            if (other != null) other.cancel.cancel(false);
+            result.complete(response);
+        }
+    }
+
+    private static final class Attempt {
+        final boolean isHedge;
+        Future<?> cancel;
+        boolean failed;
+
+        Attempt(boolean isHedge) {
+            this.isHedge = isHedge;
+        }
+    }
+}
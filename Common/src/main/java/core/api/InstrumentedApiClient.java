@@ -0,0 +1,123 @@
+package core.api;
+
+import core.api.impl.JsonBodies;
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Decorator that times every request of another client and reports it to a {@link RequestListener}, with request
+ * and response sizes when the listener {@linkplain RequestListener#measuresSizes() asks for them}. Asynchronous
+ * calls stay asynchronous when the wrapped client supports them.
+ */
+public final class InstrumentedApiClient extends AbstractApiClient implements AsyncApiClient {
+    private final ApiClient delegate;
+    private final RequestListener listener;
+    private final boolean measuresSizes;
+
+    public InstrumentedApiClient(ApiClient delegate, RequestListener listener) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (listener == null) throw new IllegalArgumentException("listener cannot be null");
+        this.delegate = delegate;
+        this.listener = listener;
+        this.measuresSizes = listener.measuresSizes();
+    }
+
+    /** The wrapped client. */
+    public ApiClient delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        delegate.setBaseUri(baseUri);
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        ApiRequest sent = serialized(request);
+        long start = System.nanoTime();
+        try {
+            Response response = delegate.send(sent);
+            report(request, sent, response, System.nanoTime() - start, null);
+            return response;
+        } catch (RuntimeException | Error e) {
+            report(request, sent, null, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        if (!(delegate instanceof AsyncApiClient async)) {
+            return BlockingCalls.supplyAsync(() -> send(request));
+        }
+        ApiRequest sent = serialized(request);
+        long start = System.nanoTime();
+        return async.sendAsync(sent).whenComplete((response, failure) -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            report(request, sent, response, System.nanoTime() - start, cause);
+        });
+    }
+
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        ApiRequest sent = serialized(request);
+        long start = System.nanoTime();
+        try {
+            StreamingResponse response = delegate.stream(sent);
+            long nanos = System.nanoTime() - start;
+            if (measuresSizes) {
+                listener.onExchange(request, response.statusCode(), nanos, JsonBodies.size(sent.body()),
+                        contentLength(response.header("Content-Length")), null);
+            } else {
+                listener.onRequest(request, response.statusCode(), nanos, null);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            report(request, sent, null, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * The request with an object body serialized into a {@link JsonBody} when sizes are measured, so the bytes the
+     * client sends are the bytes measured and the body is serialized only once.
+     */
+    private ApiRequest serialized(ApiRequest request) {
+        if (!measuresSizes || !JsonBodies.isObject(request.body())) return request;
+        return request.withBody(JsonBody.of(request.body()));
+    }
+
+    private void report(ApiRequest request, ApiRequest sent, Response response, long nanos, Throwable failure) {
+        int status = response == null ? -1 : response.statusCode();
+        if (!measuresSizes) {
+            listener.onRequest(request, status, nanos, failure);
+            return;
+        }
+        long requestBytes = JsonBodies.size(sent.body());
+        long responseBytes = -1;
+        if (response != null) {
+            // Content-Length is the size on the wire; without it, the buffered body is measured instead
+            responseBytes = contentLength(response.header("Content-Length"));
+            if (responseBytes < 0) responseBytes = response.asByteArray().length;
+        }
+        listener.onExchange(request, status, nanos, requestBytes, responseBytes, failure);
+    }
+
+    private static long contentLength(String header) {
+        if (header == null) return -1;
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package core.api;
+
+import core.api.impl.JsonBodies;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A request body serialized to JSON once and sent as-is by every client, e.g. a large fixture DTO posted many
+ * times in a load run. The serialized bytes are shared and must not be modified.
+ * <p>
+ * {@link #cached(Object)} remembers the serialized form per object instance, so it must only be used for bodies
+ * that are never mutated. Objects are held weakly: an entry goes away with its object, so dynamically generated
+ * bodies do not pile up and fixtures stay cached for as long as they are in use.
+ */
+public final class JsonBody {
+    // Keys are WeakKeys; Lookups only probe, so a hit allocates no reference
+    private static final Map<Object, JsonBody> CACHE = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+
+    private final byte[] bytes;
+
+    private JsonBody(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /** Serialize {@code value} now; Strings and byte arrays are taken as already serialized JSON. */
+    public static JsonBody of(Object value) {
+        if (value == null) throw new IllegalArgumentException("value cannot be null");
+        if (value instanceof JsonBody body) return body;
+        return new JsonBody(JsonBodies.encode(value));
+    }
+
+    /** The serialized form of an immutable {@code value}, serialized on first use only. */
+    public static JsonBody cached(Object value) {
+        if (value == null) throw new IllegalArgumentException("value cannot be null");
+        if (value instanceof JsonBody body) return body;
+        JsonBody existing = CACHE.get(new Lookup(value));
+        if (existing != null) return existing;
+        expunge();
+        JsonBody created = of(value);
+        JsonBody raced = CACHE.putIfAbsent(new WeakKey(value), created);
+        return raced != null ? raced : created;
+    }
+
+    /** Drop the entries of collected objects. */
+    private static void expunge() {
+        for (Reference<?> ref; (ref = COLLECTED.poll()) != null; ) CACHE.remove(ref);
+    }
+
+    /** Serialized JSON, shared rather than copied. */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Object of a cache key; keys compare by reference, since a cached body belongs to one object instance. */
+    private interface Key {
+        Object value();
+    }
+
+    private static boolean sameValue(Key key, Object o) {
+        if (key == o) return true;
+        Object value = key.value();
+        return value != null && o instanceof Key other && other.value() == value;
+    }
+
+    private static final class WeakKey extends WeakReference<Object> implements Key {
+        private final int hash;
+
+        WeakKey(Object value) {
+            super(value, COLLECTED);
+            this.hash = System.identityHashCode(value);
+        }
+
+        @Override
+        public Object value() {
+            return get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return sameValue(this, o);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private record Lookup(Object value) implements Key {
+        @Override
+        public boolean equals(Object o) {
+            return sameValue(this, o);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package core.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+
+/**
+ * A response body parsed once into a Jackson tree, so any number of path assertions share a single parse.
+ * Paths are evaluated with {@link CompiledJsonPath}.
+ */
+public final class JsonDocument {
+    private static final ObjectReader READER = new ObjectMapper().readerFor(JsonNode.class);
+
+    private final JsonNode root;
+
+    private JsonDocument(JsonNode root) {
+        this.root = root;
+    }
+
+    public static JsonDocument parse(byte[] json) {
+        if (json == null || json.length == 0) throw new IllegalArgumentException("JSON body is empty");
+        try {
+            return new JsonDocument(READER.readValue(json));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Response body is not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    public static JsonDocument of(Response response) {
+        return parse(response.asByteArray());
+    }
+
+    public JsonNode root() {
+        return root;
+    }
+
+    /** The node at {@code path}, or a missing node. */
+    public JsonNode get(String path) {
+        return CompiledJsonPath.compile(path).evaluate(root);
+    }
+
+    /** The value at {@code path} as a string, or null; see {@link CompiledJsonPath#getString}. */
+    public String getString(String path) {
+        return CompiledJsonPath.compile(path).getString(root);
+    }
+}
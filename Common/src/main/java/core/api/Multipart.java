@@ -0,0 +1,81 @@
+package core.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A {@code multipart/form-data} request body. File parts are streamed from disk when the request is sent, so a
+ * multipart body can be sent any number of times and never holds file contents in memory.
+ * <pre>{@code
+ * api.post("/artifacts", Multipart.file("file", Path.of("build/app.zip")).withField("version", "1.2.3"));
+ * }</pre>
+ */
+public final class Multipart {
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    /**
+     * One part of the body.
+     *
+     * @param name        form field name
+     * @param fileName    file name sent for file parts, or null for plain fields
+     * @param contentType content type of the part, or null for plain fields
+     * @param content     a {@link Path} for file parts, a String for plain fields
+     */
+    public record Part(String name, String fileName, String contentType, Object content) {
+        public boolean isFile() {
+            return content instanceof Path;
+        }
+    }
+
+    private final List<Part> parts;
+    private final String boundary;
+
+    private Multipart(List<Part> parts) {
+        this.parts = Collections.unmodifiableList(parts);
+        this.boundary = "----core-" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static Multipart empty() {
+        return new Multipart(List.of());
+    }
+
+    /** A body with a single file part sent as {@code application/octet-stream}. */
+    public static Multipart file(String name, Path file) {
+        return empty().withFile(name, file, OCTET_STREAM);
+    }
+
+    public Multipart withFile(String name, Path file, String contentType) {
+        if (name == null) throw new IllegalArgumentException("name cannot be null");
+        if (file == null || !Files.isRegularFile(file)) throw new IllegalArgumentException("Not a file: " + file);
+        return with(new Part(name, file.getFileName().toString(), contentType == null ? OCTET_STREAM : contentType,
+                file));
+    }
+
+    public Multipart withField(String name, String value) {
+        if (name == null) throw new IllegalArgumentException("name cannot be null");
+        return with(new Part(name, null, null, value == null ? "" : value));
+    }
+
+    public List<Part> parts() {
+        return parts;
+    }
+
+    /** Boundary separating the parts on the wire; fixed per instance. */
+    public String boundary() {
+        return boundary;
+    }
+
+    public String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    private Multipart with(Part part) {
+        List<Part> copy = new ArrayList<>(parts);
+        copy.add(part);
+        return new Multipart(copy);
+    }
+}
@@ -0,0 +1,160 @@
+package core.api;
+
+import core.api.impl.JsonBodies;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorator that paces requests through a shared {@link RateLimiter} and backs off when the server says so.
+ * <p>
+ * Every attempt first waits for a token of its bucket. A 429 response, or a 503 carrying {@code Retry-After},
+ * pauses the bucket for the advertised time (1 s when absent, at most 60 s) and the request is sent again, up to
+ * {@code maxRetries} times. A 429 means the request was not processed, so any method is retried; a 503 only for
+ * idempotent methods. Requests with an {@link java.io.InputStream} body cannot be resent. The last response is
+ * returned as is once retries run out.
+ */
+public final class RateLimitedApiClient extends AbstractApiClient implements AsyncApiClient {
+    private static final Duration DEFAULT_PAUSE = Duration.ofSeconds(1);
+    private static final Duration MAX_PAUSE = Duration.ofSeconds(60);
+
+    private final ApiClient delegate;
+    private final RateLimiter limiter;
+    private final int maxRetries;
+    private volatile String baseUri = "";
+
+    public RateLimitedApiClient(ApiClient delegate, RateLimiter limiter) {
+        this(delegate, limiter, Integer.getInteger("api.rateLimit.maxRetries", 3));
+    }
+
+    public RateLimitedApiClient(ApiClient delegate, RateLimiter limiter, int maxRetries) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (limiter == null) throw new IllegalArgumentException("limiter cannot be null");
+        if (maxRetries < 0) throw new IllegalArgumentException("maxRetries cannot be negative");
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.maxRetries = maxRetries;
+    }
+
+    public RateLimiter limiter() {
+        return limiter;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        delegate.setBaseUri(baseUri);
+        this.baseUri = baseUri == null ? "" : baseUri;
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        RateLimiter.Bucket bucket = limiter.bucket(uri(request));
+        for (int attempt = 0; ; attempt++) {
+            sleep(bucket.reserve());
+            Response response = delegate.send(request);
+            if (!settle(bucket, request, response, attempt)) return response;
+        }
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        return sendAsync(request, limiter.bucket(uri(request)), 0);
+    }
+
+    /** Streams wait for a token but are not retried, since their body belongs to the caller. */
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        RateLimiter.Bucket bucket = limiter.bucket(uri(request));
+        sleep(bucket.reserve());
+        StreamingResponse response = delegate.stream(request);
+        if (isPushBack(response.statusCode(), response.header("Retry-After"))) {
+            bucket.rateLimited(pause(response.header("Retry-After")));
+        } else {
+            bucket.succeeded();
+        }
+        return response;
+    }
+
+    private CompletableFuture<Response> sendAsync(ApiRequest request, RateLimiter.Bucket bucket, int attempt) {
+        long wait = bucket.reserve();
+        CompletableFuture<Response> sent = wait == 0 ? sendThrough(request)
+                : CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> sendThrough(request));
+        return sent.thenCompose(response -> settle(bucket, request, response, attempt)
+                ? sendAsync(request, bucket, attempt + 1)
+                : CompletableFuture.completedFuture(response));
+    }
+
+    private CompletableFuture<Response> sendThrough(ApiRequest request) {
+        if (delegate instanceof AsyncApiClient async) return async.sendAsync(request);
+        return BlockingCalls.supplyAsync(() -> delegate.send(request));
+    }
+
+    /** Update the bucket from a response; true when the request should be sent again. */
+    private boolean settle(RateLimiter.Bucket bucket, ApiRequest request, Response response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (!isPushBack(response.statusCode(), retryAfter)) {
+            bucket.succeeded();
+            return false;
+        }
+        bucket.rateLimited(pause(retryAfter));
+        boolean retry = attempt < maxRetries && !JsonBodies.isStreaming(request.body())
+                && (response.statusCode() == 429 || request.isIdempotent());
+        if (retry) bucket.retried();
+        return retry;
+    }
+
+    private static boolean isPushBack(int status, String retryAfter) {
+        return status == 429 || (status == 503 && retryAfter != null);
+    }
+
+    /** {@code Retry-After} as delta-seconds or an HTTP date, bounded to [0, 60 s]. */
+    static Duration pause(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) return DEFAULT_PAUSE;
+        Duration pause;
+        try {
+            pause = Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                pause = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            } catch (DateTimeParseException notDate) {
+                return DEFAULT_PAUSE;
+            }
+        }
+        if (pause.isNegative()) return Duration.ZERO;
+        return pause.compareTo(MAX_PAUSE) > 0 ? MAX_PAUSE : pause;
+    }
+
+    private URI uri(ApiRequest request) {
+        String path = request.path();
+        boolean absolute = path.startsWith("http://") || path.startsWith("https://");
+        try {
+            return URI.create(absolute ? path : baseUri + path);
+        } catch (IllegalArgumentException unencoded) {
+            // Unencoded characters in the path: the host alone still picks a bucket
+            return URI.create(absolute ? path.replaceFirst("^(https?://[^/?#]*).*$", "$1") : baseUri);
+        }
+    }
+
+    private static void sleep(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+    }
+}
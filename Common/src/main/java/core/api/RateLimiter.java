@@ -0,0 +1,219 @@
+package core.api;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side token buckets shared by every {@link RateLimitedApiClient} of a run, so parallel scenarios draw
+ * from the same budget.
+ * <p>
+ * Each {@link Rule} limits a host, optionally narrowed to a path prefix; a request uses the most specific
+ * matching rule, and hosts without a rule are unlimited. Whatever the rules, a 429 or 503 pauses the request's
+ * bucket for the server's {@code Retry-After}, and a limited bucket halves its rate, recovering gradually as
+ * requests succeed again. Time spent waiting for tokens or pauses is reported per bucket.
+ */
+public final class RateLimiter {
+    private static final String ANY_HOST = "*";
+
+    /**
+     * A limit of {@code permitsPerSecond} with bursts of up to {@code burst} requests.
+     *
+     * @param host             host name, or {@code *} for every host
+     * @param pathPrefix       path prefix the rule is narrowed to, or "" for the whole host
+     * @param permitsPerSecond sustained request rate
+     * @param burst            requests allowed back to back after an idle period
+     */
+    public record Rule(String host, String pathPrefix, double permitsPerSecond, int burst) {
+        public Rule {
+            if (host == null || host.isBlank()) throw new IllegalArgumentException("host cannot be empty");
+            if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be positive");
+            if (burst < 1) throw new IllegalArgumentException("burst must be at least 1");
+            host = host.toLowerCase(Locale.ROOT);
+            pathPrefix = pathPrefix == null ? "" : pathPrefix;
+        }
+
+        /**
+         * Parse {@code host[/prefix]=rate[:burst]}, e.g. {@code sandbox.partner.com/orders=2:4}; the burst defaults
+         * to the rate rounded up.
+         */
+        public static Rule parse(String spec) {
+            int eq = spec.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected host[/prefix]=rate[:burst]: " + spec);
+            String target = spec.substring(0, eq).trim();
+            String limit = spec.substring(eq + 1).trim();
+            int slash = target.indexOf('/');
+            String host = slash < 0 ? target : target.substring(0, slash);
+            String prefix = slash < 0 ? "" : target.substring(slash);
+            int colon = limit.indexOf(':');
+            try {
+                double rate = Double.parseDouble(colon < 0 ? limit : limit.substring(0, colon));
+                int burst = colon < 0 ? (int) Math.ceil(rate) : Integer.parseInt(limit.substring(colon + 1));
+                return new Rule(host, prefix, rate, Math.max(1, burst));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid rate limit: " + spec, e);
+            }
+        }
+
+        boolean matches(String requestHost, String path) {
+            return (host.equals(ANY_HOST) || host.equals(requestHost)) && path.startsWith(pathPrefix);
+        }
+
+        /** Exact hosts beat the wildcard, then longer prefixes beat shorter ones. */
+        int specificity() {
+            return (host.equals(ANY_HOST) ? 0 : 1 << 16) + pathPrefix.length();
+        }
+    }
+
+    private final List<Rule> rules;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(List<Rule> rules) {
+        List<Rule> sorted = new ArrayList<>(rules == null ? List.of() : rules);
+        sorted.sort(Comparator.comparingInt(Rule::specificity).reversed());
+        this.rules = List.copyOf(sorted);
+    }
+
+    /**
+     * Limiter from {@code api.rateLimit}: rules separated by {@code ;}, e.g.
+     * {@code -Dapi.rateLimit="sandbox.partner.com=10;sandbox.partner.com/orders=2:4"}. An empty value configures
+     * no limits, leaving only the {@code Retry-After} handling.
+     */
+    public static RateLimiter fromSystemProperties() {
+        List<Rule> rules = new ArrayList<>();
+        for (String spec : System.getProperty("api.rateLimit", "").split(";")) {
+            if (!spec.isBlank()) rules.add(Rule.parse(spec.trim()));
+        }
+        return new RateLimiter(rules);
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    /** The bucket a request to {@code uri} draws from. */
+    Bucket bucket(URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        for (Rule rule : rules) {
+            if (rule.matches(host, path)) {
+                String key = (rule.host().equals(ANY_HOST) ? host : rule.host()) + rule.pathPrefix();
+                return buckets.computeIfAbsent(key, k -> new Bucket(k, rule.permitsPerSecond(), rule.burst()));
+            }
+        }
+        return buckets.computeIfAbsent(host, k -> new Bucket(k, Double.POSITIVE_INFINITY, 1));
+    }
+
+    /** Snapshot of every bucket used so far, ordered by key. */
+    public List<Summary> summaries() {
+        List<Summary> out = new ArrayList<>();
+        buckets.values().forEach(b -> out.add(b.summary()));
+        out.sort(Comparator.comparing(Summary::key));
+        return out;
+    }
+
+    /** Markdown table of {@link #summaries()}. */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Bucket | Requests | Throttled ms | 429/503 | Retries | Rate/s |\n");
+        sb.append("|---|---:|---:|---:|---:|---:|\n");
+        for (Summary s : summaries()) {
+            sb.append("| `").append(s.key()).append("` | ")
+                    .append(s.requests()).append(" | ")
+                    .append(String.format(Locale.ROOT, "%.2f", s.throttledMillis())).append(" | ")
+                    .append(s.rateLimited()).append(" | ")
+                    .append(s.retries()).append(" | ")
+                    .append(Double.isInfinite(s.permitsPerSecond())
+                            ? "unlimited" : String.format(Locale.ROOT, "%.2f", s.permitsPerSecond()))
+                    .append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Counters of one bucket.
+     *
+     * @param key              host plus path prefix of the rule
+     * @param requests         requests that drew a token
+     * @param throttledMillis  total time requests waited for tokens or a {@code Retry-After} pause
+     * @param rateLimited      429 and 503 responses received
+     * @param retries          requests sent again after such a response
+     * @param permitsPerSecond current rate, lowered after 429s; infinite when unlimited
+     */
+    public record Summary(String key, long requests, double throttledMillis, long rateLimited, long retries,
+                          double permitsPerSecond) { }
+
+    /** Token bucket with reservations: a caller debits a token at once and waits until it would have existed. */
+    static final class Bucket {
+        private final String key;
+        private final double configuredRate;
+        private final int burst;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder throttledNanos = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private double rate;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long pausedUntil = refilledAt;
+
+        Bucket(String key, double rate, int burst) {
+            this.key = key;
+            this.configuredRate = rate;
+            this.rate = rate;
+            this.burst = burst;
+            this.tokens = burst;
+        }
+
+        /** Take a token; returns how many nanoseconds the caller must wait before sending. */
+        long reserve() {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                wait = Math.max(0, pausedUntil - now);
+                if (!Double.isInfinite(rate)) {
+                    tokens = Math.min(burst, tokens + (now - refilledAt) / 1e9 * rate);
+                    refilledAt = now;
+                    tokens -= 1;
+                    if (tokens < 0) wait = Math.max(wait, (long) (-tokens / rate * 1e9));
+                }
+            }
+            requests.increment();
+            throttledNanos.add(wait);
+            return wait;
+        }
+
+        /** The server pushed back: stop sending for {@code pause} and, when limited, halve the rate. */
+        synchronized void rateLimited(Duration pause) {
+            rateLimited.increment();
+            long now = System.nanoTime();
+            pausedUntil = Math.max(pausedUntil, now + pause.toNanos());
+            if (!Double.isInfinite(rate)) {
+                rate = Math.max(configuredRate / 16, rate / 2);
+                // Queued reservations must also wait out the pause, spaced at the new rate
+                tokens = Math.min(tokens, 0) - pause.toNanos() / 1e9 * rate;
+                refilledAt = now;
+            }
+        }
+
+        /** A request went through: win back a twentieth of the configured rate. */
+        synchronized void succeeded() {
+            if (rate < configuredRate) rate = Math.min(configuredRate, rate + configuredRate / 20);
+        }
+
+        void retried() {
+            retries.increment();
+        }
+
+        synchronized Summary summary() {
+            return new Summary(key, requests.sum(), throttledNanos.sum() / 1e6, rateLimited.sum(), retries.sum(),
+                    rate);
+        }
+    }
+}
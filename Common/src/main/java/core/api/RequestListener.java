@@ -0,0 +1,59 @@
+package core.api;
+
+/**
+ * Observer of requests made through an {@link InstrumentedApiClient}. Called on the thread that completed the
+ * request, possibly concurrently, so implementations must be thread-safe and cheap.
+ */
+@FunctionalInterface
+public interface RequestListener {
+    /**
+     * @param request the request as sent
+     * @param status  response status, or -1 when the request failed
+     * @param nanos   time from sending to the response being available (headers only for streamed requests)
+     * @param failure the exception the request failed with, or null
+     */
+    void onRequest(ApiRequest request, int status, long nanos, Throwable failure);
+
+    /**
+     * Like {@link #onRequest} with payload sizes, called instead of it when {@link #measuresSizes()} is true.
+     *
+     * @param requestBytes  size of the request body, 0 without one, -1 when unknown (streams)
+     * @param responseBytes size of the response body, -1 when unknown (failures, streams without Content-Length)
+     */
+    default void onExchange(ApiRequest request, int status, long nanos, long requestBytes, long responseBytes,
+                            Throwable failure) {
+        onRequest(request, status, nanos, failure);
+    }
+
+    /**
+     * True if this listener needs payload sizes. Object bodies are then serialized by the
+     * {@link InstrumentedApiClient} instead of the client, still once, so their size is known.
+     */
+    default boolean measuresSizes() {
+        return false;
+    }
+
+    /** A listener notifying this one, then {@code other}. */
+    default RequestListener andThen(RequestListener other) {
+        RequestListener first = this;
+        return new RequestListener() {
+            @Override
+            public void onRequest(ApiRequest request, int status, long nanos, Throwable failure) {
+                first.onRequest(request, status, nanos, failure);
+                other.onRequest(request, status, nanos, failure);
+            }
+
+            @Override
+            public void onExchange(ApiRequest request, int status, long nanos, long requestBytes, long responseBytes,
+                                   Throwable failure) {
+                first.onExchange(request, status, nanos, requestBytes, responseBytes, failure);
+                other.onExchange(request, status, nanos, requestBytes, responseBytes, failure);
+            }
+
+            @Override
+            public boolean measuresSizes() {
+                return first.measuresSizes() || other.measuresSizes();
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package core.api;
+
+import io.restassured.response.Response;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU store of GET responses used by {@link CachingApiClient}. Thread-safe, so one cache can be
+ * shared by every client (and scenario) of a run. Bounded both by entry count and by total body bytes; the least
+ * recently used responses are evicted first.
+ */
+public final class ResponseCache {
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, Clock.systemUTC());
+    }
+
+    /** @param clock time source for freshness, replaceable in tests */
+    public ResponseCache(int maxEntries, long maxBytes, Clock clock) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least 1");
+        if (maxBytes < 1) throw new IllegalArgumentException("maxBytes must be at least 1");
+        if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+    }
+
+    /**
+     * Cache from system properties: {@code api.cache.maxEntries} (default 1000) and {@code api.cache.maxBytes}
+     * (default 64 MB).
+     */
+    public static ResponseCache fromSystemProperties() {
+        return new ResponseCache(Integer.getInteger("api.cache.maxEntries", 1000),
+                Long.getLong("api.cache.maxBytes", 64L * 1024 * 1024));
+    }
+
+    public ResponseCacheStats stats() {
+        synchronized (entries) {
+            return new ResponseCacheStats(hits.sum(), misses.sum(), revalidations.sum(), notModified.sum(),
+                    evictions.sum(), entries.size(), bytes);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    long now() {
+        return clock.millis();
+    }
+
+    Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    void put(String key, Entry entry) {
+        if (entry.size > maxBytes) return;
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) bytes -= previous.size;
+            bytes += entry.size;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                bytes -= evicted.size;
+                evictions.increment();
+            }
+        }
+    }
+
+    /** Drop every response whose key starts with {@code uri}, e.g. after a POST to that resource. */
+    void invalidate(String uri) {
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> e = it.next();
+                if (e.getKey().startsWith(uri)) {
+                    bytes -= e.getValue().size;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    void recordHit() { hits.increment(); }
+    void recordMiss() { misses.increment(); }
+    void recordRevalidation() { revalidations.increment(); }
+    void recordNotModified() { notModified.increment(); }
+
+    /** One cached response plus what is needed to judge and revalidate it. */
+    static final class Entry {
+        final Response response;
+        final byte[] body;
+        final long size;
+        final String etag;
+        final String lastModified;
+        final boolean alwaysRevalidate;
+        volatile long freshUntil;
+
+        Entry(Response response, byte[] body, String etag, String lastModified, boolean alwaysRevalidate,
+              long freshUntil) {
+            this.response = response;
+            this.body = body;
+            this.size = body.length;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.alwaysRevalidate = alwaysRevalidate;
+            this.freshUntil = freshUntil;
+        }
+
+        boolean isFresh(long now) {
+            return !alwaysRevalidate && now < freshUntil;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package core.api;
+
+/**
+ * Counters of a {@link ResponseCache}.
+ *
+ * @param hits          GETs answered from a fresh cached response
+ * @param misses        GETs sent to the server without a usable cached response
+ * @param revalidations conditional GETs sent for stale responses
+ * @param notModified   revalidations the server answered with 304, so the cached body was reused
+ * @param evictions     responses dropped to stay within the size bounds
+ * @param entries       responses currently cached
+ * @param bytes         body bytes currently cached
+ */
+public record ResponseCacheStats(long hits, long misses, long revalidations, long notModified, long evictions,
+                                 int entries, long bytes) {
+    /** Share of GETs served without transferring a body: fresh hits plus 304 revalidations. */
+    public double hitRatio() {
+        long total = hits + misses + revalidations;
+        return total == 0 ? 0 : (double) (hits + notModified) / total;
+    }
+}
@@ -0,0 +1,183 @@
+package core.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An HTTP response whose body has not been read yet, for payloads too large to buffer.
+ * <p>
+ * Status and headers are available immediately; the body can be consumed once, either as a raw
+ * {@link #body() InputStream} or as a sequence of JSON {@link #records() records}. Records are parsed one at a
+ * time, so memory stays flat regardless of payload size. Both NDJSON (one value per line) and a top-level JSON
+ * array are accepted. Always {@link #close()} the response: it releases the underlying connection.
+ */
+public final class StreamingResponse implements AutoCloseable {
+    private static final ObjectReader RECORDS = new ObjectMapper().readerFor(JsonNode.class);
+    private static final int DOWNLOAD_BUFFER = 64 * 1024;
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+    private boolean consumed;
+
+    /**
+     * @param headers response headers; names are matched case-insensitively
+     * @param body    unread response body, closed by {@link #close()}
+     */
+    public StreamingResponse(int statusCode, Map<String, List<String>> headers, InputStream body) {
+        if (body == null) throw new IllegalArgumentException("body cannot be null");
+        this.statusCode = statusCode;
+        Map<String, List<String>> lower = new LinkedHashMap<>();
+        if (headers != null) {
+            headers.forEach((name, values) -> lower.computeIfAbsent(name.toLowerCase(Locale.ROOT),
+                    k -> new ArrayList<>()).addAll(values));
+        }
+        this.headers = Collections.unmodifiableMap(lower);
+        this.body = body;
+    }
+
+    /**
+     * Wrap a RestAssured response. Its body is only streamed if it has not been read yet, i.e. the response was
+     * not obtained through {@code then().extract()} or any other buffering call.
+     */
+    public static StreamingResponse of(Response response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header h : response.headers()) {
+            headers.computeIfAbsent(h.getName(), k -> new ArrayList<>()).add(h.getValue());
+        }
+        return new StreamingResponse(response.statusCode(), headers, response.asInputStream());
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /** First value of the named header, or null. */
+    public String header(String name) {
+        List<String> values = headers.get(name.toLowerCase(Locale.ROOT));
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /** All headers, keyed by lower-cased name. */
+    public Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    public String contentType() {
+        return header("Content-Type");
+    }
+
+    /** The raw body. Can be taken once; the caller reads it but {@link #close()} still releases it. */
+    public synchronized InputStream body() {
+        if (consumed) throw new IllegalStateException("Response body has already been consumed");
+        consumed = true;
+        return body;
+    }
+
+    /**
+     * Iterate the body as JSON records, parsing lazily. Parse errors surface as {@link UncheckedIOException}
+     * from {@code hasNext()}/{@code next()}.
+     */
+    public Iterator<JsonNode> records() {
+        InputStream in = body();
+        try {
+            MappingIterator<JsonNode> it = RECORDS.readValues(in);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return it.hasNextValue();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public JsonNode next() {
+                    try {
+                        return it.nextValue();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Pass every record to {@code action} and return how many there were. */
+    public long forEachRecord(Consumer<JsonNode> action) {
+        long count = 0;
+        for (Iterator<JsonNode> it = records(); it.hasNext(); count++) {
+            action.accept(it.next());
+        }
+        return count;
+    }
+
+    /** Number of records in the body; consumes it. */
+    public long countRecords() {
+        return forEachRecord(r -> { });
+    }
+
+    /**
+     * Write the body to {@code target}, replacing any existing file, and compute its SHA-256 on the way. Memory use
+     * is one fixed buffer regardless of the body size.
+     */
+    public Download saveTo(Path target) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        long written = 0;
+        try (InputStream in = body();
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] chunk = new byte[DOWNLOAD_BUFFER];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            int n;
+            while ((n = in.read(chunk)) != -1) {
+                sha256.update(chunk, 0, n);
+                buffer.clear().limit(n);
+                while (buffer.hasRemaining()) written += out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to download to " + target, e);
+        }
+        return new Download(statusCode, target, written, HexFormat.of().formatHex(sha256.digest()), contentType());
+    }
+
+    @Override
+    public void close() {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // Nothing useful to do; the connection is discarded either way
+        }
+    }
+}
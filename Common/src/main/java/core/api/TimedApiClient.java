@@ -0,0 +1,86 @@
+package core.api;
+
+import core.timing.StepTimer;
+import core.timing.StepTimings;
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator charging the time the calling thread spends in another client to {@link StepTimer.Layer#API} of the
+ * step running on it, and optionally recording each request's latency as action {@code api <endpoint>} (see
+ * {@link EndpointMetrics#key}). Only the calling thread is measured: an asynchronous call costs its dispatch, and
+ * the wait for its result is charged to whoever waits.
+ */
+public final class TimedApiClient extends AbstractApiClient implements AsyncApiClient {
+    private final ApiClient delegate;
+    private final StepTimings timings;
+
+    public TimedApiClient(ApiClient delegate) {
+        this(delegate, null);
+    }
+
+    /** @param timings where to record the latency of each request, or null for none */
+    public TimedApiClient(ApiClient delegate, StepTimings timings) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        this.delegate = delegate;
+        this.timings = timings;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        long start = StepTimer.enter();
+        try {
+            delegate.setBaseUri(baseUri);
+        } finally {
+            StepTimer.exit(StepTimer.Layer.API, start);
+        }
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        long start = StepTimer.enter();
+        long called = System.nanoTime();
+        try {
+            return delegate.send(request);
+        } finally {
+            StepTimer.exit(StepTimer.Layer.API, start);
+            record(request, called);
+        }
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        if (!(delegate instanceof AsyncApiClient async)) {
+            return BlockingCalls.supplyAsync(() -> send(request));
+        }
+        long start = StepTimer.enter();
+        long called = System.nanoTime();
+        try {
+            return async.sendAsync(request).whenComplete((response, failure) -> record(request, called));
+        } finally {
+            StepTimer.exit(StepTimer.Layer.API, start);
+        }
+    }
+
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        long start = StepTimer.enter();
+        long called = System.nanoTime();
+        try {
+            return delegate.stream(request);
+        } finally {
+            StepTimer.exit(StepTimer.Layer.API, start);
+            record(request, called);
+        }
+    }
+
+    private void record(ApiRequest request, long called) {
+        if (timings != null) timings.recordAction("api " + EndpointMetrics.key(request), System.nanoTime() - called);
+    }
+}
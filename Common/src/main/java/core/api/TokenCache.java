@@ -0,0 +1,154 @@
+package core.api;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe store of access tokens keyed by client and scope, shared by every {@link AuthenticatedApiClient} of
+ * a run so parallel scenarios reuse one token instead of each fetching their own.
+ * <p>
+ * Fetches are single-flight: however many threads need a token for a key at once, one of them calls the
+ * {@link TokenProvider} and the others wait for its result. A token is refreshed ahead of its expiry: once it is
+ * within {@code refreshAhead} of expiring, the first caller fetches a new one while the others keep using the
+ * current token, which is still valid. Only an expired, missing or {@linkplain #invalidate rejected} token makes
+ * callers wait.
+ */
+public final class TokenCache {
+    private final Duration refreshAhead;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TokenCache(Duration refreshAhead) {
+        this(refreshAhead, Clock.systemUTC());
+    }
+
+    /** @param clock time source for expiry, replaceable in tests */
+    public TokenCache(Duration refreshAhead, Clock clock) {
+        if (refreshAhead == null || refreshAhead.isNegative()) {
+            throw new IllegalArgumentException("refreshAhead must be zero or positive");
+        }
+        if (clock == null) throw new IllegalArgumentException("clock cannot be null");
+        this.refreshAhead = refreshAhead;
+        this.clock = clock;
+    }
+
+    /** Cache refreshing tokens {@code api.auth.refreshAheadSeconds} (default 60) before they expire. */
+    public static TokenCache fromSystemProperties() {
+        return new TokenCache(Duration.ofSeconds(Long.getLong("api.auth.refreshAheadSeconds", 60)));
+    }
+
+    /**
+     * Counters of the cache.
+     *
+     * @param hits          tokens served without calling a provider
+     * @param fetches       provider calls
+     * @param waits         callers that waited for another thread's fetch
+     * @param invalidations tokens dropped after the server rejected them
+     */
+    public record Stats(long hits, long fetches, long waits, long invalidations) { }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), fetches.sum(), waits.sum(), invalidations.sum());
+    }
+
+    /** A valid token for {@code key}, fetched from {@code provider} when there is none or it is about to expire. */
+    public AccessToken token(String key, TokenProvider provider) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        Instant now = clock.instant();
+        AccessToken current = entry.token;
+        if (current != null && !needsRefresh(current, now)) {
+            hits.increment();
+            return current;
+        }
+        CompletableFuture<AccessToken> flight;
+        boolean leader = false;
+        synchronized (entry) {
+            current = entry.token;
+            if (current != null && !needsRefresh(current, now)) {
+                hits.increment();
+                return current;
+            }
+            if (entry.refreshing == null) {
+                entry.refreshing = new CompletableFuture<>();
+                leader = true;
+            }
+            flight = entry.refreshing;
+        }
+        if (leader) return fetch(entry, flight, provider, current, now);
+        if (current != null && !current.isExpired(now)) {
+            // Another thread is refreshing ahead of expiry; the current token still works meanwhile
+            hits.increment();
+            return current;
+        }
+        waits.increment();
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+    }
+
+    /**
+     * Drop {@code rejected} after the server answered 401 to it, so the next {@link #token} call fetches a new one.
+     * A token that was already replaced by a concurrent refresh is left alone, so many rejected requests cause a
+     * single fetch.
+     */
+    public void invalidate(String key, AccessToken rejected) {
+        Entry entry = entries.get(key);
+        if (entry == null) return;
+        synchronized (entry) {
+            if (entry.token != null && entry.token.equals(rejected)) {
+                entry.token = null;
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private boolean needsRefresh(AccessToken token, Instant now) {
+        return token.expiresAt() != null && !now.isBefore(token.expiresAt().minus(refreshAhead));
+    }
+
+    private AccessToken fetch(Entry entry, CompletableFuture<AccessToken> flight, TokenProvider provider,
+                              AccessToken current, Instant now) {
+        fetches.increment();
+        try {
+            AccessToken fresh = provider.fetch();
+            if (fresh == null) throw new IllegalStateException("Token provider returned no token");
+            synchronized (entry) {
+                entry.token = fresh;
+                entry.refreshing = null;
+            }
+            flight.complete(fresh);
+            return fresh;
+        } catch (RuntimeException | Error e) {
+            synchronized (entry) {
+                entry.refreshing = null;
+            }
+            flight.completeExceptionally(e);
+            // A failed refresh ahead of expiry is retried by the next caller; the current token is still usable
+            if (current != null && !current.isExpired(now) && e instanceof RuntimeException) return current;
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        volatile AccessToken token;
+        CompletableFuture<AccessToken> refreshing;
+    }
+}
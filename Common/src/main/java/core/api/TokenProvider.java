@@ -0,0 +1,12 @@
+package core.api;
+
+/**
+ * Source of access tokens for an {@link AuthenticatedApiClient}, e.g. an OAuth token endpoint
+ * ({@link ClientCredentialsTokenProvider}). Called through a {@link TokenCache}, which makes sure only one fetch per
+ * cache key runs at a time.
+ */
+@FunctionalInterface
+public interface TokenProvider {
+    /** Obtain a new token; failures are thrown as unchecked exceptions. */
+    AccessToken fetch();
+}
@@ -0,0 +1,298 @@
+package core.api.impl;
+
+import core.api.AbstractApiClient;
+import core.api.ApiClientConfig;
+import core.api.ApiRequest;
+import core.api.AsyncApiClient;
+import core.api.Multipart;
+import core.api.StreamingResponse;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Cookie;
+import io.restassured.http.Cookies;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpCookie;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Non-blocking ApiClient backed by the JDK {@link HttpClient}.
+ * <p>
+ * HTTP/2 is preferred, so concurrent requests to one host are multiplexed over a few connections (TLS servers
+ * negotiate it via ALPN; cleartext servers that do not accept the upgrade are spoken to over HTTP/1.1).
+ * Responses are exposed as RestAssured {@link Response}s, so status, headers and {@code jsonPath()} assertions
+ * work exactly as with {@link RestAssuredApiClient}.
+ * <p>
+ * {@link ApiClientConfig#connectionPool()} is not used: the JDK client manages its own connections.
+ */
+public class JdkHttpApiClient extends AbstractApiClient implements AsyncApiClient {
+    // Headers the JDK client manages itself and refuses to accept from callers
+    private static final Set<String> RESTRICTED = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpClient http;
+    private volatile ApiClientConfig config;
+
+    public JdkHttpApiClient() {
+        this(ApiClientConfig.defaults());
+    }
+
+    public JdkHttpApiClient(ApiClientConfig config) {
+        this(config, HttpClient.Version.HTTP_2);
+    }
+
+    public JdkHttpApiClient(ApiClientConfig config, HttpClient.Version version) {
+        if (config == null) throw new IllegalArgumentException("config cannot be null");
+        this.config = config;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (config.connectTimeout() != null) {
+            builder.connectTimeout(config.connectTimeout());
+        }
+        if (config.relaxedHttpsValidation()) {
+            builder.sslContext(trustAll());
+        }
+        this.http = builder.build();
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        this.config = config.withBaseUri(baseUri);
+    }
+
+    /** Current settings of this client. */
+    public ApiClientConfig config() {
+        return config;
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        try {
+            return sendAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + request.method() + " " + request.path(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof IOException io) throw new UncheckedIOException(io);
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = toHttpRequest(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return http.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(JdkHttpApiClient::toResponse);
+    }
+
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        try {
+            HttpResponse<InputStream> response =
+                    http.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+            return new StreamingResponse(response.statusCode(), response.headers().map(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + request.method() + " " + request.path(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest toHttpRequest(ApiRequest request) {
+        ApiClientConfig c = config;
+        HttpRequest.BodyPublisher body = publisher(request.body());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(c.baseUri(), request))
+                .method(request.method(), body);
+        if (c.readTimeout() != null) {
+            builder.timeout(c.readTimeout());
+        }
+        c.headers().forEach((name, value) -> addHeader(builder, name, value));
+        if (c.username() != null) {
+            String token = c.username() + ":" + (c.password() == null ? "" : c.password());
+            builder.header("Authorization",
+                    "Basic " + Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)));
+        }
+        request.headers().forEach((name, value) -> addHeader(builder, name, value));
+        if (request.body() instanceof Multipart multipart) {
+            // The boundary in the header must match the body, whatever the defaults say
+            builder.setHeader("Content-Type", multipart.contentType());
+        } else if (request.body() != null && !hasHeader(c.headers(), "Content-Type")
+                && !hasHeader(request.headers(), "Content-Type")) {
+            builder.header("Content-Type", "application/json; charset=UTF-8");
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest.BodyPublisher publisher(Object body) {
+        if (body == null) return HttpRequest.BodyPublishers.noBody();
+        if (body instanceof InputStream stream) return HttpRequest.BodyPublishers.ofInputStream(() -> stream);
+        if (body instanceof Multipart multipart) return multipartPublisher(multipart);
+        if (body instanceof Path file) {
+            try {
+                return HttpRequest.BodyPublishers.ofFile(file);
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return HttpRequest.BodyPublishers.ofByteArray(JsonBodies.encode(body));
+    }
+
+    /** The parts framed by boundaries, with file contents read from disk as the request is written. */
+    private static HttpRequest.BodyPublisher multipartPublisher(Multipart multipart) {
+        List<HttpRequest.BodyPublisher> publishers = new ArrayList<>();
+        String boundary = multipart.boundary();
+        for (Multipart.Part part : multipart.parts()) {
+            StringBuilder head = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(part.name()).append('"');
+            if (part.isFile()) {
+                head.append("; filename=\"").append(part.fileName()).append("\"\r\n")
+                        .append("Content-Type: ").append(part.contentType());
+            }
+            head.append("\r\n\r\n");
+            publishers.add(HttpRequest.BodyPublishers.ofByteArray(head.toString().getBytes(StandardCharsets.UTF_8)));
+            publishers.add(part.isFile() ? publisher(part.content())
+                    : HttpRequest.BodyPublishers.ofString((String) part.content(), StandardCharsets.UTF_8));
+            publishers.add(HttpRequest.BodyPublishers.ofByteArray(CRLF));
+        }
+        publishers.add(HttpRequest.BodyPublishers.ofByteArray(
+                ("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8)));
+        return HttpRequest.BodyPublishers.concat(publishers.toArray(new HttpRequest.BodyPublisher[0]));
+    }
+
+    private static void addHeader(HttpRequest.Builder builder, String name, String value) {
+        if (value == null || RESTRICTED.contains(name.toLowerCase(Locale.ROOT))) return;
+        builder.header(name, value);
+    }
+
+    private static boolean hasHeader(Map<String, String> headers, String name) {
+        for (String key : headers.keySet()) {
+            if (key.equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    static URI uri(String baseUri, ApiRequest request) {
+        String path = request.path();
+        StringBuilder url = new StringBuilder();
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            url.append(path);
+        } else {
+            if (baseUri == null) throw new IllegalStateException("No base URI set. Call setBaseUri(...) first.");
+            url.append(baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri);
+            if (!path.isEmpty() && !path.startsWith("/")) url.append('/');
+            url.append(path);
+        }
+        char sep = url.indexOf("?") < 0 ? '?' : '&';
+        for (Map.Entry<String, ?> e : request.queryParams().entrySet()) {
+            Object value = e.getValue();
+            Iterable<?> values = value instanceof Iterable<?> it ? it : Collections.singletonList(value);
+            for (Object v : values) {
+                url.append(sep).append(encode(e.getKey()));
+                if (v != null) url.append('=').append(encode(String.valueOf(v)));
+                sep = '&';
+            }
+        }
+        return URI.create(url.toString());
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        List<Cookie> cookies = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            for (String value : values) {
+                headers.add(new Header(name, value));
+                if (name.equalsIgnoreCase("Set-Cookie")) {
+                    cookies.addAll(parseCookies(value));
+                }
+            }
+        });
+        String version = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(version + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setCookies(new Cookies(cookies))
+                .setBody(response.body());
+        response.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+        return builder.build();
+    }
+
+    private static List<Cookie> parseCookies(String setCookie) {
+        List<Cookie> cookies = new ArrayList<>();
+        try {
+            for (HttpCookie c : HttpCookie.parse(setCookie)) {
+                Cookie.Builder b = new Cookie.Builder(c.getName(), c.getValue())
+                        .setSecured(c.getSecure())
+                        .setHttpOnly(c.isHttpOnly());
+                if (c.getDomain() != null) b.setDomain(c.getDomain());
+                if (c.getPath() != null) b.setPath(c.getPath());
+                if (c.getMaxAge() >= 0) b.setMaxAge((int) Math.min(Integer.MAX_VALUE, c.getMaxAge()));
+                cookies.add(b.build());
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Malformed Set-Cookie: keep the raw header, skip the parsed cookie
+        }
+        return cookies;
+    }
+
+    private static SSLContext trustAll() {
+        // An extended trust manager, so the JSSE does not wrap it and still verify the host name against the
+        // certificate; the relaxed RestAssured client accepts any host as well
+        TrustManager[] trustAll = {new X509ExtendedTrustManager() {
+            @Override public void checkClientTrusted(X509Certificate[] chain, String authType) { }
+            @Override public void checkServerTrusted(X509Certificate[] chain, String authType) { }
+            @Override public void checkClientTrusted(X509Certificate[] chain, String authType, Socket s) { }
+            @Override public void checkServerTrusted(X509Certificate[] chain, String authType, Socket s) { }
+            @Override public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine e) { }
+            @Override public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine e) { }
+            @Override public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+        }};
+        try {
+            SSLContext ctx = SSLContext.getInstance("TLS");
+            ctx.init(null, trustAll, null);
+            return ctx;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create relaxed SSL context", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package core.api.impl;
+
+import core.api.JsonBody;
+import core.api.Multipart;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Request body encoding shared by the ApiClient implementations: Strings are sent as UTF-8 text, byte arrays and
+ * {@link JsonBody} instances as-is, files by their content and anything else as JSON through one pre-built,
+ * thread-safe Jackson writer. {@link InputStream} bodies are streamed by the clients and can only be read once.
+ */
+public final class JsonBodies {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private JsonBodies() { }
+
+    public static byte[] encode(Object body) {
+        if (body instanceof byte[] bytes) return bytes;
+        if (body instanceof String text) return text.getBytes(StandardCharsets.UTF_8);
+        if (body instanceof JsonBody json) return json.bytes();
+        if (body instanceof Path file) {
+            try {
+                return Files.readAllBytes(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read request body from " + file, e);
+            }
+        }
+        if (body instanceof InputStream) {
+            throw new IllegalArgumentException("An InputStream body can only be streamed, not encoded");
+        }
+        if (body instanceof Multipart) {
+            throw new IllegalArgumentException("A multipart body is framed by the client, not encoded as JSON");
+        }
+        try {
+            return WRITER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body of type " + body.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Size of a body as sent: 0 without one, -1 for streams and for objects not serialized yet (wrap them in a
+     * {@link JsonBody} to have them measured), file sizes plus field values for multipart bodies (without the part
+     * framing). Never serializes anything.
+     */
+    public static long size(Object body) {
+        if (body == null) return 0;
+        if (body instanceof byte[] bytes) return bytes.length;
+        if (body instanceof JsonBody json) return json.size();
+        if (body instanceof String text) return utf8Length(text);
+        if (isStreaming(body)) return -1;
+        try {
+            if (body instanceof Path file) return Files.size(file);
+            if (body instanceof Multipart multipart) {
+                long size = 0;
+                for (Multipart.Part part : multipart.parts()) {
+                    size += part.isFile() ? Files.size((Path) part.content()) : utf8Length((String) part.content());
+                }
+                return size;
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    /** True for bodies {@link #encode} serializes with Jackson, as opposed to sending them as they are. */
+    public static boolean isObject(Object body) {
+        return body != null && !(body instanceof byte[]) && !(body instanceof String) && !(body instanceof JsonBody)
+                && !(body instanceof Path) && !(body instanceof InputStream) && !(body instanceof Multipart);
+    }
+
+    private static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                // Unpaired surrogates are encoded as '?'
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return length;
+    }
+
+    /** True for bodies that can be read only once (streams). */
+    public static boolean isStreaming(Object body) {
+        return body instanceof InputStream;
+    }
+}
@@ -0,0 +1,126 @@
+package core.api.impl;
+
+import core.api.ConnectionPoolConfig;
+import core.api.ConnectionPoolStats;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Supplies RestAssured with one long-lived, pooled Apache HttpClient so connections are kept alive and reused
+ * across requests instead of being opened (and TLS-handshaken) per call.
+ * <p>
+ * RestAssured 5 still drives the HttpClient 4 {@code AbstractHttpClient} API, hence the classic
+ * {@link DefaultHttpClient} / {@link PoolingClientConnectionManager} pair.
+ * <p>
+ * {@link #close()} shuts the pool down once the connections still leased by requests in flight are released.
+ */
+@SuppressWarnings("deprecation")
+final class PooledHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+    private final ConnectionPoolConfig config;
+    private final CountingConnectionManager manager;
+    private final DefaultHttpClient client;
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+    private volatile boolean closed;
+
+    PooledHttpClientFactory(ConnectionPoolConfig config, Duration connectTimeout, Duration readTimeout) {
+        this.config = config;
+        this.manager = new CountingConnectionManager(SchemeRegistryFactory.createDefault());
+        manager.setDefaultMaxPerRoute(config.maxPerRoute());
+        manager.setMaxTotal(config.maxTotal());
+
+        this.client = new DefaultHttpClient(manager);
+        HttpParams params = client.getParams();
+        if (connectTimeout != null) HttpConnectionParams.setConnectionTimeout(params, (int) connectTimeout.toMillis());
+        if (readTimeout != null) HttpConnectionParams.setSoTimeout(params, (int) readTimeout.toMillis());
+
+        long keepAliveMs = config.keepAlive().toMillis();
+        DefaultConnectionKeepAliveStrategy serverHint = DefaultConnectionKeepAliveStrategy.INSTANCE;
+        client.setKeepAliveStrategy((response, context) -> {
+            // Honor a shorter Keep-Alive timeout announced by the server, otherwise use the configured one
+            long hinted = serverHint.getKeepAliveDuration(response, context);
+            return hinted > 0 ? Math.min(hinted, keepAliveMs) : keepAliveMs;
+        });
+    }
+
+    @Override
+    public DefaultHttpClient createHttpClient() {
+        return client;
+    }
+
+    /** Close expired and long-idle connections; cheap to call before every request. */
+    void evictIdle() {
+        long idleNanos = config.idleEviction().toNanos();
+        long now = System.nanoTime();
+        long last = lastEviction.get();
+        if (now - last < idleNanos / 2 || !lastEviction.compareAndSet(last, now)) return;
+        manager.closeExpiredConnections();
+        manager.closeIdleConnections(config.idleEviction().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Stop handing out connections and close them all, waiting for requests in flight to release theirs. */
+    void close() {
+        closed = true;
+        shutdownWhenIdle();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void shutdownWhenIdle() {
+        // Either this check or the release of the last leased connection sees the pool idle; shutdown is idempotent
+        if (manager.getTotalStats().getLeased() == 0) manager.shutdown();
+    }
+
+    ConnectionPoolStats stats() {
+        PoolStats total = manager.getTotalStats();
+        return new ConnectionPoolStats(total.getLeased(), total.getAvailable(), total.getPending(), total.getMax(),
+                manager.opened.get());
+    }
+
+    private final class CountingConnectionManager extends PoolingClientConnectionManager {
+        // Assigned after super() has created the operator, which only reads it once connections are opened
+        private final AtomicLong opened = new AtomicLong();
+
+        private CountingConnectionManager(SchemeRegistry schemes) {
+            super(schemes);
+        }
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+            return new DefaultClientConnectionOperator(schemes) {
+                @Override
+                public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local,
+                                           HttpContext context, HttpParams params) throws IOException {
+                    opened.incrementAndGet();
+                    super.openConnection(conn, target, local, context, params);
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection conn, long keepAlive, TimeUnit unit) {
+            super.releaseConnection(conn, keepAlive, unit);
+            if (closed) shutdownWhenIdle();
+        }
+    }
+}
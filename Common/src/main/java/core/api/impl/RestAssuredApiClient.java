@@ -1,179 +1,311 @@
 package core.api.impl;
 
 import core.api.ApiClient;
+import core.api.ApiClientConfig;
+import core.api.ApiRequest;
+import core.api.ConnectionPoolStats;
+import core.api.Multipart;
+import core.api.StreamingResponse;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.EncoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Default ApiClient implementation backed by RestAssured.
+ * <p>
+ * All settings are instance-scoped: the client never touches RestAssured's static configuration, so clients
+ * pointing at different services can be used concurrently in one JVM. The settings are compiled once into an
+ * immutable base {@link RequestSpecification} that every request starts from.
  */
 public class RestAssuredApiClient implements ApiClient {
+    private volatile ApiClientConfig config;
+    private volatile RequestSpecification baseSpec;
+    private volatile PooledHttpClientFactory pool;
+
+    public RestAssuredApiClient() {
+        this(ApiClientConfig.defaults());
+    }
+
+    public RestAssuredApiClient(ApiClientConfig config) {
+        configure(config);
+    }
+
     @Override
     public void setBaseUri(String baseUri) {
-        RestAssured.baseURI = baseUri;
+        configure(config.withBaseUri(baseUri));
+    }
+
+    /** Current settings of this client. */
+    public ApiClientConfig config() {
+        return config;
+    }
+
+    /**
+     * Replace this client's settings; requests already in flight keep the previous ones. A connection pool that is
+     * replaced is closed once those requests have released their connections.
+     */
+    public synchronized void configure(ApiClientConfig config) {
+        if (config == null) throw new IllegalArgumentException("config cannot be null");
+        ApiClientConfig previous = this.config;
+        boolean samePool = previous != null
+                && Objects.equals(previous.connectionPool(), config.connectionPool())
+                && Objects.equals(previous.connectTimeout(), config.connectTimeout())
+                && Objects.equals(previous.readTimeout(), config.readTimeout());
+        if (!samePool) {
+            // Keep warm connections when only e.g. the base URI or headers change
+            PooledHttpClientFactory replaced = pool;
+            this.pool = config.connectionPool() == null ? null
+                    : new PooledHttpClientFactory(config.connectionPool(), config.connectTimeout(), config.readTimeout());
+            if (replaced != null) replaced.close();
+        }
+        this.baseSpec = buildSpec(config, pool);
+        this.config = config;
+    }
+
+    PooledHttpClientFactory pool() {
+        return pool;
+    }
+
+    /** Connection pool statistics, or null when the client is not configured with a connection pool. */
+    public ConnectionPoolStats poolStats() {
+        PooledHttpClientFactory p = pool;
+        return p == null ? null : p.stats();
     }
 
     // region GET
     @Override
     public Response get(String path) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
+        return complete(prepare(Collections.emptyMap(), Collections.emptyMap())
                 .when().get(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response get(String path, Map<String, ?> queryParams) {
-        return prepare(queryParams, Collections.emptyMap())
+        return complete(prepare(queryParams, Collections.emptyMap())
                 .when().get(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response get(String path, Map<String, ?> queryParams, Map<String, String> headers) {
-        return prepare(queryParams, headers)
+        return complete(prepare(queryParams, headers)
                 .when().get(path)
-                .then().extract().response();
+                .then().extract().response());
     }
     // endregion
 
     // region POST
     @Override
     public Response post(String path) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
+        return complete(prepare(Collections.emptyMap(), Collections.emptyMap())
                 .when().post(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response post(String path, Object body) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(Collections.emptyMap(), Collections.emptyMap()), body)
                 .when().post(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response post(String path, Map<String, ?> queryParams, Object body) {
-        return prepare(queryParams, Collections.emptyMap())
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(queryParams, Collections.emptyMap()), body)
                 .when().post(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response post(String path, Map<String, ?> queryParams, Map<String, String> headers, Object body) {
-        return prepare(queryParams, headers)
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(queryParams, headers), body)
                 .when().post(path)
-                .then().extract().response();
+                .then().extract().response());
     }
     // endregion
 
     // region PUT
     @Override
     public Response put(String path) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
+        return complete(prepare(Collections.emptyMap(), Collections.emptyMap())
                 .when().put(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response put(String path, Object body) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(Collections.emptyMap(), Collections.emptyMap()), body)
                 .when().put(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response put(String path, Map<String, ?> queryParams, Object body) {
-        return prepare(queryParams, Collections.emptyMap())
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(queryParams, Collections.emptyMap()), body)
                 .when().put(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response put(String path, Map<String, ?> queryParams, Map<String, String> headers, Object body) {
-        return prepare(queryParams, headers)
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(queryParams, headers), body)
                 .when().put(path)
-                .then().extract().response();
+                .then().extract().response());
     }
     // endregion
 
     // region PATCH
     @Override
     public Response patch(String path) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
+        return complete(prepare(Collections.emptyMap(), Collections.emptyMap())
                 .when().patch(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response patch(String path, Object body) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(Collections.emptyMap(), Collections.emptyMap()), body)
                 .when().patch(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response patch(String path, Map<String, ?> queryParams, Object body) {
-        return prepare(queryParams, Collections.emptyMap())
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(queryParams, Collections.emptyMap()), body)
                 .when().patch(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response patch(String path, Map<String, ?> queryParams, Map<String, String> headers, Object body) {
-        return prepare(queryParams, headers)
-                .contentType(ContentType.JSON)
-                .body(body)
+        return complete(withBody(prepare(queryParams, headers), body)
                 .when().patch(path)
-                .then().extract().response();
+                .then().extract().response());
     }
     // endregion
 
     // region DELETE
     @Override
     public Response delete(String path) {
-        return prepare(Collections.emptyMap(), Collections.emptyMap())
+        return complete(prepare(Collections.emptyMap(), Collections.emptyMap())
                 .when().delete(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response delete(String path, Map<String, ?> queryParams) {
-        return prepare(queryParams, Collections.emptyMap())
+        return complete(prepare(queryParams, Collections.emptyMap())
                 .when().delete(path)
-                .then().extract().response();
+                .then().extract().response());
     }
 
     @Override
     public Response delete(String path, Map<String, ?> queryParams, Map<String, String> headers) {
-        return prepare(queryParams, headers)
+        return complete(prepare(queryParams, headers)
                 .when().delete(path)
-                .then().extract().response();
+                .then().extract().response());
     }
     // endregion
 
+    @Override
+    public Response send(ApiRequest request) {
+        RequestSpecification spec = prepare(request.queryParams(), request.headers());
+        if (request.body() != null) {
+            spec = withBody(spec, request.body());
+        }
+        return complete(spec.when().request(request.method(), request.path())
+                .then().extract().response());
+    }
+
+    /**
+     * Streams the body straight from the connection: the response is taken before RestAssured's
+     * {@code then().extract()}, which would buffer it.
+     */
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        RequestSpecification spec = prepare(request.queryParams(), request.headers());
+        if (request.body() != null) {
+            spec = withBody(spec, request.body());
+        }
+        return StreamingResponse.of(spec.when().request(request.method(), request.path()));
+    }
+
+    /**
+     * Read the body before handing the response out: it is buffered anyway, and a pooled connection is only
+     * returned to the pool once its entity has been consumed.
+     */
+    private static Response complete(Response response) {
+        response.asByteArray();
+        return response;
+    }
+
+    /**
+     * Attach a body without RestAssured's object mapping, which looks up a serializer and builds a new Jackson
+     * mapper on every call: objects go through the shared writer of {@link JsonBodies}, pre-serialized bodies are
+     * sent as they are, streams and files are streamed and multipart file parts are streamed from disk.
+     */
+    private static RequestSpecification withBody(RequestSpecification spec, Object body) {
+        if (body instanceof Multipart multipart) {
+            for (Multipart.Part part : multipart.parts()) {
+                spec = part.isFile()
+                        ? spec.multiPart(part.name(), ((Path) part.content()).toFile(), part.contentType())
+                        : spec.multiPart(part.name(), (String) part.content());
+            }
+            return spec;
+        }
+        spec = spec.contentType(ContentType.JSON);
+        if (body instanceof InputStream stream) return spec.body(stream);
+        if (body instanceof Path file) return spec.body(file.toFile());
+        return spec.body(JsonBodies.encode(body));
+    }
+
+    private static RequestSpecification buildSpec(ApiClientConfig config, PooledHttpClientFactory pool) {
+        RequestSpecBuilder builder = new RequestSpecBuilder();
+        if (config.baseUri() != null) {
+            builder.setBaseUri(config.baseUri());
+        }
+        if (!config.headers().isEmpty()) {
+            builder.addHeaders(config.headers());
+        }
+        if (config.username() != null) {
+            builder.setAuth(RestAssured.preemptive().basic(config.username(), config.password()));
+        }
+        if (config.relaxedHttpsValidation()) {
+            builder.setRelaxedHTTPSValidation();
+        }
+        HttpClientConfig http = HttpClientConfig.httpClientConfig();
+        if (config.connectTimeout() != null) {
+            http = http.setParam("http.connection.timeout", (int) config.connectTimeout().toMillis());
+        }
+        if (config.readTimeout() != null) {
+            http = http.setParam("http.socket.timeout", (int) config.readTimeout().toMillis());
+        }
+        if (pool != null) {
+            http = http.httpClientFactory(pool).reuseHttpClientInstance();
+        }
+        // JSON bodies always reach RestAssured as bytes, streams or files; encoding them as binary keeps streams and
+        // files streamed instead of being read into memory by the JSON encoder
+        EncoderConfig encoder = EncoderConfig.encoderConfig().encodeContentTypeAs("application/json", ContentType.BINARY);
+        builder.setConfig(RestAssuredConfig.config().httpClient(http).encoderConfig(encoder));
+        return builder.build();
+    }
+
     private RequestSpecification prepare(Map<String, ?> queryParams, Map<String, String> headers) {
-        RequestSpecification spec = RestAssured.given().relaxedHTTPSValidation();
+        PooledHttpClientFactory p = pool;
+        if (p != null) p.evictIdle();
+        RequestSpecification spec = RestAssured.given(baseSpec);
         if (queryParams != null && !queryParams.isEmpty()) {
             spec = spec.queryParams(queryParams);
         }
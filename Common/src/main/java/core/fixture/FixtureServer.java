@@ -0,0 +1,287 @@
+package core.fixture;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded HTTP server that serves fixture pages from classpath resources, so UI tests can run offline
+ * against {@code http://localhost} with realistic HTTP behavior.
+ * <p>
+ * Latency, gzip compression and the Cache-Control header are configurable at any time. Every response
+ * carries a strong ETag and conditional requests ({@code If-None-Match}) are answered with 304. Paths that need
+ * server logic (a login endpoint, a page that checks a cookie) can be {@linkplain #route routed} to a handler.
+ * Requests are handled on virtual threads when the runtime supports them (Java 21+), otherwise on a
+ * cached pool of daemon threads.
+ */
+public class FixtureServer implements AutoCloseable {
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "htm", "text/html; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "js", "application/javascript; charset=utf-8",
+            "json", "application/json; charset=utf-8",
+            "txt", "text/plain; charset=utf-8",
+            "svg", "image/svg+xml",
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "ico", "image/x-icon");
+
+    private final String resourceRoot;
+    private final ClassLoader classLoader;
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+    private final Map<String, HttpHandler> routes = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile boolean compression;
+    private volatile String cacheControl = "no-cache";
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param resourceRoot classpath directory the fixtures live in, e.g. {@code "fixtures"}
+     */
+    public FixtureServer(String resourceRoot) {
+        this(resourceRoot, Thread.currentThread().getContextClassLoader());
+    }
+
+    public FixtureServer(String resourceRoot, ClassLoader classLoader) {
+        if (resourceRoot == null) throw new IllegalArgumentException("resourceRoot cannot be null");
+        this.resourceRoot = resourceRoot.replaceAll("^/+|/+$", "");
+        this.classLoader = classLoader == null ? FixtureServer.class.getClassLoader() : classLoader;
+    }
+
+    /** Bind to an ephemeral loopback port and start serving. Returns this server for chaining. */
+    public synchronized FixtureServer start() {
+        if (server != null) return this;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start fixture server", e);
+        }
+        executor = newHandlerExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    /** Base URL without trailing slash, e.g. {@code http://localhost:54321}. */
+    public String baseUrl() {
+        if (server == null) throw new IllegalStateException("Fixture server is not started. Call start() first.");
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /** Absolute URL of a fixture path, e.g. {@code url("login.html")}. */
+    public String url(String path) {
+        return baseUrl() + "/" + (path == null ? "" : path.replaceAll("^/+", ""));
+    }
+
+    /** Artificial delay added before every response. */
+    public FixtureServer setLatency(Duration latency) {
+        this.latency = latency == null ? Duration.ZERO : latency;
+        return this;
+    }
+
+    /** Gzip response bodies for clients that send {@code Accept-Encoding: gzip}. */
+    public FixtureServer setCompression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /** Cache-Control header sent with every fixture, e.g. {@code "max-age=300"}; null omits the header. */
+    public FixtureServer setCacheControl(String cacheControl) {
+        this.cacheControl = cacheControl;
+        return this;
+    }
+
+    /**
+     * Answer requests for exactly {@code path} (any method) with {@code handler} instead of a fixture file.
+     * Latency still applies; compression, ETags and Cache-Control are up to the handler.
+     */
+    public FixtureServer route(String path, HttpHandler handler) {
+        if (path == null || handler == null) throw new IllegalArgumentException("path and handler cannot be null");
+        routes.put("/" + path.replaceAll("^/+", ""), handler);
+        return this;
+    }
+
+    /** Number of requests received since start, including 304 and 404 responses. */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            pause();
+            HttpHandler route = routes.get(exchange.getRequestURI().getPath());
+            if (route != null) {
+                route.handle(exchange);
+                return;
+            }
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Resource resource = resolve(exchange.getRequestURI().getPath());
+            if (resource == null) {
+                byte[] body = "Not Found".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPES.get("txt"));
+                exchange.sendResponseHeaders(404, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", resource.contentType);
+            headers.set("ETag", resource.etag);
+            headers.set("Vary", "Accept-Encoding");
+            String cc = cacheControl;
+            if (cc != null) headers.set("Cache-Control", cc);
+
+            if (resource.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            byte[] body = resource.bytes;
+            if (compression && acceptsGzip(exchange)) {
+                headers.set("Content-Encoding", "gzip");
+                body = resource.gzipped();
+            }
+            if ("HEAD".equals(method)) {
+                headers.set("Content-Length", String.valueOf(body.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream os = exchange.getResponseBody();
+            os.write(body);
+        }
+    }
+
+    private void pause() {
+        long millis = latency.toMillis();
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Resource resolve(String path) {
+        String relative = path == null ? "" : path.replaceAll("^/+", "");
+        if (relative.isEmpty() || relative.endsWith("/")) relative = relative + "index.html";
+        for (String segment : relative.split("/")) {
+            // Never serve anything outside the fixture root
+            if (segment.equals("..")) return null;
+        }
+        String name = resourceRoot.isEmpty() ? relative : resourceRoot + "/" + relative;
+        Resource cached = resources.get(name);
+        if (cached != null) return cached;
+        try (InputStream in = classLoader.getResourceAsStream(name)) {
+            if (in == null) return null;
+            Resource loaded = new Resource(in.readAllBytes(), contentType(relative));
+            Resource previous = resources.putIfAbsent(name, loaded);
+            return previous != null ? previous : loaded;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read fixture " + name, e);
+        }
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    private static String contentType(String path) {
+        int dot = path.lastIndexOf('.');
+        String ext = dot < 0 ? "" : path.substring(dot + 1).toLowerCase();
+        return CONTENT_TYPES.getOrDefault(ext, "application/octet-stream");
+    }
+
+    static ExecutorService newHandlerExecutor() {
+        try {
+            // Java 21+: one virtual thread per exchange. Looked up reflectively so the module still targets 17.
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "fixture-server");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private static final class Resource {
+        private final byte[] bytes;
+        private final String contentType;
+        private final String etag;
+        private volatile byte[] gzipped;
+
+        private Resource(byte[] bytes, String contentType) {
+            this.bytes = bytes;
+            this.contentType = contentType;
+            this.etag = "\"" + sha256(bytes) + "\"";
+        }
+
+        private byte[] gzipped() {
+            byte[] g = gzipped;
+            if (g == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+                try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                    gz.write(bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                g = gzipped = out.toByteArray();
+            }
+            return g;
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package core.fixture;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One request/response pair captured by {@link RecordingApiClient} and served back by {@link StubServer}.
+ *
+ * @param origin       base URI the request was sent to, e.g. {@code https://httpbin.org}
+ * @param method       HTTP method
+ * @param path         request path, without query string
+ * @param query        query parameters; repeated parameters keep every value
+ * @param requestBody  request body as sent, or null
+ * @param status       response status
+ * @param headers      response headers
+ * @param body         response body; Base64 when {@code binary} is set
+ * @param binary       whether {@code body} is Base64-encoded
+ */
+public record RecordedExchange(String origin, String method, String path, Map<String, List<String>> query,
+                               String requestBody, int status, Map<String, List<String>> headers, String body,
+                               boolean binary) {
+    public RecordedExchange {
+        if (method == null) throw new IllegalArgumentException("method cannot be null");
+        if (path == null) throw new IllegalArgumentException("path cannot be null");
+        query = query == null ? Map.of() : query;
+        headers = headers == null ? Map.of() : headers;
+        body = body == null ? "" : body;
+    }
+}
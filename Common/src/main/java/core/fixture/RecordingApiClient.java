@@ -0,0 +1,97 @@
+package core.fixture;
+
+import core.api.AbstractApiClient;
+import core.api.ApiClient;
+import core.api.ApiRequest;
+import core.api.Multipart;
+import core.api.impl.JsonBodies;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that passes every request through to a live client and hands the request/response pair to a sink,
+ * typically collected and written with {@link Recordings#save}. Responses are buffered, including those of
+ * {@link #stream} requests, which fall back to a buffered send.
+ */
+public final class RecordingApiClient extends AbstractApiClient {
+    private final ApiClient delegate;
+    private final Consumer<RecordedExchange> sink;
+    private volatile String baseUri;
+
+    public RecordingApiClient(ApiClient delegate, Consumer<RecordedExchange> sink) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (sink == null) throw new IllegalArgumentException("sink cannot be null");
+        this.delegate = delegate;
+        this.sink = sink;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        delegate.setBaseUri(baseUri);
+        this.baseUri = baseUri;
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        Response response = delegate.send(request);
+        sink.accept(record(request, response));
+        return response;
+    }
+
+    private RecordedExchange record(ApiRequest request, Response response) {
+        String origin = baseUri;
+        String path = request.path();
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            URI uri = URI.create(path);
+            origin = uri.getScheme() + "://" + uri.getRawAuthority();
+            path = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        }
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        int q = path.indexOf('?');
+        if (q >= 0) {
+            query.putAll(StubServer.parseQuery(path.substring(q + 1)));
+            path = path.substring(0, q);
+        }
+        request.queryParams().forEach((name, value) -> {
+            List<String> values = query.computeIfAbsent(name, k -> new ArrayList<>());
+            if (value instanceof Iterable<?> it) {
+                for (Object v : it) values.add(String.valueOf(v));
+            } else {
+                values.add(String.valueOf(value));
+            }
+        });
+        // A streamed body has been consumed by the send, and uploaded files would bloat the recording: both are
+        // recorded without content
+        Object sent = request.body();
+        String requestBody = sent == null || JsonBodies.isStreaming(sent) || sent instanceof Path
+                || sent instanceof Multipart ? null : new String(JsonBodies.encode(sent), StandardCharsets.UTF_8);
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header h : response.headers()) {
+            headers.computeIfAbsent(h.getName(), k -> new ArrayList<>()).add(h.getValue());
+        }
+        byte[] body = response.asByteArray();
+        boolean binary = !isText(response.contentType());
+        return new RecordedExchange(origin, request.method(), path, query, requestBody, response.statusCode(),
+                headers, binary ? Base64.getEncoder().encodeToString(body) : new String(body, StandardCharsets.UTF_8),
+                binary);
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null || contentType.isEmpty()) return true;
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.contains("xml")
+                || type.contains("javascript") || type.contains("x-www-form-urlencoded");
+    }
+}
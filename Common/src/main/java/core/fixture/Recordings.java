@@ -0,0 +1,82 @@
+package core.fixture;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes recorded exchanges as pretty-printed JSON, one file per origin host
+ * (e.g. {@code httpbin.org.json}), so recordings are easy to review and edit by hand.
+ */
+public final class Recordings {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final TypeReference<List<RecordedExchange>> LIST = new TypeReference<>() { };
+
+    private Recordings() { }
+
+    /** Every exchange in the {@code *.json} files of {@code dir}; an absent directory holds none. */
+    public static List<RecordedExchange> load(Path dir) {
+        List<RecordedExchange> all = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return all;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                all.addAll(MAPPER.readValue(file.toFile(), LIST));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read recordings from " + dir, e);
+        }
+        return all;
+    }
+
+    /**
+     * Write {@code exchanges} into {@code dir}, grouped by origin host. Within each file, an exchange replaces a
+     * previously recorded one with the same method, path, query and request body.
+     */
+    public static void save(Path dir, List<RecordedExchange> exchanges) {
+        Map<String, List<RecordedExchange>> byFile = new LinkedHashMap<>();
+        for (RecordedExchange e : exchanges) {
+            byFile.computeIfAbsent(fileName(e.origin()), k -> new ArrayList<>()).add(e);
+        }
+        try {
+            Files.createDirectories(dir);
+            for (Map.Entry<String, List<RecordedExchange>> entry : byFile.entrySet()) {
+                Path file = dir.resolve(entry.getKey());
+                Map<String, RecordedExchange> merged = new LinkedHashMap<>();
+                if (Files.exists(file)) {
+                    for (RecordedExchange e : MAPPER.readValue(file.toFile(), LIST)) merged.put(key(e), e);
+                }
+                for (RecordedExchange e : entry.getValue()) merged.put(key(e), e);
+                MAPPER.writeValue(file.toFile(), new ArrayList<>(merged.values()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write recordings to " + dir, e);
+        }
+    }
+
+    private static String key(RecordedExchange e) {
+        return e.method() + " " + e.path() + " " + e.query() + " " + e.requestBody();
+    }
+
+    static String fileName(String origin) {
+        String host = null;
+        if (origin != null) {
+            try {
+                host = URI.create(origin).getHost();
+            } catch (IllegalArgumentException ignored) {
+                // fall through to the default name
+            }
+        }
+        return (host == null ? "recordings" : host.replaceAll("[^A-Za-z0-9.-]", "_")) + ".json";
+    }
+}
@@ -0,0 +1,76 @@
+package core.fixture;
+
+import core.api.AbstractApiClient;
+import core.api.ApiClient;
+import core.api.ApiRequest;
+import core.api.AsyncApiClient;
+import core.api.BlockingCalls;
+import core.api.StreamingResponse;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator that sends every request to a {@link StubServer} instead of the service it names. The base URI a
+ * scenario sets is remembered and sent as {@value StubServer#ORIGIN_HEADER}, so recordings of several services
+ * can be replayed by one stub. Loopback base URIs (local fixture servers) are used as they are.
+ */
+public final class ReplayApiClient extends AbstractApiClient implements AsyncApiClient {
+    private final ApiClient delegate;
+    private final StubServer stub;
+    private volatile String origin;
+    private volatile boolean passThrough;
+
+    public ReplayApiClient(ApiClient delegate, StubServer stub) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        if (stub == null) throw new IllegalArgumentException("stub cannot be null");
+        this.delegate = delegate;
+        this.stub = stub;
+        delegate.setBaseUri(stub.baseUrl());
+    }
+
+    @Override
+    public synchronized void setBaseUri(String baseUri) {
+        boolean local = StubServer.isLoopback(baseUri);
+        delegate.setBaseUri(local ? baseUri : stub.baseUrl());
+        this.origin = baseUri;
+        this.passThrough = local;
+    }
+
+    @Override
+    public Response send(ApiRequest request) {
+        return delegate.send(redirect(request));
+    }
+
+    @Override
+    public boolean isAsync() {
+        return delegate.isAsync();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(ApiRequest request) {
+        ApiRequest redirected = redirect(request);
+        if (delegate instanceof AsyncApiClient async) return async.sendAsync(redirected);
+        return BlockingCalls.supplyAsync(() -> delegate.send(redirected));
+    }
+
+    @Override
+    public StreamingResponse stream(ApiRequest request) {
+        return delegate.stream(redirect(request));
+    }
+
+    private ApiRequest redirect(ApiRequest request) {
+        String path = request.path();
+        if (passThrough || StubServer.isLoopback(path)) return request;
+        String requestOrigin = origin;
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            URI uri = URI.create(path);
+            requestOrigin = uri.getScheme() + "://" + uri.getRawAuthority();
+            path = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        }
+        ApiRequest redirected = new ApiRequest(request.method(), path, request.queryParams(), request.headers(),
+                request.body());
+        return requestOrigin == null ? redirected : redirected.withHeader(StubServer.ORIGIN_HEADER, requestOrigin);
+    }
+}
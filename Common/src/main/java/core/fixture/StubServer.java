@@ -0,0 +1,211 @@
+package core.fixture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server that replays {@link RecordedExchange}s, so API scenarios run offline with loopback latency.
+ * <p>
+ * A request matches a recording on method, path, query parameters (in any order) and body (compared as JSON when
+ * both sides parse, otherwise as text). When the request carries {@value #ORIGIN_HEADER}, as sent by
+ * {@link ReplayApiClient}, only recordings of that origin match. If several recordings match, the last one wins.
+ * Unmatched requests get a 501 naming the request and are listed by {@link #misses()}.
+ */
+public class StubServer implements AutoCloseable {
+    /** Request header naming the base URI the request was originally meant for. */
+    public static final String ORIGIN_HEADER = "X-Stub-Origin";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Framing headers describe the recorded transfer, not the replayed one
+    private static final Set<String> SKIPPED_HEADERS =
+            Set.of("content-length", "transfer-encoding", "connection", "content-encoding", "keep-alive");
+
+    private final List<RecordedExchange> exchanges;
+    private final List<String> misses = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong requests = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubServer(List<RecordedExchange> exchanges) {
+        if (exchanges == null) throw new IllegalArgumentException("exchanges cannot be null");
+        this.exchanges = List.copyOf(exchanges);
+    }
+
+    /** Bind to an ephemeral loopback port and start serving. Returns this server for chaining. */
+    public synchronized StubServer start() {
+        if (server != null) return this;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start stub server", e);
+        }
+        executor = FixtureServer.newHandlerExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    /** Base URL without trailing slash, e.g. {@code http://localhost:54321}. */
+    public String baseUrl() {
+        if (server == null) throw new IllegalStateException("Stub server is not started. Call start() first.");
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int recordingCount() {
+        return exchanges.size();
+    }
+
+    /** Number of requests received since start, matched or not. */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /** Requests no recording matched, as {@code METHOD /path?query}. */
+    public List<String> misses() {
+        synchronized (misses) {
+            return List.copyOf(misses);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            Map<String, List<String>> query = parseQuery(uri.getRawQuery());
+            byte[] raw = exchange.getRequestBody().readAllBytes();
+            String body = raw.length == 0 ? null : new String(raw, StandardCharsets.UTF_8);
+            String origin = exchange.getRequestHeaders().getFirst(ORIGIN_HEADER);
+
+            RecordedExchange match = find(origin, method, uri.getPath(), query, body);
+            if (match == null) {
+                String miss = method + " " + uri.getPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+                misses.add(miss);
+                send(exchange, 501, Map.of("Content-Type", List.of("text/plain; charset=utf-8")),
+                        ("No recording matches " + miss).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            byte[] bytes = match.binary()
+                    ? Base64.getDecoder().decode(match.body())
+                    : match.body().getBytes(StandardCharsets.UTF_8);
+            send(exchange, match.status(), match.headers(), bytes);
+        }
+    }
+
+    private RecordedExchange find(String origin, String method, String path, Map<String, List<String>> query,
+                                  String body) {
+        for (int i = exchanges.size() - 1; i >= 0; i--) {
+            RecordedExchange e = exchanges.get(i);
+            if (!e.method().equalsIgnoreCase(method) || !e.path().equals(path)) continue;
+            if (origin != null && e.origin() != null && !trimSlash(origin).equals(trimSlash(e.origin()))) continue;
+            if (!normalize(e.query()).equals(normalize(query))) continue;
+            if (!sameBody(e.requestBody(), body)) continue;
+            return e;
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, List<String>> headers, byte[] body)
+            throws IOException {
+        headers.forEach((name, values) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                exchange.getResponseHeaders().put(name, new ArrayList<>(values));
+            }
+        });
+        boolean noBody = status == 204 || status == 304 || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    /** True for URIs on this machine (localhost, 127.x, ::1), which need neither recording nor replaying. */
+    public static boolean isLoopback(String uri) {
+        if (uri == null) return false;
+        try {
+            String host = URI.create(uri).getHost();
+            if (host == null) return false;
+            return host.equals("localhost") || host.startsWith("127.") || host.equals("[::1]") || host.equals("::1");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return query;
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            String[] kv = pair.split("=", 2);
+            query.computeIfAbsent(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), k -> new ArrayList<>())
+                    .add(kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static Map<String, List<String>> normalize(Map<String, List<String>> query) {
+        Map<String, List<String>> sorted = new TreeMap<>();
+        query.forEach((k, v) -> {
+            List<String> values = new ArrayList<>(v);
+            Collections.sort(values);
+            sorted.put(k, values);
+        });
+        return sorted;
+    }
+
+    private static boolean sameBody(String recorded, String actual) {
+        if (recorded == null || recorded.isEmpty()) return actual == null || actual.isEmpty();
+        if (actual == null) return false;
+        if (recorded.equals(actual)) return true;
+        try {
+            JsonNode a = MAPPER.readTree(recorded);
+            JsonNode b = MAPPER.readTree(actual);
+            return a != null && Objects.equals(a, b);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String trimSlash(String s) {
+        return s.endsWith("/") ? s.substring(0, s.length() - 1) : s;
+    }
+}
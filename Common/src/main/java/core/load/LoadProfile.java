@@ -0,0 +1,80 @@
+package core.load;
+
+import java.time.Duration;
+
+/**
+ * How a load run schedules iterations.
+ * <p>
+ * Without an arrival rate the model is closed: {@code users} virtual users each run iterations back to back,
+ * starting evenly spread over {@code rampUp}. With an arrival rate the model is open: iterations start at
+ * {@code arrivalRate} per second (ramping linearly from zero over {@code rampUp}) regardless of how long they take,
+ * with at most {@code users} in flight; arrivals beyond that are dropped and counted.
+ * <p>
+ * The run ends when {@code duration} has elapsed or {@code iterations} have started, whichever comes first;
+ * at least one of them must be set.
+ *
+ * @param users       virtual users (closed model) or in-flight cap (open model)
+ * @param duration    run length, or null to stop on the iteration count alone
+ * @param iterations  total iterations across all users, or 0 for unlimited
+ * @param rampUp      ramp-up period, {@link Duration#ZERO} for none
+ * @param arrivalRate iterations started per second, or 0 for the closed model
+ */
+public record LoadProfile(int users, Duration duration, long iterations, Duration rampUp, double arrivalRate) {
+    public LoadProfile {
+        if (users < 1) throw new IllegalArgumentException("users must be at least 1");
+        if (iterations < 0) throw new IllegalArgumentException("iterations cannot be negative");
+        if (duration == null && iterations == 0) {
+            throw new IllegalArgumentException("Either a duration or an iteration count is required");
+        }
+        if (duration != null && (duration.isNegative() || duration.isZero())) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        if (rampUp == null) rampUp = Duration.ZERO;
+        if (rampUp.isNegative()) throw new IllegalArgumentException("rampUp cannot be negative");
+        if (arrivalRate < 0) throw new IllegalArgumentException("arrivalRate cannot be negative");
+    }
+
+    /** {@code users} virtual users running {@code iterations} iterations in total. */
+    public static LoadProfile iterations(int users, long iterations) {
+        return new LoadProfile(users, null, iterations, Duration.ZERO, 0);
+    }
+
+    /** {@code users} virtual users running back to back for {@code duration}. */
+    public static LoadProfile duration(int users, Duration duration) {
+        return new LoadProfile(users, duration, 0, Duration.ZERO, 0);
+    }
+
+    /**
+     * Profile from system properties: {@code load.users} (default 10), {@code load.duration} (ISO-8601 or
+     * seconds, e.g. {@code 30}), {@code load.iterations}, {@code load.rampUp} and {@code load.rate} (per second).
+     * Without a duration or iteration count the run lasts 30 seconds.
+     */
+    public static LoadProfile fromSystemProperties() {
+        int users = Integer.getInteger("load.users", 10);
+        Duration duration = duration(System.getProperty("load.duration"));
+        long iterations = Long.getLong("load.iterations", 0L);
+        if (duration == null && iterations == 0) duration = Duration.ofSeconds(30);
+        Duration rampUp = duration(System.getProperty("load.rampUp"));
+        double rate = Double.parseDouble(System.getProperty("load.rate", "0"));
+        return new LoadProfile(users, duration, iterations, rampUp, rate);
+    }
+
+    public boolean isOpenModel() {
+        return arrivalRate > 0;
+    }
+
+    public LoadProfile withRampUp(Duration rampUp) {
+        return new LoadProfile(users, duration, iterations, rampUp, arrivalRate);
+    }
+
+    public LoadProfile withArrivalRate(double perSecond) {
+        return new LoadProfile(users, duration, iterations, rampUp, perSecond);
+    }
+
+    private static Duration duration(String value) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        if (v.startsWith("P") || v.startsWith("p")) return Duration.parse(v);
+        return Duration.ofMillis(Math.round(Double.parseDouble(v) * 1000));
+    }
+}
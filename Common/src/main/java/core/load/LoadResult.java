@@ -0,0 +1,25 @@
+package core.load;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a {@link LoadRunner} run.
+ *
+ * @param iterations     iterations that ran to completion or failure
+ * @param failed         iterations that threw
+ * @param dropped        open-model arrivals skipped because every user was busy
+ * @param elapsed        wall-clock length of the run
+ * @param failureSamples the first few failures, for the report
+ */
+public record LoadResult(long iterations, long failed, long dropped, Duration elapsed, List<String> failureSamples) {
+    public double elapsedSeconds() {
+        return elapsed.toNanos() / 1e9;
+    }
+
+    /** Iterations per second over the whole run. */
+    public double throughput() {
+        double s = elapsedSeconds();
+        return s <= 0 ? 0 : iterations / s;
+    }
+}
@@ -0,0 +1,156 @@
+package core.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs an iteration (typically one test scenario) repeatedly according to a {@link LoadProfile}.
+ * <p>
+ * Each virtual user, or each open-model arrival, runs on its own thread: a virtual thread on Java 21+, a pooled
+ * platform thread otherwise. An iteration fails when it throws; failures are counted, never propagated.
+ */
+public final class LoadRunner {
+    private static final int MAX_FAILURE_SAMPLES = 10;
+
+    /** One unit of load, e.g. a full scenario run. */
+    @FunctionalInterface
+    public interface Iteration {
+        void run() throws Exception;
+    }
+
+    private final LoadProfile profile;
+
+    public LoadRunner(LoadProfile profile) {
+        if (profile == null) throw new IllegalArgumentException("profile cannot be null");
+        this.profile = profile;
+    }
+
+    public LoadResult run(Iteration iteration) throws InterruptedException {
+        Counters counters = new Counters();
+        long start = System.nanoTime();
+        long deadline = profile.duration() == null ? Long.MAX_VALUE : start + profile.duration().toNanos();
+        ExecutorService executor = newPerTaskExecutor();
+        try {
+            if (profile.isOpenModel()) {
+                runOpen(iteration, counters, executor, start, deadline);
+            } else {
+                runClosed(iteration, counters, executor, start, deadline);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // Let started iterations finish; a scenario should never take long after the deadline
+        if (!executor.awaitTermination(5, TimeUnit.MINUTES)) executor.shutdownNow();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new LoadResult(counters.completed.get(), counters.failed.get(), counters.dropped.get(), elapsed,
+                counters.samples());
+    }
+
+    private void runClosed(Iteration iteration, Counters counters, ExecutorService executor,
+                           long start, long deadline) {
+        AtomicLong remaining = new AtomicLong(profile.iterations() == 0 ? Long.MAX_VALUE : profile.iterations());
+        long rampNanos = profile.rampUp().toNanos();
+        int users = profile.users();
+        for (int u = 0; u < users; u++) {
+            long startAt = start + rampNanos * u / users;
+            executor.execute(() -> {
+                sleepUntil(startAt);
+                while (System.nanoTime() < deadline && remaining.getAndDecrement() > 0) {
+                    runOne(iteration, counters);
+                }
+            });
+        }
+    }
+
+    private void runOpen(Iteration iteration, Counters counters, ExecutorService executor,
+                         long start, long deadline) {
+        Semaphore inFlight = new Semaphore(profile.users());
+        long limit = profile.iterations() == 0 ? Long.MAX_VALUE : profile.iterations();
+        for (long k = 0; k < limit; k++) {
+            long at = start + arrivalOffsetNanos(k);
+            if (at >= deadline) break;
+            sleepUntil(at);
+            if (Thread.currentThread().isInterrupted()) break;
+            if (!inFlight.tryAcquire()) {
+                counters.dropped.incrementAndGet();
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    runOne(iteration, counters);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Start offset of the k-th arrival. During ramp-up the rate grows linearly, so arrivals up to time t are
+     * {@code rate * t^2 / (2 * rampUp)}; afterwards they grow by {@code rate} per second.
+     */
+    long arrivalOffsetNanos(long k) {
+        double rate = profile.arrivalRate();
+        double ramp = profile.rampUp().toNanos() / 1e9;
+        double rampArrivals = rate * ramp / 2;
+        double seconds = k < rampArrivals
+                ? Math.sqrt(2 * k * ramp / rate)
+                : ramp + (k - rampArrivals) / rate;
+        return (long) (seconds * 1e9);
+    }
+
+    private static void runOne(Iteration iteration, Counters counters) {
+        try {
+            iteration.run();
+            counters.completed.incrementAndGet();
+        } catch (Exception | AssertionError e) {
+            counters.completed.incrementAndGet();
+            counters.failed.incrementAndGet();
+            counters.sample(e);
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long wait;
+        while ((wait = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+    }
+
+    private static ExecutorService newPerTaskExecutor() {
+        try {
+            // Java 21+: one virtual thread per user. Looked up reflectively so the module still targets 17.
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "load-user");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        private final List<String> samples = new ArrayList<>();
+
+        synchronized void sample(Throwable t) {
+            if (samples.size() < MAX_FAILURE_SAMPLES) samples.add(String.valueOf(t));
+        }
+
+        synchronized List<String> samples() {
+            return Collections.unmodifiableList(new ArrayList<>(samples));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package core.load;
+
+import core.api.EndpointMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A service-level objective a load run must meet, e.g. {@code p95<500ms}, {@code errors<1%}, {@code rps>20} or,
+ * scoped to one request key, {@code GET /users:p99<2s}. Unscoped thresholds apply to the aggregate of all requests.
+ * Keys are compared in {@link EndpointMetrics#key} form, so {@code GET /users/42} means {@code GET /users/{id}}.
+ *
+ * @param key    request key the threshold applies to, or {@link RequestMetrics#ALL}
+ * @param metric metric name understood by {@link RequestMetrics.Summary#metric(String)}
+ * @param below  true for {@code <} (value must stay below the limit), false for {@code >}
+ * @param limit  limit in the metric's unit: milliseconds, requests per second or an error rate in 0-1
+ */
+public record LoadThreshold(String key, String metric, boolean below, double limit) {
+    private static final Pattern SPEC =
+            Pattern.compile("(?:(.+):)?\\s*(\\w+)\\s*([<>])\\s*([0-9]+(?:\\.[0-9]+)?)\\s*(ms|s|%)?");
+
+    /** Parse a list of thresholds separated by {@code ;} or {@code ,}. Blank input yields no thresholds. */
+    public static List<LoadThreshold> parseAll(String specs) {
+        List<LoadThreshold> out = new ArrayList<>();
+        if (specs == null || specs.isBlank()) return out;
+        for (String spec : specs.split("[;,]")) {
+            if (!spec.isBlank()) out.add(parse(spec));
+        }
+        return out;
+    }
+
+    public static LoadThreshold parse(String spec) {
+        Matcher m = SPEC.matcher(spec.trim());
+        if (!m.matches()) throw new IllegalArgumentException("Invalid load threshold: " + spec);
+        String key = m.group(1) == null ? RequestMetrics.ALL : EndpointMetrics.normalize(m.group(1).trim());
+        String metric = m.group(2).toLowerCase(Locale.ROOT);
+        double limit = Double.parseDouble(m.group(4));
+        String unit = m.group(5);
+        if ("s".equals(unit)) limit *= 1000;
+        if ("%".equals(unit)) limit /= 100;
+        LoadThreshold t = new LoadThreshold(key, metric, m.group(3).equals("<"), limit);
+        // Fail fast on unknown metric names rather than at the end of a long run
+        new RequestMetrics.Summary(key, 0, 0, 0, 0, 0, 0, 0, 0, 0).metric(metric);
+        return t;
+    }
+
+    /** Violation message for this threshold against the given summaries, or null when it holds. */
+    public String check(List<RequestMetrics.Summary> summaries) {
+        for (RequestMetrics.Summary s : summaries) {
+            if (!s.key().equals(key)) continue;
+            double actual = s.metric(metric);
+            boolean ok = below ? actual < limit : actual > limit;
+            return ok ? null : String.format(Locale.ROOT, "%s: %s was %.3f, expected %s %.3f",
+                    key, metric, actual, below ? "<" : ">", limit);
+        }
+        return key + ": no requests recorded";
+    }
+}
@@ -0,0 +1,105 @@
+package core.load;
+
+import core.api.ApiRequest;
+import core.api.EndpointMetrics;
+import core.api.RequestListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Thread-safe latency and error counts per request key (e.g. {@code GET /users/{id}}), plus an aggregate over all
+ * keys. A response counts as an error when it failed with an exception or returned a 5xx status.
+ * <p>
+ * The counts are kept in {@link EndpointMetrics}, whose {@linkplain EndpointMetrics#key keys} collapse IDs in
+ * paths; this class adds the aggregate, throughput and thresholds of a load run.
+ */
+public final class RequestMetrics {
+    /** Key of the aggregate over every request. */
+    public static final String ALL = "ALL";
+
+    private final EndpointMetrics endpoints = new EndpointMetrics();
+    private final EndpointMetrics total = new EndpointMetrics();
+
+    /** Record one request; {@code status} is ignored when {@code failed} is true. */
+    public void record(String key, long nanos, int status, boolean failed) {
+        int outcome = failed ? -1 : status;
+        endpoints.record(key, outcome, nanos, -1, -1);
+        total.record(ALL, outcome, nanos, -1, -1);
+    }
+
+    /** Listener recording every request under its {@link EndpointMetrics#key(ApiRequest) endpoint key}. */
+    public RequestListener listener() {
+        return (request, status, nanos, failure) ->
+                record(EndpointMetrics.key(request), nanos, status, failure != null);
+    }
+
+    public void reset() {
+        endpoints.reset();
+        total.reset();
+    }
+
+    /** Snapshot of every key ordered by name, followed by the {@link #ALL} aggregate. */
+    public List<Summary> summaries(double elapsedSeconds) {
+        List<Summary> out = new ArrayList<>();
+        for (EndpointMetrics.Summary s : endpoints.summaries()) out.add(Summary.of(s, elapsedSeconds));
+        List<EndpointMetrics.Summary> all = total.summaries();
+        out.add(all.isEmpty() ? new Summary(ALL, 0, 0, 0, 0, 0, 0, 0, 0, 0) : Summary.of(all.get(0), elapsedSeconds));
+        return out;
+    }
+
+    /** Markdown table of {@link #summaries}. */
+    public String report(double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Request | Count | Errors | Req/s | Mean ms | p50 ms | p90 ms | p95 ms | p99 ms | Max ms |\n");
+        sb.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (Summary s : summaries(elapsedSeconds)) {
+            sb.append("| `").append(s.key()).append("` | ")
+                    .append(s.count()).append(" | ")
+                    .append(s.errors()).append(" | ")
+                    .append(fmt(s.throughput())).append(" | ")
+                    .append(fmt(s.meanMillis())).append(" | ")
+                    .append(fmt(s.p50())).append(" | ")
+                    .append(fmt(s.p90())).append(" | ")
+                    .append(fmt(s.p95())).append(" | ")
+                    .append(fmt(s.p99())).append(" | ")
+                    .append(fmt(s.maxMillis())).append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /** Immutable view of one key; latencies in milliseconds, throughput in requests per second. */
+    public record Summary(String key, long count, long errors, double throughput, double meanMillis,
+                          double p50, double p90, double p95, double p99, double maxMillis) {
+        static Summary of(EndpointMetrics.Summary s, double elapsedSeconds) {
+            return new Summary(s.key(), s.count(), s.failed() + s.status5xx(),
+                    elapsedSeconds <= 0 ? 0 : s.count() / elapsedSeconds, s.meanMillis(), s.p50(), s.p90(), s.p95(),
+                    s.p99(), s.maxMillis());
+        }
+
+        public double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+
+        /** Value of a named metric: p50/p90/p95/p99/max/mean (ms), rps, errors (rate, 0-1) or count. */
+        public double metric(String name) {
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "p50" -> p50;
+                case "p90" -> p90;
+                case "p95" -> p95;
+                case "p99" -> p99;
+                case "max" -> maxMillis;
+                case "mean" -> meanMillis;
+                case "rps" -> throughput;
+                case "errors" -> errorRate();
+                case "count" -> count;
+                default -> throw new IllegalArgumentException("Unknown metric: " + name);
+            };
+        }
+    }
+}
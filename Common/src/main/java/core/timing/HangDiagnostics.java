@@ -0,0 +1,147 @@
+package core.timing;
+
+import core.ui.BrowserProcesses;
+import core.ui.UiActions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * What to collect, and how to recover, when a step hangs ({@link StepWatchdog}).
+ * <p>
+ * {@link #capture} writes a full thread dump with the stuck thread first, the state of the browser and driver
+ * processes started by this JVM, and the current URL, title and a screenshot of the page. The page is read from
+ * the watchdog's thread while the step may still be inside the same driver; neither engine promises that works,
+ * so each read runs with a timeout and a failure only leaves a note in the report.
+ */
+public final class HangDiagnostics {
+    private HangDiagnostics() { }
+
+    /**
+     * Write the diagnostics of {@code stalled} into {@code dir}: {@code thread-dump.txt}, {@code processes.txt},
+     * {@code page.txt} and {@code screenshot.png} (the last two only with a browser).
+     *
+     * @param ui      the scenario's browser, or null when it has none
+     * @param timeout how long each read of the page may take
+     * @return {@code dir}
+     */
+    public static Path capture(Path dir, StepWatchdog.Stalled stalled, UiActions ui, Duration timeout) {
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("thread-dump.txt"), threadDump(stalled.thread()));
+            Files.writeString(dir.resolve("processes.txt"), processes());
+            if (ui != null) {
+                StringBuilder page = new StringBuilder();
+                page.append("url: ").append(call(ui::url, timeout)).append('\n');
+                page.append("title: ").append(call(ui::title, timeout)).append('\n');
+                Path screenshot = dir.resolve("screenshot.png");
+                page.append("screenshot: ").append(call(() -> {
+                    ui.screenshot(screenshot.toString());
+                    return screenshot.getFileName();
+                }, timeout)).append('\n');
+                Files.writeString(dir.resolve("page.txt"), page);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write hang diagnostics to " + dir, e);
+        }
+        return dir;
+    }
+
+    /**
+     * Close the browser so the stuck call fails and the next scenario starts a fresh one. When closing does not
+     * finish within {@code timeout}, the process trees of this browser ({@link UiActions#processes()}) are killed
+     * instead; the browsers of scenarios running in parallel are left alone.
+     *
+     * @return true when the browser closed normally
+     */
+    public static boolean recycle(UiActions ui, Duration timeout) {
+        String closed = call(() -> {
+            ui.close();
+            return "closed";
+        }, timeout);
+        if ("closed".equals(closed)) return true;
+        BrowserProcesses.kill(ui.processes());
+        return false;
+    }
+
+    /** Every thread of the JVM with full stacks and the locks it holds or waits for, {@code first} on top. */
+    public static String threadDump(Thread first) {
+        ThreadInfo[] infos = ManagementFactory.getThreadMXBean().dumpAllThreads(true, true);
+        StringBuilder sb = new StringBuilder();
+        for (ThreadInfo info : infos) {
+            if (info.getThreadId() == first.getId()) append(sb, info);
+        }
+        for (ThreadInfo info : infos) {
+            if (info.getThreadId() != first.getId()) append(sb, info);
+        }
+        return sb.toString();
+    }
+
+    /** Processes started by this JVM, browsers and drivers marked, with their CPU time so far. */
+    public static String processes() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-8s %-8s %-7s %-10s %s%n",
+                "PID", "PARENT", "BROWSER", "CPU", "COMMAND"));
+        ProcessHandle.current().descendants().forEach(p -> {
+            ProcessHandle.Info info = p.info();
+            sb.append(String.format(Locale.ROOT, "%-8d %-8s %-7s %-10s %s%n", p.pid(),
+                    p.parent().map(parent -> String.valueOf(parent.pid())).orElse("-"),
+                    BrowserProcesses.isBrowser(p) ? "yes" : "", info.totalCpuDuration().map(HangDiagnostics::cpu).orElse("?"),
+                    info.commandLine().orElse(info.command().orElse("?"))));
+        });
+        return sb.toString();
+    }
+
+    private static String cpu(Duration d) {
+        return String.format(Locale.ROOT, "%.1fs", d.toMillis() / 1000.0);
+    }
+
+    private static void append(StringBuilder sb, ThreadInfo info) {
+        sb.append('"').append(info.getThreadName()).append("\" #").append(info.getThreadId())
+                .append(info.isDaemon() ? " daemon" : "").append(' ').append(info.getThreadState());
+        if (info.getLockName() != null) sb.append(" on ").append(info.getLockName());
+        if (info.getLockOwnerName() != null) sb.append(" owned by \"").append(info.getLockOwnerName()).append('"');
+        sb.append('\n');
+        StackTraceElement[] stack = info.getStackTrace();
+        MonitorInfo[] monitors = info.getLockedMonitors();
+        for (int i = 0; i < stack.length; i++) {
+            sb.append("\tat ").append(stack[i]).append('\n');
+            for (MonitorInfo monitor : monitors) {
+                if (monitor.getLockedStackDepth() == i) sb.append("\t- locked ").append(monitor).append('\n');
+            }
+        }
+        for (LockInfo lock : info.getLockedSynchronizers()) sb.append("\t- holds ").append(lock).append('\n');
+        sb.append('\n');
+    }
+
+    /** Run {@code task} on a daemon thread and return its result, or why there is none. */
+    private static String call(Callable<?> task, Duration timeout) {
+        FutureTask<?> future = new FutureTask<>(task);
+        Thread t = new Thread(future, "hang-diagnostics");
+        t.setDaemon(true);
+        t.start();
+        try {
+            return String.valueOf(future.get(timeout.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            // Left running; it is a daemon and ends with the browser at the latest
+            return "unavailable (no answer within " + timeout.toMillis() + " ms)";
+        } catch (ExecutionException e) {
+            return "unavailable (" + e.getCause() + ")";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unavailable (interrupted)";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package core.timing;
+
+/**
+ * Per-thread split of a step's wall time into time spent inside the UI driver, inside the API client, and the
+ * rest (glue code, assertions, waits in step definitions).
+ * <p>
+ * A test framework calls {@link #startStep()} and {@link #stopStep()} around each step on the thread running it;
+ * {@link core.ui.TimedUiActions} and {@link core.api.TimedApiClient} charge the time of every call they make on
+ * that thread to {@link Layer#UI} or {@link Layer#API}. Nested calls are charged to the outermost layer only, so a
+ * UI action that calls an API client internally is not counted twice. Calls made outside a step, or on threads
+ * the step handed work to, are not counted.
+ */
+public final class StepTimer {
+    public enum Layer { UI, API }
+
+    private static final ThreadLocal<Frame> FRAME = ThreadLocal.withInitial(Frame::new);
+    private static volatile boolean enabled;
+
+    private StepTimer() { }
+
+    /** True when steps are being timed, i.e. when the wrappers should be installed. */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** Time spent inside each layer during one step, in nanoseconds. */
+    public record Split(long uiNanos, long apiNanos) {
+        public static final Split NONE = new Split(0, 0);
+    }
+
+    /** Start charging calls on this thread to a new step. */
+    public static void startStep() {
+        Frame f = FRAME.get();
+        f.active = true;
+        f.depth = 0;
+        f.ui = 0;
+        f.api = 0;
+    }
+
+    /** Stop charging calls on this thread and return what the step spent in each layer. */
+    public static Split stopStep() {
+        Frame f = FRAME.get();
+        if (!f.active) return Split.NONE;
+        f.active = false;
+        return new Split(f.ui, f.api);
+    }
+
+    /**
+     * Mark the start of a call into a layer on this thread.
+     *
+     * @return the start time to pass to {@link #exit}, or 0 when the call is not charged (no step running, or
+     * nested in another charged call)
+     */
+    public static long enter() {
+        Frame f = FRAME.get();
+        if (!f.active) return 0;
+        return f.depth++ == 0 ? System.nanoTime() : 0;
+    }
+
+    /** Mark the end of a call started with {@link #enter()}, charging it to {@code layer} if it was outermost. */
+    public static void exit(Layer layer, long start) {
+        Frame f = FRAME.get();
+        if (!f.active || f.depth == 0) return;
+        f.depth--;
+        if (start == 0) return;
+        long nanos = System.nanoTime() - start;
+        if (layer == Layer.UI) {
+            f.ui += nanos;
+        } else {
+            f.api += nanos;
+        }
+    }
+
+    private static final class Frame {
+        boolean active;
+        int depth;
+        long ui;
+        long api;
+    }
+}
@@ -0,0 +1,240 @@
+package core.timing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe aggregate of step and scenario wall times of a run, with each step's time split into UI, API and
+ * glue code by {@link StepTimer}. Steps are grouped by their pattern (e.g. {@code I GET {string}}), so one slow step
+ * definition shows up once however many scenarios use it. Exported with {@link #report(int)} and
+ * {@link #toJson(int)}, both ranked by total time.
+ * <p>
+ * The individual durations of every step, scenario and UI or API action ({@link #recordAction}) are kept as well,
+ * up to {@value #MAX_SAMPLES} per name, and exported by {@link #samplesJson} for comparison against a baseline
+ * run ({@code scripts/perf_gate.py}).
+ */
+public final class StepTimings {
+    private static final ObjectWriter JSON = new ObjectMapper().writerWithDefaultPrettyPrinter();
+    static final int MAX_SAMPLES = 10_000;
+
+    private final Map<String, Step> steps = new ConcurrentHashMap<>();
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final Map<String, Samples> stepSamples = new ConcurrentHashMap<>();
+    private final Map<String, Samples> scenarioSamples = new ConcurrentHashMap<>();
+    private final Map<String, Samples> actionSamples = new ConcurrentHashMap<>();
+
+    /**
+     * Timings of one step pattern.
+     *
+     * @param glueMillis time neither in the UI driver nor in the API client, never negative
+     */
+    public record StepSummary(String pattern, String location, long count, long failed, double totalMillis,
+                              double meanMillis, double maxMillis, double uiMillis, double apiMillis,
+                              double glueMillis) { }
+
+    /** Timings of one scenario run. */
+    public record Scenario(String name, String location, String status, double millis, double uiMillis,
+                           double apiMillis, double glueMillis) { }
+
+    /**
+     * Record one step.
+     *
+     * @param pattern  step definition pattern the step matched, or the hook's name
+     * @param location source of the step definition, or null
+     * @param passed   false when the step failed
+     * @param nanos    wall time of the step
+     */
+    public void recordStep(String pattern, String location, boolean passed, long nanos, StepTimer.Split split) {
+        steps.computeIfAbsent(pattern, p -> new Step(location)).add(passed, nanos, split);
+        stepSamples.computeIfAbsent(pattern, p -> new Samples()).add(nanos);
+    }
+
+    /**
+     * Record one call of a UI or API action, e.g. {@code ui click} or {@code api GET /users/{id}}, made inside a
+     * step or not.
+     */
+    public void recordAction(String action, long nanos) {
+        actionSamples.computeIfAbsent(action, a -> new Samples()).add(nanos);
+    }
+
+    /** Record one finished scenario with the sum of its steps' splits. */
+    public void recordScenario(String name, String location, String status, long nanos, long uiNanos,
+                               long apiNanos) {
+        Scenario s = new Scenario(name, location, status, millis(nanos), millis(uiNanos), millis(apiNanos),
+                millis(Math.max(0, nanos - uiNanos - apiNanos)));
+        synchronized (scenarios) {
+            scenarios.add(s);
+        }
+        scenarioSamples.computeIfAbsent(name + " (" + location + ")", k -> new Samples()).add(nanos);
+    }
+
+    public void reset() {
+        steps.clear();
+        synchronized (scenarios) {
+            scenarios.clear();
+        }
+        stepSamples.clear();
+        scenarioSamples.clear();
+        actionSamples.clear();
+    }
+
+    /** The {@code limit} step patterns with the highest total time, slowest first. */
+    public List<StepSummary> slowestSteps(int limit) {
+        List<StepSummary> out = new ArrayList<>();
+        steps.forEach((pattern, step) -> out.add(step.summary(pattern)));
+        out.sort(Comparator.comparingDouble(StepSummary::totalMillis).reversed()
+                .thenComparing(StepSummary::pattern));
+        return top(out, limit);
+    }
+
+    /** The {@code limit} slowest scenario runs, slowest first. */
+    public List<Scenario> slowestScenarios(int limit) {
+        List<Scenario> out;
+        synchronized (scenarios) {
+            out = new ArrayList<>(scenarios);
+        }
+        out.sort(Comparator.comparingDouble(Scenario::millis).reversed().thenComparing(Scenario::name));
+        return top(out, limit);
+    }
+
+    /** Markdown tables of the {@code limit} slowest steps and scenarios. */
+    public String report(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Step | Count | Failed | Total ms | Mean ms | Max ms | UI % | API % | Glue % |\n");
+        sb.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (StepSummary s : slowestSteps(limit)) {
+            sb.append("| `").append(s.pattern()).append("` | ")
+                    .append(s.count()).append(" | ")
+                    .append(s.failed()).append(" | ")
+                    .append(fmt(s.totalMillis())).append(" | ")
+                    .append(fmt(s.meanMillis())).append(" | ")
+                    .append(fmt(s.maxMillis())).append(" | ")
+                    .append(percent(s.uiMillis(), s.totalMillis())).append(" | ")
+                    .append(percent(s.apiMillis(), s.totalMillis())).append(" | ")
+                    .append(percent(s.glueMillis(), s.totalMillis())).append(" |\n");
+        }
+        sb.append("\n| Scenario | Status | Total ms | UI ms | API ms | Glue ms |\n");
+        sb.append("|---|---|---:|---:|---:|---:|\n");
+        for (Scenario s : slowestScenarios(limit)) {
+            sb.append("| ").append(s.name().replace("|", "\\|")).append(" | ")
+                    .append(s.status()).append(" | ")
+                    .append(fmt(s.millis())).append(" | ")
+                    .append(fmt(s.uiMillis())).append(" | ")
+                    .append(fmt(s.apiMillis())).append(" | ")
+                    .append(fmt(s.glueMillis())).append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    /** {@code {"steps": [...], "scenarios": [...]}}, each ranked and cut to {@code limit}, pretty-printed. */
+    public String toJson(int limit) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("steps", slowestSteps(limit));
+        root.put("scenarios", slowestScenarios(limit));
+        try {
+            return JSON.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize step timings", e);
+        }
+    }
+
+    /**
+     * Every recorded duration in milliseconds, by name: {@code {"environment": {...}, "steps": {pattern: [...]},
+     * "scenarios": {"name (location)": [...]}, "actions": {action: [...]}}}, pretty-printed.
+     *
+     * @param environment settings the run was made with, so runs are only compared with comparable ones
+     */
+    public String samplesJson(Map<String, String> environment) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("environment", new TreeMap<>(environment));
+        root.put("steps", samples(stepSamples));
+        root.put("scenarios", samples(scenarioSamples));
+        root.put("actions", samples(actionSamples));
+        try {
+            return JSON.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize timing samples", e);
+        }
+    }
+
+    private static Map<String, double[]> samples(Map<String, Samples> byName) {
+        Map<String, double[]> out = new TreeMap<>();
+        byName.forEach((name, s) -> out.put(name, s.millis()));
+        return out;
+    }
+
+    private static <T> List<T> top(List<T> list, int limit) {
+        return list.size() > limit ? new ArrayList<>(list.subList(0, limit)) : list;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String percent(double part, double total) {
+        return total <= 0 ? "0" : String.format(Locale.ROOT, "%.0f", part * 100 / total);
+    }
+
+    private static final class Step {
+        private final String location;
+        private long count;
+        private long failed;
+        private long totalNanos;
+        private long maxNanos;
+        private long uiNanos;
+        private long apiNanos;
+
+        Step(String location) {
+            this.location = location;
+        }
+
+        synchronized void add(boolean passed, long nanos, StepTimer.Split split) {
+            count++;
+            if (!passed) failed++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            uiNanos += split.uiNanos();
+            apiNanos += split.apiNanos();
+        }
+
+        synchronized StepSummary summary(String pattern) {
+            return new StepSummary(pattern, location, count, failed, millis(totalNanos),
+                    count == 0 ? 0 : millis(totalNanos / count), millis(maxNanos), millis(uiNanos),
+                    millis(apiNanos), millis(Math.max(0, totalNanos - uiNanos - apiNanos)));
+        }
+    }
+
+    /** Durations of one name, in nanoseconds; the first {@value #MAX_SAMPLES} are kept. */
+    private static final class Samples {
+        private long[] nanos = new long[16];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == MAX_SAMPLES) return;
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, Math.min(size * 2, MAX_SAMPLES));
+            nanos[size++] = value;
+        }
+
+        synchronized double[] millis() {
+            double[] out = new double[size];
+            // Microsecond precision keeps the JSON readable
+            for (int i = 0; i < size; i++) out[i] = Math.round(nanos[i] / 1_000.0) / 1_000.0;
+            return out;
+        }
+    }
+}
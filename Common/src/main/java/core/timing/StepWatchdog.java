@@ -0,0 +1,102 @@
+package core.timing;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Notices steps that run past a deadline. A test framework {@link #watch watches} each step on the thread running
+ * it and closes the returned guard when the step ends; a step still running at the deadline is reported to the
+ * handler, on a thread of its own, while the step keeps running (or stays stuck).
+ * <p>
+ * One scheduler thread serves every scenario of the run, however many run in parallel; the handler gets a fresh
+ * thread per stalled step, so capturing diagnostics for one hang never delays the detection of another.
+ */
+public final class StepWatchdog implements AutoCloseable {
+    /** A step that did not finish in time. */
+    public static final class Stalled {
+        private final String label;
+        private final Thread thread;
+        private final Duration deadline;
+        private volatile boolean finished;
+
+        Stalled(String label, Thread thread, Duration deadline) {
+            this.label = label;
+            this.thread = thread;
+            this.deadline = deadline;
+        }
+
+        /** What was running, e.g. the scenario and step text. */
+        public String label() {
+            return label;
+        }
+
+        /** The thread running the step. */
+        public Thread thread() {
+            return thread;
+        }
+
+        public Duration deadline() {
+            return deadline;
+        }
+
+        /** True once the step ended after all; its thread has moved on and must not be interrupted. */
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+
+    /** Ends the watch of one step; after the deadline it marks the step {@link Stalled#isFinished finished}. */
+    public interface Guard extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Duration deadline;
+    private final Consumer<Stalled> handler;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param deadline how long a step may run before it is reported
+     * @param handler  called once per stalled step, on a new daemon thread
+     */
+    public StepWatchdog(Duration deadline, Consumer<Stalled> handler) {
+        if (deadline == null || deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException("deadline must be positive: " + deadline);
+        }
+        if (handler == null) throw new IllegalArgumentException("handler cannot be null");
+        this.deadline = deadline;
+        this.handler = handler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "step-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Duration deadline() {
+        return deadline;
+    }
+
+    /** Start watching a step running on the calling thread. */
+    public Guard watch(String label) {
+        Stalled stalled = new Stalled(label, Thread.currentThread(), deadline);
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            Thread t = new Thread(() -> handler.accept(stalled), "step-watchdog-handler");
+            t.setDaemon(true);
+            t.start();
+        }, deadline.toNanos(), TimeUnit.NANOSECONDS);
+        return () -> {
+            stalled.finished = true;
+            timer.cancel(false);
+        };
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,70 @@
+package core.ui;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The processes a browser engine starts, so a hung browser can be killed without touching the browsers of
+ * scenarios running in parallel ({@link UiActions#processes()}).
+ * <p>
+ * Neither engine exposes the PIDs of its driver or browser, so {@link #launch} records the child processes this JVM
+ * gained while the engine started: the driver (chromedriver, or Playwright's node driver behind a shell script),
+ * whose descendants are the browser. Engine start-ups are serialized to keep the processes of concurrent launches
+ * apart; the scenarios themselves still run in parallel.
+ */
+public final class BrowserProcesses {
+    // Executable names, without ".exe", of browsers and the driver processes in front of them
+    private static final Set<String> EXECUTABLES = Set.of("chrome", "chromium", "chromium-browser",
+            "chrome-headless-shell", "headless_shell", "chromedriver", "msedge", "msedgedriver", "firefox",
+            "firefox-bin", "geckodriver", "safaridriver", "minibrowser", "node");
+    private static final Object LAUNCH = new Object();
+
+    private BrowserProcesses() { }
+
+    /** An engine and the processes started for it. */
+    public record Launched<T>(T engine, List<ProcessHandle> processes) { }
+
+    /** Start an engine with {@code start} and record the browser and driver processes it started. */
+    public static <T> Launched<T> launch(Supplier<T> start) {
+        synchronized (LAUNCH) {
+            Set<Long> before = ProcessHandle.current().children().map(ProcessHandle::pid).collect(Collectors.toSet());
+            T engine = start.get();
+            List<ProcessHandle> started = ProcessHandle.current().children()
+                    .filter(p -> !before.contains(p.pid()))
+                    .filter(p -> isBrowser(p) || p.descendants().anyMatch(BrowserProcesses::isBrowser))
+                    .toList();
+            return new Launched<>(engine, started);
+        }
+    }
+
+    /** True when the executable of {@code process} is named exactly like a known browser or driver. */
+    public static boolean isBrowser(ProcessHandle process) {
+        Path command = Path.of(process.info().command().orElse("")).getFileName();
+        if (command == null) return false;
+        String name = command.toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".exe")) name = name.substring(0, name.length() - 4);
+        return EXECUTABLES.contains(name);
+    }
+
+    /**
+     * Forcibly end {@code roots} and every process below them, descendants first so none is re-parented and missed.
+     *
+     * @return the number of processes that were still running
+     */
+    public static int kill(List<ProcessHandle> roots) {
+        int killed = 0;
+        for (ProcessHandle root : roots) {
+            // A handle remembers its process's start time, so a reused PID is never killed
+            if (!root.isAlive()) continue;
+            for (ProcessHandle child : root.descendants().toList()) {
+                if (child.destroyForcibly()) killed++;
+            }
+            if (root.destroyForcibly()) killed++;
+        }
+        return killed;
+    }
+}
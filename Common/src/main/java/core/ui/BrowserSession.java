@@ -0,0 +1,249 @@
+package core.ui;
+
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cookies and web storage to place into a browser before the first {@code open(url)}, so a scenario can log in or
+ * seed data through the API and start the UI already in that state ({@link UiActions#injectSession}).
+ * <p>
+ * A session belongs to the origin of the page that will be opened. Cookies usually come from API responses
+ * ({@link #withCookiesFrom}), whose {@code Set-Cookie} headers are resolved like a browser does: a cookie without
+ * a {@code Domain} attribute is host-only, one with a {@code Domain} also applies to subdomains, and a missing
+ * {@code Path} defaults to the directory of the request path. Cookies the browser would not send to the origin
+ * are left out, since neither engine could use them there.
+ * <pre>{@code
+ * Response login = api.post("/api/login", credentials);
+ * ui.injectSession(BrowserSession.forUrl(appUrl).withCookiesFrom(apiUrl + "/api/login", login));
+ * ui.open(appUrl + "/account");
+ * }</pre>
+ */
+public final class BrowserSession {
+    // Netscape-style dates, still sent by some servers: "Wed, 09-Jun-2021 10:18:14 GMT"
+    private static final DateTimeFormatter NETSCAPE_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd-MMM-yyyy HH:mm:ss zzz", Locale.ROOT);
+
+    /**
+     * A cookie resolved against the URL that set it.
+     *
+     * @param domain   host the cookie was set by (host-only) or the {@code Domain} attribute, lower case, no dot
+     * @param hostOnly true when the cookie is only sent to {@code domain} itself, not its subdomains
+     * @param expires  expiry, or null for a session cookie
+     * @param sameSite {@code Strict}, {@code Lax}, {@code None} or null when not specified
+     */
+    public record Cookie(String name, String value, String domain, boolean hostOnly, String path, Instant expires,
+                         boolean secure, boolean httpOnly, String sameSite) {
+        public Cookie {
+            if (name == null || name.isEmpty()) throw new IllegalArgumentException("name cannot be empty");
+            if (domain == null || domain.isEmpty()) throw new IllegalArgumentException("domain cannot be empty");
+            value = value == null ? "" : value;
+            domain = stripDot(domain.toLowerCase(Locale.ROOT));
+            path = path == null || !path.startsWith("/") ? "/" : path;
+        }
+
+        /** True when a browser would send this cookie to {@code host}. */
+        public boolean matches(String host) {
+            String h = host.toLowerCase(Locale.ROOT);
+            return hostOnly ? h.equals(domain) : domainMatches(h, domain);
+        }
+    }
+
+    private final URI origin;
+    private final List<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+
+    private BrowserSession(URI origin, List<Cookie> cookies, Map<String, String> localStorage,
+                           Map<String, String> sessionStorage) {
+        this.origin = origin;
+        this.cookies = Collections.unmodifiableList(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+        this.sessionStorage = Collections.unmodifiableMap(sessionStorage);
+    }
+
+    /** An empty session for the origin of {@code url}, e.g. the page about to be opened. */
+    public static BrowserSession forUrl(String url) {
+        URI uri = URI.create(url);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("Expected an absolute http(s) URL: " + url);
+        }
+        URI origin = URI.create(uri.getScheme().toLowerCase(Locale.ROOT) + "://" + uri.getRawAuthority());
+        return new BrowserSession(origin, List.of(), Map.of(), Map.of());
+    }
+
+    /** Scheme, host and port the session is for, e.g. {@code http://localhost:8080}. */
+    public URI origin() {
+        return origin;
+    }
+
+    public String host() {
+        return origin.getHost().toLowerCase(Locale.ROOT);
+    }
+
+    public List<Cookie> cookies() {
+        return cookies;
+    }
+
+    public Map<String, String> localStorage() {
+        return localStorage;
+    }
+
+    public Map<String, String> sessionStorage() {
+        return sessionStorage;
+    }
+
+    public boolean isEmpty() {
+        return cookies.isEmpty() && localStorage.isEmpty() && sessionStorage.isEmpty();
+    }
+
+    /**
+     * A page on the origin the browser visits to place storage (and, for Selenium, cookies), which can only be
+     * written from a document of that origin. Its content does not matter, so a missing page is fine.
+     */
+    public String landingUrl() {
+        return origin + "/favicon.ico";
+    }
+
+    /** Copy with every cookie set by {@code response} to a request for {@code requestUrl}. */
+    public BrowserSession withCookiesFrom(String requestUrl, Response response) {
+        BrowserSession session = this;
+        for (String header : response.headers().getValues("Set-Cookie")) {
+            session = session.withSetCookie(requestUrl, header);
+        }
+        return session;
+    }
+
+    /**
+     * Copy with the cookie of one {@code Set-Cookie} header value received for {@code requestUrl}. Deleting
+     * cookies (expired or {@code Max-Age=0}), cookies whose {@code Domain} does not cover the request host and
+     * cookies not sent to this session's origin are ignored.
+     */
+    public BrowserSession withSetCookie(String requestUrl, String setCookie) {
+        Cookie cookie = parse(URI.create(requestUrl), setCookie, Instant.now());
+        return cookie == null ? this : withCookie(cookie);
+    }
+
+    /** Copy with {@code cookie}, replacing one with the same name, domain and path; ignored if not sent here. */
+    public BrowserSession withCookie(Cookie cookie) {
+        if (!cookie.matches(host())) return this;
+        List<Cookie> copy = new ArrayList<>(cookies.size() + 1);
+        for (Cookie c : cookies) {
+            boolean same = c.name().equals(cookie.name()) && c.domain().equals(cookie.domain())
+                    && c.path().equals(cookie.path());
+            if (!same) copy.add(c);
+        }
+        copy.add(cookie);
+        return new BrowserSession(origin, copy, localStorage, sessionStorage);
+    }
+
+    public BrowserSession withLocalStorage(String key, String value) {
+        return new BrowserSession(origin, cookies, with(localStorage, key, value), sessionStorage);
+    }
+
+    public BrowserSession withSessionStorage(String key, String value) {
+        return new BrowserSession(origin, cookies, localStorage, with(sessionStorage, key, value));
+    }
+
+    private static Map<String, String> with(Map<String, String> map, String key, String value) {
+        if (key == null) throw new IllegalArgumentException("key cannot be null");
+        if (value == null) throw new IllegalArgumentException("value cannot be null");
+        Map<String, String> copy = new LinkedHashMap<>(map);
+        copy.put(key, value);
+        return copy;
+    }
+
+    /** RFC 6265 section 5.2 parsing and 5.3 storage rules; null when a browser would not store the cookie. */
+    static Cookie parse(URI requestUri, String setCookie, Instant now) {
+        String[] parts = setCookie.split(";");
+        int eq = parts[0].indexOf('=');
+        if (eq <= 0) return null;
+        String name = parts[0].substring(0, eq).trim();
+        String value = parts[0].substring(eq + 1).trim();
+        if (name.isEmpty()) return null;
+
+        String requestHost = requestUri.getHost().toLowerCase(Locale.ROOT);
+        String domain = null;
+        String path = null;
+        Instant expires = null;
+        Long maxAge = null;
+        boolean secure = false;
+        boolean httpOnly = false;
+        String sameSite = null;
+        for (int i = 1; i < parts.length; i++) {
+            String attribute = parts[i].trim();
+            int aeq = attribute.indexOf('=');
+            String key = (aeq < 0 ? attribute : attribute.substring(0, aeq)).trim().toLowerCase(Locale.ROOT);
+            String val = aeq < 0 ? "" : attribute.substring(aeq + 1).trim();
+            switch (key) {
+                case "domain" -> domain = val.isEmpty() ? null : stripDot(val.toLowerCase(Locale.ROOT));
+                case "path" -> path = val.startsWith("/") ? val : null;
+                case "expires" -> expires = parseDate(val);
+                case "max-age" -> {
+                    try {
+                        maxAge = Long.parseLong(val);
+                    } catch (NumberFormatException ignored) {
+                        // Invalid Max-Age is ignored, as browsers do
+                    }
+                }
+                case "secure" -> secure = true;
+                case "httponly" -> httpOnly = true;
+                case "samesite" -> sameSite = sameSite(val);
+                default -> { }
+            }
+        }
+        // Max-Age wins over Expires
+        if (maxAge != null) expires = maxAge <= 0 ? Instant.MIN : now.plusSeconds(maxAge);
+        if (expires != null && !expires.isAfter(now)) return null;
+        if (domain != null && !domainMatches(requestHost, domain)) return null;
+        boolean hostOnly = domain == null;
+        return new Cookie(name, value, hostOnly ? requestHost : domain, hostOnly,
+                path == null ? defaultPath(requestUri.getRawPath()) : path, expires, secure, httpOnly, sameSite);
+    }
+
+    /** The request path up to, not including, its last slash; "/" for top-level paths. */
+    static String defaultPath(String requestPath) {
+        if (requestPath == null || !requestPath.startsWith("/")) return "/";
+        int last = requestPath.lastIndexOf('/');
+        return last == 0 ? "/" : requestPath.substring(0, last);
+    }
+
+    private static boolean domainMatches(String host, String domain) {
+        return host.equals(domain) || host.endsWith("." + domain);
+    }
+
+    private static String stripDot(String domain) {
+        return domain.startsWith(".") ? domain.substring(1) : domain;
+    }
+
+    private static String sameSite(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "strict" -> "Strict";
+            case "lax" -> "Lax";
+            case "none" -> "None";
+            default -> null;
+        };
+    }
+
+    private static Instant parseDate(String value) {
+        for (DateTimeFormatter format : List.of(DateTimeFormatter.RFC_1123_DATE_TIME, NETSCAPE_DATE)) {
+            try {
+                return ZonedDateTime.parse(value, format).toInstant();
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        // Unparseable dates are ignored, leaving a session cookie
+        return null;
+    }
+}
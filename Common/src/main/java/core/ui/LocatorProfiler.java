@@ -0,0 +1,131 @@
+package core.ui;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run-wide record of how long each {@link Target} takes to resolve to an element.
+ * <p>
+ * Enabled with {@code -Dlocator.profile=true} (or {@link #setEnabled(boolean)}). Engines report every element
+ * lookup through {@link #record}; {@link #report(int)} ranks the most expensive targets and suggests narrower
+ * alternatives, from the tag names the targets were observed to resolve to.
+ */
+public final class LocatorProfiler {
+    private static final Map<Target, Stats> STATS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = Boolean.getBoolean("locator.profile");
+
+    private LocatorProfiler() { }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** True when engines should time lookups and capture tags (profiling or rewriting is on). */
+    public static boolean isActive() {
+        return enabled || LocatorRewriter.isEnabled();
+    }
+
+    /** True when the tag name of the element resolved for this target is still unknown. */
+    public static boolean needsTag(Target target) {
+        Stats s = STATS.get(target);
+        return s == null || s.tagsEmpty();
+    }
+
+    /**
+     * Record one lookup of {@code target}.
+     *
+     * @param nanos     time spent resolving the element
+     * @param tagName   tag of the resolved element, or null when not captured
+     * @param rewritten whether the lookup used a selector narrowed by {@link LocatorRewriter}
+     */
+    public static void record(Target target, long nanos, String tagName, boolean rewritten) {
+        STATS.computeIfAbsent(target, t -> new Stats()).add(nanos, tagName, rewritten);
+    }
+
+    /** The single tag name observed for this target, or null if none or several were seen. */
+    public static String observedTag(Target target) {
+        Stats s = STATS.get(target);
+        return s == null ? null : s.singleTag();
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /** Targets ordered by total resolution time, most expensive first. */
+    public static List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>();
+        STATS.forEach((target, stats) -> entries.add(stats.snapshot(target)));
+        entries.sort(Comparator.comparingLong(Entry::totalNanos).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /** Markdown table of the {@code limit} most expensive targets. */
+    public static String report(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Target | Lookups | Mean ms | Max ms | Total ms | Suggestion |\n");
+        sb.append("|---|---:|---:|---:|---:|---|\n");
+        for (Entry e : top(limit)) {
+            sb.append("| `").append(e.target()).append("` | ")
+                    .append(e.count()).append(" | ")
+                    .append(millis(e.count() == 0 ? 0 : e.totalNanos() / e.count())).append(" | ")
+                    .append(millis(e.maxNanos())).append(" | ")
+                    .append(millis(e.totalNanos())).append(" | ")
+                    .append(suggestion(e)).append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    private static String suggestion(Entry e) {
+        Target t = e.target();
+        if (t.strategy() == Target.Strategy.TEXT && t.scope() == null && e.tags().size() == 1) {
+            return "`" + t.within(e.tags().iterator().next()) + "`";
+        }
+        return "";
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    /** Immutable view of one target's profile. */
+    public record Entry(Target target, long count, long totalNanos, long maxNanos, long rewrittenCount, Set<String> tags) { }
+
+    private static final class Stats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long rewritten;
+        private final Set<String> tags = new LinkedHashSet<>();
+
+        synchronized void add(long nanos, String tagName, boolean wasRewritten) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (wasRewritten) rewritten++;
+            if (tagName != null) tags.add(tagName.toLowerCase());
+        }
+
+        synchronized boolean tagsEmpty() {
+            return tags.isEmpty();
+        }
+
+        synchronized String singleTag() {
+            return tags.size() == 1 ? tags.iterator().next() : null;
+        }
+
+        synchronized Entry snapshot(Target target) {
+            return new Entry(target, count, totalNanos, maxNanos, rewritten, Set.copyOf(tags));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package core.ui;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional rewrite layer that narrows whole-document TEXT lookups to the tag name they were observed to resolve to.
+ * <p>
+ * Enabled with {@code -Dlocator.rewrite=true} (or {@link #setEnabled(boolean)}). The first lookup of a TEXT target
+ * on a page runs unchanged and engines {@link #learn} its element's tag for that page (its URL); later lookups on
+ * the same page use {@code target.within(tag)}. Because the first match in document order of {@code //*[...]} is
+ * also the first match of {@code //tag[...]} as long as the page is unchanged, the narrowed selector resolves to the
+ * same element. Tags are never carried over to another page, where a different element may come first. Engines
+ * fall back to the original target on every lookup path, without waiting, and {@link #reject forget} the tag if
+ * the narrowed lookup stops matching.
+ * <p>
+ * LINK_TEXT and PARTIAL_LINK_TEXT are already anchor-scoped in both engines and are left unchanged.
+ */
+public final class LocatorRewriter {
+    // Pages with many URLs (ids in paths) would grow the map for the whole run; it is cleared when full
+    static final int MAX_LEARNED = 10_000;
+    private static final Map<Learned, String> TAGS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = Boolean.getBoolean("locator.rewrite");
+
+    private record Learned(Target target, String page) { }
+
+    private LocatorRewriter() { }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** True when {@code target} is rewritten once its tag is known, i.e. engines need the current page for it. */
+    public static boolean applies(Target target) {
+        return enabled && target.strategy() == Target.Strategy.TEXT && target.scope() == null;
+    }
+
+    /** The narrowest known equivalent of {@code target} on {@code page}, or {@code target} itself. */
+    public static Target rewrite(Target target, String page) {
+        if (!applies(target) || page == null) return target;
+        String tag = TAGS.get(new Learned(target, page));
+        return tag == null ? target : target.within(tag);
+    }
+
+    /** True when the tag {@code target} resolves to on {@code page} is still unknown. */
+    public static boolean needsTag(Target target, String page) {
+        return applies(target) && page != null && !TAGS.containsKey(new Learned(target, page));
+    }
+
+    /** Record the tag of the element an unchanged lookup of {@code target} resolved to on {@code page}. */
+    public static void learn(Target target, String page, String tagName) {
+        if (!applies(target) || page == null || tagName == null) return;
+        if (TAGS.size() >= MAX_LEARNED) TAGS.clear();
+        TAGS.put(new Learned(target, page), tagName.toLowerCase());
+    }
+
+    /** The narrowed form of {@code target} did not match on {@code page}: stop rewriting it there. */
+    public static void reject(Target target, String page) {
+        TAGS.remove(new Learned(target, page));
+    }
+
+    public static void reset() {
+        TAGS.clear();
+    }
+}
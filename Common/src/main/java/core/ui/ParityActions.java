@@ -0,0 +1,320 @@
+package core.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * UiActions that drives two engines (e.g. Selenium and Playwright) with the same steps at the same time.
+ * <p>
+ * Every call is dispatched to both engines concurrently and the outcomes are compared: divergent return values
+ * or a failure on only one side raise a {@link ParityMismatchException}. When both engines fail the first
+ * engine's exception is rethrown unchanged, so genuine step failures still read as normal failures.
+ * <p>
+ * Each engine is created and driven from its own dedicated thread because Playwright objects must only be
+ * used from the thread that created them.
+ */
+public class ParityActions implements UiActions {
+    private final Engine left;
+    private final Engine right;
+
+    public ParityActions(String leftName, Supplier<? extends UiActions> left,
+                         String rightName, Supplier<? extends UiActions> right) {
+        this.left = new Engine(leftName);
+        this.right = new Engine(rightName);
+        Outcome<UiActions> l = Outcome.of(this.left.executor.submit(() -> (UiActions) left.get()));
+        Outcome<UiActions> r = Outcome.of(this.right.executor.submit(() -> (UiActions) right.get()));
+        this.left.actions = l.value;
+        this.right.actions = r.value;
+        if (l.failure != null || r.failure != null) {
+            // Do not leak the engine that did start
+            close();
+            throw asRuntime(l.failure != null ? l.failure : r.failure);
+        }
+    }
+
+    @Override
+    public void open(String url) { run("open", ui -> ui.open(url)); }
+
+    @Override
+    public void injectSession(BrowserSession session) { run("injectSession", ui -> ui.injectSession(session)); }
+
+    @Override
+    public void click(Target target) { run("click", ui -> ui.click(target)); }
+
+    @Override
+    public void click() { run("click", UiActions::click); }
+
+    @Override
+    public void compose(Target target, String text) { run("compose", ui -> ui.compose(target, text)); }
+
+    @Override
+    public void compose(String text) { run("compose", ui -> ui.compose(text)); }
+
+    @Override
+    public void focus(Target target) { run("focus", ui -> ui.focus(target)); }
+
+    @Override
+    public String getText(Target target) { return call("getText", ui -> ui.getText(target)); }
+
+    @Override
+    public String getText() { return call("getText", UiActions::getText); }
+
+    @Override
+    public List<ProcessHandle> processes() {
+        List<ProcessHandle> out = new ArrayList<>();
+        for (Engine engine : new Engine[]{left, right}) {
+            UiActions actions = engine.actions;
+            if (actions != null) out.addAll(actions.processes());
+        }
+        return out;
+    }
+
+    @Override
+    public void close() {
+        // Always release both engines, even if one of them fails to close
+        RuntimeException failure = null;
+        for (Engine engine : new Engine[]{left, right}) {
+            if (engine == null) continue;
+            try {
+                if (engine.actions != null) {
+                    await(engine.executor.submit(() -> { engine.actions.close(); return null; }));
+                    engine.actions = null;
+                }
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+            } finally {
+                engine.executor.shutdown();
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    @Override
+    public boolean exists(Target target) { return call("exists", ui -> ui.exists(target)); }
+
+    @Override
+    public boolean exists() { return call("exists", UiActions::exists); }
+
+    @Override
+    public boolean isVisible(Target target) { return call("isVisible", ui -> ui.isVisible(target)); }
+
+    @Override
+    public boolean isVisible() { return call("isVisible", UiActions::isVisible); }
+
+    @Override
+    public void waitForVisible(Target target, long timeoutMs) { run("waitForVisible", ui -> ui.waitForVisible(target, timeoutMs)); }
+
+    @Override
+    public void waitForVisible(long timeoutMs) { run("waitForVisible", ui -> ui.waitForVisible(timeoutMs)); }
+
+    @Override
+    public String value(Target target) { return call("value", ui -> ui.value(target)); }
+
+    @Override
+    public String value() { return call("value", UiActions::value); }
+
+    @Override
+    public String attribute(Target target, String name) { return call("attribute", ui -> ui.attribute(target, name)); }
+
+    @Override
+    public String attribute(String name) { return call("attribute", ui -> ui.attribute(name)); }
+
+    @Override
+    public void hover(Target target) { run("hover", ui -> ui.hover(target)); }
+
+    @Override
+    public void hover() { run("hover", UiActions::hover); }
+
+    @Override
+    public void back() { run("back", UiActions::back); }
+
+    @Override
+    public String title() { return call("title", UiActions::title); }
+
+    @Override
+    public String url() { return call("url", UiActions::url); }
+
+    /** Saves the first engine's screenshot at {@code path} and the second one next to it, suffixed with its name. */
+    @Override
+    public void screenshot(String path) {
+        String rightPath = suffixed(path, right.name);
+        both("screenshot", ui -> { ui.screenshot(path); return null; }, ui -> { ui.screenshot(rightPath); return null; });
+    }
+
+    @Override
+    public void refresh() { run("refresh", UiActions::refresh); }
+
+    @Override
+    public void forward() { run("forward", UiActions::forward); }
+
+    @Override
+    public void clear(Target target) { run("clear", ui -> ui.clear(target)); }
+
+    @Override
+    public void clear() { run("clear", UiActions::clear); }
+
+    @Override
+    public void doubleClick(Target target) { run("doubleClick", ui -> ui.doubleClick(target)); }
+
+    @Override
+    public void doubleClick() { run("doubleClick", UiActions::doubleClick); }
+
+    @Override
+    public void selectByText(Target target, String text) { run("selectByText", ui -> ui.selectByText(target, text)); }
+
+    @Override
+    public void selectByText(String text) { run("selectByText", ui -> ui.selectByText(text)); }
+
+    @Override
+    public void selectByValue(Target target, String value) { run("selectByValue", ui -> ui.selectByValue(target, value)); }
+
+    @Override
+    public void selectByValue(String value) { run("selectByValue", ui -> ui.selectByValue(value)); }
+
+    @Override
+    public void waitForHidden(Target target, long timeoutMs) { run("waitForHidden", ui -> ui.waitForHidden(target, timeoutMs)); }
+
+    @Override
+    public void waitForHidden(long timeoutMs) { run("waitForHidden", ui -> ui.waitForHidden(timeoutMs)); }
+
+    @Override
+    public void scrollIntoView(Target target) { run("scrollIntoView", ui -> ui.scrollIntoView(target)); }
+
+    @Override
+    public void scrollIntoView() { run("scrollIntoView", UiActions::scrollIntoView); }
+
+    @Override
+    public void press(Target target, String key) { run("press", ui -> ui.press(target, key)); }
+
+    @Override
+    public void press(String key) { run("press", ui -> ui.press(key)); }
+
+    @Override
+    public void press(Target target, CharSequence... keys) { run("press", ui -> ui.press(target, keys)); }
+
+    @Override
+    public void press(CharSequence... keys) { run("press", ui -> ui.press(keys)); }
+
+    @Override
+    public void setChecked(Target target, boolean checked) { run("setChecked", ui -> ui.setChecked(target, checked)); }
+
+    @Override
+    public void setChecked(boolean checked) { run("setChecked", ui -> ui.setChecked(checked)); }
+
+    @Override
+    public void uploadFile(Target target, String path) { run("uploadFile", ui -> ui.uploadFile(target, path)); }
+
+    @Override
+    public void uploadFile(String path) { run("uploadFile", ui -> ui.uploadFile(path)); }
+
+    private void run(String action, Consumer<UiActions> step) {
+        call(action, ui -> { step.accept(ui); return null; });
+    }
+
+    private <T> T call(String action, Function<UiActions, T> step) {
+        return both(action, step, step);
+    }
+
+    private <T> T both(String action, Function<UiActions, T> leftStep, Function<UiActions, T> rightStep) {
+        Future<T> l = left.submit(leftStep);
+        Future<T> r = right.submit(rightStep);
+        Outcome<T> lo = Outcome.of(l);
+        Outcome<T> ro = Outcome.of(r);
+
+        if (lo.failure != null && ro.failure != null) {
+            // Both engines agree the step fails: surface it as the step's own failure
+            throw asRuntime(lo.failure);
+        }
+        if (lo.failure != null || ro.failure != null) {
+            Engine failed = lo.failure != null ? left : right;
+            Engine passed = lo.failure != null ? right : left;
+            Throwable cause = lo.failure != null ? lo.failure : ro.failure;
+            throw new ParityMismatchException("Parity failure in " + action + ": " + failed.name + " failed but "
+                    + passed.name + " succeeded: " + cause, cause);
+        }
+        if (!sameResult(lo.value, ro.value)) {
+            throw new ParityMismatchException("Parity failure in " + action + ": " + left.name + " returned '"
+                    + lo.value + "' but " + right.name + " returned '" + ro.value + "'");
+        }
+        return lo.value;
+    }
+
+    private static boolean sameResult(Object a, Object b) {
+        if (a instanceof String sa && b instanceof String sb) {
+            // Engines differ in how they report whitespace (rendered text vs. textContent)
+            return normalize(sa).equals(normalize(sb));
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static String normalize(String s) {
+        return s.replaceAll("\\s+", " ").trim();
+    }
+
+    private static String suffixed(String path, String suffix) {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash) return path + "-" + suffix;
+        return path.substring(0, dot) + "-" + suffix + path.substring(dot);
+    }
+
+    private static <T> T await(Future<T> future) {
+        Outcome<T> outcome = Outcome.of(future);
+        if (outcome.failure != null) throw asRuntime(outcome.failure);
+        return outcome.value;
+    }
+
+    private static RuntimeException asRuntime(Throwable t) {
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error err) throw err;
+        return new RuntimeException(t);
+    }
+
+    private static final class Engine {
+        private final String name;
+        private final ExecutorService executor;
+        private volatile UiActions actions;
+
+        private Engine(String name) {
+            this.name = name;
+            this.executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "parity-" + name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        private <T> Future<T> submit(Function<UiActions, T> step) {
+            return executor.submit(() -> step.apply(actions));
+        }
+    }
+
+    private static final class Outcome<T> {
+        private final T value;
+        private final Throwable failure;
+
+        private Outcome(T value, Throwable failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+
+        private static <T> Outcome<T> of(Future<T> future) {
+            try {
+                return new Outcome<>(future.get(), null);
+            } catch (ExecutionException e) {
+                return new Outcome<>(null, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Outcome<>(null, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package core.ui;
+
+/**
+ * Raised by {@link ParityActions} when the two engines disagree on the outcome of the same action:
+ * different return values (texts, URLs, attribute values) or one engine failing while the other succeeds.
+ */
+public class ParityMismatchException extends RuntimeException {
+    public ParityMismatchException(String message) {
+        super(message);
+    }
+
+    public ParityMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
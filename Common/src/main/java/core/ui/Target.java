@@ -1,5 +1,9 @@
 package core.ui;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
 /**
  * Framework-agnostic target (locator/selector) description.
  * Implementations (Selenium/Playwright) translate this to their native locator format.
@@ -19,12 +23,32 @@ public final class Target {
         ROLE            // Playwright role engine
     }
 
+    private static final Pattern TAG = Pattern.compile("[A-Za-z][A-Za-z0-9-]*");
+    private static final Object[] NONE = new Object[0];
+
+    /**
+     * Engine-specific translation of a Target into its native locator (a Selenium By, a Playwright selector string).
+     * Implementations must be pure and are used as cache keys, so each engine should hold a single instance.
+     */
+    @FunctionalInterface
+    public interface Translator<T> {
+        T translate(Target target);
+    }
+
     private final Strategy strategy;
     private final String value;
+    private final boolean keystrokes;
+    private final String scope;
+    // Copy-on-write [translator, compiled form, ...] pairs; at most one entry per engine
+    private volatile Object[] compiled = NONE;
+    private volatile Target narrowed;
+    private volatile Target typed;
 
-    private Target(Strategy strategy, String value) {
+    private Target(Strategy strategy, String value, boolean keystrokes, String scope) {
         this.strategy = strategy;
         this.value = value;
+        this.keystrokes = keystrokes;
+        this.scope = scope;
     }
 
     public Strategy strategy() {
@@ -35,9 +59,91 @@ public final class Target {
         return value;
     }
 
+    /**
+     * True when text must be typed into this element as real key events, opting out of any fast-fill mode
+     * (e.g. fields with key handlers, masks or autocomplete).
+     */
+    public boolean requiresKeystrokes() {
+        return keystrokes;
+    }
+
+    /** Copy of this target that always receives text as individual key events. */
+    public Target withKeystrokes() {
+        if (keystrokes) return this;
+        Target copy = typed;
+        if (copy == null) typed = copy = new Target(strategy, value, true, scope);
+        return copy;
+    }
+
+    /** Tag name a TEXT lookup is narrowed to, or null when the whole document is searched. */
+    public String scope() {
+        return scope;
+    }
+
+    /**
+     * Copy of this TEXT target that only matches elements with the given tag name, e.g.
+     * {@code TargetFactory.text("Save").within("button")}. Narrowed lookups avoid scanning every node of the page.
+     */
+    public Target within(String tagName) {
+        if (strategy != Strategy.TEXT) throw new IllegalArgumentException("Only TEXT targets can be tag-scoped");
+        if (tagName == null || !TAG.matcher(tagName).matches()) {
+            throw new IllegalArgumentException("Invalid tag name: " + tagName);
+        }
+        String tag = tagName.toLowerCase();
+        if (tag.equals(scope)) return this;
+        // Remember the last narrowed copy so repeated rewrites reuse it (and its compiled forms)
+        Target last = narrowed;
+        if (last != null && tag.equals(last.scope)) return last;
+        Target copy = new Target(strategy, value, keystrokes, tag);
+        narrowed = copy;
+        return copy;
+    }
+
+    /**
+     * The engine-native form of this target, translated once per translator and cached on the instance.
+     * Safe for concurrent use; a racing first call may translate twice but only one result is kept.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T compiled(Translator<T> translator) {
+        Object[] cache = compiled;
+        for (int i = 0; i < cache.length; i += 2) {
+            if (cache[i] == translator) return (T) cache[i + 1];
+        }
+        T form = translator.translate(this);
+        synchronized (this) {
+            cache = compiled;
+            for (int i = 0; i < cache.length; i += 2) {
+                if (cache[i] == translator) return (T) cache[i + 1];
+            }
+            Object[] grown = Arrays.copyOf(cache, cache.length + 2);
+            grown[cache.length] = translator;
+            grown[cache.length + 1] = form;
+            compiled = grown;
+        }
+        return form;
+    }
+
     public static Target of(Strategy strategy, String value) {
         if (strategy == null) throw new IllegalArgumentException("strategy cannot be null");
         if (value == null) throw new IllegalArgumentException("value cannot be null");
-        return new Target(strategy, value);
+        return new Target(strategy, value, false, null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Target other)) return false;
+        return strategy == other.strategy && keystrokes == other.keystrokes
+                && value.equals(other.value) && Objects.equals(scope, other.scope);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(strategy, value, keystrokes, scope);
+    }
+
+    @Override
+    public String toString() {
+        return strategy.name().toLowerCase() + "=" + value + (scope == null ? "" : " within " + scope);
     }
 }
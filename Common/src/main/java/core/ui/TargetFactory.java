@@ -1,20 +1,52 @@
 package core.ui;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Factory methods to create framework-agnostic Target instances for element location.
+ * <p>
+ * Targets are interned: asking twice for the same strategy and value returns the same instance, so the
+ * engine-native locator compiled on it (see {@link Target#compiled}) is built once per run rather than per action.
+ * Interning stops after {@code target.internLimit} (default 4096) distinct targets to bound memory when values
+ * are generated dynamically.
  */
 public final class TargetFactory {
+    private static final int INTERN_LIMIT = Integer.getInteger("target.internLimit", 4096);
+    private static final Map<Target.Strategy, Map<String, Target>> INTERNED = new EnumMap<>(Target.Strategy.class);
+    private static final AtomicInteger INTERNED_COUNT = new AtomicInteger();
+
+    static {
+        for (Target.Strategy s : Target.Strategy.values()) INTERNED.put(s, new ConcurrentHashMap<>());
+    }
+
     private TargetFactory() { }
 
-    public static Target css(String selector) { return Target.of(Target.Strategy.CSS, selector); }
-    public static Target xpath(String expression) { return Target.of(Target.Strategy.XPATH, expression); }
-    public static Target id(String id) { return Target.of(Target.Strategy.ID, id); }
-    public static Target name(String name) { return Target.of(Target.Strategy.NAME, name); }
-    public static Target className(String className) { return Target.of(Target.Strategy.CLASS_NAME, className); }
-    public static Target tag(String tagName) { return Target.of(Target.Strategy.TAG_NAME, tagName); }
-    public static Target linkText(String text) { return Target.of(Target.Strategy.LINK_TEXT, text); }
-    public static Target partialLinkText(String text) { return Target.of(Target.Strategy.PARTIAL_LINK_TEXT, text); }
-    public static Target text(String text) { return Target.of(Target.Strategy.TEXT, text); }
-    public static Target dataTestId(String id) { return Target.of(Target.Strategy.DATA_TEST_ID, id); }
-    public static Target role(String role) { return Target.of(Target.Strategy.ROLE, role); }
+    public static Target css(String selector) { return intern(Target.Strategy.CSS, selector); }
+    public static Target xpath(String expression) { return intern(Target.Strategy.XPATH, expression); }
+    public static Target id(String id) { return intern(Target.Strategy.ID, id); }
+    public static Target name(String name) { return intern(Target.Strategy.NAME, name); }
+    public static Target className(String className) { return intern(Target.Strategy.CLASS_NAME, className); }
+    public static Target tag(String tagName) { return intern(Target.Strategy.TAG_NAME, tagName); }
+    public static Target linkText(String text) { return intern(Target.Strategy.LINK_TEXT, text); }
+    public static Target partialLinkText(String text) { return intern(Target.Strategy.PARTIAL_LINK_TEXT, text); }
+    public static Target text(String text) { return intern(Target.Strategy.TEXT, text); }
+    public static Target dataTestId(String id) { return intern(Target.Strategy.DATA_TEST_ID, id); }
+    public static Target role(String role) { return intern(Target.Strategy.ROLE, role); }
+
+    private static Target intern(Target.Strategy strategy, String value) {
+        // Lookup by value avoids allocating a key Target for the common (already interned) case
+        if (value == null) return Target.of(strategy, null);
+        Map<String, Target> byValue = INTERNED.get(strategy);
+        Target existing = byValue.get(value);
+        if (existing != null) return existing;
+        Target created = Target.of(strategy, value);
+        if (INTERNED_COUNT.get() >= INTERN_LIMIT) return created;
+        Target raced = byValue.putIfAbsent(value, created);
+        if (raced != null) return raced;
+        INTERNED_COUNT.incrementAndGet();
+        return created;
+    }
 }
@@ -0,0 +1,42 @@
+package core.ui;
+
+import core.timing.StepTimer;
+import core.timing.StepTimings;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Wrapper charging the time of every {@link UiActions} call to {@link StepTimer.Layer#UI} of the step running on
+ * the calling thread, and optionally recording each call's latency as action {@code ui <method>}. A dynamic proxy,
+ * so it covers every action the interface gains without being updated.
+ */
+public final class TimedUiActions {
+    private TimedUiActions() { }
+
+    public static UiActions wrap(UiActions delegate) {
+        return wrap(delegate, null);
+    }
+
+    /** @param timings where to record the latency of each action, or null for none */
+    public static UiActions wrap(UiActions delegate, StepTimings timings) {
+        if (delegate == null) throw new IllegalArgumentException("delegate cannot be null");
+        return (UiActions) Proxy.newProxyInstance(UiActions.class.getClassLoader(), new Class<?>[]{UiActions.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return "toString".equals(method.getName()) ? "Timed(" + delegate + ")"
+                                : method.invoke(delegate, args);
+                    }
+                    long start = StepTimer.enter();
+                    long called = System.nanoTime();
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        StepTimer.exit(StepTimer.Layer.UI, start);
+                        if (timings != null) timings.recordAction("ui " + method.getName(), System.nanoTime() - called);
+                    }
+                });
+    }
+}
@@ -1,5 +1,7 @@
 package core.ui;
 
+import java.util.List;
+
 /**
  * Framework-agnostic UI actions that can be implemented by Selenium or Playwright.
  */
@@ -7,6 +9,14 @@ public interface UiActions {
     /** Open the given URL in the current browser context. */
     void open(String url);
 
+    /**
+     * Place the cookies and web storage of {@code session} into the current browser context, typically right
+     * before {@link #open(String)} so the page loads already logged in or seeded. Storage (and, depending on the
+     * engine, cookies) can only be written from a document of the session's origin, so the browser may be left on
+     * {@link BrowserSession#landingUrl()}.
+     */
+    void injectSession(BrowserSession session);
+
     /** Click an element located by the given target (locator). */
     void click(Target target);
 
@@ -31,6 +41,14 @@ public interface UiActions {
     /** Close and cleanup underlying resources. */
     void close();
 
+    /**
+     * The driver and browser processes this JVM started for this browser (see {@link BrowserProcesses}); their
+     * descendants belong to it as well. Empty when unknown.
+     */
+    default List<ProcessHandle> processes() {
+        return List.of();
+    }
+
     // --- Additional cross-framework capabilities ---
 
     /**
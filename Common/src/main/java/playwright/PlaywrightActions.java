@@ -5,24 +5,46 @@ import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.SameSiteAttribute;
 import com.microsoft.playwright.options.SelectOption;
 import com.microsoft.playwright.options.WaitForSelectorState;
+import core.ui.BrowserProcesses;
+import core.ui.BrowserSession;
+import core.ui.LocatorProfiler;
+import core.ui.LocatorRewriter;
 import core.ui.Target;
 import core.ui.TargetFactory;
 import core.ui.UiActions;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 public class PlaywrightActions implements UiActions {
+    /** Writes the session's web storage; the argument holds the localStorage and sessionStorage maps. */
+    private static final String STORAGE_SCRIPT = "({local, session}) => {"
+            + " Object.entries(local).forEach(([k, v]) => window.localStorage.setItem(k, v));"
+            + " Object.entries(session).forEach(([k, v]) => window.sessionStorage.setItem(k, v)); }";
+
     private Playwright playwright;
+    private List<ProcessHandle> processes = List.of();
     private Browser browser;
     private Page page;
     private Target currentTarget;
+    // Selector focus() resolved currentTarget with, narrowed or not, used by the context actions that follow
+    private String currentSelector;
 
     public PlaywrightActions() {
         this(true);
     }
 
     public PlaywrightActions(boolean headless) {
-        playwright = Playwright.create();
+        BrowserProcesses.Launched<Playwright> launched = BrowserProcesses.launch(Playwright::create);
+        playwright = launched.engine();
+        processes = launched.processes();
         browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(headless));
         page = browser.newPage();
     }
@@ -32,10 +54,68 @@ public class PlaywrightActions implements UiActions {
         page.navigate(url);
     }
 
+    /**
+     * Cookies go straight into the browser context, which needs no navigation. Web storage can only be written
+     * from a document of the origin, so unless the page is already there it visits the session's
+     * {@linkplain BrowserSession#landingUrl() landing page}, answered locally with an empty document.
+     */
+    @Override
+    public void injectSession(BrowserSession session) {
+        if (!session.cookies().isEmpty()) {
+            List<Cookie> cookies = new ArrayList<>();
+            for (BrowserSession.Cookie c : session.cookies()) {
+                // Without a leading dot the cookie is host-only, with one it also applies to subdomains
+                Cookie cookie = new Cookie(c.name(), c.value())
+                        .setDomain(c.hostOnly() ? c.domain() : "." + c.domain())
+                        .setPath(c.path())
+                        .setSecure(c.secure())
+                        .setHttpOnly(c.httpOnly());
+                if (c.expires() != null) cookie.setExpires(c.expires().getEpochSecond());
+                if (c.sameSite() != null) {
+                    cookie.setSameSite(SameSiteAttribute.valueOf(c.sameSite().toUpperCase(Locale.ROOT)));
+                }
+                cookies.add(cookie);
+            }
+            page.context().addCookies(cookies);
+        }
+        if (session.localStorage().isEmpty() && session.sessionStorage().isEmpty()) return;
+        if (!page.url().startsWith(session.origin() + "/")) {
+            String landing = session.landingUrl();
+            page.route(landing, route -> route.fulfill(new Route.FulfillOptions()
+                    .setStatus(200).setContentType("text/html").setBody("")));
+            try {
+                page.navigate(landing);
+            } finally {
+                page.unroute(landing);
+            }
+        }
+        page.evaluate(STORAGE_SCRIPT, Map.of("local", session.localStorage(), "session", session.sessionStorage()));
+    }
+
     @Override
     public void focus(Target target) {
-        page.locator(toSelector(target)).focus();
+        // focus() is where the element is first resolved, so it is also where lookup cost is measured
+        String pageUrl = LocatorRewriter.applies(target) ? page.url() : null;
+        Target effective = LocatorRewriter.rewrite(target, pageUrl);
+        long start = System.nanoTime();
+        Locator loc = page.locator(PlaywrightSelectors.selector(effective));
+        if (effective != target && loc.count() == 0) {
+            // The narrowed selector no longer matches on this page; fall back at once instead of waiting for it
+            LocatorRewriter.reject(target, pageUrl);
+            effective = target;
+            loc = page.locator(PlaywrightSelectors.selector(target));
+        }
+        loc.focus();
+        if (LocatorProfiler.isActive()) {
+            long nanos = System.nanoTime() - start;
+            boolean learnTag = effective == target && target.strategy() == Target.Strategy.TEXT
+                    && (LocatorProfiler.needsTag(target) || LocatorRewriter.needsTag(target, pageUrl));
+            String tag = learnTag ? String.valueOf(loc.evaluate("e => e.tagName.toLowerCase()")) : null;
+            LocatorRewriter.learn(target, pageUrl, tag);
+            LocatorProfiler.record(target, nanos, tag, effective != target);
+        }
         this.currentTarget = target;
+        this.currentSelector = PlaywrightSelectors.selector(effective);
     }
 
     // Maintain element context only via focus(selector)
@@ -59,7 +139,14 @@ public class PlaywrightActions implements UiActions {
 
     @Override
     public void compose(String text) {
-        page.locator(requireContext()).fill(text);
+        Locator loc = page.locator(requireContext());
+        if (currentTarget.requiresKeystrokes()) {
+            // Parity with Selenium's key-by-key typing for fields that need real key events
+            loc.clear();
+            loc.pressSequentially(text);
+        } else {
+            loc.fill(text);
+        }
     }
 
     @Override
@@ -80,6 +167,11 @@ public class PlaywrightActions implements UiActions {
         if (playwright != null) playwright.close();
     }
 
+    @Override
+    public List<ProcessHandle> processes() {
+        return processes;
+    }
+
     @Override
     public boolean exists(Target target) {
         focus(target);
@@ -319,47 +411,6 @@ public class PlaywrightActions implements UiActions {
         if (currentTarget == null) {
             throw new IllegalStateException("No element context set. Call focus(target) first.");
         }
-        return toSelector(currentTarget);
-    }
-
-    private String toSelector(Target target) {
-        return switch (target.strategy()) {
-            case CSS -> target.value();
-            case XPATH -> "xpath=" + target.value();
-            case ID -> "#" + target.value();
-            case NAME -> "[name=\"" + escapeCssDoubleQuoted(target.value()) + "\"]";
-            case CLASS_NAME -> "." + target.value();
-            case TAG_NAME -> target.value();
-            case LINK_TEXT -> "xpath=//a[normalize-space(text())=" + escapeForXPath(target.value()) + "]";
-            case PARTIAL_LINK_TEXT -> "xpath=//a[contains(normalize-space(text()), " + escapeForXPath(target.value()) + ")]";
-            case TEXT -> "text=" + target.value();
-            case DATA_TEST_ID -> "[data-testid=\"" + escapeCssDoubleQuoted(target.value()) + "\"]";
-            case ROLE -> "role=" + target.value();
-        };
-    }
-
-    private String escapeCssDoubleQuoted(String s) {
-        // Escape backslash and double quotes for CSS double-quoted attribute selectors
-        return s.replace("\\", "\\\\").replace("\"", "\\\"");
-    }
-
-    private String escapeForXPath(String s) {
-        // Return a valid XPath string literal representing s.
-        // If s contains no single quote, wrap with single quotes.
-        if (s.indexOf('\'') < 0) {
-            return "'" + s + "'";
-        }
-        // Otherwise, build concat('part1', "'", 'part2', ...)
-        String[] parts = s.split("'", -1); // keep empty parts
-        StringBuilder sb = new StringBuilder("concat(");
-        for (int i = 0; i < parts.length; i++) {
-            if (i > 0) sb.append(", ");
-            sb.append("'").append(parts[i]).append("'");
-            if (i < parts.length - 1) {
-                sb.append(", \"'\"");
-            }
-        }
-        sb.append(')');
-        return sb.toString();
+        return currentSelector;
     }
 }
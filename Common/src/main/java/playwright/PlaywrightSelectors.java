@@ -0,0 +1,62 @@
+package playwright;
+
+import core.ui.Target;
+
+/**
+ * Translates framework-agnostic {@link Target}s into Playwright selector strings.
+ * {@link #selector(Target)} compiles each Target once, including the XPath literal escaping for link texts.
+ */
+public final class PlaywrightSelectors {
+    private static final Target.Translator<String> TRANSLATOR = PlaywrightSelectors::toSelector;
+
+    private PlaywrightSelectors() { }
+
+    /** The cached selector for this target, translated on first use. */
+    public static String selector(Target target) {
+        return target.compiled(TRANSLATOR);
+    }
+
+    /** Build a new selector for this target without consulting the cache. */
+    public static String toSelector(Target target) {
+        return switch (target.strategy()) {
+            case CSS -> target.value();
+            case XPATH -> "xpath=" + target.value();
+            case ID -> "#" + target.value();
+            case NAME -> "[name=\"" + escapeCssDoubleQuoted(target.value()) + "\"]";
+            case CLASS_NAME -> "." + target.value();
+            case TAG_NAME -> target.value();
+            case LINK_TEXT -> "xpath=//a[normalize-space(text())=" + escapeForXPath(target.value()) + "]";
+            case PARTIAL_LINK_TEXT -> "xpath=//a[contains(normalize-space(text()), " + escapeForXPath(target.value()) + ")]";
+            case TEXT -> target.scope() == null
+                    ? "text=" + target.value()
+                    : target.scope() + ":text(\"" + escapeCssDoubleQuoted(target.value()) + "\")";
+            case DATA_TEST_ID -> "[data-testid=\"" + escapeCssDoubleQuoted(target.value()) + "\"]";
+            case ROLE -> "role=" + target.value();
+        };
+    }
+
+    private static String escapeCssDoubleQuoted(String s) {
+        // Escape backslash and double quotes for CSS double-quoted attribute selectors
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String escapeForXPath(String s) {
+        // Return a valid XPath string literal representing s.
+        // If s contains no single quote, wrap with single quotes.
+        if (s.indexOf('\'') < 0) {
+            return "'" + s + "'";
+        }
+        // Otherwise, build concat('part1', "'", 'part2', ...)
+        String[] parts = s.split("'", -1); // keep empty parts
+        StringBuilder sb = new StringBuilder("concat(");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("'").append(parts[i]).append("'");
+            if (i < parts.length - 1) {
+                sb.append(", \"'\"");
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+}
@@ -1,11 +1,18 @@
 package selenium;
 
+import core.ui.BrowserProcesses;
+import core.ui.BrowserSession;
+import core.ui.LocatorProfiler;
+import core.ui.LocatorRewriter;
 import core.ui.Target;
 import core.ui.TargetFactory;
 import core.ui.UiActions;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -23,10 +30,36 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Date;
+import java.util.List;
 
 public class SeleniumActions implements UiActions {
+    /**
+     * Sets an input/textarea value through the native value setter and fires input/change in one round trip.
+     * Returns false when the element is not a plain text field or opted out with data-fast-fill="off".
+     */
+    private static final String FAST_FILL_SCRIPT =
+            "var el = arguments[0], text = arguments[1];" +
+            "if (el.getAttribute('data-fast-fill') === 'off') return false;" +
+            "var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype" +
+            "  : el instanceof HTMLInputElement ? HTMLInputElement.prototype : null;" +
+            "if (!proto || ['checkbox','radio','file'].indexOf((el.type || '').toLowerCase()) >= 0) return false;" +
+            "el.focus();" +
+            "Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, text);" +
+            "el.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "el.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "return true;";
+
+    /** Writes the session's web storage; arguments are the localStorage and sessionStorage maps. */
+    private static final String STORAGE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];" +
+            "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });" +
+            "Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });";
+
     private final WebDriver driver;
+    private final List<ProcessHandle> processes;
     private Target currentTarget;
+    private boolean fastFill = Boolean.getBoolean("ui.fastFill");
 
     // Suppress noisy Selenium CDP mismatch warnings in test console output.
     // Examples:
@@ -38,7 +71,7 @@ public class SeleniumActions implements UiActions {
 
     public SeleniumActions() {
         // Selenium Manager (since Selenium 4.6+) will resolve the driver automatically
-        this.driver = new ChromeDriver();
+        this(BrowserProcesses.launch(ChromeDriver::new));
     }
 
     /**
@@ -46,12 +79,30 @@ public class SeleniumActions implements UiActions {
      * This constructor is additive and keeps the default behavior unchanged.
      */
     public SeleniumActions(boolean headless) {
+        this(BrowserProcesses.launch(() -> new ChromeDriver(options(headless))));
+    }
+
+    private SeleniumActions(BrowserProcesses.Launched<? extends WebDriver> launched) {
+        this.driver = launched.engine();
+        this.processes = launched.processes();
+    }
+
+    private static ChromeOptions options(boolean headless) {
         ChromeOptions options = new ChromeOptions();
         if (headless) {
             // Use new headless for modern Chrome
             options.addArguments("--headless=new");
         }
-        this.driver = new ChromeDriver(options);
+        return options;
+    }
+
+    /**
+     * Opt into fast-fill: compose() sets the whole value in one script call instead of typing each character.
+     * Defaults to the {@code ui.fastFill} system property. Targets created with {@link Target#withKeystrokes()}
+     * and fields marked {@code data-fast-fill="off"} are always typed key by key.
+     */
+    public void setFastFill(boolean fastFill) {
+        this.fastFill = fastFill;
     }
 
     @Override
@@ -59,9 +110,35 @@ public class SeleniumActions implements UiActions {
         driver.get(url);
     }
 
+    /**
+     * WebDriver only accepts cookies for the domain of the current document, so the browser first visits the
+     * session's {@linkplain BrowserSession#landingUrl() landing page} unless it is already on the origin.
+     * Host-only cookies are added without a domain, which binds them to the current host.
+     */
+    @Override
+    public void injectSession(BrowserSession session) {
+        if (session.isEmpty()) return;
+        if (!driver.getCurrentUrl().startsWith(session.origin() + "/")) driver.get(session.landingUrl());
+        for (BrowserSession.Cookie c : session.cookies()) {
+            Cookie.Builder cookie = new Cookie.Builder(c.name(), c.value())
+                    .path(c.path())
+                    .isSecure(c.secure())
+                    .isHttpOnly(c.httpOnly());
+            // A leading dot extends the cookie to subdomains
+            if (!c.hostOnly()) cookie.domain("." + c.domain());
+            if (c.expires() != null) cookie.expiresOn(Date.from(c.expires()));
+            if (c.sameSite() != null) cookie.sameSite(c.sameSite());
+            driver.manage().addCookie(cookie.build());
+        }
+        if (!session.localStorage().isEmpty() || !session.sessionStorage().isEmpty()) {
+            ((JavascriptExecutor) driver).executeScript(STORAGE_SCRIPT, session.localStorage(),
+                    session.sessionStorage());
+        }
+    }
+
     @Override
     public void focus(Target target) {
-        WebElement el = driver.findElement(toBy(target));
+        WebElement el = find(target);
         if (driver instanceof JavascriptExecutor js) {
             js.executeScript("arguments[0].focus();", el);
         } else {
@@ -81,7 +158,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void click() {
-        driver.findElement(toBy(requireContext())).click();
+        find(requireContext()).click();
     }
 
     @Override
@@ -92,7 +169,12 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void compose(String text) {
-        WebElement el = driver.findElement(toBy(requireContext()));
+        Target target = requireContext();
+        WebElement el = find(target);
+        if (fastFill && !target.requiresKeystrokes() && driver instanceof JavascriptExecutor js
+                && Boolean.TRUE.equals(js.executeScript(FAST_FILL_SCRIPT, el, text))) {
+            return;
+        }
         el.clear();
         el.sendKeys(text);
     }
@@ -111,7 +193,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public String getText() {
-        By by = toBy(requireContext());
+        By by = by(requireContext());
         // Retry a few times to mitigate StaleElementReferenceException that can occur after navigation
         int attempts = 0;
         while (true) {
@@ -135,6 +217,11 @@ public class SeleniumActions implements UiActions {
         }
     }
 
+    @Override
+    public List<ProcessHandle> processes() {
+        return processes;
+    }
+
     @Override
     public boolean exists(Target target) {
         focus(target);
@@ -143,7 +230,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public boolean exists() {
-        return !driver.findElements(toBy(requireContext())).isEmpty();
+        return !driver.findElements(by(requireContext())).isEmpty();
     }
 
     @Override
@@ -155,7 +242,7 @@ public class SeleniumActions implements UiActions {
     @Override
     public boolean isVisible() {
         try {
-            return driver.findElement(toBy(requireContext())).isDisplayed();
+            return find(requireContext()).isDisplayed();
         } catch (Exception e) {
             return false;
         }
@@ -170,7 +257,7 @@ public class SeleniumActions implements UiActions {
     @Override
     public void waitForVisible(long timeoutMs) {
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(timeoutMs));
-        wait.until(ExpectedConditions.visibilityOfElementLocated(toBy(requireContext())));
+        wait.until(ExpectedConditions.visibilityOfElementLocated(by(requireContext())));
     }
 
     @Override
@@ -181,7 +268,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public String value() {
-        WebElement el = driver.findElement(toBy(requireContext()));
+        WebElement el = find(requireContext());
         String val = el.getAttribute("value");
         if (val != null) return val;
         String txt = el.getText();
@@ -196,7 +283,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public String attribute(String name) {
-        return driver.findElement(toBy(requireContext())).getAttribute(name);
+        return find(requireContext()).getAttribute(name);
     }
 
     @Override
@@ -207,7 +294,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void hover() {
-        WebElement el = driver.findElement(toBy(requireContext()));
+        WebElement el = find(requireContext());
         new Actions(driver).moveToElement(el).perform();
     }
 
@@ -264,7 +351,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void clear() {
-        driver.findElement(toBy(requireContext())).clear();
+        find(requireContext()).clear();
     }
 
     /** Double-click the element. */
@@ -276,7 +363,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void doubleClick() {
-        WebElement el = driver.findElement(toBy(requireContext()));
+        WebElement el = find(requireContext());
         new Actions(driver).doubleClick(el).perform();
     }
 
@@ -289,7 +376,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void selectByText(String text) {
-        new Select(driver.findElement(toBy(requireContext()))).selectByVisibleText(text);
+        new Select(find(requireContext())).selectByVisibleText(text);
     }
 
     /** Select option by value attribute. */
@@ -301,7 +388,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void selectByValue(String value) {
-        new Select(driver.findElement(toBy(requireContext()))).selectByValue(value);
+        new Select(find(requireContext())).selectByValue(value);
     }
 
     /** Wait until the element becomes hidden or not present. */
@@ -314,7 +401,7 @@ public class SeleniumActions implements UiActions {
     @Override
     public void waitForHidden(long timeoutMs) {
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(timeoutMs));
-        wait.until(ExpectedConditions.invisibilityOfElementLocated(toBy(requireContext())));
+        wait.until(ExpectedConditions.invisibilityOfElementLocated(by(requireContext())));
     }
 
     /** Scroll element into view using JavaScript. */
@@ -326,7 +413,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void scrollIntoView() {
-        WebElement el = driver.findElement(toBy(requireContext()));
+        WebElement el = find(requireContext());
         if (driver instanceof JavascriptExecutor js) {
             js.executeScript("arguments[0].scrollIntoView({block:'center', inline:'nearest'});", el);
         } else {
@@ -351,12 +438,12 @@ public class SeleniumActions implements UiActions {
     @Override
     public void press(String key) {
         CharSequence mapped = mapToKeys(key);
-        driver.findElement(toBy(requireContext())).sendKeys(mapped);
+        find(requireContext()).sendKeys(mapped);
     }
 
     @Override
     public void press(CharSequence... keys) {
-        driver.findElement(toBy(requireContext())).sendKeys(keys);
+        find(requireContext()).sendKeys(keys);
     }
 
     private CharSequence mapToKeys(String key) {
@@ -397,7 +484,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void setChecked(boolean checked) {
-        WebElement el = driver.findElement(toBy(requireContext()));
+        WebElement el = find(requireContext());
         if (el.isSelected() != checked) {
             el.click();
         }
@@ -412,7 +499,7 @@ public class SeleniumActions implements UiActions {
 
     @Override
     public void uploadFile(String path) {
-        driver.findElement(toBy(requireContext())).sendKeys(path);
+        find(requireContext()).sendKeys(path);
     }
 
     private Target requireContext() {
@@ -422,22 +509,81 @@ public class SeleniumActions implements UiActions {
         return currentTarget;
     }
 
-    private By toBy(Target target) {
-        return switch (target.strategy()) {
-            case CSS -> By.cssSelector(target.value());
-            case XPATH -> By.xpath(target.value());
-            case ID -> By.id(target.value());
-            case NAME -> By.name(target.value());
-            case CLASS_NAME -> By.className(target.value());
-            case TAG_NAME -> By.tagName(target.value());
-            case LINK_TEXT -> By.linkText(target.value());
-            case PARTIAL_LINK_TEXT -> By.partialLinkText(target.value());
-            case TEXT -> By.xpath("//*[normalize-space(text())='" + escapeQuotes(target.value()) + "']");
-            case DATA_TEST_ID -> By.cssSelector("[data-testid='" + cssEscape(target.value()) + "']");
-            case ROLE -> By.cssSelector("[role='" + cssEscape(target.value()) + "']");
-        };
-    }
-
-    private String cssEscape(String s) { return s.replace("'", "\\'"); }
-    private String escapeQuotes(String s) { return s.replace("'", "\"'\""); }
+    /** Locate the element for a target, applying the optional rewrite layer and recording lookup cost. */
+    private WebElement find(Target target) {
+        String page = LocatorRewriter.applies(target) ? driver.getCurrentUrl() : null;
+        By by = by(target, page);
+        if (!LocatorProfiler.isActive()) return driver.findElement(by);
+        long start = System.nanoTime();
+        WebElement el = driver.findElement(by);
+        long nanos = System.nanoTime() - start;
+        boolean narrowed = by instanceof NarrowedBy n && !n.fellBack;
+        boolean learnTag = !narrowed && target.strategy() == Target.Strategy.TEXT
+                && (LocatorProfiler.needsTag(target) || LocatorRewriter.needsTag(target, page));
+        String tag = learnTag ? el.getTagName() : null;
+        LocatorRewriter.learn(target, page, tag);
+        LocatorProfiler.record(target, nanos, tag, narrowed);
+        return el;
+    }
+
+    private By by(Target target) {
+        return by(target, LocatorRewriter.applies(target) ? driver.getCurrentUrl() : null);
+    }
+
+    private static By by(Target target, String page) {
+        Target effective = LocatorRewriter.rewrite(target, page);
+        return effective == target ? SeleniumLocators.by(target) : new NarrowedBy(target, effective, page);
+    }
+
+    /**
+     * A target narrowed by {@link LocatorRewriter} that falls back to the original selector as soon as the narrowed
+     * one matches nothing, so waits and existence checks see the same elements as without the rewrite.
+     */
+    private static final class NarrowedBy extends By {
+        private final Target original;
+        private final String page;
+        private final By narrowedBy;
+        private final By originalBy;
+        private volatile boolean fellBack;
+
+        NarrowedBy(Target original, Target narrowed, String page) {
+            this.original = original;
+            this.page = page;
+            this.narrowedBy = SeleniumLocators.by(narrowed);
+            this.originalBy = SeleniumLocators.by(original);
+        }
+
+        @Override
+        public WebElement findElement(SearchContext context) {
+            if (!fellBack) {
+                try {
+                    return context.findElement(narrowedBy);
+                } catch (NoSuchElementException e) {
+                    fallBack();
+                }
+            }
+            return context.findElement(originalBy);
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            if (!fellBack) {
+                List<WebElement> found = context.findElements(narrowedBy);
+                if (!found.isEmpty()) return found;
+                fallBack();
+            }
+            return context.findElements(originalBy);
+        }
+
+        private void fallBack() {
+            // The narrowed selector no longer matches on this page; forget the tag and use the original
+            fellBack = true;
+            LocatorRewriter.reject(original, page);
+        }
+
+        @Override
+        public String toString() {
+            return narrowedBy + " (or " + originalBy + ")";
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package selenium;
+
+import core.ui.Target;
+import org.openqa.selenium.By;
+
+/**
+ * Translates framework-agnostic {@link Target}s into Selenium {@link By} locators.
+ * {@link #by(Target)} compiles each Target once and reuses the By on every later action.
+ */
+public final class SeleniumLocators {
+    private static final Target.Translator<By> TRANSLATOR = SeleniumLocators::toBy;
+
+    private SeleniumLocators() { }
+
+    /** The cached By for this target, translated on first use. */
+    public static By by(Target target) {
+        return target.compiled(TRANSLATOR);
+    }
+
+    /** Build a new By for this target without consulting the cache. */
+    public static By toBy(Target target) {
+        return switch (target.strategy()) {
+            case CSS -> By.cssSelector(target.value());
+            case XPATH -> By.xpath(target.value());
+            case ID -> By.id(target.value());
+            case NAME -> By.name(target.value());
+            case CLASS_NAME -> By.className(target.value());
+            case TAG_NAME -> By.tagName(target.value());
+            case LINK_TEXT -> By.linkText(target.value());
+            case PARTIAL_LINK_TEXT -> By.partialLinkText(target.value());
+            case TEXT -> By.xpath("//" + (target.scope() == null ? "*" : target.scope())
+                    + "[normalize-space(text())='" + escapeQuotes(target.value()) + "']");
+            case DATA_TEST_ID -> By.cssSelector("[data-testid='" + cssEscape(target.value()) + "']");
+            case ROLE -> By.cssSelector("[role='" + cssEscape(target.value()) + "']");
+        };
+    }
+
+    private static String cssEscape(String s) { return s.replace("'", "\\'"); }
+    private static String escapeQuotes(String s) { return s.replace("'", "\"'\""); }
+}
@@ -0,0 +1,180 @@
+package core.api;
+
+import core.api.impl.JdkHttpApiClient;
+import core.api.impl.RestAssuredApiClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ApiBatchTest {
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/items", ApiBatchTest::echo);
+        server.createContext("/wave", ApiBatchTest::wave);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Before
+    public void resetCounters() {
+        IN_FLIGHT.set(0);
+        MAX_IN_FLIGHT.set(0);
+    }
+
+    @Test
+    public void testBlockingClientKeepsInputOrderAndBound() {
+        checkOrderAndBound(new RestAssuredApiClient());
+    }
+
+    @Test
+    public void testAsyncClientKeepsInputOrderAndBound() {
+        checkOrderAndBound(new JdkHttpApiClient());
+    }
+
+    @Test
+    public void testFailuresAreReportedPerRequest() {
+        ApiClient client = new RestAssuredApiClient();
+        client.setBaseUri(baseUrl);
+        List<ApiBatch.Result> results = new ApiBatch(client, 2).execute(List.of(
+                ApiRequest.post("/items", "{\"id\":0}"),
+                ApiRequest.get("http://localhost:1/unreachable"),
+                ApiRequest.post("/items", "{\"id\":2}")));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertNotNull(results.get(1).error());
+        assertEquals(-1, results.get(1).statusCode());
+        assertEquals(201, results.get(2).statusCode());
+    }
+
+    @Test
+    public void testDecoratorsReportWhetherTheWrappedClientIsAsync() {
+        RequestListener ignore = (request, status, nanos, failure) -> { };
+        ApiClient blocking = new TimedApiClient(new InstrumentedApiClient(new RestAssuredApiClient(), ignore));
+        ApiClient async = new TimedApiClient(new InstrumentedApiClient(new JdkHttpApiClient(), ignore));
+
+        assertTrue(blocking instanceof AsyncApiClient);
+        assertFalse(blocking.isAsync());
+        assertTrue(async.isAsync());
+        assertFalse(new RestAssuredApiClient().isAsync());
+    }
+
+    @Test
+    public void testSendAsyncOverABlockingClientDoesNotUseTheCommonPool() throws Exception {
+        ApiClient client = new InstrumentedApiClient(new AbstractApiClient() {
+            @Override
+            public void setBaseUri(String baseUri) { }
+
+            @Override
+            public Response send(ApiRequest request) {
+                return new ResponseBuilder().setStatusCode(200).setBody(Thread.currentThread().getName()).build();
+            }
+        }, (request, status, nanos, failure) -> { });
+
+        String thread = ((AsyncApiClient) client).getAsync("/").get(5, TimeUnit.SECONDS).asString();
+        assertEquals("api-blocking", thread);
+    }
+
+    @Test
+    public void testDecoratedBlockingClientReachesTheRequestedParallelism() {
+        RequestListener ignore = (request, status, nanos, failure) -> { };
+        ApiClient client = new TimedApiClient(new InstrumentedApiClient(new RestAssuredApiClient(), ignore));
+        client.setBaseUri(baseUrl);
+        List<ApiRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 24; i++) requests.add(ApiRequest.get("/wave"));
+
+        List<ApiBatch.Result> results = new ApiBatch(client, 6).execute(requests);
+
+        assertTrue(results.stream().allMatch(r -> r.statusCode() == 204));
+        assertEquals("requests in flight at once", 6, MAX_IN_FLIGHT.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsZeroParallelism() {
+        new ApiBatch(new RestAssuredApiClient(), 0);
+    }
+
+    private void checkOrderAndBound(ApiClient client) {
+        client.setBaseUri(baseUrl);
+        List<ApiRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 12; i++) requests.add(ApiRequest.post("/items", "{\"id\":" + i + "}"));
+
+        List<ApiBatch.Result> results = new ApiBatch(client, 3).execute(requests);
+
+        assertEquals(12, results.size());
+        for (int i = 0; i < 12; i++) {
+            ApiBatch.Result r = results.get(i);
+            assertEquals(i, r.index());
+            assertSame(requests.get(i), r.request());
+            assertEquals(201, r.statusCode());
+            assertEquals("{\"id\":" + i + "}", r.response().asString());
+        }
+        assertTrue("more than 3 requests were in flight: " + MAX_IN_FLIGHT.get(), MAX_IN_FLIGHT.get() <= 3);
+        assertTrue("requests were not sent concurrently", MAX_IN_FLIGHT.get() > 1);
+    }
+
+    /** Holds requests until 6 were in flight at once (or 5 s passed), so slow machines still reach 6. */
+    private static void wave(HttpExchange exchange) throws IOException {
+        MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (MAX_IN_FLIGHT.get() < 6 && System.nanoTime() < deadline) Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            IN_FLIGHT.decrementAndGet();
+        }
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+
+    private static void echo(HttpExchange exchange) throws IOException {
+        MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+        try {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            // Later requests answer faster, so completion order differs from input order
+            String text = new String(body, StandardCharsets.UTF_8);
+            int id = Integer.parseInt(text.replaceAll("\\D", ""));
+            Thread.sleep(Math.max(5, 60 - id * 5L));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            IN_FLIGHT.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package core.api;
+
+import core.api.impl.JdkHttpApiClient;
+import core.api.impl.RestAssuredApiClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class AuthenticatedApiClientTest {
+    private static final AtomicInteger TOKENS_ISSUED = new AtomicInteger();
+    private static final AtomicInteger DENIED = new AtomicInteger();
+    private static volatile String validToken;
+    private static volatile String lastForm;
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/oauth/token", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                lastForm = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            // A slow identity service makes concurrent fetches overlap
+            sleep(50);
+            validToken = "tok-" + TOKENS_ISSUED.incrementAndGet();
+            respond(exchange, 200, "{\"access_token\":\"" + validToken
+                    + "\",\"token_type\":\"bearer\",\"expires_in\":300}");
+        });
+        server.createContext("/protected", exchange -> {
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if (("Bearer " + validToken).equals(auth)) {
+                respond(exchange, 200, "{\"ok\":true}");
+            } else {
+                DENIED.incrementAndGet();
+                respond(exchange, 401, "{}");
+            }
+        });
+        server.createContext("/forbidden", exchange -> {
+            DENIED.incrementAndGet();
+            respond(exchange, 401, "{}");
+        });
+        server.createContext("/whoami", exchange -> {
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            respond(exchange, 200, auth == null ? "anonymous" : auth);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Before
+    public void reset() {
+        TOKENS_ISSUED.set(0);
+        DENIED.set(0);
+        validToken = null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static ClientCredentialsTokenProvider credentials() {
+        return new ClientCredentialsTokenProvider(URI.create(baseUrl + "/oauth/token"), "tests", "s3cret",
+                "orders:read");
+    }
+
+    private static ApiClient authenticated(ApiClient raw, TokenCache cache) {
+        ApiClient api = new AuthenticatedApiClient(raw, cache, credentials());
+        api.setBaseUri(baseUrl);
+        return api;
+    }
+
+    /** 32 "scenarios" on 16 threads, each with its own client, share one token. */
+    private static void assertParallelScenariosFetchOnce(Supplier<ApiClient> clients) throws Exception {
+        TokenCache cache = new TokenCache(Duration.ofSeconds(60));
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                statuses.add(pool.submit(() -> authenticated(clients.get(), cache).get("/protected").statusCode()));
+            }
+            for (Future<Integer> status : statuses) assertEquals(200, (int) status.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, TOKENS_ISSUED.get());
+        assertEquals(1, cache.stats().fetches());
+        assertTrue(lastForm, lastForm.contains("grant_type=client_credentials"));
+        assertTrue(lastForm, lastForm.contains("scope=orders%3Aread"));
+    }
+
+    @Test
+    public void testRestAssuredScenariosShareOneToken() throws Exception {
+        assertParallelScenariosFetchOnce(RestAssuredApiClient::new);
+    }
+
+    @Test
+    public void testJdkScenariosShareOneToken() throws Exception {
+        assertParallelScenariosFetchOnce(JdkHttpApiClient::new);
+    }
+
+    @Test
+    public void testRevokedTokenIsRefreshedOnce() {
+        TokenCache cache = new TokenCache(Duration.ofSeconds(60));
+        ApiClient api = authenticated(new RestAssuredApiClient(), cache);
+        assertEquals(200, api.get("/protected").statusCode());
+
+        validToken = "revoked-by-server";
+        assertEquals(200, api.get("/protected").statusCode());
+        assertEquals(1, DENIED.get());
+        assertEquals(2, TOKENS_ISSUED.get());
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    public void testSecond401IsReturned() throws Exception {
+        TokenCache cache = new TokenCache(Duration.ofSeconds(60));
+        AsyncApiClient api = (AsyncApiClient) authenticated(new JdkHttpApiClient(), cache);
+        Response response = api.sendAsync(ApiRequest.get("/forbidden")).get(10, TimeUnit.SECONDS);
+        assertEquals(401, response.statusCode());
+        assertEquals(2, DENIED.get());
+        assertEquals(2, TOKENS_ISSUED.get());
+    }
+
+    @Test
+    public void testExplicitAuthorizationIsKept() {
+        validToken = "given";
+        ApiClient api = authenticated(new RestAssuredApiClient(), new TokenCache(Duration.ZERO));
+        Response response = api.send(ApiRequest.get("/protected").withHeader("authorization", "Bearer given"));
+        assertEquals(200, response.statusCode());
+        assertEquals(0, TOKENS_ISSUED.get());
+    }
+
+    @Test
+    public void testOtherOriginsGetNoToken() {
+        ApiClient api = authenticated(new RestAssuredApiClient(), new TokenCache(Duration.ofSeconds(60)));
+        String otherOrigin = "http://127.0.0.1:" + server.getAddress().getPort() + "/whoami";
+
+        assertEquals("Bearer tok-1", api.get("/whoami").asString());
+        assertEquals("Bearer tok-1", api.get(baseUrl + "/whoami").asString());
+        assertEquals("anonymous", api.get(otherOrigin).asString());
+    }
+
+    @Test
+    public void testExplicitHostsReplaceTheBaseUriHost() {
+        ApiClient api = new AuthenticatedApiClient(new RestAssuredApiClient(), new TokenCache(Duration.ofSeconds(60)),
+                credentials(), List.of("127.0.0.1"));
+        api.setBaseUri(baseUrl);
+
+        assertEquals("anonymous", api.get("/whoami").asString());
+        assertEquals("Bearer tok-1",
+                api.get("http://127.0.0.1:" + server.getAddress().getPort() + "/whoami").asString());
+    }
+
+    @Test
+    public void testNoTokenWithoutABaseUri() {
+        ApiClient api = new AuthenticatedApiClient(new RestAssuredApiClient(), new TokenCache(Duration.ofSeconds(60)),
+                credentials());
+        assertEquals("anonymous", api.get(baseUrl + "/whoami").asString());
+        assertEquals(0, TOKENS_ISSUED.get());
+    }
+
+    @Test
+    public void testExpiryIsReadFromTheTokenResponse() {
+        AccessToken token = credentials().fetch();
+        assertEquals("Bearer", token.type());
+        assertEquals("Bearer " + validToken, token.authorization());
+        Duration lifetime = Duration.between(Instant.now(), token.expiresAt());
+        assertTrue(lifetime.toString(), lifetime.getSeconds() > 290 && lifetime.getSeconds() <= 300);
+    }
+}
@@ -0,0 +1,231 @@
+package core.api;
+
+import core.api.impl.RestAssuredApiClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CachingApiClientTest {
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+    private static final Map<String, AtomicInteger> HITS = new ConcurrentHashMap<>();
+    private static HttpServer server;
+    private static String baseUrl;
+
+    private MutableClock clock;
+    private ResponseCache cache;
+    private CachingApiClient client;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/max-age", exchange -> respond(exchange, 200, "max-age=60", null, null));
+        server.createContext("/etag", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                respond(exchange, 304, null, "\"v1\"", null);
+            } else {
+                respond(exchange, 200, "no-cache", "\"v1\"", null);
+            }
+        });
+        server.createContext("/modified", exchange -> {
+            if (LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                respond(exchange, 304, "max-age=5", null, null);
+            } else {
+                respond(exchange, 200, "max-age=1", null, LAST_MODIFIED);
+            }
+        });
+        server.createContext("/no-store", exchange -> respond(exchange, 200, "no-store, max-age=60", "\"x\"", null));
+        server.createContext("/plain", exchange -> respond(exchange, 200, null, null, null));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    @Before
+    public void setUp() {
+        HITS.clear();
+        clock = new MutableClock();
+        cache = new ResponseCache(100, 1024 * 1024, clock);
+        client = new CachingApiClient(new RestAssuredApiClient(), cache);
+        client.setBaseUri(baseUrl);
+    }
+
+    @Test
+    public void testFreshResponseIsServedFromCache() {
+        Response first = client.get("/max-age");
+        Response second = client.get("/max-age");
+        assertEquals(200, second.statusCode());
+        assertEquals(first.asString(), second.asString());
+        assertEquals("max-age=60", second.header("Cache-Control"));
+        assertEquals(1, hits("/max-age"));
+
+        clock.advance(61_000);
+        client.get("/max-age");
+        assertEquals("expired response without validators is fetched again", 2, hits("/max-age"));
+
+        ResponseCacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    public void testNoCacheIsRevalidatedWithETag() {
+        assertEquals("GET /etag", client.get("/etag").asString());
+        Response revalidated = client.get("/etag");
+        assertEquals(200, revalidated.statusCode());
+        assertEquals("GET /etag", revalidated.asString());
+        assertEquals(2, hits("/etag"));
+
+        ResponseCacheStats stats = cache.stats();
+        assertEquals(1, stats.revalidations());
+        assertEquals(1, stats.notModified());
+        assertEquals(0.5, stats.hitRatio(), 1e-9);
+    }
+
+    @Test
+    public void testStaleResponseIsRevalidatedWithLastModifiedAndRefreshed() {
+        client.get("/modified");
+        clock.advance(2_000);
+        assertEquals("GET /modified", client.getAsync("/modified").join().asString());
+        assertEquals(1, cache.stats().notModified());
+
+        // The 304 carried max-age=5, so the entry is fresh again
+        clock.advance(4_000);
+        client.get("/modified");
+        assertEquals(2, hits("/modified"));
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    public void testUncacheableResponsesAndRequests() {
+        client.get("/no-store");
+        client.get("/no-store");
+        client.get("/plain");
+        client.get("/plain");
+        client.get("/max-age", Map.of(), Map.of("Cache-Control", "no-cache"));
+        assertEquals(2, hits("/no-store"));
+        assertEquals(2, hits("/plain"));
+        assertEquals(1, hits("/max-age"));
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    public void testQueryAndHeadersArePartOfTheKey() {
+        client.get("/max-age", Map.of("page", 1));
+        client.get("/max-age", Map.of("page", 2));
+        client.get("/max-age", Map.of("page", 1), Map.of("Accept", "text/plain"));
+        client.get("/max-age", Map.of("page", 1));
+        assertEquals(3, hits("/max-age"));
+    }
+
+    @Test
+    public void testUnsafeMethodInvalidatesTheUrl() {
+        client.get("/max-age");
+        client.get("/max-age", Map.of("page", 1));
+        client.post("/max-age", Map.of("name", "x"));
+        client.get("/max-age");
+        client.get("/max-age", Map.of("page", 1));
+        assertEquals(5, hits("/max-age"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        ResponseCache small = new ResponseCache(2, 1024 * 1024, clock);
+        CachingApiClient c = new CachingApiClient(new RestAssuredApiClient(), small);
+        c.setBaseUri(baseUrl);
+        c.get("/max-age", Map.of("k", "a"));
+        c.get("/max-age", Map.of("k", "b"));
+        c.get("/max-age", Map.of("k", "a"));
+        c.get("/max-age", Map.of("k", "c"));
+        assertEquals(1, small.stats().evictions());
+        c.get("/max-age", Map.of("k", "a"));
+        assertEquals("a was used recently and survives", 3, hits("/max-age"));
+        c.get("/max-age", Map.of("k", "b"));
+        assertEquals(4, hits("/max-age"));
+    }
+
+    @Test
+    public void testCacheIsSharedBetweenClients() {
+        client.get("/max-age");
+        CachingApiClient other = new CachingApiClient(new RestAssuredApiClient(), cache);
+        other.setBaseUri(baseUrl);
+        other.get("/max-age");
+        assertEquals(1, hits("/max-age"));
+    }
+
+    private static int hits(String path) {
+        AtomicInteger n = HITS.get(path);
+        return n == null ? 0 : n.get();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String cacheControl, String etag,
+                                String lastModified) throws IOException {
+        HITS.computeIfAbsent(exchange.getRequestURI().getPath(), k -> new AtomicInteger()).incrementAndGet();
+        if (cacheControl != null) exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        if (etag != null) exchange.getResponseHeaders().add("ETag", etag);
+        if (lastModified != null) exchange.getResponseHeaders().add("Last-Modified", lastModified);
+        if (status == 304) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = (exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath())
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+        void advance(long by) {
+            millis += by;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package core.api;
+
+import io.restassured.path.json.JsonPath;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class CompiledJsonPathTest {
+    private static final String JSON = "{"
+            + "\"id\":42,\"price\":9.5,\"active\":true,\"note\":null,\"name\":\"Widget\","
+            + "\"owner\":{\"name\":\"Alice\",\"address\":{\"city\":\"Oslo\"}},"
+            + "\"tags\":[\"a\",\"b\",\"c\"],"
+            + "\"items\":[{\"sku\":\"x1\",\"qty\":1},{\"sku\":\"x2\",\"qty\":3}],"
+            + "\"a.b\":\"dotted\""
+            + "}";
+
+    private static final JsonDocument DOC = JsonDocument.parse(JSON.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    public void testMatchesRestAssuredForScalarPaths() {
+        JsonPath gpath = JsonPath.from(JSON);
+        String[] paths = {
+                "id", "price", "active", "note", "name", "owner.name", "owner.address.city",
+                "tags[0]", "tags[2]", "tags[-1]", "items[1].sku", "items[0].qty", "tags.size()", "items.size()",
+                "missing", "owner.missing.deeper", "tags[10]"
+        };
+        for (String path : paths) {
+            assertEquals("path " + path, gpath.getString(path), DOC.getString(path));
+        }
+    }
+
+    @Test
+    public void testMatchesRestAssuredForContainersAndDecimals() {
+        String json = "{\"decimals\":[9.5,0.1,3.141592653589793,1e10,1.0,-0.0,123456789.123,1e-7,1e40,2.5E-3],"
+                + "\"big\":12345678901234567890,\"long\":9876543210,"
+                + "\"nested\":{\"a\":1,\"b\":[1,2.5,\"x y\",null,true],\"c\":{\"d\":\"e\"},\"e\":{}},"
+                + "\"empty\":[],\"items\":[{\"sku\":\"x1\",\"price\":1.25},{\"sku\":\"x2\"}]}";
+        JsonPath gpath = JsonPath.from(json);
+        JsonDocument doc = JsonDocument.parse(json.getBytes(StandardCharsets.UTF_8));
+        String[] paths = {
+                "decimals", "decimals[0]", "decimals[1]", "decimals[2]", "decimals[3]", "decimals[4]", "decimals[5]",
+                "decimals[6]", "decimals[7]", "decimals[8]", "decimals[9]", "big", "long", "nested", "nested.b",
+                "nested.c", "nested.e", "empty", "items", "items.sku", "items.price", "items[0]"
+        };
+        for (String path : paths) {
+            assertEquals("path " + path, gpath.getString(path), doc.getString(path));
+        }
+    }
+
+    @Test
+    public void testMatchesRestAssuredForFieldsUnderNestedArrays() {
+        String json = "{\"orders\":[{\"id\":1,\"lines\":[{\"sku\":\"a\",\"qty\":1},{\"sku\":\"b\"}]},"
+                + "{\"id\":2,\"lines\":[{\"sku\":\"c\",\"qty\":3}]},{\"id\":3,\"lines\":[]},{\"id\":4},null],"
+                + "\"grid\":[[{\"v\":1},{\"v\":2}],[{\"v\":3}],[]]}";
+        JsonPath gpath = JsonPath.from(json);
+        JsonDocument doc = JsonDocument.parse(json.getBytes(StandardCharsets.UTF_8));
+        String[] paths = {
+                "orders.id", "orders.lines", "orders.lines.sku", "orders.lines.sku[0]", "orders.lines.sku[1]",
+                "orders.lines.qty", "orders.lines[0].sku", "orders[0].lines.sku", "orders.lines.sku.size()",
+                "grid.v", "grid.v[0]", "grid[0].v"
+        };
+        for (String path : paths) {
+            assertEquals("path " + path, gpath.getString(path), doc.getString(path));
+        }
+        assertEquals("[[a, b], [c], []]", doc.getString("orders.lines.sku"));
+    }
+
+    @Test
+    public void testFieldOnArrayCollectsFromEveryElement() {
+        assertEquals("[x1, x2]", DOC.getString("items.sku"));
+        assertEquals(2, DOC.get("items.qty").size());
+    }
+
+    @Test
+    public void testQuotedNamesAndRoot() {
+        assertEquals("dotted", DOC.getString("'a.b'"));
+        assertEquals(42, DOC.get("$.id").asInt());
+        assertTrue(DOC.get("$").isObject());
+    }
+
+    @Test
+    public void testCompiledExpressionsAreCached() {
+        CompiledJsonPath first = CompiledJsonPath.compile("owner.address.city");
+        assertSame(first, CompiledJsonPath.compile("owner.address.city"));
+        assertTrue(CompiledJsonPath.cacheSize() <= Integer.getInteger("jsonpath.cacheSize", 512));
+    }
+
+    @Test
+    public void testUnsupportedExpressionsAreRejected() {
+        String[] unsupported = {"items.find { it.qty > 1 }", "items[*]", "owner..name", "owner.", "tags[0"};
+        for (String path : unsupported) {
+            try {
+                CompiledJsonPath.compile(path);
+                fail("Expected rejection of " + path);
+            } catch (IllegalArgumentException expected) {
+                assertTrue(expected.getMessage().contains(path));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidJsonIsRejected() {
+        JsonDocument.parse("{not json".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,181 @@
+package core.api;
+
+import core.api.impl.JdkHttpApiClient;
+import core.api.impl.RestAssuredApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class EndpointMetricsTest {
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/users", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            boolean missing = exchange.getRequestURI().getPath().endsWith("/404");
+            respond(exchange, missing ? 404 : 200, missing ? "{}" : "{\"name\":\"ada\"}");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Test
+    public void testTemplateCollapsesIds() {
+        assertEquals("/users/{id}/orders/{id}", EndpointMetrics.template("/users/42/orders/7?expand=items"));
+        assertEquals("/items/{id}", EndpointMetrics.template("/items/3f2b6c1e-9a4d-4e8b-8c2f-0d1e2a3b4c5d"));
+        assertEquals("/blobs/{id}", EndpointMetrics.template("/blobs/65a1f0c2e4b0a1b2c3d4e5f6"));
+        assertEquals("/v2/users/me", EndpointMetrics.template("/v2/users/me"));
+        assertEquals("/", EndpointMetrics.template("/"));
+        assertEquals("https://api.example:8443/users/{id}",
+                EndpointMetrics.template("https://api.example:8443/users/12"));
+        assertEquals("https://api.example", EndpointMetrics.template("https://api.example"));
+    }
+
+    @Test
+    public void testStatusClassesAndSizes() {
+        EndpointMetrics metrics = new EndpointMetrics();
+        metrics.record("GET /a", 200, 1_000_000, 0, 100);
+        metrics.record("GET /a", 204, 3_000_000, 0, 0);
+        metrics.record("GET /a", 503, 2_000_000, 0, 20);
+        metrics.record("GET /a", -1, 5_000_000, 0, -1);
+
+        EndpointMetrics.Summary s = metrics.summaries().get(0);
+        assertEquals(4, s.count());
+        assertEquals(2, s.status2xx());
+        assertEquals(1, s.status5xx());
+        assertEquals(1, s.failed());
+        assertEquals(120, s.responseBytes());
+        assertEquals(100, s.maxResponseBytes());
+        assertEquals(40.0, s.meanResponseBytes(), 0.001);
+        assertTrue(s.maxMillis() >= 4.9);
+    }
+
+    private static void exercise(ApiClient raw, EndpointMetrics metrics) {
+        ApiClient api = new InstrumentedApiClient(raw, metrics.listener());
+        api.setBaseUri(baseUrl);
+        api.get("/users/1");
+        api.get("/users/2?fields=name");
+        api.get("/users/404");
+        api.post("/users", Map.of("name", "ada"));
+        api.send(ApiRequest.put("/users/1", JsonBody.of(List.of(1, 2, 3))));
+    }
+
+    private static void assertExercised(EndpointMetrics metrics) {
+        Map<String, EndpointMetrics.Summary> byKey = new HashMap<>();
+        metrics.summaries().forEach(s -> byKey.put(s.key(), s));
+        assertEquals(byKey.keySet().toString(), 3, byKey.size());
+
+        EndpointMetrics.Summary get = byKey.get("GET /users/{id}");
+        assertEquals(3, get.count());
+        assertEquals(2, get.status2xx());
+        assertEquals(1, get.status4xx());
+        assertEquals(2 * "{\"name\":\"ada\"}".length() + 2, get.responseBytes());
+        assertEquals(0, get.requestBytes());
+
+        assertEquals("{\"name\":\"ada\"}".length(), byKey.get("POST /users").requestBytes());
+        assertEquals("[1,2,3]".length(), byKey.get("PUT /users/{id}").requestBytes());
+    }
+
+    @Test
+    public void testRestAssuredClientFeedsMetrics() {
+        EndpointMetrics metrics = new EndpointMetrics();
+        exercise(new RestAssuredApiClient(), metrics);
+        assertExercised(metrics);
+    }
+
+    @Test
+    public void testJdkClientFeedsMetrics() {
+        EndpointMetrics metrics = new EndpointMetrics();
+        exercise(new JdkHttpApiClient(), metrics);
+        assertExercised(metrics);
+    }
+
+    /** Body counting how often it is serialized. */
+    public static final class CountingBody {
+        static final AtomicInteger READS = new AtomicInteger();
+
+        public String getName() {
+            READS.incrementAndGet();
+            return "ada";
+        }
+    }
+
+    @Test
+    public void testObjectBodiesAreSerializedOnceAndMeasuredAsSent() {
+        EndpointMetrics metrics = new EndpointMetrics();
+        ApiClient api = new InstrumentedApiClient(new RestAssuredApiClient(), metrics.listener());
+        api.setBaseUri(baseUrl);
+        CountingBody.READS.set(0);
+
+        api.post("/users", new CountingBody());
+
+        assertEquals(1, CountingBody.READS.get());
+        assertEquals("{\"name\":\"ada\"}".length(), metrics.summaries().get(0).requestBytes());
+    }
+
+    @Test
+    public void testExports() throws IOException {
+        EndpointMetrics metrics = new EndpointMetrics();
+        metrics.record("GET /users/{id}", 200, 2_000_000, 0, 13);
+
+        String report = metrics.report();
+        assertTrue(report, report.startsWith("| Endpoint | Count | 2xx"));
+        assertTrue(report, report.contains("| `GET /users/{id}` | 1 | 1 | 0 | 0 | 0 | 0 | "));
+
+        JsonNode json = new ObjectMapper().readTree(metrics.toJson());
+        JsonNode endpoint = json.get("endpoints").get(0);
+        assertEquals("GET /users/{id}", endpoint.get("key").asText());
+        assertEquals(1, endpoint.get("status2xx").asLong());
+        assertEquals(13, endpoint.get("responseBytes").asLong());
+        assertTrue(endpoint.get("p95").asDouble() > 0);
+    }
+
+    @Test
+    public void testListenersCombine() {
+        EndpointMetrics metrics = new EndpointMetrics();
+        int[] calls = new int[1];
+        RequestListener plain = (request, status, nanos, failure) -> calls[0]++;
+        RequestListener both = plain.andThen(metrics.listener());
+        assertTrue(both.measuresSizes());
+        both.onExchange(ApiRequest.get("/x/9"), 200, 1000, 0, 5, null);
+        assertEquals(1, calls[0]);
+        assertEquals("GET /x/{id}", metrics.summaries().get(0).key());
+    }
+}
@@ -0,0 +1,186 @@
+package core.api;
+
+import core.api.impl.JdkHttpApiClient;
+import core.api.impl.RestAssuredApiClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HedgingApiClientTest {
+    private static final long STALL_MILLIS = 1500;
+    private static final AtomicInteger CALLS = new AtomicInteger();
+    private static HttpServer server;
+    private static String baseUrl;
+
+    private HedgeMetrics metrics;
+    private HedgePolicy policy;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        // The first call of each test stalls, every later one answers at once
+        server.createContext("/stall", exchange -> respond(exchange, CALLS.incrementAndGet() == 1 ? STALL_MILLIS : 0));
+        server.createContext("/fast", exchange -> respond(exchange, 0));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        // Keep client start-up cost out of the timings
+        for (ApiClient client : new ApiClient[]{new RestAssuredApiClient(), new JdkHttpApiClient()}) {
+            client.setBaseUri(baseUrl);
+            client.get("/fast");
+        }
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Before
+    public void reset() {
+        CALLS.set(0);
+        metrics = new HedgeMetrics();
+        policy = HedgePolicy.defaults().withInitialDelay(Duration.ofMillis(50));
+    }
+
+    @Test
+    public void testHedgeAnswersStalledBlockingRequest() throws InterruptedException {
+        checkHedgeWins(new RestAssuredApiClient());
+        // The discarded primary still finishes, which measures what the hedge saved
+        long deadline = System.currentTimeMillis() + 3000;
+        while (summary().savedMillis() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        assertTrue(summary().savedMillis() > 500);
+        assertTrue("the late primary's latency is learned: " + summary().p95(), summary().p95() >= 1000);
+    }
+
+    @Test
+    public void testHedgeAnswersStalledAsyncRequest() throws InterruptedException {
+        checkHedgeWins(new JdkHttpApiClient());
+        // The aborted primary counts with the time until the hedge answered
+        long deadline = System.currentTimeMillis() + 3000;
+        while (summary().p95() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        assertTrue("p95 " + summary().p95(), summary().p95() >= 50);
+    }
+
+    @Test
+    public void testPutIsOnlyHedgedWhenOptedIn() {
+        HedgingApiClient client = client(new RestAssuredApiClient(), policy);
+        assertEquals(200, client.put("/stall", "{}").statusCode());
+        assertEquals(1, CALLS.get());
+        assertTrue(metrics.summaries().isEmpty());
+
+        CALLS.set(0);
+        client = client(new RestAssuredApiClient(), policy.withMethods("GET", "put"));
+        assertEquals("2", client.put("/stall", "{}").asString());
+        assertEquals(1, summary().hedgeWins());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOnlyIdempotentMethodsCanBeHedged() {
+        policy.withMethods("GET", "POST");
+    }
+
+    @Test
+    public void testFastResponsesAreNotHedged() {
+        HedgingApiClient client = client(new RestAssuredApiClient(), policy.withInitialDelay(Duration.ofSeconds(2)));
+        for (int i = 0; i < 5; i++) assertEquals(200, client.get("/fast").statusCode());
+        HedgeMetrics.Summary summary = metrics.summaries().get(0);
+        assertEquals("GET /fast", summary.key());
+        assertEquals(5, summary.requests());
+        assertEquals(0, summary.hedged());
+    }
+
+    @Test
+    public void testRequestsToOneEndpointShareItsLatencyWhateverTheId() {
+        HedgingApiClient client = client(new RestAssuredApiClient(), policy.withEndpointDelay("GET /fast/7",
+                Duration.ofSeconds(2)));
+        assertEquals(200, client.get("/fast/1").statusCode());
+        assertEquals(200, client.get("/fast/2?full=true").statusCode());
+        HedgeMetrics.Summary summary = summary();
+        assertEquals("GET /fast/{id}", summary.key());
+        assertEquals(2, summary.requests());
+        assertEquals(Duration.ofSeconds(2), policy.withEndpointDelay("GET /fast/7", Duration.ofSeconds(2))
+                .endpointDelays().get("GET /fast/{id}"));
+    }
+
+    @Test
+    public void testNonIdempotentRequestsAreNotHedged() {
+        HedgingApiClient client = client(new RestAssuredApiClient(), policy);
+        long start = System.nanoTime();
+        assertEquals(200, client.post("/stall", "{}").statusCode());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(STALL_MILLIS).toNanos());
+        assertEquals(1, CALLS.get());
+        assertTrue(metrics.summaries().isEmpty());
+    }
+
+    @Test
+    public void testExhaustedBudgetDisablesHedging() {
+        HedgingApiClient client = client(new RestAssuredApiClient(), policy.withBudget(0));
+        assertEquals(200, client.get("/stall").statusCode());
+        assertEquals(1, CALLS.get());
+        assertEquals(0, summary().hedged());
+    }
+
+    @Test
+    public void testEndpointDelayOverridesPolicy() {
+        HedgePolicy slow = policy.withEndpointDelay("GET /stall", Duration.ofSeconds(5));
+        HedgingApiClient client = client(new RestAssuredApiClient(), slow);
+        assertEquals(200, client.get("/stall").statusCode());
+        assertEquals(0, summary().hedged());
+    }
+
+    private void checkHedgeWins(ApiClient delegate) {
+        HedgingApiClient client = client(delegate, policy);
+        long start = System.nanoTime();
+        Response response = client.get("/stall");
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(200, response.statusCode());
+        assertEquals("2", response.asString());
+        assertTrue("hedge did not cut the stall: " + millis + " ms", millis < STALL_MILLIS);
+        HedgeMetrics.Summary summary = summary();
+        assertEquals(1, summary.requests());
+        assertEquals(1, summary.hedged());
+        assertEquals(1, summary.hedgeWins());
+    }
+
+    private HedgingApiClient client(ApiClient delegate, HedgePolicy hedgePolicy) {
+        HedgingApiClient client = new HedgingApiClient(delegate, hedgePolicy, metrics);
+        client.setBaseUri(baseUrl);
+        return client;
+    }
+
+    private HedgeMetrics.Summary summary() {
+        return metrics.summaries().get(0);
+    }
+
+    private static void respond(HttpExchange exchange, long delayMillis) throws IOException {
+        int call = CALLS.get();
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = String.valueOf(call).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException ignored) {
+            // The client gave up on this attempt
+        }
+    }
+}
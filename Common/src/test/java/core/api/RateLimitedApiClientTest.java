@@ -0,0 +1,153 @@
+package core.api;
+
+import core.api.impl.JdkHttpApiClient;
+import core.api.impl.RestAssuredApiClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RateLimitedApiClientTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, null));
+        // Only the first call of each test is rejected
+        server.createContext("/limited", exchange -> {
+            if (CALLS.incrementAndGet() == 1) {
+                respond(exchange, 429, "1");
+            } else {
+                respond(exchange, 200, null);
+            }
+        });
+        server.createContext("/unavailable", exchange -> {
+            CALLS.incrementAndGet();
+            respond(exchange, 503, "0");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Before
+    public void resetCalls() {
+        CALLS.set(0);
+    }
+
+    @Test
+    public void testMostSpecificRuleWins() {
+        RateLimiter limiter = new RateLimiter(List.of(
+                RateLimiter.Rule.parse("*=100"),
+                RateLimiter.Rule.parse("api.example=10"),
+                RateLimiter.Rule.parse("api.example/orders=2:4")));
+
+        assertSame(limiter.bucket(URI.create("https://api.example/orders/1")),
+                limiter.bucket(URI.create("https://api.example/orders?page=2")));
+        assertNotSame(limiter.bucket(URI.create("https://api.example/orders/1")),
+                limiter.bucket(URI.create("https://api.example/users")));
+        limiter.bucket(URI.create("https://other.example/x"));
+        List<RateLimiter.Summary> summaries = limiter.summaries();
+        assertEquals(List.of("api.example", "api.example/orders", "other.example"),
+                summaries.stream().map(RateLimiter.Summary::key).toList());
+        assertEquals(2.0, summaries.get(1).permitsPerSecond(), 0);
+        assertEquals(100.0, summaries.get(2).permitsPerSecond(), 0);
+    }
+
+    @Test
+    public void testRequestsArePacedToTheRate() {
+        RateLimiter limiter = new RateLimiter(List.of(RateLimiter.Rule.parse("localhost=20:1")));
+        ApiClient client = client(new RestAssuredApiClient(), limiter);
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) assertEquals(200, client.get("/ok").statusCode());
+
+        // One token up front, then one every 50 ms
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(240).toNanos());
+        RateLimiter.Summary summary = limiter.summaries().get(0);
+        assertEquals(6, summary.requests());
+        assertTrue(summary.throttledMillis() > 0);
+    }
+
+    @Test
+    public void testRetryAfterIsHonoredAndRetried() {
+        RateLimiter limiter = new RateLimiter(List.of(RateLimiter.Rule.parse("localhost=50")));
+        ApiClient client = client(new RestAssuredApiClient(), limiter);
+        long start = System.nanoTime();
+
+        assertEquals(200, client.post("/limited", "{}").statusCode());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(950).toNanos());
+        RateLimiter.Summary summary = limiter.summaries().get(0);
+        assertEquals(1, summary.rateLimited());
+        assertEquals(1, summary.retries());
+        assertEquals(25.0, summary.permitsPerSecond(), 2.5);
+    }
+
+    @Test
+    public void testAsyncClientIsRetriedToo() {
+        RateLimiter limiter = new RateLimiter(List.of());
+        AsyncApiClient client = (AsyncApiClient) client(new JdkHttpApiClient(), limiter);
+        assertEquals(200, client.getAsync("/limited").join().statusCode());
+        assertEquals(2, CALLS.get());
+        assertEquals(1, limiter.summaries().get(0).retries());
+    }
+
+    @Test
+    public void testUnavailableIsNotRetriedForPost() {
+        ApiClient client = client(new RestAssuredApiClient(), new RateLimiter(List.of()));
+        assertEquals(503, client.post("/unavailable", "{}").statusCode());
+        assertEquals(1, CALLS.get());
+        assertEquals(503, client.get("/unavailable").statusCode());
+        // The GET was retried maxRetries (2) times before giving up
+        assertEquals(4, CALLS.get());
+    }
+
+    @Test
+    public void testRetryAfterParsing() {
+        assertEquals(Duration.ofSeconds(7), RateLimitedApiClient.pause("7"));
+        assertEquals(Duration.ofSeconds(60), RateLimitedApiClient.pause("3600"));
+        assertEquals(Duration.ZERO, RateLimitedApiClient.pause("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertEquals(Duration.ofSeconds(1), RateLimitedApiClient.pause("soon"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMalformedRule() {
+        RateLimiter.Rule.parse("api.example=fast");
+    }
+
+    private static ApiClient client(ApiClient delegate, RateLimiter limiter) {
+        ApiClient client = new RateLimitedApiClient(delegate, limiter, 2);
+        client.setBaseUri(baseUrl);
+        return client;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String retryAfter) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (retryAfter != null) exchange.getResponseHeaders().set("Retry-After", retryAfter);
+        byte[] body = "{}".getBytes();
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package core.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StreamingResponseTest {
+
+    private static StreamingResponse response(String body) {
+        return new StreamingResponse(200, Map.of("Content-Type", List.of("application/x-ndjson")),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testNdjsonRecords() {
+        try (StreamingResponse res = response("{\"id\":1}\n{\"id\":2}\n\n{\"id\":3}\n")) {
+            Iterator<JsonNode> it = res.records();
+            assertEquals(1, it.next().get("id").asInt());
+            assertEquals(2, it.next().get("id").asInt());
+            assertEquals(3, it.next().get("id").asInt());
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    public void testTopLevelArrayIsUnwrapped() {
+        try (StreamingResponse res = response("[{\"id\":1},{\"id\":2}]")) {
+            assertEquals(2, res.countRecords());
+        }
+    }
+
+    @Test
+    public void testHeadersAreCaseInsensitive() {
+        try (StreamingResponse res = response("")) {
+            assertEquals("application/x-ndjson", res.header("content-type"));
+            assertEquals("application/x-ndjson", res.contentType());
+            assertEquals(0, res.countRecords());
+        }
+    }
+
+    @Test
+    public void testBodyCanOnlyBeConsumedOnce() {
+        try (StreamingResponse res = response("{}")) {
+            res.body();
+            try {
+                res.records();
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException expected) {
+                assertTrue(expected.getMessage().contains("consumed"));
+            }
+        }
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testMalformedRecordFails() {
+        try (StreamingResponse res = response("{\"id\":1}\n{\"id\":")) {
+            res.countRecords();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package core.api;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TokenCacheTest {
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    /** Tokens "t1", "t2", ... valid for {@code lifetime} from the clock's current time. */
+    private TokenProvider provider(Duration lifetime) {
+        return () -> AccessToken.bearer("t" + fetches.incrementAndGet(), clock.instant().plus(lifetime));
+    }
+
+    @Test
+    public void testTokenIsReusedUntilItNeedsRefreshing() {
+        TokenCache cache = new TokenCache(Duration.ofSeconds(60), clock);
+        TokenProvider provider = provider(Duration.ofMinutes(5));
+
+        assertEquals("t1", cache.token("k", provider).value());
+        clock.advance(Duration.ofMinutes(3));
+        assertEquals("t1", cache.token("k", provider).value());
+        // Inside the refresh window: refreshed before it expires
+        clock.advance(Duration.ofSeconds(61));
+        assertEquals("t2", cache.token("k", provider).value());
+        assertEquals(2, fetches.get());
+        assertEquals(new TokenCache.Stats(1, 2, 0, 0), cache.stats());
+    }
+
+    @Test
+    public void testKeysAreSeparate() {
+        TokenCache cache = new TokenCache(Duration.ZERO, clock);
+        TokenProvider provider = provider(Duration.ofMinutes(5));
+        assertEquals("t1", cache.token("client-a read", provider).value());
+        assertEquals("t2", cache.token("client-a write", provider).value());
+        assertEquals("t1", cache.token("client-a read", provider).value());
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneFetch() throws Exception {
+        TokenCache cache = new TokenCache(Duration.ZERO, clock);
+        CountDownLatch release = new CountDownLatch(1);
+        TokenProvider slow = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return AccessToken.bearer("t" + fetches.incrementAndGet(), null);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AccessToken>> tokens = new ArrayList<>();
+            for (int i = 0; i < 8; i++) tokens.add(pool.submit(() -> cache.token("k", slow)));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<AccessToken> token : tokens) assertEquals("t1", token.get(5, TimeUnit.SECONDS).value());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, fetches.get());
+        assertEquals(1, cache.stats().fetches());
+    }
+
+    @Test
+    public void testRefreshAheadKeepsServingTheCurrentToken() throws Exception {
+        TokenCache cache = new TokenCache(Duration.ofSeconds(60), clock);
+        cache.token("k", provider(Duration.ofMinutes(5)));
+        clock.advance(Duration.ofMinutes(4).plusSeconds(30));
+
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TokenProvider slow = () -> {
+            fetching.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return AccessToken.bearer("t" + fetches.incrementAndGet(), clock.instant().plusSeconds(300));
+        };
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<AccessToken> refresher = pool.submit(() -> cache.token("k", slow));
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            // The refresh is in flight, but the old token is still valid and served without waiting
+            assertEquals("t1", cache.token("k", slow).value());
+            release.countDown();
+            assertEquals("t2", refresher.get(5, TimeUnit.SECONDS).value());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals("t2", cache.token("k", slow).value());
+    }
+
+    @Test
+    public void testFailedRefreshAheadFallsBackToTheCurrentToken() {
+        TokenCache cache = new TokenCache(Duration.ofSeconds(60), clock);
+        cache.token("k", provider(Duration.ofMinutes(5)));
+        clock.advance(Duration.ofMinutes(4).plusSeconds(30));
+        TokenProvider broken = () -> {
+            throw new IllegalStateException("identity service down");
+        };
+        assertEquals("t1", cache.token("k", broken).value());
+
+        clock.advance(Duration.ofMinutes(1));
+        try {
+            cache.token("k", broken);
+            fail("Expected the fetch failure once the token expired");
+        } catch (IllegalStateException expected) {
+            assertEquals("identity service down", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testInvalidateOnlyDropsTheRejectedToken() {
+        TokenCache cache = new TokenCache(Duration.ZERO, clock);
+        TokenProvider provider = provider(Duration.ofMinutes(5));
+        AccessToken first = cache.token("k", provider);
+        cache.invalidate("k", first);
+        AccessToken second = cache.token("k", provider);
+        assertEquals("t2", second.value());
+        // A late 401 for the first token must not throw away the second
+        cache.invalidate("k", first);
+        assertSame(second, cache.token("k", provider));
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration by) {
+            now = now.plus(by);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package core.api.impl;
+
+import core.api.ApiClient;
+import core.api.Download;
+import core.api.Multipart;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class FileTransferTest {
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+
+    private static HttpServer server;
+    private static String baseUrl;
+    private static Path dir;
+    private static Path largeFile;
+    private static String largeFileSha;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        dir = Files.createTempDirectory("file-transfer");
+        largeFile = dir.resolve("large.bin");
+        MessageDigest sha = sha256();
+        try (OutputStream out = Files.newOutputStream(largeFile)) {
+            byte[] chunk = new byte[64 * 1024];
+            for (int written = 0; written < FILE_SIZE; written += chunk.length) {
+                for (int i = 0; i < chunk.length; i++) chunk[i] = (byte) (written + i * 31);
+                out.write(chunk);
+                sha.update(chunk);
+            }
+        }
+        largeFileSha = HexFormat.of().formatHex(sha.digest());
+
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        // Digest of the raw body, read without buffering it
+        server.createContext("/upload", exchange -> {
+            MessageDigest digest = sha256();
+            long length = 0;
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] chunk = new byte[64 * 1024];
+                int n;
+                while ((n = in.read(chunk)) != -1) {
+                    digest.update(chunk, 0, n);
+                    length += n;
+                }
+            }
+            respond(exchange, length + " " + HexFormat.of().formatHex(digest.digest()));
+        });
+        // Small multipart bodies are echoed with their content type
+        server.createContext("/form", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            respond(exchange, exchange.getRequestHeaders().getFirst("Content-Type") + "\n" + body);
+        });
+        server.createContext("/file", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                Files.copy(largeFile, os);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        if (server != null) server.stop(0);
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static ApiClient client(ApiClient client) {
+        client.setBaseUri(baseUrl);
+        return client;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static void assertUploaded(ApiClient client) {
+        Response response = client.upload("/upload", largeFile);
+        assertEquals(200, response.statusCode());
+        assertEquals(FILE_SIZE + " " + largeFileSha, response.asString());
+    }
+
+    private static void assertDownloaded(ApiClient client, String name) {
+        Download download = client.download("/file", dir.resolve(name));
+        assertEquals(200, download.statusCode());
+        assertEquals(FILE_SIZE, download.bytes());
+        assertTrue(download.matches(largeFileSha));
+        assertEquals("application/octet-stream", download.contentType());
+    }
+
+    private static void assertMultipart(ApiClient client) throws IOException {
+        Path text = Files.writeString(dir.resolve("notes.txt"), "hello parts");
+        Multipart body = Multipart.empty().withField("version", "1.2.3").withFile("file", text, "text/plain");
+        Response response = client.post("/form", body);
+        String echoed = response.asString();
+        assertTrue(echoed, echoed.startsWith("multipart/form-data"));
+        assertTrue(echoed, echoed.contains("name=\"version\""));
+        assertTrue(echoed, echoed.contains("1.2.3"));
+        assertTrue(echoed, echoed.contains("filename=\"notes.txt\""));
+        assertTrue(echoed, echoed.contains("hello parts"));
+    }
+
+    @Test
+    public void testRestAssuredUploadStreamsTheFile() {
+        ApiClient client = client(new RestAssuredApiClient());
+        assertUploaded(client);
+        // RestAssured writes the body on the calling thread, so its allocations show whether the file was buffered
+        long before = allocatedBytes();
+        assertUploaded(client);
+        long allocated = allocatedBytes() - before;
+        assertTrue("Upload allocated " + allocated + " bytes", allocated < FILE_SIZE / 4);
+    }
+
+    @Test
+    public void testRestAssuredDownloadStreamsToDisk() {
+        ApiClient client = client(new RestAssuredApiClient());
+        assertDownloaded(client, "ra-warmup.bin");
+        long before = allocatedBytes();
+        assertDownloaded(client, "ra.bin");
+        long allocated = allocatedBytes() - before;
+        assertTrue("Download allocated " + allocated + " bytes", allocated < FILE_SIZE / 4);
+    }
+
+    @Test
+    public void testRestAssuredMultipart() throws IOException {
+        assertMultipart(client(new RestAssuredApiClient()));
+    }
+
+    @Test
+    public void testJdkUploadDownloadAndMultipart() throws IOException {
+        ApiClient client = client(new JdkHttpApiClient());
+        assertUploaded(client);
+        assertDownloaded(client, "jdk.bin");
+        assertMultipart(client);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultipartRejectsMissingFile() {
+        Multipart.file("file", dir.resolve("missing.bin"));
+    }
+}
@@ -0,0 +1,286 @@
+package core.api.impl;
+
+import core.api.ApiClientConfig;
+import core.api.ApiRequest;
+import core.api.AsyncApiClient;
+import core.api.InstrumentedApiClient;
+import core.api.JsonBody;
+import core.api.StreamingResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class JdkHttpApiClientTest {
+    private static HttpServer server;
+    private static String baseUrl;
+    private static final int EXPORT_RECORDS = 50_000;
+    private static volatile CountDownLatch firstRecordRead = new CountDownLatch(0);
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/echo", JdkHttpApiClientTest::echo);
+        server.createContext("/json", exchange -> {
+            exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/");
+            respond(exchange, 201, "application/json", "{\"id\":7,\"tags\":[\"a\",\"b\"]}");
+        });
+        server.createContext("/export", exchange -> {
+            // NDJSON export; everything after the first record waits until the client has read that record
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("{\"id\":0,\"name\":\"r0\"}\n".getBytes(StandardCharsets.UTF_8));
+                os.flush();
+                firstRecordRead.await(10, TimeUnit.SECONDS);
+                for (int i = 1; i < EXPORT_RECORDS; i++) {
+                    os.write(("{\"id\":" + i + ",\"name\":\"r" + i + "\"}\n").getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    public void testRelaxedValidationAcceptsACertificateForAnotherHost() throws Exception {
+        // Self-signed certificate issued to a host name that is not the one connected to
+        Path keystore = tmp.getRoot().toPath().resolve("server.p12");
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "server", "-keyalg", "RSA", "-keysize", "2048", "-validity", "1",
+                "-dname", "CN=example.invalid", "-storetype", "PKCS12", "-keystore", keystore.toString(),
+                "-storepass", "secret", "-keypass", "secret").redirectErrorStream(true).start();
+        assertEquals(new String(keytool.getInputStream().readAllBytes()), 0, keytool.waitFor());
+        KeyStore keys = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keystore)) {
+            keys.load(in, "secret".toCharArray());
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keys, "secret".toCharArray());
+        SSLContext tls = SSLContext.getInstance("TLS");
+        tls.init(kmf.getKeyManagers(), null, null);
+
+        HttpsServer https = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        https.setHttpsConfigurator(new HttpsConfigurator(tls));
+        https.createContext("/echo", JdkHttpApiClientTest::echo);
+        https.start();
+        try {
+            JdkHttpApiClient client = new JdkHttpApiClient(ApiClientConfig.defaults(), HttpClient.Version.HTTP_1_1);
+            client.setBaseUri("https://localhost:" + https.getAddress().getPort());
+            assertEquals(200, client.get("/echo").statusCode());
+        } finally {
+            https.stop(0);
+        }
+    }
+
+    @Test
+    public void testVerbsQueryAndHeaders() {
+        JdkHttpApiClient client = new JdkHttpApiClient();
+        client.setBaseUri(baseUrl);
+
+        Response get = client.get("/echo", Map.of("q", "a b", "n", List.of(1, 2)), Map.of("X-Test", "yes"));
+        assertEquals(200, get.statusCode());
+        String body = get.asString();
+        assertTrue(body.contains("method=GET"));
+        assertTrue(body.contains("query[q]=a b"));
+        assertTrue(body.contains("query[n]=1"));
+        assertTrue(body.contains("query[n]=2"));
+        assertTrue(body.toLowerCase().contains("header[x-test]=yes"));
+
+        assertTrue(client.put("/echo").asString().contains("method=PUT"));
+        assertTrue(client.patch("/echo", "raw").asString().contains("body=raw"));
+        assertTrue(client.delete("/echo").asString().contains("method=DELETE"));
+        assertTrue(client.send(ApiRequest.of("OPTIONS", "/echo")).asString().contains("method=OPTIONS"));
+    }
+
+    @Test
+    public void testJsonBodyDefaultsAndAuth() {
+        ApiClientConfig config = ApiClientConfig.defaults()
+                .withBaseUri(baseUrl)
+                .withHeader("X-Default", "d")
+                .withBasicAuth("user", "pass")
+                .withReadTimeout(Duration.ofSeconds(5));
+        JdkHttpApiClient client = new JdkHttpApiClient(config);
+
+        String body = client.post("/echo", Map.of("name", "Alice")).asString();
+        assertTrue(body.contains("body={\"name\":\"Alice\"}"));
+        assertTrue(body.toLowerCase().contains("header[content-type]=application/json"));
+        assertTrue(body.toLowerCase().contains("header[x-default]=d"));
+        assertTrue(body.contains("Basic dXNlcjpwYXNz"));
+    }
+
+    @Test
+    public void testPreSerializedAndStreamedBodies() throws IOException {
+        JdkHttpApiClient client = new JdkHttpApiClient();
+        client.setBaseUri(baseUrl);
+
+        assertTrue(client.post("/echo", JsonBody.of(Map.of("name", "Alice"))).asString()
+                .contains("body={\"name\":\"Alice\"}"));
+        InputStream stream = new ByteArrayInputStream("{\"n\":1}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(client.put("/echo", stream).asString().contains("body={\"n\":1}"));
+        Path file = Files.createTempFile("body", ".json");
+        try {
+            Files.writeString(file, "{\"f\":true}");
+            assertTrue(client.patch("/echo", file).asString().contains("body={\"f\":true}"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testResponseIsAssertableLikeRestAssured() {
+        JdkHttpApiClient client = new JdkHttpApiClient();
+        client.setBaseUri(baseUrl);
+
+        Response res = client.get("/json");
+        assertEquals(201, res.statusCode());
+        assertEquals(7, res.jsonPath().getInt("id"));
+        assertEquals("b", res.jsonPath().getString("tags[1]"));
+        assertTrue(res.contentType().startsWith("application/json"));
+        assertEquals("abc", res.getCookie("session"));
+    }
+
+    @Test
+    public void testAsyncFanOut() {
+        AsyncApiClient client = new JdkHttpApiClient();
+        client.setBaseUri(baseUrl);
+
+        List<CompletableFuture<Response>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(client.getAsync("/echo", Map.of("i", i), Map.of()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        for (int i = 0; i < futures.size(); i++) {
+            Response res = futures.get(i).join();
+            assertEquals(200, res.statusCode());
+            assertTrue(res.asString().contains("query[i]=" + i + "\n"));
+        }
+    }
+
+    @Test
+    public void testFailedFutureWithoutBaseUri() {
+        JdkHttpApiClient client = new JdkHttpApiClient();
+        CompletableFuture<Response> f = client.getAsync("/echo");
+        assertTrue(f.isCompletedExceptionally());
+        try {
+            client.get("/echo");
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("base URI"));
+        }
+    }
+
+    @Test
+    public void testStreamReadsRecordsBeforeBodyIsComplete() {
+        JdkHttpApiClient client = new JdkHttpApiClient();
+        client.setBaseUri(baseUrl);
+        firstRecordRead = new CountDownLatch(1);
+
+        try (StreamingResponse res = client.stream(ApiRequest.get("/export"))) {
+            assertEquals(200, res.statusCode());
+            assertEquals("application/x-ndjson", res.contentType());
+            Iterator<JsonNode> records = res.records();
+            // The server holds back the rest of the body until this record has been seen, so a buffering
+            // client would only return after the latch timed out
+            assertEquals("r0", records.next().get("name").asText());
+            assertEquals(1, firstRecordRead.getCount());
+            firstRecordRead.countDown();
+            long count = 1;
+            while (records.hasNext()) {
+                assertTrue(records.next().has("id"));
+                count++;
+            }
+            assertEquals(EXPORT_RECORDS, count);
+        }
+    }
+
+    @Test
+    public void testInstrumentedClientReportsEveryRequest() {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        InstrumentedApiClient client = new InstrumentedApiClient(new JdkHttpApiClient(),
+                (request, status, nanos, failure) -> seen.add(request.method() + " " + request.path() + " " + status
+                        + (failure == null ? "" : " failed")));
+        client.setBaseUri(baseUrl);
+
+        assertEquals(201, client.get("/json").statusCode());
+        assertEquals(200, client.postAsync("/echo", Map.of("a", 1)).join().statusCode());
+        try (StreamingResponse res = client.stream(ApiRequest.get("/json"))) {
+            assertEquals(201, res.statusCode());
+        }
+        client.setBaseUri("http://localhost:1");
+        assertTrue(client.getAsync("/echo").handle((r, e) -> e != null).join());
+
+        assertEquals(List.of("GET /json 201", "POST /echo 200", "GET /json 201", "GET /echo -1 failed"), seen);
+    }
+
+    private static void echo(HttpExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("method=").append(exchange.getRequestMethod()).append('\n');
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] kv = pair.split("=", 2);
+                sb.append("query[").append(URLDecoder.decode(kv[0], StandardCharsets.UTF_8)).append("]=")
+                        .append(kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "").append('\n');
+            }
+        }
+        exchange.getRequestHeaders().forEach((k, v) -> sb.append("header[").append(k).append("]=")
+                .append(v.get(0)).append('\n'));
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (!body.isEmpty()) sb.append("body=").append(body).append('\n');
+        respond(exchange, 200, "text/plain", sb.toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
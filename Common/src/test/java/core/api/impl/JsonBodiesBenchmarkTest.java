@@ -0,0 +1,112 @@
+package core.api.impl;
+
+import core.api.JsonBody;
+import io.restassured.path.json.mapper.factory.DefaultJackson2ObjectMapperFactory;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Allocation benchmark for request body serialization: the shared Jackson writer must allocate less per request
+ * than a mapper built per call (what RestAssured's default object mapping does), and a cached {@link JsonBody}
+ * must allocate next to nothing. Runs without a server.
+ */
+public class JsonBodiesBenchmarkTest {
+    private static final int ITERATIONS = 2_000;
+    private static volatile Object sink;
+
+    public record LineItem(String sku, String description, int quantity, double price) { }
+
+    public record Order(String id, String customer, List<LineItem> items) { }
+
+    private static final Order ORDER = order(100);
+
+    private static Order order(int lines) {
+        List<LineItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) items.add(new LineItem("SKU-" + i, "Item number " + i, i % 7 + 1, i * 1.25));
+        return new Order("order-1", "Alice", items);
+    }
+
+    private static long allocatedBytes(Supplier<byte[]> serialize) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Warm up so class loading and JIT are not counted
+        for (int i = 0; i < ITERATIONS; i++) sink = serialize.get();
+        long before = mx.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) sink = serialize.get();
+        return mx.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    @Test
+    public void sharedWriterAllocatesLessThanMapperPerCall() {
+        DefaultJackson2ObjectMapperFactory factory = new DefaultJackson2ObjectMapperFactory();
+        long perCall = allocatedBytes(() -> {
+            try {
+                return factory.create(Order.class, "UTF-8").writeValueAsBytes(ORDER);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        long shared = allocatedBytes(() -> JsonBodies.encode(ORDER));
+        long cached = allocatedBytes(() -> JsonBody.cached(ORDER).bytes());
+        assertTrue(String.format("bytes per request: shared writer=%.0f, mapper per call=%.0f",
+                shared / (double) ITERATIONS, perCall / (double) ITERATIONS), shared * 2 < perCall);
+        assertTrue(String.format("bytes per request: cached=%.1f, shared writer=%.0f",
+                cached / (double) ITERATIONS, shared / (double) ITERATIONS), cached * 100 < shared);
+    }
+
+    @Test
+    public void sharedWriterMatchesPerCallMapperOutput() throws Exception {
+        String expected = new DefaultJackson2ObjectMapperFactory().create(Order.class, "UTF-8")
+                .writeValueAsString(ORDER);
+        assertEquals(expected, new String(JsonBodies.encode(ORDER), StandardCharsets.UTF_8));
+        assertEquals(expected, JsonBody.of(ORDER).toString());
+    }
+
+    @Test
+    public void cachedBodiesAreKeyedByInstance() {
+        Order copy = order(100);
+        assertEquals(ORDER, copy);
+        assertSame(JsonBody.cached(ORDER), JsonBody.cached(ORDER));
+        assertNotSame(JsonBody.cached(ORDER), JsonBody.cached(copy));
+        assertArrayEquals(JsonBody.cached(ORDER).bytes(), JsonBody.cached(copy).bytes());
+    }
+
+    @Test
+    public void cachingContinuesPastManyDistinctBodies() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Order order = order(1);
+            orders.add(order);
+            JsonBody.cached(order);
+        }
+        for (Order order : orders) assertSame(JsonBody.cached(order), JsonBody.cached(order));
+    }
+
+    @Test
+    public void cachedBodiesDoNotKeepTheirObjectsAlive() throws InterruptedException {
+        Order order = order(1);
+        JsonBody.cached(order);
+        WeakReference<Order> ref = new WeakReference<>(order);
+        order = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull("the cache must not hold its keys strongly", ref.get());
+    }
+
+    @Test
+    public void preSerializedBodiesAreSentAsIs() {
+        byte[] raw = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+        assertSame(raw, JsonBodies.encode(raw));
+        assertSame(raw, JsonBodies.encode(JsonBody.of(raw)));
+        assertEquals("{\"a\":1}", new String(JsonBodies.encode("{\"a\":1}"), StandardCharsets.UTF_8));
+    }
+}
@@ -1,33 +1,80 @@
 package core.api.impl;
 
 import core.api.ApiClient;
+import core.api.ApiClientConfig;
+import core.api.ApiRequest;
+import core.api.ConnectionPoolConfig;
+import core.api.ConnectionPoolStats;
+import core.api.JsonBody;
+import core.api.StreamingResponse;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
 public class RestAssuredApiClientTest {
     private static HttpServer server;
     private static String baseUrl;
+    private static final int EXPORT_RECORDS = 50_000;
+    private static volatile CountDownLatch firstRecordRead = new CountDownLatch(0);
 
     @BeforeClass
     public static void startServer() throws IOException {
         server = HttpServer.create(new InetSocketAddress(0), 0);
         server.createContext("/echo", new EchoHandler());
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1500);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.createContext("/export", exchange -> {
+            // NDJSON export; everything after the first record waits until the client has read that record
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("{\"id\":0,\"name\":\"r0\"}\n".getBytes(StandardCharsets.UTF_8));
+                os.flush();
+                firstRecordRead.await(10, TimeUnit.SECONDS);
+                for (int i = 1; i < EXPORT_RECORDS; i++) {
+                    os.write(("{\"id\":" + i + ",\"name\":\"r" + i + "\"}\n").getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
         server.start();
         baseUrl = "http://localhost:" + server.getAddress().getPort();
     }
@@ -151,6 +198,197 @@ public class RestAssuredApiClientTest {
         assertTrue(client.delete("/echo", qp, headers).asString().contains("header[Auth]=tkn"));
     }
 
+    @Test
+    public void testClientsKeepTheirOwnBaseUriConcurrently() throws Exception {
+        HttpServer other = HttpServer.create(new InetSocketAddress(0), 0);
+        other.createContext("/echo", exchange -> {
+            byte[] bytes = "server=other".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        other.start();
+        String globalBefore = RestAssured.baseURI;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            ApiClient a = new RestAssuredApiClient();
+            a.setBaseUri(baseUrl);
+            ApiClient b = new RestAssuredApiClient(ApiClientConfig.defaults()
+                    .withBaseUri("http://localhost:" + other.getAddress().getPort()));
+
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                boolean useA = i % 2 == 0;
+                results.add(pool.submit(() -> useA
+                        ? a.get("/echo").asString().contains("method=GET")
+                        : b.get("/echo").asString().equals("server=other")));
+            }
+            for (Future<Boolean> r : results) {
+                assertTrue(r.get());
+            }
+            assertEquals("Clients must not write RestAssured's global base URI", globalBefore, RestAssured.baseURI);
+        } finally {
+            pool.shutdownNow();
+            other.stop(0);
+        }
+    }
+
+    @Test
+    public void testDefaultHeadersAndBasicAuthFromConfig() {
+        RestAssuredApiClient client = new RestAssuredApiClient(ApiClientConfig.defaults()
+                .withBaseUri(baseUrl)
+                .withHeader("X-Default", "d")
+                .withBasicAuth("user", "pass"));
+
+        String body = client.get("/echo", Map.of(), Map.of("X-Call", "c")).asString().toLowerCase();
+        assertTrue(body.contains("header[x-default]=d"));
+        assertTrue(body.contains("header[x-call]=c"));
+        assertTrue(body.contains("header[authorization]=basic dxnlcjpwyxnz"));
+        assertEquals(baseUrl, client.config().baseUri());
+    }
+
+    @Test
+    public void testReadTimeoutFromConfig() {
+        ApiClient client = new RestAssuredApiClient(ApiClientConfig.defaults()
+                .withBaseUri(baseUrl)
+                .withReadTimeout(Duration.ofMillis(200)));
+        try {
+            client.get("/slow");
+            fail("Expected read timeout");
+        } catch (Exception e) {
+            assertTrue(String.valueOf(e), e instanceof java.net.SocketTimeoutException
+                    || e.getCause() instanceof java.net.SocketTimeoutException);
+        }
+    }
+
+    @Test
+    public void testPooledClientReusesConnections() {
+        RestAssuredApiClient client = new RestAssuredApiClient(ApiClientConfig.defaults()
+                .withConnectionPool(ConnectionPoolConfig.defaults()));
+        client.setBaseUri(baseUrl);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, client.get("/echo").statusCode());
+        }
+        ConnectionPoolStats stats = client.poolStats();
+        assertEquals("one keep-alive connection should serve every request", 1, stats.connectionsOpened());
+        assertEquals(0, stats.leased());
+        assertEquals(1, stats.available());
+        assertEquals(100, stats.max());
+    }
+
+    @Test
+    public void testPooledClientBoundsConnectionsPerRoute() throws Exception {
+        RestAssuredApiClient client = new RestAssuredApiClient(ApiClientConfig.defaults()
+                .withBaseUri(baseUrl)
+                .withConnectionPool(new ConnectionPoolConfig(2, 2, Duration.ofSeconds(30), Duration.ofSeconds(60))));
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                results.add(pool.submit(() -> client.get("/echo").statusCode()));
+            }
+            for (Future<Integer> r : results) {
+                assertEquals(200, (int) r.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(client.poolStats().connectionsOpened() <= 2);
+    }
+
+    @Test
+    public void testReconfiguringThePoolClosesThePreviousOne() {
+        RestAssuredApiClient client = new RestAssuredApiClient(ApiClientConfig.defaults()
+                .withBaseUri(baseUrl)
+                .withConnectionPool(ConnectionPoolConfig.defaults()));
+        assertEquals(200, client.get("/echo").statusCode());
+        PooledHttpClientFactory previous = client.pool();
+        assertEquals(1, previous.stats().available());
+
+        client.setBaseUri(baseUrl + "/");
+        assertSame("a new base URI keeps the pool", previous, client.pool());
+        client.configure(client.config().withConnectionPool(
+                new ConnectionPoolConfig(2, 2, Duration.ofSeconds(30), Duration.ofSeconds(60))));
+        assertTrue(previous.isClosed());
+        assertEquals("the kept-alive connection is closed", 0, previous.stats().available());
+        assertEquals(200, client.get("/echo").statusCode());
+    }
+
+    @Test
+    public void testClosedPoolWaitsForRequestsInFlight() throws Exception {
+        RestAssuredApiClient client = new RestAssuredApiClient(ApiClientConfig.defaults()
+                .withBaseUri(baseUrl)
+                .withConnectionPool(ConnectionPoolConfig.defaults()));
+        PooledHttpClientFactory previous = client.pool();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> slow = pool.submit(() -> client.get("/slow").statusCode());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (previous.stats().leased() == 0 && System.nanoTime() < deadline) Thread.sleep(10);
+            client.configure(client.config().withConnectionPool(null));
+            assertTrue(previous.isClosed());
+            assertEquals(204, (int) slow.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, previous.stats().leased());
+        assertEquals(0, previous.stats().available());
+    }
+
+    @Test
+    public void testUnpooledClientHasNoPoolStats() {
+        assertNull(new RestAssuredApiClient().poolStats());
+    }
+
+    @Test
+    public void testStreamReadsRecordsBeforeBodyIsComplete() {
+        RestAssuredApiClient client = new RestAssuredApiClient();
+        client.setBaseUri(baseUrl);
+        firstRecordRead = new CountDownLatch(1);
+
+        try (StreamingResponse res = client.stream(ApiRequest.get("/export"))) {
+            assertEquals(200, res.statusCode());
+            assertEquals("application/x-ndjson", res.contentType());
+            Iterator<JsonNode> records = res.records();
+            // The server holds back the rest of the body until this record has been seen, so a buffering
+            // client would only return after the latch timed out
+            assertEquals("r0", records.next().get("name").asText());
+            assertEquals(1, firstRecordRead.getCount());
+            firstRecordRead.countDown();
+            long count = 1;
+            while (records.hasNext()) {
+                assertTrue(records.next().has("id"));
+                count++;
+            }
+            assertEquals(EXPORT_RECORDS, count);
+        }
+    }
+
+    @Test
+    public void testPreSerializedAndStreamedBodies() throws IOException {
+        ApiClient client = new RestAssuredApiClient();
+        client.setBaseUri(baseUrl);
+
+        JsonBody fixture = JsonBody.cached(Map.of("name", "Alice"));
+        assertSame(fixture, JsonBody.cached(fixture));
+        assertTrue(client.post("/echo", fixture).asString().contains("body={\"name\":\"Alice\"}"));
+
+        InputStream stream = new ByteArrayInputStream("{\"n\":1}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(client.put("/echo", stream).asString().contains("body={\"n\":1}"));
+
+        Path file = Files.createTempFile("body", ".json");
+        try {
+            Files.writeString(file, "{\"f\":true}");
+            String echoed = client.patch("/echo", file).asString();
+            assertTrue(echoed.contains("body={\"f\":true}"));
+            assertTrue(echoed.toLowerCase().contains("header[content-type]=application/json"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     private static class EchoHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
@@ -0,0 +1,92 @@
+package core.fixture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class FixtureServerTest {
+    private FixtureServer server;
+    private HttpClient http;
+
+    @Before
+    public void setUp() {
+        server = new FixtureServer("fixtures").start();
+        http = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) server.close();
+    }
+
+    private HttpResponse<byte[]> get(String path, String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(server.url(path))).GET();
+        if (headers.length > 0) req.headers(headers);
+        return http.send(req.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    public void servesClasspathFixturesWithIndexFallback() throws Exception {
+        assertTrue(server.baseUrl().startsWith("http://localhost:"));
+
+        HttpResponse<byte[]> index = get("/");
+        assertEquals(200, index.statusCode());
+        assertTrue(new String(index.body(), StandardCharsets.UTF_8).contains("Fixture Index"));
+        assertEquals("text/html; charset=utf-8", index.headers().firstValue("Content-Type").orElse(null));
+
+        HttpResponse<byte[]> page2 = get("page2.html");
+        assertEquals(200, page2.statusCode());
+        assertTrue(new String(page2.body(), StandardCharsets.UTF_8).contains("Page Two"));
+    }
+
+    @Test
+    public void missingAndTraversalPathsAre404() throws Exception {
+        assertEquals(404, get("missing.html").statusCode());
+        assertEquals(404, get("../fixtures/index.html").statusCode());
+    }
+
+    @Test
+    public void cacheHeadersAndConditionalRequests() throws Exception {
+        server.setCacheControl("max-age=300");
+        HttpResponse<byte[]> first = get("index.html");
+        assertEquals("max-age=300", first.headers().firstValue("Cache-Control").orElse(null));
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> revalidated = get("index.html", "If-None-Match", etag);
+        assertEquals(304, revalidated.statusCode());
+        assertEquals(0, revalidated.body().length);
+        assertEquals(2, server.requestCount());
+    }
+
+    @Test
+    public void gzipCompressionWhenAccepted() throws Exception {
+        server.setCompression(true);
+        HttpResponse<byte[]> plain = get("index.html");
+        assertFalse(plain.headers().firstValue("Content-Encoding").isPresent());
+
+        HttpResponse<byte[]> zipped = get("index.html", "Accept-Encoding", "gzip");
+        assertEquals("gzip", zipped.headers().firstValue("Content-Encoding").orElse(null));
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(zipped.body())).readAllBytes();
+        assertArrayEquals(plain.body(), unzipped);
+    }
+
+    @Test
+    public void configurableLatency() throws Exception {
+        server.setLatency(Duration.ofMillis(200));
+        long start = System.nanoTime();
+        assertEquals(200, get("index.html").statusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 200);
+    }
+}
@@ -0,0 +1,145 @@
+package core.fixture;
+
+import core.api.ApiClient;
+import core.api.impl.RestAssuredApiClient;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class StubServerTest {
+    private static final String REMOTE = "https://api.example";
+    private static final AtomicInteger LIVE_REQUESTS = new AtomicInteger();
+    private static HttpServer live;
+    private static String liveUrl;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @BeforeClass
+    public static void startLiveServer() throws IOException {
+        live = HttpServer.create(new InetSocketAddress(0), 0);
+        live.createContext("/", exchange -> {
+            LIVE_REQUESTS.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String json = "{\"method\":\"" + exchange.getRequestMethod() + "\",\"uri\":\"" + exchange.getRequestURI()
+                    + "\",\"echo\":" + (body.isEmpty() ? "null" : body) + "}";
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-Live", "yes");
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().equals("/created") ? 201 : 200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        live.start();
+        liveUrl = "http://localhost:" + live.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopLiveServer() {
+        if (live != null) live.stop(0);
+    }
+
+    @Test
+    public void testRecordThenReplayOffline() throws IOException {
+        Path dir = tmp.newFolder("recordings").toPath();
+        List<RecordedExchange> recorded = new ArrayList<>();
+        // The local server stands in for a remote service; loopback origins are never replayed
+        ApiClient recorder = new RecordingApiClient(new RestAssuredApiClient(), e -> recorded.add(
+                new RecordedExchange(REMOTE, e.method(), e.path(), e.query(), e.requestBody(), e.status(), e.headers(),
+                        e.body(), e.binary())));
+        recorder.setBaseUri(liveUrl);
+        Response liveGet = recorder.get("/items", Map.of("page", 2, "tag", List.of("a", "b")));
+        Response livePost = recorder.post("/created", Map.of("name", "Alice", "age", 30));
+        Recordings.save(dir, recorded);
+        assertTrue(Files.exists(dir.resolve("api.example.json")));
+        int liveCount = LIVE_REQUESTS.get();
+
+        try (StubServer stub = new StubServer(Recordings.load(dir)).start()) {
+            ApiClient replay = new ReplayApiClient(new RestAssuredApiClient(), stub);
+            replay.setBaseUri(REMOTE);
+
+            Response get = replay.get("/items?tag=a", Map.of("tag", "b", "page", 2));
+            assertEquals(200, get.statusCode());
+            assertEquals(liveGet.asString(), get.asString());
+            assertEquals("yes", get.header("X-Live"));
+            assertEquals("GET", get.jsonPath().getString("method"));
+
+            // Same JSON body with a different key order still matches
+            Response post = replay.post("/created", "{\"age\":30,\"name\":\"Alice\"}");
+            assertEquals(201, post.statusCode());
+            assertEquals(livePost.asString(), post.asString());
+
+            assertEquals(liveCount, LIVE_REQUESTS.get());
+            assertTrue(stub.misses().isEmpty());
+        }
+    }
+
+    @Test
+    public void testUnmatchedRequestsAreReportedAsMisses() {
+        RecordedExchange ok = new RecordedExchange("https://a.example", "GET", "/ping", Map.of(), null, 200,
+                Map.of("Content-Type", List.of("text/plain")), "pong", false);
+        try (StubServer stub = new StubServer(List.of(ok)).start()) {
+            ApiClient replay = new ReplayApiClient(new RestAssuredApiClient(), stub);
+            replay.setBaseUri("https://a.example");
+            assertEquals("pong", replay.get("/ping").asString());
+
+            assertEquals(501, replay.get("/ping", Map.of("x", 1)).statusCode());
+            assertEquals(501, replay.post("/ping", "{}").statusCode());
+            replay.setBaseUri("https://b.example");
+            Response other = replay.get("/ping");
+            assertEquals("recordings are scoped to their origin", 501, other.statusCode());
+            assertTrue(other.asString().contains("GET /ping"));
+            assertEquals(List.of("GET /ping?x=1", "POST /ping", "GET /ping"), stub.misses());
+        }
+    }
+
+    @Test
+    public void testLoopbackBaseUriBypassesTheStub() {
+        try (StubServer stub = new StubServer(List.of()).start()) {
+            ApiClient replay = new ReplayApiClient(new RestAssuredApiClient(), stub);
+            replay.setBaseUri(liveUrl);
+            assertEquals("yes", replay.get("/local").header("X-Live"));
+            assertEquals(0, stub.requestCount());
+        }
+    }
+
+    @Test
+    public void testBinaryBodiesAndRerecordingReplaceEntries() throws IOException {
+        Path dir = tmp.newFolder("bin").toPath();
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', 0, 1, 2};
+        String encoded = Base64.getEncoder().encodeToString(png);
+        RecordedExchange first = new RecordedExchange("http://img.example", "GET", "/logo", Map.of(), null, 200,
+                Map.of("Content-Type", List.of("image/png")), "", true);
+        RecordedExchange second = new RecordedExchange("http://img.example", "GET", "/logo", Map.of(), null, 200,
+                Map.of("Content-Type", List.of("image/png")), encoded, true);
+        Recordings.save(dir, List.of(first));
+        Recordings.save(dir, List.of(second));
+        List<RecordedExchange> loaded = Recordings.load(dir);
+        assertEquals(1, loaded.size());
+
+        try (StubServer stub = new StubServer(loaded).start()) {
+            ApiClient replay = new ReplayApiClient(new RestAssuredApiClient(), stub);
+            replay.setBaseUri("http://img.example");
+            assertArrayEquals(png, replay.get("/logo").asByteArray());
+        }
+    }
+}
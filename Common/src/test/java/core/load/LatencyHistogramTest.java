@@ -0,0 +1,83 @@
+package core.load;
+
+import core.api.ApiRequest;
+import core.api.RequestListener;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverEveryValueWithBoundedError() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1_000, 12_345, 999_999, 3_600_000_000L, Long.MAX_VALUE / 2};
+        for (long v : values) {
+            int index = LatencyHistogram.index(v);
+            long upper = LatencyHistogram.upperBound(index);
+            assertTrue("upper bound below value " + v, upper >= v);
+            assertTrue("bucket too wide for " + v, upper - v <= Math.max(0, v / 64));
+            if (index > 0) assertTrue("previous bucket overlaps " + v, LatencyHistogram.upperBound(index - 1) < v);
+        }
+    }
+
+    @Test
+    public void testPercentilesOfUniformSamples() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            h.recordNanos(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(1000, h.count());
+        assertEquals(500, h.percentileMillis(50), 500 * 0.02);
+        assertEquals(950, h.percentileMillis(95), 950 * 0.02);
+        assertEquals(990, h.percentileMillis(99), 990 * 0.02);
+        assertEquals(1000, h.percentileMillis(100), 0.001);
+        assertEquals(1000, h.maxMillis(), 0.001);
+        assertEquals(500.5, h.meanMillis(), 0.001);
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentileMillis(99), 0);
+        assertEquals(0, h.meanMillis(), 0);
+    }
+
+    @Test
+    public void testRequestMetricsPerKeyAndAggregate() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.record("GET /a", TimeUnit.MILLISECONDS.toNanos(10), 200, false);
+        metrics.record("GET /a", TimeUnit.MILLISECONDS.toNanos(20), 503, false);
+        metrics.record("GET /b", TimeUnit.MILLISECONDS.toNanos(30), -1, true);
+
+        List<RequestMetrics.Summary> summaries = metrics.summaries(2.0);
+        assertEquals(List.of("GET /a", "GET /b", RequestMetrics.ALL),
+                summaries.stream().map(RequestMetrics.Summary::key).toList());
+        RequestMetrics.Summary a = summaries.get(0);
+        assertEquals(2, a.count());
+        assertEquals(1, a.errors());
+        assertEquals(1.0, a.throughput(), 1e-9);
+        RequestMetrics.Summary all = summaries.get(2);
+        assertEquals(3, all.count());
+        assertEquals(2.0 / 3, all.metric("errors"), 1e-9);
+        assertTrue(metrics.report(2.0).contains("| `GET /b` | 1 | 1 |"));
+    }
+
+    @Test
+    public void testRequestMetricsKeyEndpointsWithoutTheirIds() {
+        RequestMetrics metrics = new RequestMetrics();
+        RequestListener listener = metrics.listener();
+        listener.onRequest(ApiRequest.get("/users/42?full=true"), 200, TimeUnit.MILLISECONDS.toNanos(10), null);
+        listener.onRequest(ApiRequest.get("/users/43"), 200, TimeUnit.MILLISECONDS.toNanos(20), null);
+
+        List<RequestMetrics.Summary> summaries = metrics.summaries(1.0);
+        assertEquals(List.of("GET /users/{id}", RequestMetrics.ALL),
+                summaries.stream().map(RequestMetrics.Summary::key).toList());
+        assertEquals(2, summaries.get(0).count());
+        LoadThreshold threshold = LoadThreshold.parse("GET /users/7:count>1");
+        assertEquals("GET /users/{id}", threshold.key());
+        assertNull(threshold.check(summaries));
+    }
+}
@@ -0,0 +1,97 @@
+package core.load;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LoadRunnerTest {
+
+    @Test
+    public void testClosedModelRunsExactIterationCount() throws Exception {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger runs = new AtomicInteger();
+        LoadResult result = new LoadRunner(LoadProfile.iterations(4, 100)).run(() -> {
+            threads.add(Thread.currentThread());
+            if (runs.incrementAndGet() % 10 == 0) throw new IllegalStateException("boom");
+        });
+        assertEquals(100, result.iterations());
+        assertEquals(10, result.failed());
+        assertEquals(0, result.dropped());
+        assertTrue(threads.size() <= 4);
+        assertTrue(result.failureSamples().get(0).contains("boom"));
+    }
+
+    @Test
+    public void testClosedModelStopsAtDuration() throws Exception {
+        LoadResult result = new LoadRunner(LoadProfile.duration(2, Duration.ofMillis(300))).run(() -> Thread.sleep(10));
+        assertTrue(result.iterations() > 10);
+        assertTrue(result.elapsed().toMillis() < 2000);
+    }
+
+    @Test
+    public void testRampUpStaggersUserStarts() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxAtStart = new AtomicInteger();
+        LoadProfile profile = LoadProfile.iterations(4, 4).withRampUp(Duration.ofMillis(400));
+        LoadResult result = new LoadRunner(profile).run(() -> {
+            maxAtStart.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            concurrent.decrementAndGet();
+        });
+        assertEquals(4, result.iterations());
+        assertEquals("users 100 ms apart should never overlap a 20 ms iteration", 1, maxAtStart.get());
+        assertTrue(result.elapsed().toMillis() >= 300);
+    }
+
+    @Test
+    public void testOpenModelArrivalScheduleWithRamp() {
+        LoadRunner runner = new LoadRunner(new LoadProfile(1, Duration.ofSeconds(10), 0, Duration.ofSeconds(2), 10));
+        // 10/s reached after a 2 s linear ramp: 10 arrivals during the ramp, then one every 100 ms
+        assertEquals(0, runner.arrivalOffsetNanos(0));
+        assertEquals(TimeUnit.SECONDS.toNanos(2), runner.arrivalOffsetNanos(10), 1_000);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2100), runner.arrivalOffsetNanos(11), 1_000);
+        assertTrue(runner.arrivalOffsetNanos(1) > TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testOpenModelDropsArrivalsWhenSaturated() throws Exception {
+        LoadProfile profile = new LoadProfile(1, Duration.ofMillis(500), 0, Duration.ZERO, 100);
+        LoadResult result = new LoadRunner(profile).run(() -> Thread.sleep(200));
+        assertTrue("only one iteration fits in flight at a time", result.iterations() <= 3);
+        assertTrue(result.dropped() > 30);
+    }
+
+    @Test
+    public void testThresholdParsingAndChecks() {
+        List<LoadThreshold> thresholds = LoadThreshold.parseAll("p95<500ms; errors<1%, GET /a:p99 < 2s; rps>5");
+        assertEquals(4, thresholds.size());
+        assertEquals(new LoadThreshold(RequestMetrics.ALL, "p95", true, 500), thresholds.get(0));
+        assertEquals(0.01, thresholds.get(1).limit(), 1e-9);
+        assertEquals(new LoadThreshold("GET /a", "p99", true, 2000), thresholds.get(2));
+
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.record("GET /a", TimeUnit.MILLISECONDS.toNanos(100), 200, false);
+        List<RequestMetrics.Summary> summaries = metrics.summaries(1.0);
+        assertNull(thresholds.get(0).check(summaries));
+        assertNull(thresholds.get(2).check(summaries));
+        assertTrue(thresholds.get(3).check(summaries).contains("rps"));
+        assertTrue(LoadThreshold.parse("GET /missing:p50<1ms").check(summaries).contains("no requests"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownThresholdMetricIsRejected() {
+        LoadThreshold.parse("p42<10ms");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProfileNeedsAnEnd() {
+        new LoadProfile(1, null, 0, Duration.ZERO, 0);
+    }
+}
@@ -0,0 +1,174 @@
+package core.timing;
+
+import core.api.AbstractApiClient;
+import core.api.ApiClient;
+import core.api.ApiRequest;
+import core.api.TimedApiClient;
+import core.ui.TimedUiActions;
+import core.ui.UiActions;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StepTimingsTest {
+    private static final long MS = 1_000_000;
+
+    @After
+    public void stopStep() {
+        StepTimer.stopStep();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** API client taking {@code millis} per request. */
+    private static ApiClient slowApi(long millis) {
+        return new AbstractApiClient() {
+            @Override
+            public void setBaseUri(String baseUri) { }
+
+            @Override
+            public Response send(ApiRequest request) {
+                sleep(millis);
+                return new ResponseBuilder().setStatusCode(200).setBody("{}").build();
+            }
+        };
+    }
+
+    /** UI whose every action takes {@code millis} and, for {@code click}, also calls {@code api}. */
+    private static UiActions slowUi(long millis, ApiClient api) {
+        return (UiActions) Proxy.newProxyInstance(UiActions.class.getClassLoader(), new Class<?>[]{UiActions.class},
+                (proxy, method, args) -> {
+                    sleep(millis);
+                    if (method.getName().equals("click")) api.get("/from-ui");
+                    if (method.getName().equals("getText")) throw new IllegalStateException("no element");
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                });
+    }
+
+    @Test
+    public void testStepTimeIsSplitByLayer() {
+        ApiClient api = new TimedApiClient(slowApi(30));
+        UiActions ui = TimedUiActions.wrap(slowUi(20, api));
+
+        StepTimer.startStep();
+        api.get("/orders");
+        ui.open("http://localhost/");
+        sleep(10);
+        StepTimer.Split split = StepTimer.stopStep();
+
+        assertTrue(split.toString(), split.apiNanos() >= 30 * MS && split.apiNanos() < 60 * MS);
+        assertTrue(split.toString(), split.uiNanos() >= 20 * MS && split.uiNanos() < 50 * MS);
+    }
+
+    @Test
+    public void testNestedCallsAreChargedToTheOutermostLayer() {
+        ApiClient api = new TimedApiClient(slowApi(30));
+        UiActions ui = TimedUiActions.wrap(slowUi(10, api));
+
+        StepTimer.startStep();
+        ui.click();
+        StepTimer.Split split = StepTimer.stopStep();
+
+        assertEquals(0, split.apiNanos());
+        assertTrue(split.toString(), split.uiNanos() >= 40 * MS);
+    }
+
+    @Test
+    public void testFailedCallsAreChargedAndRethrown() {
+        UiActions ui = TimedUiActions.wrap(slowUi(10, slowApi(0)));
+        StepTimer.startStep();
+        try {
+            ui.getText();
+            fail("Expected the action's exception");
+        } catch (IllegalStateException expected) {
+            assertEquals("no element", expected.getMessage());
+        }
+        assertTrue(ui.exists());
+        assertTrue(StepTimer.stopStep().uiNanos() >= 20 * MS);
+    }
+
+    @Test
+    public void testCallsOutsideAStepAreNotCharged() {
+        ApiClient api = new TimedApiClient(slowApi(5));
+        api.get("/warmup");
+        StepTimer.startStep();
+        assertEquals(0, StepTimer.stopStep().apiNanos());
+        // Stopping twice reports nothing for the second "step"
+        assertEquals(StepTimer.Split.NONE, StepTimer.stopStep());
+    }
+
+    @Test
+    public void testStepsAreRankedByTotalTime() {
+        StepTimings timings = new StepTimings();
+        timings.recordStep("I GET {string}", "steps.ApiSteps.get(String)", true, 100 * MS,
+                new StepTimer.Split(0, 80 * MS));
+        timings.recordStep("I GET {string}", "steps.ApiSteps.get(String)", false, 300 * MS,
+                new StepTimer.Split(0, 280 * MS));
+        timings.recordStep("I open {string}", "steps.ExampleSteps.open(String)", true, 250 * MS,
+                new StepTimer.Split(200 * MS, 0));
+        timings.recordStep("a fast step", null, true, MS, StepTimer.Split.NONE);
+
+        StepTimings.StepSummary slowest = timings.slowestSteps(10).get(0);
+        assertEquals("I GET {string}", slowest.pattern());
+        assertEquals(2, slowest.count());
+        assertEquals(1, slowest.failed());
+        assertEquals(400.0, slowest.totalMillis(), 0.001);
+        assertEquals(200.0, slowest.meanMillis(), 0.001);
+        assertEquals(300.0, slowest.maxMillis(), 0.001);
+        assertEquals(360.0, slowest.apiMillis(), 0.001);
+        assertEquals(40.0, slowest.glueMillis(), 0.001);
+        assertEquals(2, timings.slowestSteps(2).size());
+
+        String report = timings.report(10);
+        assertTrue(report, report.contains("| `I GET {string}` | 2 | 1 | 400.00 | 200.00 | 300.00 | 0 | 90 | 10 |"));
+        assertTrue(report, report.indexOf("I GET") < report.indexOf("I open"));
+    }
+
+    @Test
+    public void testScenariosAreRankedAndExported() {
+        StepTimings timings = new StepTimings();
+        timings.recordScenario("Fast", "api.feature:3", "PASSED", 50 * MS, 0, 40 * MS);
+        timings.recordScenario("Slow | login", "ui.feature:9", "FAILED", 900 * MS, 600 * MS, 100 * MS);
+
+        StepTimings.Scenario slowest = timings.slowestScenarios(1).get(0);
+        assertEquals("Slow | login", slowest.name());
+        assertEquals(200.0, slowest.glueMillis(), 0.001);
+        assertTrue(timings.report(5).contains("| Slow \\| login | FAILED | 900.00 | 600.00 | 100.00 | 200.00 |"));
+
+        String json = timings.toJson(5);
+        assertTrue(json, json.contains("\"steps\" : [ ]"));
+        assertTrue(json, json.indexOf("Slow | login") < json.indexOf("Fast"));
+        assertTrue(json, json.contains("\"location\" : \"ui.feature:9\""));
+    }
+
+    @Test
+    public void testEverySampleIsExportedWithTheEnvironment() {
+        StepTimings timings = new StepTimings();
+        ApiClient api = new TimedApiClient(slowApi(5), timings);
+        UiActions ui = TimedUiActions.wrap(slowUi(5, api), timings);
+        api.get("/users/42");
+        api.get("/users/43");
+        ui.open("http://localhost/");
+        timings.recordStep("I GET {string}", null, true, 1_500_000, StepTimer.Split.NONE);
+        timings.recordScenario("Fetch users", "api.feature:3", "PASSED", 20 * MS, 0, 10 * MS);
+
+        String json = timings.samplesJson(Map.of("api.mode", "replay"));
+        assertTrue(json, json.contains("\"api.mode\" : \"replay\""));
+        assertTrue(json, json.contains("\"I GET {string}\" : [ 1.5 ]"));
+        assertTrue(json, json.contains("\"Fetch users (api.feature:3)\" : [ 20.0 ]"));
+        assertTrue(json, json.contains("\"api GET /users/{id}\" : [ "));
+        assertTrue(json, json.contains("\"ui open\" : [ "));
+    }
+}
@@ -0,0 +1,123 @@
+package core.timing;
+
+import core.ui.UiActions;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StepWatchdogTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    /** Blocks until interrupted; the name shows up in thread dumps. */
+    private static void stuckInStep() {
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** UI answering {@code url} and {@code processes} but hanging in every other call. */
+    private static UiActions hangingUi(List<ProcessHandle> processes) {
+        return (UiActions) Proxy.newProxyInstance(UiActions.class.getClassLoader(), new Class<?>[]{UiActions.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("url")) return "http://localhost/checkout";
+                    if (method.getName().equals("processes")) return processes;
+                    stuckInStep();
+                    return null;
+                });
+    }
+
+    @Test
+    public void testStepPastTheDeadlineIsReported() throws Exception {
+        BlockingQueue<StepWatchdog.Stalled> reported = new LinkedBlockingQueue<>();
+        try (StepWatchdog watchdog = new StepWatchdog(Duration.ofMillis(50), reported::add)) {
+            StepWatchdog.Guard guard = watchdog.watch("Checkout > When I pay");
+            StepWatchdog.Stalled stalled = reported.poll(5, TimeUnit.SECONDS);
+            assertNotNull("Expected the step to be reported", stalled);
+            assertEquals("Checkout > When I pay", stalled.label());
+            assertSame(Thread.currentThread(), stalled.thread());
+            assertFalse(stalled.isFinished());
+            guard.close();
+            assertTrue(stalled.isFinished());
+        }
+    }
+
+    @Test
+    public void testStepFinishedInTimeIsNotReported() throws Exception {
+        BlockingQueue<StepWatchdog.Stalled> reported = new LinkedBlockingQueue<>();
+        try (StepWatchdog watchdog = new StepWatchdog(Duration.ofMillis(100), reported::add)) {
+            watchdog.watch("fast step").close();
+            assertNull(reported.poll(300, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeadlineMustBePositive() {
+        new StepWatchdog(Duration.ZERO, s -> { });
+    }
+
+    @Test
+    public void testCaptureWritesDiagnosticsAndSurvivesAHangingBrowser() throws Exception {
+        Thread step = new Thread(StepWatchdogTest::stuckInStep, "scenario-1");
+        step.start();
+        try {
+            Path dir = tmp.getRoot().toPath().resolve("hang");
+            StepWatchdog.Stalled stalled = new StepWatchdog.Stalled("Checkout > When I pay", step,
+                    Duration.ofSeconds(1));
+            long start = System.nanoTime();
+            HangDiagnostics.capture(dir, stalled, hangingUi(List.of()), Duration.ofMillis(200));
+            assertTrue("Capture must not hang with the browser", System.nanoTime() - start < 5_000_000_000L);
+
+            String dump = Files.readString(dir.resolve("thread-dump.txt"));
+            assertTrue(dump, dump.startsWith("\"scenario-1\""));
+            assertTrue(dump, dump.contains("StepWatchdogTest.stuckInStep"));
+            assertTrue(Files.readString(dir.resolve("processes.txt")).startsWith("PID"));
+            String page = Files.readString(dir.resolve("page.txt"));
+            assertTrue(page, page.contains("url: http://localhost/checkout"));
+            assertTrue(page, page.contains("title: unavailable (no answer within 200 ms)"));
+            assertTrue(page, page.contains("screenshot: unavailable"));
+        } finally {
+            step.interrupt();
+        }
+    }
+
+    @Test
+    public void testRecycleKillsOnlyTheProcessesOfABrowserThatDoesNotClose() throws Exception {
+        Assume.assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        // The "browser" with a child of its own, and the browser of another scenario
+        Process browser = new ProcessBuilder("/bin/sh", "-c", "sleep 60; true").start();
+        Process other = new ProcessBuilder("/bin/sh", "-c", "sleep 60; true").start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (browser.toHandle().children().count() == 0 && System.nanoTime() < deadline) Thread.sleep(10);
+            List<ProcessHandle> tree = new ArrayList<>(browser.descendants().toList());
+            assertFalse("the shell did not start its child", tree.isEmpty());
+
+            assertFalse(HangDiagnostics.recycle(hangingUi(List.of(browser.toHandle())), Duration.ofMillis(100)));
+
+            assertTrue(browser.waitFor(5, TimeUnit.SECONDS));
+            for (ProcessHandle child : tree) assertTrue(child.onExit().get(5, TimeUnit.SECONDS) != null);
+            assertTrue("another scenario's browser must survive", other.isAlive());
+        } finally {
+            other.descendants().forEach(ProcessHandle::destroyForcibly);
+            other.destroyForcibly();
+            browser.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ui;
+
+import core.ui.BrowserProcesses;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies which processes count as a browser's, using copies of {@code sleep} named like browsers.
+ */
+public class BrowserProcessesTest {
+    private static final Path SLEEP = Path.of("/bin/sleep");
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final List<Process> started = new ArrayList<>();
+
+    @Before
+    public void requireSleep() {
+        Assume.assumeTrue(Files.isExecutable(SLEEP));
+    }
+
+    @After
+    public void stopAll() {
+        started.forEach(Process::destroyForcibly);
+    }
+
+    /** Start a copy of sleep whose executable is called {@code name}. */
+    private ProcessHandle start(String name) throws IOException {
+        Path exe = tmp.getRoot().toPath().resolve(name);
+        if (!Files.exists(exe)) {
+            Files.copy(SLEEP, exe);
+            assertTrue(exe.toFile().setExecutable(true));
+        }
+        Process p = new ProcessBuilder(exe.toString(), "60").start();
+        started.add(p);
+        return p.toHandle();
+    }
+
+    @Test
+    public void browserExecutablesMatchByExactName() throws IOException {
+        assertTrue(BrowserProcesses.isBrowser(start("chrome")));
+        assertTrue(BrowserProcesses.isBrowser(start("node")));
+        assertFalse(BrowserProcesses.isBrowser(start("nodemon")));
+        assertFalse(BrowserProcesses.isBrowser(start("chrome_sandbox_helper")));
+    }
+
+    @Test
+    public void launchRecordsOnlyTheBrowsersStartedMeanwhile() throws IOException {
+        ProcessHandle earlier = start("chromedriver");
+        BrowserProcesses.Launched<ProcessHandle> launched = BrowserProcesses.launch(() -> {
+            try {
+                start("tool");
+                return start("chromedriver");
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        assertEquals(List.of(launched.engine()), launched.processes());
+        assertNotEquals(earlier, launched.engine());
+    }
+
+    @Test
+    public void killEndsTheGivenProcessesOnly() throws Exception {
+        ProcessHandle mine = start("chrome");
+        ProcessHandle theirs = start("chrome");
+        assertEquals(1, BrowserProcesses.kill(List.of(mine)));
+        mine.onExit().get();
+        assertTrue(theirs.isAlive());
+        assertEquals("already ended", 0, BrowserProcesses.kill(List.of(mine)));
+    }
+}
@@ -0,0 +1,105 @@
+package ui;
+
+import core.ui.BrowserSession;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies how Set-Cookie headers are resolved into browser cookies (no browser required).
+ */
+public class BrowserSessionTest {
+    private static final String LOGIN = "https://api.example.com/v1/auth/login";
+
+    private static BrowserSession.Cookie only(BrowserSession session) {
+        assertEquals(session.cookies().toString(), 1, session.cookies().size());
+        return session.cookies().get(0);
+    }
+
+    @Test
+    public void cookieWithoutDomainIsHostOnlyWithTheDefaultPath() {
+        BrowserSession session = BrowserSession.forUrl("https://api.example.com/app")
+                .withSetCookie(LOGIN, "sid=abc; HttpOnly; Secure; SameSite=lax");
+        BrowserSession.Cookie c = only(session);
+        assertEquals("api.example.com", c.domain());
+        assertTrue(c.hostOnly());
+        assertEquals("/v1/auth", c.path());
+        assertTrue(c.httpOnly());
+        assertTrue(c.secure());
+        assertEquals("Lax", c.sameSite());
+        assertNull(c.expires());
+    }
+
+    @Test
+    public void domainCookieReachesSiblingHosts() {
+        BrowserSession session = BrowserSession.forUrl("https://app.example.com/")
+                .withSetCookie(LOGIN, "sid=abc; Domain=.Example.com; Path=/")
+                .withSetCookie(LOGIN, "apiOnly=1; Path=/");
+        BrowserSession.Cookie c = only(session);
+        assertEquals("sid", c.name());
+        assertEquals("example.com", c.domain());
+        assertFalse(c.hostOnly());
+        assertEquals("/", c.path());
+        assertEquals("https://app.example.com", session.origin().toString());
+    }
+
+    @Test
+    public void foreignDomainAndDeletedCookiesAreIgnored() {
+        BrowserSession session = BrowserSession.forUrl("https://api.example.com/")
+                .withSetCookie(LOGIN, "evil=1; Domain=other.com")
+                .withSetCookie(LOGIN, "gone=1; Max-Age=0")
+                .withSetCookie(LOGIN, "old=1; Expires=Thu, 01 Jan 1970 00:00:00 GMT")
+                .withSetCookie(LOGIN, "legacy=1; Expires=Thu, 01-Jan-1970 00:00:00 GMT")
+                .withSetCookie(LOGIN, "novalue");
+        assertTrue(session.cookies().toString(), session.cookies().isEmpty());
+    }
+
+    @Test
+    public void maxAgeWinsOverExpires() {
+        Instant before = Instant.now();
+        BrowserSession session = BrowserSession.forUrl("https://api.example.com/")
+                .withSetCookie(LOGIN, "sid=abc; Expires=Thu, 01 Jan 1970 00:00:00 GMT; Max-Age=3600; Path=/");
+        Instant expires = only(session).expires();
+        assertFalse(expires.isBefore(before.plusSeconds(3600)));
+        assertTrue(expires.isBefore(before.plusSeconds(3700)));
+    }
+
+    @Test
+    public void laterCookieReplacesTheSameNameDomainAndPath() {
+        BrowserSession session = BrowserSession.forUrl("https://api.example.com/")
+                .withSetCookie(LOGIN, "sid=first; Path=/")
+                .withSetCookie(LOGIN, "sid=second; Path=/")
+                .withSetCookie(LOGIN, "sid=scoped; Path=/v1");
+        assertEquals(2, session.cookies().size());
+        assertEquals("second", session.cookies().get(0).value());
+        assertEquals("scoped", session.cookies().get(1).value());
+    }
+
+    @Test
+    public void cookiesAndStorageFromAnApiResponse() {
+        Response login = new ResponseBuilder().setStatusCode(200).setBody("{}")
+                .setHeaders(new Headers(List.of(new Header("Set-Cookie", "sid=abc; Path=/"),
+                        new Header("Set-Cookie", "csrf=xyz; Path=/")))).build();
+        BrowserSession session = BrowserSession.forUrl("http://localhost:8080/account")
+                .withCookiesFrom("http://localhost:8080/api/login", login)
+                .withLocalStorage("user", "tomsmith")
+                .withSessionStorage("tab", "1");
+        assertEquals(2, session.cookies().size());
+        assertEquals("localhost", session.cookies().get(0).domain());
+        assertEquals("tomsmith", session.localStorage().get("user"));
+        assertEquals("1", session.sessionStorage().get("tab"));
+        assertEquals("http://localhost:8080/favicon.ico", session.landingUrl());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void relativeUrlIsRejected() {
+        BrowserSession.forUrl("/account");
+    }
+}
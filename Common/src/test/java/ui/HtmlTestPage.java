@@ -76,6 +76,8 @@ public final class HtmlTestPage {
                     "  <input id='chk' type='checkbox' onchange=\"this.setAttribute('data-checked', this.checked ? 'true' : 'false')\">\n" +
                     "  <input id='key' type='text' onkeydown='onKey(event)'>\n" +
                     "  <div id='keyResult'></div>\n" +
+                    "  <textarea id='notes' oninput=\"document.getElementById('notesEvent').textContent='input'\" onkeydown=\"this.setAttribute('data-keys', (+(this.getAttribute('data-keys')||0)+1)+'')\"></textarea>\n" +
+                    "  <div id='notesEvent'></div>\n" +
                     "  <input id='file' type='file' onchange='onFile(event)'>\n" +
                     "  <div id='byDataTest' data-testid='test-elem'>DataTestId</div>\n" +
                     "  <div id='byRole' role='dialog'>Dialog Role</div>\n" +
@@ -0,0 +1,93 @@
+package ui;
+
+import core.ui.LocatorProfiler;
+import core.ui.LocatorRewriter;
+import core.ui.Target;
+import core.ui.TargetFactory;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies profiling aggregation, ranking and the learned TEXT rewrite without a browser.
+ */
+public class LocatorProfilerTest {
+
+    @After
+    public void tearDown() {
+        LocatorProfiler.reset();
+        LocatorProfiler.setEnabled(false);
+        LocatorRewriter.setEnabled(false);
+        LocatorRewriter.reset();
+    }
+
+    @Test
+    public void ranksTargetsByTotalResolutionTime() {
+        LocatorProfiler.setEnabled(true);
+        LocatorProfiler.record(TargetFactory.css("#cheap"), 1_000_000, null, false);
+        LocatorProfiler.record(TargetFactory.text("Save"), 40_000_000, "button", false);
+        LocatorProfiler.record(TargetFactory.text("Save"), 20_000_000, null, false);
+
+        List<LocatorProfiler.Entry> top = LocatorProfiler.top(1);
+        assertEquals(1, top.size());
+        LocatorProfiler.Entry slowest = top.get(0);
+        assertEquals(TargetFactory.text("Save"), slowest.target());
+        assertEquals(2, slowest.count());
+        assertEquals(60_000_000, slowest.totalNanos());
+        assertEquals(40_000_000, slowest.maxNanos());
+
+        String report = LocatorProfiler.report(10);
+        assertTrue(report.contains("| `text=Save` | 2 | 30.00 | 40.00 | 60.00 | `text=Save within button` |"));
+        assertTrue(report.contains("`css=#cheap`"));
+    }
+
+    @Test
+    public void rewriteNarrowsTextToTheTagLearnedOnThePage() {
+        String page = "http://localhost/orders";
+        Target save = TargetFactory.text("Save");
+        LocatorRewriter.setEnabled(true);
+        assertTrue(LocatorProfiler.isActive());
+        // Nothing learned yet: unchanged
+        assertSame(save, LocatorRewriter.rewrite(save, page));
+        assertTrue(LocatorRewriter.needsTag(save, page));
+
+        LocatorRewriter.learn(save, page, "BUTTON");
+        assertFalse(LocatorRewriter.needsTag(save, page));
+        assertEquals(save.within("button"), LocatorRewriter.rewrite(save, page));
+
+        // Another page may put a different element first, so nothing carries over
+        assertSame(save, LocatorRewriter.rewrite(save, "http://localhost/orders/42"));
+        assertSame(save, LocatorRewriter.rewrite(save, null));
+
+        // Other strategies are never rewritten
+        Target link = TargetFactory.linkText("Save");
+        LocatorRewriter.learn(link, page, "a");
+        assertSame(link, LocatorRewriter.rewrite(link, page));
+
+        // A rejected rewrite is forgotten on that page
+        LocatorRewriter.reject(save, page);
+        assertSame(save, LocatorRewriter.rewrite(save, page));
+    }
+
+    @Test
+    public void rewriteDisabledLeavesTargetsAlone() {
+        Target save = TargetFactory.text("Save");
+        LocatorRewriter.setEnabled(true);
+        LocatorRewriter.learn(save, "http://localhost/", "button");
+        LocatorRewriter.setEnabled(false);
+        assertSame(save, LocatorRewriter.rewrite(save, "http://localhost/"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyTextTargetsCanBeScoped() {
+        TargetFactory.css("#id").within("div");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scopeMustBeATagName() {
+        TargetFactory.text("x").within("div[1]");
+    }
+}
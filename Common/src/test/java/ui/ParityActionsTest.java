@@ -0,0 +1,130 @@
+package ui;
+
+import core.ui.ParityActions;
+import core.ui.ParityMismatchException;
+import core.ui.TargetFactory;
+import core.ui.UiActions;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies ParityActions dispatch and comparison logic using in-memory engines (no browser required).
+ */
+public class ParityActionsTest {
+
+    /** Builds a fake engine answering method names from the given map; values that are exceptions are thrown. */
+    private static UiActions fake(Map<String, Object> answers, Map<String, Thread> callingThreads) {
+        return (UiActions) Proxy.newProxyInstance(UiActions.class.getClassLoader(), new Class<?>[]{UiActions.class},
+                (proxy, method, args) -> {
+                    callingThreads.put(method.getName(), Thread.currentThread());
+                    Object answer = answers.get(method.getName());
+                    if (answer instanceof RuntimeException e) throw e;
+                    if (answer == null && method.getReturnType() == boolean.class) return false;
+                    return answer;
+                });
+    }
+
+    @Test
+    public void matchingResultsAreReturned() {
+        ParityActions ui = new ParityActions(
+                "a", () -> fake(Map.of("getText", "Secure Area", "exists", true), new ConcurrentHashMap<>()),
+                "b", () -> fake(Map.of("getText", "  Secure\n Area ", "exists", true), new ConcurrentHashMap<>()));
+        try {
+            assertEquals("Secure Area", ui.getText(TargetFactory.css("h2")));
+            assertTrue(ui.exists(TargetFactory.css("h2")));
+            ui.open("http://localhost/");
+        } finally {
+            ui.close();
+        }
+    }
+
+    @Test
+    public void divergentTextIsParityFailure() {
+        ParityActions ui = new ParityActions(
+                "selenium", () -> fake(Map.of("url", "http://host/a"), new ConcurrentHashMap<>()),
+                "playwright", () -> fake(Map.of("url", "http://host/b"), new ConcurrentHashMap<>()));
+        try {
+            ui.url();
+            fail("Expected parity failure");
+        } catch (ParityMismatchException e) {
+            assertTrue(e.getMessage().contains("selenium returned 'http://host/a'"));
+            assertTrue(e.getMessage().contains("playwright returned 'http://host/b'"));
+        } finally {
+            ui.close();
+        }
+    }
+
+    @Test
+    public void oneSidedFailureIsParityFailure() {
+        IllegalStateException boom = new IllegalStateException("boom");
+        ParityActions ui = new ParityActions(
+                "selenium", () -> fake(Map.of("click", boom), new ConcurrentHashMap<>()),
+                "playwright", () -> fake(Map.of(), new ConcurrentHashMap<>()));
+        try {
+            ui.click(TargetFactory.id("btn"));
+            fail("Expected parity failure");
+        } catch (ParityMismatchException e) {
+            assertSame(boom, e.getCause());
+        } finally {
+            ui.close();
+        }
+    }
+
+    @Test
+    public void failureOnBothSidesIsRethrownAsIs() {
+        IllegalStateException left = new IllegalStateException("left");
+        ParityActions ui = new ParityActions(
+                "a", () -> fake(Map.of("click", left), new ConcurrentHashMap<>()),
+                "b", () -> fake(Map.of("click", new IllegalStateException("right")), new ConcurrentHashMap<>()));
+        try {
+            ui.click();
+            fail("Expected failure");
+        } catch (IllegalStateException e) {
+            assertSame(left, e);
+        } finally {
+            ui.close();
+        }
+    }
+
+    @Test
+    public void enginesRunConcurrentlyOnTheirOwnThreads() throws Exception {
+        CountDownLatch bothEntered = new CountDownLatch(2);
+        Map<String, Thread> leftThreads = new ConcurrentHashMap<>();
+        Map<String, Thread> rightThreads = new ConcurrentHashMap<>();
+        UiActions blocking = (UiActions) Proxy.newProxyInstance(UiActions.class.getClassLoader(),
+                new Class<?>[]{UiActions.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("open")) {
+                        bothEntered.countDown();
+                        // Only returns once the other engine has entered the same call
+                        assertTrue(bothEntered.await(5, TimeUnit.SECONDS));
+                    }
+                    return null;
+                });
+        ParityActions ui = new ParityActions(
+                "a", () -> { leftThreads.put("create", Thread.currentThread()); return delegating(blocking, leftThreads); },
+                "b", () -> { rightThreads.put("create", Thread.currentThread()); return delegating(blocking, rightThreads); });
+        try {
+            ui.open("http://localhost/");
+            assertSame(leftThreads.get("create"), leftThreads.get("open"));
+            assertSame(rightThreads.get("create"), rightThreads.get("open"));
+            assertNotSame(leftThreads.get("open"), rightThreads.get("open"));
+        } finally {
+            ui.close();
+        }
+    }
+
+    private static UiActions delegating(UiActions target, Map<String, Thread> threads) {
+        return (UiActions) Proxy.newProxyInstance(UiActions.class.getClassLoader(), new Class<?>[]{UiActions.class},
+                (proxy, method, args) -> {
+                    threads.put(method.getName(), Thread.currentThread());
+                    return method.invoke(target, args);
+                });
+    }
+}
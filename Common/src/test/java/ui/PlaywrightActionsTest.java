@@ -83,6 +83,16 @@ public class PlaywrightActionsTest {
         assertEquals("Alice", ui.value(TargetFactory.css("#name")));
     }
 
+    @Test
+    public void testComposeWithKeystrokes() {
+        ui.open(pages.page1.toUri().toString());
+        ui.compose(TargetFactory.css("#notes"), "fill");
+        assertNull(ui.attribute(TargetFactory.css("#notes"), "data-keys"));
+        ui.compose(TargetFactory.css("#notes").withKeystrokes(), "abc");
+        assertEquals("abc", ui.value(TargetFactory.css("#notes")));
+        assertEquals("3", ui.attribute(TargetFactory.css("#notes"), "data-keys"));
+    }
+
     @Test
     public void testFocus() {
         ui.open(pages.page1.toUri().toString());
@@ -81,6 +81,27 @@ public class SeleniumActionsTest {
         assertEquals("Bob", ui.value(TargetFactory.css("#name")));
     }
 
+    @Test
+    public void testComposeFastFill() {
+        ((SeleniumActions) ui).setFastFill(true);
+        ui.open(pages.page1.toUri().toString());
+        String large = "x".repeat(10_000);
+        ui.compose(TargetFactory.css("#notes"), large);
+        assertEquals(large, ui.value(TargetFactory.css("#notes")));
+        assertEquals("input", ui.getText(TargetFactory.css("#notesEvent")));
+        // No per-character key events were sent
+        assertNull(ui.attribute(TargetFactory.css("#notes"), "data-keys"));
+    }
+
+    @Test
+    public void testComposeFastFillOptOutUsesKeystrokes() {
+        ((SeleniumActions) ui).setFastFill(true);
+        ui.open(pages.page1.toUri().toString());
+        ui.compose(TargetFactory.css("#notes").withKeystrokes(), "abc");
+        assertEquals("abc", ui.value(TargetFactory.css("#notes")));
+        assertEquals("3", ui.attribute(TargetFactory.css("#notes"), "data-keys"));
+    }
+
     @Test
     public void testFocus() {
         ui.open(pages.page1.toUri().toString());
@@ -1,6 +1,8 @@
 package ui;
 
 import core.ui.Target;
+import core.ui.LocatorProfiler;
+import core.ui.LocatorRewriter;
 import core.ui.TargetFactory;
 import core.ui.UiActions;
 import org.junit.After;
@@ -8,6 +10,9 @@ import org.junit.Before;
 import org.junit.Test;
 import playwright.PlaywrightActions;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.Assert.*;
 
 /**
@@ -75,6 +80,50 @@ public class TargetFactoryPlaywrightTest {
         assertTrue(ui.exists(TargetFactory.text("Hello World")));
     }
 
+    @Test
+    public void textWithinTag_shouldLocateOnlyThatTag() {
+        assertTrue(ui.exists(TargetFactory.text("Hello World").within("p")));
+        assertFalse(ui.exists(TargetFactory.text("Hello World").within("button")));
+    }
+
+    @Test
+    public void textRewrite_shouldResolveSameElement() {
+        LocatorRewriter.setEnabled(true);
+        try {
+            assertEquals("greeting", ui.attribute(TargetFactory.text("Hello World"), "data-custom"));
+            assertEquals("p", LocatorProfiler.observedTag(TargetFactory.text("Hello World")));
+            // Second lookup uses the narrowed selector
+            assertEquals("greeting", ui.attribute(TargetFactory.text("Hello World"), "data-custom"));
+        } finally {
+            LocatorRewriter.setEnabled(false);
+            LocatorRewriter.reset();
+            LocatorProfiler.reset();
+        }
+    }
+
+    @Test
+    public void textRewrite_shouldNotCarryTagsToAnotherPage() throws Exception {
+        Path dir = Files.createTempDirectory("rewrite-pages");
+        Path first = Files.writeString(dir.resolve("first.html"),
+                "<html><body><button data-custom='first'>Save</button></body></html>");
+        Path second = Files.writeString(dir.resolve("second.html"),
+                "<html><body><span data-custom='span'>Save</span><button data-custom='button'>Save</button>"
+                        + "</body></html>");
+        LocatorRewriter.setEnabled(true);
+        try {
+            ui.open(first.toUri().toString());
+            assertEquals("first", ui.attribute(TargetFactory.text("Save"), "data-custom"));
+            assertEquals("first", ui.attribute(TargetFactory.text("Save"), "data-custom"));
+            // The button learned on the first page is not the first match here
+            ui.open(second.toUri().toString());
+            assertEquals("span", ui.attribute(TargetFactory.text("Save"), "data-custom"));
+        } finally {
+            LocatorRewriter.setEnabled(false);
+            LocatorRewriter.reset();
+            LocatorProfiler.reset();
+        }
+    }
+
     @Test
     public void dataTestId_shouldLocateElement() {
         assertTrue(ui.exists(TargetFactory.dataTestId("test-elem")));
@@ -0,0 +1,84 @@
+package ui;
+
+import core.ui.Target;
+import core.ui.TargetFactory;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import playwright.PlaywrightSelectors;
+import selenium.SeleniumLocators;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Allocation benchmark for Target translation: the compiled (cached) locator path must allocate far less per
+ * action than rebuilding the engine-native locator every time. Runs without a browser.
+ */
+public class TargetTranslationBenchmarkTest {
+    private static final int ITERATIONS = 200_000;
+    private static volatile Object sink;
+
+    // Mix of strategies, including the quote-escaping XPath paths
+    private static final List<Target> TARGETS = List.of(
+            TargetFactory.css("#username"),
+            TargetFactory.text("Secure Area"),
+            TargetFactory.linkText("Click 'Me'"),
+            TargetFactory.partialLinkText("has a 'quote' inside"),
+            TargetFactory.name("user'o"),
+            TargetFactory.dataTestId("submit"));
+
+    private static long allocatedBytes(Function<Target, Object> translate) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Warm up so class loading and JIT are not counted
+        for (int i = 0; i < ITERATIONS; i++) sink = translate.apply(TARGETS.get(i % TARGETS.size()));
+        long before = mx.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) sink = translate.apply(TARGETS.get(i % TARGETS.size()));
+        return mx.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    @Test
+    public void compiledSeleniumLocatorsAllocateLessPerAction() {
+        long uncached = allocatedBytes(SeleniumLocators::toBy);
+        long cached = allocatedBytes(SeleniumLocators::by);
+        assertTrue(String.format("Selenium By bytes per action: cached=%.1f, uncached=%.1f",
+                cached / (double) ITERATIONS, uncached / (double) ITERATIONS), cached * 10 < uncached);
+    }
+
+    @Test
+    public void compiledPlaywrightSelectorsAllocateLessPerAction() {
+        long uncached = allocatedBytes(PlaywrightSelectors::toSelector);
+        long cached = allocatedBytes(PlaywrightSelectors::selector);
+        assertTrue(String.format("Playwright selector bytes per action: cached=%.1f, uncached=%.1f",
+                cached / (double) ITERATIONS, uncached / (double) ITERATIONS), cached * 10 < uncached);
+    }
+
+    @Test
+    public void factoryInternsTargetsAndCompilesOnce() {
+        assertSame(TargetFactory.css("#interned"), TargetFactory.css("#interned"));
+        assertNotSame(TargetFactory.css("#interned"), TargetFactory.id("#interned"));
+
+        AtomicInteger translations = new AtomicInteger();
+        Target.Translator<String> counting = t -> { translations.incrementAndGet(); return "css=" + t.value(); };
+        Target target = TargetFactory.css("#compiled-once");
+        for (int i = 0; i < 100; i++) {
+            assertEquals("css=#compiled-once", TargetFactory.css("#compiled-once").compiled(counting));
+        }
+        assertEquals(1, translations.get());
+
+        By by = SeleniumLocators.by(target);
+        assertSame(by, SeleniumLocators.by(TargetFactory.css("#compiled-once")));
+        assertEquals(By.cssSelector("#compiled-once"), by);
+    }
+
+    @Test
+    public void derivedTargetsAreReused() {
+        Target text = TargetFactory.text("Save");
+        assertSame(text.within("button"), text.within("button"));
+        assertSame(text.withKeystrokes(), text.withKeystrokes());
+        assertEquals(Target.of(Target.Strategy.TEXT, "Save").within("button"), text.within("button"));
+    }
+}
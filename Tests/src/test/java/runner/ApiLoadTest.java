@@ -0,0 +1,88 @@
+package runner;
+
+import core.load.LoadProfile;
+import core.load.LoadResult;
+import core.load.LoadRunner;
+import core.load.LoadThreshold;
+import core.load.RequestMetrics;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import support.ApiClients;
+import support.ScenarioRunnerPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Load mode: runs the API scenarios selected by {@code -Dload.tags} as concurrent virtual users and reports
+ * throughput and latency percentiles per request.
+ * <p>
+ * Skipped unless {@code load.tags} is set. The schedule comes from {@link LoadProfile#fromSystemProperties()}
+ * ({@code load.users}, {@code load.duration}, {@code load.iterations}, {@code load.rampUp}, {@code load.rate}).
+ * Thresholds in {@code load.slo}, e.g. {@code p95<500ms;errors<1%;GET /users:p99<2s}, fail the run when missed;
+ * without thresholds any failed scenario iteration fails it. The report is written to target/load-report.md.
+ */
+public class ApiLoadTest {
+
+    @Test
+    public void runTaggedScenariosUnderLoad() throws Exception {
+        String tags = System.getProperty("load.tags");
+        Assume.assumeTrue("Load mode is off; set -Dload.tags to run it", tags != null && !tags.isBlank());
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        List<LoadThreshold> thresholds = LoadThreshold.parseAll(System.getProperty("load.slo"));
+
+        ScenarioRunnerPool scenarios = new ScenarioRunnerPool("src/test/resources/features", "steps", tags,
+                profile.users());
+        // One untimed pass so class loading and first connections do not skew the percentiles
+        for (int i = 0; i < scenarios.scenarioCount(); i++) scenarios.runNext();
+
+        RequestMetrics metrics = new RequestMetrics();
+        ApiClients.setListener(metrics.listener());
+        LoadResult result;
+        try {
+            result = new LoadRunner(profile).run(scenarios::runNext);
+        } finally {
+            ApiClients.setListener(null);
+        }
+
+        List<RequestMetrics.Summary> summaries = metrics.summaries(result.elapsedSeconds());
+        List<String> violations = new ArrayList<>();
+        for (LoadThreshold t : thresholds) {
+            String violation = t.check(summaries);
+            if (violation != null) violations.add(violation);
+        }
+        if (thresholds.isEmpty() && result.failed() > 0) {
+            violations.add(result.failed() + " of " + result.iterations() + " iterations failed");
+        }
+        writeReport(profile, result, metrics, violations);
+        Assert.assertTrue("Load thresholds missed:\n" + String.join("\n", violations), violations.isEmpty());
+    }
+
+    private static void writeReport(LoadProfile profile, LoadResult result, RequestMetrics metrics,
+                                    List<String> violations) throws IOException {
+        StringBuilder sb = new StringBuilder("### Load run\n\n");
+        sb.append(String.format(Locale.ROOT, "%s, %d users: %d iterations (%d failed, %d dropped) in %.1f s, %.2f it/s%n%n",
+                profile.isOpenModel() ? "Open model at " + profile.arrivalRate() + "/s" : "Closed model",
+                profile.users(), result.iterations(), result.failed(), result.dropped(),
+                result.elapsedSeconds(), result.throughput()));
+        sb.append(metrics.report(result.elapsedSeconds()));
+        if (!result.failureSamples().isEmpty()) {
+            sb.append("\nFirst failures:\n\n");
+            for (String f : result.failureSamples()) sb.append("- ").append(f).append('\n');
+        }
+        if (!violations.isEmpty()) {
+            sb.append("\nThresholds missed:\n\n");
+            for (String v : violations) sb.append("- ").append(v).append('\n');
+        }
+        Path report = Path.of("target", "load-report.md");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, sb.toString());
+        System.out.println(sb);
+        System.out.println("Load report written to: " + report.toAbsolutePath());
+    }
+}
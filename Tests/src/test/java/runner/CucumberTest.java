@@ -5,7 +5,16 @@ import io.cucumber.junit.CucumberOptions;
 import org.junit.runner.RunWith;
 import org.junit.AfterClass;
 
+import core.api.ResponseCacheStats;
+import core.api.TokenCache;
+import core.ui.LocatorProfiler;
+import support.ApiClients;
+
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
 
 @RunWith(Cucumber.class)
 @CucumberOptions(
@@ -13,11 +22,76 @@ import java.io.File;
         glue = {"steps"},
         plugin = {
                 "pretty",
-                // Allure results formatter
-                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+                // Allure results formatter; writes in the background and stores duplicate attachments once
+                "support.AsyncAllureCucumber",
+                // Slowest steps and scenarios, split into UI, API and glue time (target/step-timings.*)
+                "support.StepTimingPlugin",
+                // Thread dump, processes and screenshot of steps past -Dstep.deadlineSeconds (target/hangs/)
+                "support.HangWatchdogPlugin"
         }
 )
 public class CucumberTest {
+    @AfterClass
+    public static void writeLocatorProfile() throws IOException {
+        // Enabled with -Dlocator.profile=true; ranks the most expensive Target lookups of the run
+        if (!LocatorProfiler.isEnabled()) return;
+        Path report = Path.of("target", "locator-profile.md");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, "### Slowest locators\n\n" + LocatorProfiler.report(20));
+        System.out.println("Locator profile written to: " + report.toAbsolutePath());
+    }
+
+    @AfterClass
+    public static void printApiCacheStats() {
+        // Enabled with -Dapi.cache=true
+        ResponseCacheStats stats = ApiClients.cacheStats();
+        if (stats == null) return;
+        System.out.printf(Locale.ROOT, "API response cache: %d hits, %d misses, %d revalidations (%d not modified), "
+                        + "%d evictions, hit ratio %.0f%%%n", stats.hits(), stats.misses(), stats.revalidations(),
+                stats.notModified(), stats.evictions(), stats.hitRatio() * 100);
+    }
+
+    @AfterClass
+    public static void printApiTokenCacheStats() {
+        // Enabled with -Dapi.auth.tokenUrl=...
+        TokenCache.Stats stats = ApiClients.tokenCacheStats();
+        if (stats == null) return;
+        System.out.printf(Locale.ROOT, "API token cache: %d hits, %d fetches, %d waits on a shared fetch, "
+                + "%d tokens rejected%n", stats.hits(), stats.fetches(), stats.waits(), stats.invalidations());
+    }
+
+    @AfterClass
+    public static void writeApiEndpointMetrics() throws IOException {
+        // On unless -Dapi.metrics=false; picked up by scripts/report_coverage.py for the PR comment
+        if ("false".equalsIgnoreCase(System.getProperty("api.metrics"))) return;
+        Path json = Path.of("target", "api-metrics.json");
+        Files.createDirectories(json.getParent());
+        Files.writeString(json, ApiClients.endpointMetrics().toJson());
+        Files.writeString(Path.of("target", "api-metrics.md"),
+                "### API endpoint metrics\n\n" + ApiClients.endpointMetrics().report());
+        System.out.println("API endpoint metrics written to: " + json.toAbsolutePath());
+    }
+
+    @AfterClass
+    public static void writeApiHedgingReport() throws IOException {
+        // Enabled with -Dapi.hedge=true; how often each endpoint was hedged and what it saved
+        if (!Boolean.getBoolean("api.hedge")) return;
+        Path report = Path.of("target", "api-hedging.md");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, "### API request hedging\n\n" + ApiClients.hedgeMetrics().report());
+        System.out.println("API hedging report written to: " + report.toAbsolutePath());
+    }
+
+    @AfterClass
+    public static void writeApiRateLimitReport() throws IOException {
+        // Enabled with -Dapi.rateLimit=...; time each bucket spent throttled and how often the server pushed back
+        if (System.getProperty("api.rateLimit") == null) return;
+        Path report = Path.of("target", "api-rate-limits.md");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, "### API rate limiting\n\n" + ApiClients.rateLimiter().report());
+        System.out.println("API rate limit report written to: " + report.toAbsolutePath());
+    }
+
     @AfterClass
     public static void printAllureReportLink() {
         // Location where Allure Maven plugin generates static report by default
@@ -1,28 +1,124 @@
 package steps;
 
+import core.api.ApiBatch;
 import core.api.ApiClient;
-import core.api.impl.RestAssuredApiClient;
+import core.api.ApiRequest;
+import core.api.AsyncApiClient;
+import core.api.CompiledJsonPath;
+import core.api.JsonDocument;
+import core.api.StreamingResponse;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.cucumber.java.After;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.restassured.response.Response;
 import org.junit.Assert;
+import support.ApiClients;
+import support.Fixtures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
- * Basic API step definitions using RestAssured so API tests can live alongside UI tests.
+ * Basic API step definitions so API tests can live alongside UI tests.
+ * The client is chosen with {@code -Dapi.client=restassured|jdk} (see {@link ApiClients}).
  */
 public class ApiSteps {
-    private final ApiClient api = new RestAssuredApiClient();
+    private final ApiClient api = ApiClients.create();
     private Response response;
+    private JsonDocument json;
+    private List<Response> responses = List.of();
+    private List<ApiBatch.Result> batch = List.of();
+    private StreamingResponse streamed;
+    private Long streamedRecords;
+
+    @After
+    public void closeStream() {
+        if (streamed != null) streamed.close();
+    }
 
     @Given("an API base URI of {string}")
     public void an_api_base_uri_of(String baseUri) {
         api.setBaseUri(baseUri);
     }
 
+    @Given("an API base URI of the fixture server")
+    public void an_api_base_uri_of_the_fixture_server() {
+        api.setBaseUri(Fixtures.server().baseUrl());
+    }
+
     @When("I GET {string}")
     public void i_get(String path) {
         response = api.get(path);
+        json = null;
+    }
+
+    @When("I GET {string} {int} times concurrently")
+    public void i_get_times_concurrently(String path, int times) {
+        List<CompletableFuture<Response>> futures = new ArrayList<>(times);
+        if (api.isAsync() && api instanceof AsyncApiClient async) {
+            for (int i = 0; i < times; i++) futures.add(async.getAsync(path));
+            responses = join(futures);
+            return;
+        }
+        // Blocking clients, decorated or not, fan out over a small pool instead
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(times, 16));
+        try {
+            for (int i = 0; i < times; i++) futures.add(CompletableFuture.supplyAsync(() -> api.get(path), pool));
+            responses = join(futures);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends every row of a | method | path | body | table (body optional) concurrently, at most
+     * {@code api.batch.parallelism} at a time.
+     */
+    @When("I send these API requests concurrently:")
+    public void i_send_these_api_requests_concurrently(List<Map<String, String>> rows) {
+        batch = new ApiBatch(api).execute(toRequests(rows));
+    }
+
+    @When("I send these API requests with parallelism {int}:")
+    public void i_send_these_api_requests_with_parallelism(int parallelism, List<Map<String, String>> rows) {
+        batch = new ApiBatch(api, parallelism).execute(toRequests(rows));
+    }
+
+    @When("I POST each of these bodies to {string}:")
+    public void i_post_each_of_these_bodies_to(String path, List<String> bodies) {
+        List<ApiRequest> requests = new ArrayList<>(bodies.size());
+        for (String body : bodies) requests.add(ApiRequest.post(path, body));
+        batch = new ApiBatch(api).execute(requests);
+    }
+
+    /** Reports every failed or unexpected request of the last batch, by table row. */
+    @Then("all batch requests should have status {int}")
+    public void all_batch_requests_should_have_status(int expectedStatus) {
+        Assert.assertFalse("No batch requests sent", batch.isEmpty());
+        List<String> problems = new ArrayList<>();
+        for (ApiBatch.Result r : batch) {
+            if (r.statusCode() == expectedStatus) continue;
+            String outcome = r.isSuccess() ? "status " + r.statusCode() : "failed with " + r.error();
+            problems.add("#" + (r.index() + 1) + " " + r.request().method() + " " + r.request().path() + ": " + outcome);
+        }
+        Assert.assertTrue("Unexpected batch results:\n" + String.join("\n", problems), problems.isEmpty());
+    }
+
+    @Then("all responses should have status {int}")
+    public void all_responses_should_have_status(int expectedStatus) {
+        Assert.assertFalse("No responses recorded", responses.isEmpty());
+        for (Response r : responses) {
+            Assert.assertEquals("Unexpected HTTP status", expectedStatus, r.statusCode());
+        }
     }
 
     @Then("the response status should be {int}")
@@ -31,10 +127,96 @@ public class ApiSteps {
         Assert.assertEquals("Unexpected HTTP status", expectedStatus, response.statusCode());
     }
 
+    @When("I stream GET {string}")
+    public void i_stream_get(String path) {
+        closeStream();
+        streamed = api.stream(ApiRequest.get(path));
+        streamedRecords = null;
+    }
+
+    @Then("the streamed response status should be {int}")
+    public void the_streamed_response_status_should_be(int expectedStatus) {
+        Assert.assertNotNull("No streamed response", streamed);
+        Assert.assertEquals("Unexpected HTTP status", expectedStatus, streamed.statusCode());
+    }
+
+    /** Checks every record in a single pass; the record count is remembered for later count assertions. */
+    @Then("every streamed record should have the fields:")
+    public void every_streamed_record_should_have_the_fields(List<String> fields) {
+        List<JsonPointer> pointers = new ArrayList<>(fields.size());
+        for (String f : fields) pointers.add(JsonPointer.compile("/" + f.replace('.', '/')));
+        long[] index = {0};
+        streamedRecords = consumeStream(record -> {
+            for (int i = 0; i < pointers.size(); i++) {
+                JsonNode value = record.at(pointers.get(i));
+                Assert.assertFalse("Record " + index[0] + " is missing field: " + fields.get(i),
+                        value.isMissingNode() || value.isNull());
+            }
+            index[0]++;
+        });
+    }
+
+    @Then("every streamed record should have the field {string}")
+    public void every_streamed_record_should_have_the_field(String field) {
+        every_streamed_record_should_have_the_fields(List.of(field));
+    }
+
+    @Then("the streamed response should contain {long} records")
+    public void the_streamed_response_should_contain_records(long expected) {
+        if (streamedRecords == null) streamedRecords = consumeStream(record -> { });
+        Assert.assertEquals("Unexpected number of records", expected, (long) streamedRecords);
+    }
+
+    private long consumeStream(Consumer<JsonNode> check) {
+        Assert.assertNotNull("No streamed response", streamed);
+        Assert.assertNull("The streamed body has already been read; put field checks before the count", streamedRecords);
+        return streamed.forEachRecord(check);
+    }
+
     @Then("the JSON path {string} should equal {string}")
     public void the_json_path_should_equal(String jsonPath, String expected) {
+        Assert.assertEquals("Unexpected JSON value at path: " + jsonPath, expected, jsonValue(jsonPath));
+    }
+
+    /** Checks a | path | expected | table against one parse of the body and reports every mismatch at once. */
+    @Then("the JSON response should match:")
+    public void the_json_response_should_match(Map<String, String> expectations) {
+        List<String> mismatches = new ArrayList<>();
+        expectations.forEach((path, expected) -> {
+            String actual = jsonValue(path);
+            if (!Objects.equals(expected, actual)) {
+                mismatches.add(path + ": expected <" + expected + "> but was <" + actual + ">");
+            }
+        });
+        Assert.assertTrue("Unexpected JSON values:\n" + String.join("\n", mismatches), mismatches.isEmpty());
+    }
+
+    private String jsonValue(String path) {
         Assert.assertNotNull("Response should not be null", response);
-        String actual = response.jsonPath().getString(jsonPath);
-        Assert.assertEquals("Unexpected JSON value at path: " + jsonPath, expected, actual);
+        CompiledJsonPath compiled;
+        try {
+            compiled = CompiledJsonPath.compile(path);
+        } catch (IllegalArgumentException unsupported) {
+            // Full GPath (closures, filters) still goes through RestAssured
+            return response.jsonPath().getString(path);
+        }
+        if (json == null) json = JsonDocument.of(response);
+        return compiled.getString(json.root());
+    }
+
+    private static List<ApiRequest> toRequests(List<Map<String, String>> rows) {
+        List<ApiRequest> requests = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            String body = row.get("body");
+            ApiRequest request = ApiRequest.of(row.get("method"), row.get("path"));
+            requests.add(body == null || body.isEmpty() ? request : request.withBody(body));
+        }
+        return requests;
+    }
+
+    private static List<Response> join(List<CompletableFuture<Response>> futures) {
+        List<Response> out = new ArrayList<>(futures.size());
+        for (CompletableFuture<Response> f : futures) out.add(f.join());
+        return out;
     }
 }
@@ -5,6 +5,7 @@ import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.junit.Assert;
 import pageObject.ExamplePage;
+import support.Fixtures;
 import support.TestContext;
 
 public class ExampleSteps {
@@ -15,6 +16,11 @@ public class ExampleSteps {
         examplePage.open(url);
     }
 
+    @Given("I open the fixture page {string}")
+    public void i_open_the_fixture_page(String path) {
+        examplePage.open(Fixtures.url(path));
+    }
+
     @Then("I should see the heading {string}")
     public void i_should_see_the_heading(String expected) {
         String actual = examplePage.headingText();
@@ -9,17 +9,16 @@ public class Hooks {
 
     @Before
     public void selectEngine(Scenario scenario) {
-        // Allow opting into specific engine via tags: @selenium or @playwright
+        // Allow opting into specific engine via tags: @selenium or @playwright.
+        // Tagging with both runs the scenario once against both engines concurrently (parity mode).
         boolean wantsSelenium = scenario.getSourceTagNames().stream()
                 .anyMatch(t -> t.equalsIgnoreCase("@selenium"));
         boolean wantsPlaywright = scenario.getSourceTagNames().stream()
                 .anyMatch(t -> t.equalsIgnoreCase("@playwright"));
 
         if (wantsSelenium && wantsPlaywright) {
-            throw new IllegalArgumentException("Scenario cannot be tagged with both @selenium and @playwright");
-        }
-
-        if (wantsSelenium) {
+            System.setProperty("engine", "parity");
+        } else if (wantsSelenium) {
             System.setProperty("engine", "selenium");
         } else if (wantsPlaywright) {
             System.setProperty("engine", "playwright");
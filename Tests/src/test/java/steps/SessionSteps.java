@@ -0,0 +1,33 @@
+package steps;
+
+import core.api.ApiClient;
+import core.ui.BrowserSession;
+import io.cucumber.java.en.Given;
+import io.restassured.response.Response;
+import org.junit.Assert;
+import support.ApiClients;
+import support.Fixtures;
+import support.TestContext;
+
+import java.util.Map;
+
+/**
+ * Steps that reach a logged-in UI state through the API: one HTTP call instead of driving the login form, with
+ * the resulting cookies and storage placed into the browser before the first page is opened.
+ */
+public class SessionSteps {
+    private final ApiClient api = ApiClients.create();
+
+    @Given("I am logged in through the API as {string} with password {string}")
+    public void i_am_logged_in_through_the_api(String username, String password) {
+        String baseUrl = Fixtures.server().baseUrl();
+        api.setBaseUri(baseUrl);
+        Response login = api.post("/api/login", Map.of("username", username, "password", password));
+        Assert.assertEquals("API login status", 200, login.statusCode());
+
+        BrowserSession session = BrowserSession.forUrl(baseUrl)
+                .withCookiesFrom(baseUrl + "/api/login", login)
+                .withLocalStorage("user", login.jsonPath().getString("user"));
+        TestContext.actions().injectSession(session);
+    }
+}
@@ -0,0 +1,186 @@
+package support;
+
+import core.api.ApiClient;
+import core.api.AuthenticatedApiClient;
+import core.api.CachingApiClient;
+import core.api.ClientCredentialsTokenProvider;
+import core.api.EndpointMetrics;
+import core.api.HedgeMetrics;
+import core.api.HedgePolicy;
+import core.api.HedgingApiClient;
+import core.api.InstrumentedApiClient;
+import core.api.RateLimitedApiClient;
+import core.api.RateLimiter;
+import core.api.RequestListener;
+import core.api.ResponseCache;
+import core.api.ResponseCacheStats;
+import core.api.TimedApiClient;
+import core.api.TokenCache;
+import core.api.impl.JdkHttpApiClient;
+import core.api.impl.RestAssuredApiClient;
+import core.fixture.RecordedExchange;
+import core.fixture.RecordingApiClient;
+import core.fixture.Recordings;
+import core.fixture.ReplayApiClient;
+import core.fixture.StubServer;
+import core.timing.StepTimer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ApiClients {
+    private static volatile RequestListener listener;
+    private static ResponseCache cache;
+    private static HedgeMetrics hedgeMetrics;
+    private static RateLimiter rateLimiter;
+    private static EndpointMetrics endpointMetrics;
+    private static TokenCache tokenCache;
+    private static StubServer stub;
+    private static List<RecordedExchange> recorded;
+
+    public static ApiClient create() {
+        if (!StepTimer.isEnabled()) return createDecorated();
+        // Charge API time, set-up and cache hits included, to the running step for the step timing report
+        long start = StepTimer.enter();
+        try {
+            return new TimedApiClient(createDecorated(), StepTimingPlugin.timings());
+        } finally {
+            StepTimer.exit(StepTimer.Layer.API, start);
+        }
+    }
+
+    private static ApiClient createDecorated() {
+        ApiClient api = createClient();
+        // Per-endpoint latency, status and payload metrics of every attempt that reaches the wire, exported at the
+        // end of the run; -Dapi.metrics=false turns them off
+        if (!"false".equalsIgnoreCase(System.getProperty("api.metrics"))) {
+            api = new InstrumentedApiClient(api, endpointMetrics().listener());
+        }
+        String mode = System.getProperty("api.mode", System.getenv().getOrDefault("API_MODE", "live"));
+        if ("replay".equalsIgnoreCase(mode)) {
+            // Serve recorded responses from a loopback stub: offline, with local latency
+            api = new ReplayApiClient(api, stub());
+        } else if ("record".equalsIgnoreCase(mode)) {
+            List<RecordedExchange> sink = recorded();
+            // Local fixture servers run on random ports and need no recording
+            api = new RecordingApiClient(api, e -> {
+                if (!StubServer.isLoopback(e.origin())) sink.add(e);
+            });
+        }
+        // OAuth client credentials from api.auth.* (see ClientCredentialsTokenProvider); recordings need no token.
+        // Tokens only go to the base URI's host, or to the comma-separated hosts of api.auth.hosts
+        ClientCredentialsTokenProvider credentials = ClientCredentialsTokenProvider.fromSystemProperties();
+        if (credentials != null && !"replay".equalsIgnoreCase(mode)) {
+            api = new AuthenticatedApiClient(api, tokenCache(), credentials, authHosts());
+        }
+        // Pace calls to rate-limited hosts and back off on 429/Retry-After; -Dapi.rateLimit= (empty) only backs off
+        if (System.getProperty("api.rateLimit") != null) api = new RateLimitedApiClient(api, rateLimiter());
+        // Opt-in duplicate requests for stalled idempotent calls, tuned by api.hedge.* (see HedgePolicy)
+        if (Boolean.getBoolean("api.hedge")) {
+            api = new HedgingApiClient(api, HedgePolicy.fromSystemProperties(), hedgeMetrics());
+        }
+        RequestListener l = listener;
+        // Load runs observe every request made by the scenarios they drive
+        if (l != null) api = new InstrumentedApiClient(api, l);
+        // Opt-in GET cache shared by every scenario of the run (reference data, config, feature flags, ...)
+        if (Boolean.getBoolean("api.cache")) api = new CachingApiClient(api, cache());
+        return api;
+    }
+
+    /** The run-wide response cache, sized by {@code api.cache.maxEntries} and {@code api.cache.maxBytes}. */
+    public static synchronized ResponseCache cache() {
+        if (cache == null) cache = ResponseCache.fromSystemProperties();
+        return cache;
+    }
+
+    /** Statistics of the run-wide response cache, or null when it was never used. */
+    public static synchronized ResponseCacheStats cacheStats() {
+        return cache == null ? null : cache.stats();
+    }
+
+    /** Hedging state shared by every client of the run, so endpoints learn their latency across scenarios. */
+    public static synchronized HedgeMetrics hedgeMetrics() {
+        if (hedgeMetrics == null) hedgeMetrics = new HedgeMetrics();
+        return hedgeMetrics;
+    }
+
+    /** Endpoint metrics shared by every client of the run. */
+    public static synchronized EndpointMetrics endpointMetrics() {
+        if (endpointMetrics == null) endpointMetrics = new EndpointMetrics();
+        return endpointMetrics;
+    }
+
+    private static List<String> authHosts() {
+        List<String> hosts = new ArrayList<>();
+        for (String host : System.getProperty("api.auth.hosts", "").split(",")) {
+            if (!host.isBlank()) hosts.add(host.trim());
+        }
+        return hosts;
+    }
+
+    /** Access tokens shared by every client of the run, so scenarios reuse them instead of each fetching one. */
+    public static synchronized TokenCache tokenCache() {
+        if (tokenCache == null) tokenCache = TokenCache.fromSystemProperties();
+        return tokenCache;
+    }
+
+    /** Statistics of the run-wide token cache, or null when no client authenticated. */
+    public static synchronized TokenCache.Stats tokenCacheStats() {
+        return tokenCache == null ? null : tokenCache.stats();
+    }
+
+    /** Token buckets shared by every client of the run, configured by {@code api.rateLimit} (see RateLimiter). */
+    public static synchronized RateLimiter rateLimiter() {
+        if (rateLimiter == null) rateLimiter = RateLimiter.fromSystemProperties();
+        return rateLimiter;
+    }
+
+    /** Listener attached to every client created from now on, or null for none. */
+    public static void setListener(RequestListener requestListener) {
+        listener = requestListener;
+    }
+
+    /** Directory recordings are written to and replayed from, {@code api.recordings}. */
+    public static Path recordingsDir() {
+        return Path.of(System.getProperty("api.recordings", "src/test/resources/recordings"));
+    }
+
+    private static synchronized StubServer stub() {
+        if (stub == null) {
+            stub = new StubServer(Recordings.load(recordingsDir())).start();
+            StubServer started = stub;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (!started.misses().isEmpty()) {
+                    System.err.println("Requests without a recording: " + started.misses());
+                }
+                started.close();
+            }, "stub-server-shutdown"));
+        }
+        return stub;
+    }
+
+    private static synchronized List<RecordedExchange> recorded() {
+        if (recorded == null) {
+            List<RecordedExchange> exchanges = Collections.synchronizedList(new ArrayList<>());
+            recorded = exchanges;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                synchronized (exchanges) {
+                    Recordings.save(recordingsDir(), exchanges);
+                }
+            }, "api-recordings-writer"));
+        }
+        return recorded;
+    }
+
+    private static ApiClient createClient() {
+        String client = System.getProperty("api.client", System.getenv().getOrDefault("API_CLIENT", "restassured"));
+        if ("jdk".equalsIgnoreCase(client)) {
+            // Non-blocking java.net.http client (HTTP/2 where the server supports it)
+            return new JdkHttpApiClient();
+        }
+        // default: RestAssured
+        return new RestAssuredApiClient();
+    }
+}
@@ -0,0 +1,84 @@
+package support;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunFinished;
+
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * The Allure Cucumber formatter writing through an {@link AsyncResultsWriter}: results and attachments are written
+ * on a background thread, identical attachments are stored once and each scenario's attachments are capped.
+ * <p>
+ * The writer is drained when the run finishes. {@link Allure}'s static API is pointed at the same lifecycle, so
+ * attachments added from step code are deduplicated too.
+ */
+public class AsyncAllureCucumber extends AllureCucumber7Jvm {
+    private final AsyncResultsWriter writer;
+
+    public AsyncAllureCucumber() {
+        this(AsyncResultsWriter.fromSystemProperties());
+    }
+
+    private AsyncAllureCucumber(AsyncResultsWriter writer) {
+        this(writer, new ScenarioAwareLifecycle(writer));
+    }
+
+    private AsyncAllureCucumber(AsyncResultsWriter writer, AllureLifecycle lifecycle) {
+        super(lifecycle);
+        this.writer = writer;
+        Allure.setLifecycle(lifecycle);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        super.setEventPublisher(publisher);
+        // Registered after Allure's own handlers, so the last results are queued before the writer is drained
+        publisher.registerHandlerFor(TestRunFinished.class, event -> finish());
+    }
+
+    private void finish() {
+        writer.close();
+        AsyncResultsWriter.Stats stats = writer.stats();
+        if (stats.failures() > 0) System.err.println(stats.failures() + " Allure results could not be written");
+        if (stats.attachments() == 0) return;
+        System.out.printf(Locale.ROOT, "Allure attachments: %d added, %d duplicates (%d KB not written), "
+                        + "%d omitted over the per-scenario cap, %d KB written%n", stats.attachments(),
+                stats.duplicates(), stats.bytesSaved() / 1024, stats.omitted(), stats.bytesWritten() / 1024);
+    }
+
+    /**
+     * Tells the writer which scenario each attachment belongs to, for the per-scenario cap. Allure runs hooks as
+     * fixtures of a container rather than inside the test case, so the scenario is tracked per thread from its
+     * start until its result is written, which covers its hooks as well.
+     */
+    private static final class ScenarioAwareLifecycle extends AllureLifecycle {
+        private final AsyncResultsWriter writer;
+        private final ThreadLocal<String> scenario = new ThreadLocal<>();
+
+        ScenarioAwareLifecycle(AsyncResultsWriter writer) {
+            super(writer);
+            this.writer = writer;
+        }
+
+        @Override
+        public void startTestCase(String uuid) {
+            scenario.set(uuid);
+            super.startTestCase(uuid);
+        }
+
+        @Override
+        public void writeTestCase(String uuid) {
+            super.writeTestCase(uuid);
+            if (uuid.equals(scenario.get())) scenario.remove();
+        }
+
+        @Override
+        public void writeAttachment(String attachmentSource, InputStream stream) {
+            writer.write(scenario.get(), attachmentSource, stream);
+        }
+    }
+}
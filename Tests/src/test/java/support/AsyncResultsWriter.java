@@ -0,0 +1,276 @@
+package support;
+
+import io.qameta.allure.AllureResultsWriteException;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.ExecutableItem;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.Parameter;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import io.qameta.allure.util.PropertiesUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allure results writer that keeps file I/O off the test threads and stores every distinct attachment once.
+ * <p>
+ * Results, containers and attachments are handed to a single background thread in the order Allure produces
+ * them. Attachments are named after the SHA-256 of their content ({@code <hash>-attachment.png}), so the same
+ * screenshot or page source attached by several steps, retries or scenarios is written once, and the results
+ * that reference it are pointed at the shared file before they are written. Allure reads attachments from the
+ * top of the results directory, which therefore doubles as the content-addressed store.
+ * <p>
+ * Each scenario may attach at most {@code maxScenarioBytes} of distinct content; attachments past the cap are
+ * left out of the results and counted in a {@code Attachments omitted} parameter of the scenario.
+ */
+public final class AsyncResultsWriter implements AllureResultsWriter, AutoCloseable {
+    private static final String ATTACHMENT_SUFFIX = "-attachment";
+    // Bounds the work queued behind the writer thread, so a slow disk slows tests down instead of filling the heap
+    private static final int MAX_PENDING = 256;
+
+    /** Counters of the attachments seen so far. */
+    public record Stats(long attachments, long duplicates, long omitted, long bytesWritten, long bytesSaved,
+                        long failures) {
+    }
+
+    private final Path directory;
+    private final long maxScenarioBytes;
+    private final FileSystemResultsWriter results;
+    private final ExecutorService executor;
+    private final Semaphore pending = new Semaphore(MAX_PENDING);
+
+    // Only touched by the writer thread
+    private final Set<String> stored = new HashSet<>();
+    private final Map<String, String> renamed = new HashMap<>();
+    private final Set<String> omitted = new HashSet<>();
+    private final Map<String, ScenarioBudget> budgets = new HashMap<>();
+
+    private final AtomicLong attachments = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong omittedCount = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private static final class ScenarioBudget {
+        final Set<String> hashes = new HashSet<>();
+        long bytes;
+        int omitted;
+    }
+
+    /**
+     * @param directory        Allure results directory
+     * @param maxScenarioBytes cap on the distinct attachment bytes of one scenario; 0 or less for no cap
+     * @param async            false to write on the calling thread, keeping deduplication and the cap
+     */
+    public AsyncResultsWriter(Path directory, long maxScenarioBytes, boolean async) {
+        if (directory == null) throw new IllegalArgumentException("directory cannot be null");
+        this.directory = directory;
+        this.maxScenarioBytes = maxScenarioBytes;
+        this.results = new FileSystemResultsWriter(directory);
+        this.executor = async ? Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "allure-results-writer");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    /**
+     * Writer for {@code allure.results.directory} (default {@code allure-results}). Configured with
+     * {@code -Dallure.attachments.maxScenarioBytes} (default 20 MB, 0 for no cap) and {@code -Dallure.async=false}
+     * to write synchronously.
+     */
+    public static AsyncResultsWriter fromSystemProperties() {
+        String dir = System.getProperty("allure.results.directory",
+                PropertiesUtils.loadAllureProperties().getProperty("allure.results.directory", "allure-results"));
+        long maxBytes = Long.getLong("allure.attachments.maxScenarioBytes", 20L * 1024 * 1024);
+        boolean async = !"false".equalsIgnoreCase(System.getProperty("allure.async"));
+        return new AsyncResultsWriter(Path.of(dir), maxBytes, async);
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        submit(() -> {
+            ScenarioBudget budget = budgets.remove(testResult.getUuid());
+            relink(testResult);
+            if (budget != null && budget.omitted > 0) {
+                // The Cucumber plugin may leave an immutable list here
+                List<Parameter> parameters = new ArrayList<>(testResult.getParameters());
+                parameters.add(new Parameter().setName("Attachments omitted")
+                        .setValue(budget.omitted + " over the " + maxScenarioBytes + " byte cap"));
+                testResult.setParameters(parameters);
+            }
+            results.write(testResult);
+        });
+    }
+
+    @Override
+    public void write(TestResultContainer container) {
+        submit(() -> {
+            for (FixtureResult fixture : container.getBefores()) relink(fixture);
+            for (FixtureResult fixture : container.getAfters()) relink(fixture);
+            results.write(container);
+        });
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        write(null, source, attachment);
+    }
+
+    /**
+     * Queue an attachment added while {@code scenario} (an Allure test case UUID, or null when none is running)
+     * was current. The content is read on the calling thread, since Allure may close the stream afterwards.
+     */
+    public void write(String scenario, String source, InputStream attachment) {
+        byte[] content;
+        try (InputStream in = attachment) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            throw new AllureResultsWriteException("Could not read attachment " + source, e);
+        }
+        submit(() -> store(scenario, source, content));
+    }
+
+    public Stats stats() {
+        return new Stats(attachments.get(), duplicates.get(), omittedCount.get(), bytesWritten.get(),
+                bytesSaved.get(), failures.get());
+    }
+
+    /** Write everything still queued and stop the writer thread. */
+    @Override
+    public void close() {
+        if (executor == null) return;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                System.err.println("Allure results writer did not finish within 60s; some results may be missing");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Runnable task) {
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // A broken result must not stop the ones behind it
+                failures.incrementAndGet();
+                System.err.println("Failed to write Allure results: " + e);
+            }
+        };
+        if (executor == null) {
+            guarded.run();
+            return;
+        }
+        pending.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    guarded.run();
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.release();
+            throw e;
+        }
+    }
+
+    private void store(String scenario, String source, byte[] content) {
+        attachments.incrementAndGet();
+        String hash = sha256(content);
+        if (scenario != null && maxScenarioBytes > 0) {
+            ScenarioBudget budget = budgets.computeIfAbsent(scenario, k -> new ScenarioBudget());
+            if (!budget.hashes.contains(hash)) {
+                if (budget.bytes + content.length > maxScenarioBytes) {
+                    budget.omitted++;
+                    omitted.add(source);
+                    omittedCount.incrementAndGet();
+                    return;
+                }
+                budget.hashes.add(hash);
+                budget.bytes += content.length;
+            }
+        }
+        String name = hash + ATTACHMENT_SUFFIX + extension(source);
+        renamed.put(source, name);
+        if (!stored.add(name)) {
+            duplicates.incrementAndGet();
+            bytesSaved.addAndGet(content.length);
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(name), content, StandardOpenOption.CREATE_NEW);
+            bytesWritten.addAndGet(content.length);
+        } catch (FileAlreadyExistsException e) {
+            // Written by an earlier run into the same results directory; same name, same content
+            duplicates.incrementAndGet();
+            bytesSaved.addAndGet(content.length);
+        } catch (IOException e) {
+            stored.remove(name);
+            throw new UncheckedIOException("Could not write attachment " + name, e);
+        }
+    }
+
+    /** Point the attachments of {@code item} and its steps at the stored files, dropping omitted ones. */
+    private void relink(ExecutableItem item) {
+        relink(item.getAttachments());
+        for (StepResult step : item.getSteps()) relink(step);
+    }
+
+    private void relink(List<Attachment> list) {
+        for (Iterator<Attachment> it = list.iterator(); it.hasNext(); ) {
+            Attachment attachment = it.next();
+            String source = attachment.getSource();
+            if (omitted.remove(source)) {
+                it.remove();
+                continue;
+            }
+            String name = renamed.remove(source);
+            if (name != null) attachment.setSource(name);
+        }
+    }
+
+    private static String extension(String source) {
+        int at = source.lastIndexOf(ATTACHMENT_SUFFIX);
+        return at < 0 ? "" : source.substring(at + ATTACHMENT_SUFFIX.length()).toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
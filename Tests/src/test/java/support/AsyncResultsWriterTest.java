@@ -0,0 +1,135 @@
+package support;
+
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.Parameter;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class AsyncResultsWriterTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final String HASHED = "[0-9a-f]{64}-attachment\\.png";
+
+    private static void attach(AsyncResultsWriter writer, String scenario, String source, String content) {
+        writer.write(scenario, source, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Attachment attachment(String source) {
+        return new Attachment().setName("screenshot").setType("image/png").setSource(source);
+    }
+
+    private static TestResult scenario(String uuid, String... sources) {
+        List<Attachment> attachments = new ArrayList<>();
+        for (String source : sources) attachments.add(attachment(source));
+        return new TestResult().setUuid(uuid).setName(uuid).setAttachments(attachments);
+    }
+
+    private static List<Path> files(Path dir, String glob) throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileSystem().getPathMatcher("glob:" + glob).matches(p.getFileName()))
+                    .forEach(out::add);
+        }
+        return out;
+    }
+
+    @Test
+    public void testDuplicateContentAcrossScenariosIsWrittenOnce() throws IOException {
+        Path dir = tmp.getRoot().toPath();
+        AsyncResultsWriter writer = new AsyncResultsWriter(dir, 0, true);
+        attach(writer, "s1", "a1-attachment.png", "same page");
+        TestResult first = scenario("s1", "a1-attachment.png");
+        writer.write(first);
+        attach(writer, "s2", "b1-attachment.png", "same page");
+        TestResult second = scenario("s2", "b1-attachment.png");
+        writer.write(second);
+        writer.close();
+
+        List<Path> stored = files(dir, "*-attachment.png");
+        assertEquals(1, stored.size());
+        String name = stored.get(0).getFileName().toString();
+        assertTrue(name, name.matches(HASHED));
+        assertEquals(name, first.getAttachments().get(0).getSource());
+        assertEquals(name, second.getAttachments().get(0).getSource());
+        assertEquals(1, writer.stats().duplicates());
+        assertEquals("same page".length(), writer.stats().bytesSaved());
+    }
+
+    @Test
+    public void testAttachmentsOverTheCapAreLeftOutAndCounted() throws IOException {
+        Path dir = tmp.getRoot().toPath();
+        AsyncResultsWriter writer = new AsyncResultsWriter(dir, 10, true);
+        attach(writer, "s1", "a1-attachment.png", "12345678");
+        attach(writer, "s1", "a2-attachment.png", "abcdefgh");
+        // Content the scenario already stored costs nothing against the cap
+        attach(writer, "s1", "a3-attachment.png", "12345678");
+        TestResult result = scenario("s1", "a1-attachment.png", "a2-attachment.png", "a3-attachment.png");
+        writer.write(result);
+        writer.close();
+
+        assertEquals(1, files(dir, "*-attachment.png").size());
+        assertEquals(2, result.getAttachments().size());
+        for (Attachment a : result.getAttachments()) assertTrue(a.getSource(), a.getSource().matches(HASHED));
+        Parameter omitted = result.getParameters().stream()
+                .filter(p -> p.getName().equals("Attachments omitted")).findFirst().orElseThrow();
+        assertEquals("1 over the 10 byte cap", omitted.getValue());
+        assertEquals(1, writer.stats().omitted());
+    }
+
+    @Test
+    public void testHookAttachmentsAreRelinked() throws IOException {
+        Path dir = tmp.getRoot().toPath();
+        AsyncResultsWriter writer = new AsyncResultsWriter(dir, 0, true);
+        attach(writer, null, "h1-attachment.png", "before hook");
+        attach(writer, null, "h2-attachment.png", "after hook step");
+        FixtureResult before = new FixtureResult().setName("before")
+                .setAttachments(new ArrayList<>(List.of(attachment("h1-attachment.png"))));
+        StepResult step = new StepResult().setName("step")
+                .setAttachments(new ArrayList<>(List.of(attachment("h2-attachment.png"))));
+        FixtureResult after = new FixtureResult().setName("after").setSteps(new ArrayList<>(List.of(step)));
+        writer.write(new TestResultContainer().setUuid("c1")
+                .setBefores(new ArrayList<>(List.of(before))).setAfters(new ArrayList<>(List.of(after))));
+        writer.close();
+
+        String beforeSource = before.getAttachments().get(0).getSource();
+        String stepSource = step.getAttachments().get(0).getSource();
+        assertTrue(beforeSource, beforeSource.matches(HASHED));
+        assertTrue(stepSource, stepSource.matches(HASHED));
+        assertTrue(Files.exists(dir.resolve(beforeSource)));
+        assertTrue(Files.exists(dir.resolve(stepSource)));
+        assertEquals(1, files(dir, "c1-container.json").size());
+    }
+
+    @Test
+    public void testCloseWritesEverythingQueued() throws IOException {
+        Path dir = tmp.getRoot().toPath();
+        AsyncResultsWriter writer = new AsyncResultsWriter(dir, 0, true);
+        int scenarios = 300;
+        for (int i = 0; i < scenarios; i++) {
+            attach(writer, "s" + i, "a" + i + "-attachment.png", "page " + i);
+            writer.write(scenario("s" + i, "a" + i + "-attachment.png"));
+        }
+        writer.close();
+
+        assertEquals(scenarios, files(dir, "*-attachment.png").size());
+        assertEquals(scenarios, files(dir, "*-result.json").size());
+        assertEquals(0, writer.stats().failures());
+    }
+}
@@ -0,0 +1,94 @@
+package support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import core.fixture.FixtureServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazily started, suite-wide fixture server serving pages from src/test/resources/fixtures over http://localhost.
+ * <p>
+ * Besides the static pages it has a JSON login endpoint ({@code POST /api/login}) that sets an HttpOnly session
+ * cookie, and an {@code /account} page that is only shown with that cookie, for scenarios that log in through the
+ * API instead of the login form.
+ */
+public class Fixtures {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> SESSIONS = ConcurrentHashMap.newKeySet();
+    private static FixtureServer server;
+
+    public static synchronized FixtureServer server() {
+        if (server == null) {
+            server = new FixtureServer("fixtures").start()
+                    .route("api/login", Fixtures::login)
+                    .route("account", Fixtures::account);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close, "fixture-server-shutdown"));
+        }
+        return server;
+    }
+
+    public static String url(String path) {
+        return server().url(path);
+    }
+
+    private static void login(HttpExchange exchange) throws IOException {
+        JsonNode credentials;
+        try (InputStream in = exchange.getRequestBody()) {
+            credentials = MAPPER.readTree(in);
+        } catch (IOException e) {
+            credentials = MAPPER.createObjectNode();
+        }
+        boolean valid = "POST".equals(exchange.getRequestMethod())
+                && "tomsmith".equals(credentials.path("username").asText())
+                && "SuperSecretPassword!".equals(credentials.path("password").asText());
+        if (!valid) {
+            respond(exchange, 401, "application/json", "{\"error\":\"invalid credentials\"}");
+            return;
+        }
+        String session = UUID.randomUUID().toString();
+        SESSIONS.add(session);
+        exchange.getResponseHeaders().add("Set-Cookie", "session=" + session + "; Path=/; HttpOnly; SameSite=Lax");
+        respond(exchange, 200, "application/json", "{\"user\":\"tomsmith\"}");
+    }
+
+    private static void account(HttpExchange exchange) throws IOException {
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        boolean loggedIn = false;
+        if (cookies != null) {
+            for (String cookie : cookies.split(";")) {
+                String c = cookie.trim();
+                if (c.startsWith("session=") && SESSIONS.contains(c.substring("session=".length()))) loggedIn = true;
+            }
+        }
+        if (!loggedIn) {
+            respond(exchange, 401, "text/html; charset=utf-8",
+                    "<!doctype html><html><body><h2>Login required</h2></body></html>");
+            return;
+        }
+        // The user name comes from localStorage, as a single-page app would keep it
+        respond(exchange, 200, "text/html; charset=utf-8", "<!doctype html>\n"
+                + "<html><head><meta charset='utf-8'><title>Account</title></head>\n<body>\n"
+                + "  <h2>Secure Area</h2>\n  <div id='user'></div>\n"
+                + "  <script>document.getElementById('user').textContent = localStorage.getItem('user') || '';"
+                + "</script>\n</body></html>");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package support;
+
+import core.timing.HangDiagnostics;
+import core.timing.StepWatchdog;
+import core.ui.UiActions;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Cucumber plugin capturing diagnostics of steps (and hooks) that run longer than {@code -Dstep.deadlineSeconds}
+ * (default 300, 0 turns it off). A stuck step gets a directory under {@code target/hangs/} with a thread dump, the
+ * browser and driver processes, and the page's URL, title and screenshot; see {@link HangDiagnostics}.
+ * <p>
+ * With {@code -Dstep.deadline.abort=true} the browser is then recycled and the step's thread interrupted, so the
+ * scenario fails instead of holding the run until the CI timeout, and the next scenario starts a fresh browser.
+ * Off by default: a slow step that would have finished fails instead. {@code -Dstep.deadline.captureSeconds}
+ * bounds each read of the page and the browser shutdown (default 10).
+ */
+public class HangWatchdogPlugin implements ConcurrentEventListener {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // The guard of the step running on this thread
+    private final ThreadLocal<StepWatchdog.Guard> guard = new ThreadLocal<>();
+    private final boolean abort = Boolean.getBoolean("step.deadline.abort");
+    private final Duration captureTimeout = Duration.ofSeconds(Long.getLong("step.deadline.captureSeconds", 10));
+    private StepWatchdog watchdog;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        long seconds = Long.getLong("step.deadlineSeconds", 300);
+        if (seconds <= 0) return;
+        watchdog = new StepWatchdog(Duration.ofSeconds(seconds), this::stalled);
+        publisher.registerHandlerFor(TestStepStarted.class, event ->
+                guard.set(watchdog.watch(event.getTestCase().getName() + " > " + describe(event.getTestStep()))));
+        publisher.registerHandlerFor(TestStepFinished.class, event -> {
+            StepWatchdog.Guard g = guard.get();
+            if (g != null) g.close();
+            guard.remove();
+        });
+        publisher.registerHandlerFor(TestRunFinished.class, event -> watchdog.close());
+    }
+
+    private void stalled(StepWatchdog.Stalled stalled) {
+        // The scenario's browser, unless it has none or already moved on
+        UiActions ui = TestContext.current();
+        Path dir = Path.of("target", "hangs", LocalDateTime.now().format(STAMP) + "-" + slug(stalled.label()));
+        System.err.printf(Locale.ROOT, "Step still running after %ds on %s: %s%n",
+                stalled.deadline().toSeconds(), stalled.thread().getName(), stalled.label());
+        try {
+            HangDiagnostics.capture(dir, stalled, ui, captureTimeout);
+            System.err.println("Hang diagnostics written to: " + dir.toAbsolutePath());
+        } catch (RuntimeException e) {
+            System.err.println("Could not capture hang diagnostics: " + e);
+        }
+        if (!abort || stalled.isFinished()) return;
+        if (ui != null) {
+            boolean closed = HangDiagnostics.recycle(ui, captureTimeout);
+            TestContext.abandon(ui);
+            System.err.println(closed ? "Browser closed" : ui.processes().isEmpty()
+                    ? "Browser did not close and its processes are unknown; left running"
+                    : "Browser did not close; its processes were killed");
+        }
+        // Checked again: capturing and recycling take a while, and a step unblocked by them must not be interrupted
+        if (!stalled.isFinished()) stalled.thread().interrupt();
+    }
+
+    private static String describe(TestStep step) {
+        if (step instanceof PickleStepTestStep pickleStep) {
+            return pickleStep.getStep().getKeyword() + pickleStep.getStep().getText();
+        }
+        if (step instanceof HookTestStep hook) {
+            return "@" + hook.getHookType() + " " + hook.getCodeLocation();
+        }
+        return step.getCodeLocation();
+    }
+
+    private static String slug(String label) {
+        String slug = label.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        return slug.length() > 60 ? slug.substring(0, 60) : slug;
+    }
+}
@@ -0,0 +1,108 @@
+package support;
+
+import io.cucumber.core.eventbus.EventBus;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.filter.Filters;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.options.CommandlineOptionsParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.resource.ClassLoaders;
+import io.cucumber.core.runner.Runner;
+import io.cucumber.core.runtime.BackendServiceLoader;
+import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
+import io.cucumber.core.runtime.ObjectFactoryServiceLoader;
+import io.cucumber.core.runtime.ObjectFactorySupplier;
+import io.cucumber.core.runtime.SingletonObjectFactorySupplier;
+import io.cucumber.core.runtime.SingletonRunnerSupplier;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs Cucumber scenarios over and over without restarting Cucumber, for load mode.
+ * <p>
+ * The features are parsed and filtered by tag once, and the glue is loaded once per runner; each call to
+ * {@link #runNext()} borrows a free runner and executes the next matching scenario on the calling thread, with
+ * fresh step definition instances as in a normal run. Builds on cucumber-core's runner classes, which the JUnit
+ * and CLI front ends use the same way.
+ */
+public class ScenarioRunnerPool {
+    private final List<Pickle> pickles;
+    private final BlockingQueue<Runner> runners;
+    private final AtomicLong next = new AtomicLong();
+    // The event bus is synchronous, so a scenario's result arrives on the thread that ran it
+    private final ThreadLocal<Result> lastResult = new ThreadLocal<>();
+
+    /**
+     * @param featurePath feature file or directory
+     * @param glue        glue package
+     * @param tags        tag expression selecting the scenarios
+     * @param size        number of runners, i.e. scenarios that can run at the same time
+     */
+    public ScenarioRunnerPool(String featurePath, String glue, String tags, int size) {
+        RuntimeOptions options = new CommandlineOptionsParser(System.out)
+                .parse("--glue", glue, "--tags", tags, featurePath)
+                .build();
+        EventBus bus = new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID);
+        bus.registerHandlerFor(TestCaseFinished.class, event -> lastResult.set(event.getResult()));
+        Supplier<ClassLoader> classLoader = ClassLoaders::getDefaultClassLoader;
+
+        Filters filters = new Filters(options);
+        List<Pickle> selected = new ArrayList<>();
+        for (Feature feature : new FeaturePathFeatureSupplier(classLoader, options, new FeatureParser(bus::generateId)).get()) {
+            for (Pickle pickle : feature.getPickles()) {
+                if (filters.test(pickle)) selected.add(pickle);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No scenarios in " + featurePath + " match tags " + tags);
+        }
+        this.pickles = List.copyOf(selected);
+
+        ObjectFactoryServiceLoader objectFactories = new ObjectFactoryServiceLoader(classLoader, options);
+        this.runners = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            ObjectFactorySupplier objectFactory = new SingletonObjectFactorySupplier(objectFactories);
+            runners.add(new SingletonRunnerSupplier(options, bus,
+                    new BackendServiceLoader(classLoader, objectFactory), objectFactory).get());
+        }
+    }
+
+    /** Number of scenarios selected by the tag expression. */
+    public int scenarioCount() {
+        return pickles.size();
+    }
+
+    /**
+     * Run the next selected scenario (round-robin) on a free runner, waiting for one if all are busy.
+     *
+     * @throws AssertionError when the scenario did not pass
+     */
+    public void runNext() throws InterruptedException {
+        Pickle pickle = pickles.get((int) (next.getAndIncrement() % pickles.size()));
+        Runner runner = runners.take();
+        try {
+            runner.runPickle(pickle);
+        } finally {
+            runners.add(runner);
+        }
+        Result result = lastResult.get();
+        lastResult.remove();
+        if (result == null || result.getStatus() != Status.PASSED) {
+            String status = result == null ? "no result" : result.getStatus().name();
+            throw new AssertionError("Scenario '" + pickle.getName() + "' " + status,
+                    result == null ? null : result.getError());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package support;
+
+import core.timing.StepTimer;
+import core.timing.StepTimings;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cucumber plugin timing every step and scenario, with each step split into time inside {@code UiActions}, inside
+ * {@code ApiClient} and in glue code (see {@link StepTimer}). Steps are aggregated by pattern across scenarios; at
+ * the end of the run the slowest ones are written to {@code target/step-timings.json} and
+ * {@code target/step-timings.md}, which {@code scripts/report_coverage.py} adds to the PR comment.
+ * <p>
+ * Every individual step, scenario and UI/API action duration is also written to {@code -Dperf.samples} (default
+ * {@code target/perf-samples.json}), the input of {@code scripts/perf_gate.py} for comparing a run with the
+ * committed baseline.
+ * <p>
+ * On unless {@code -Dstep.timings=false}; {@code -Dstep.timings.top} sets how many steps and scenarios are listed
+ * (default 20). Cucumber delivers events on the thread running the scenario, which is what lets the per-thread
+ * split work in parallel runs.
+ */
+public class StepTimingPlugin implements ConcurrentEventListener {
+    private static final StepTimings TIMINGS = new StepTimings();
+    // UI and API nanoseconds of the scenario running on this thread
+    private final ThreadLocal<long[]> scenarioSplit = ThreadLocal.withInitial(() -> new long[2]);
+
+    /** The run-wide timings, for the UI and API wrappers to record action latencies into. */
+    public static StepTimings timings() {
+        return TIMINGS;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if ("false".equalsIgnoreCase(System.getProperty("step.timings"))) return;
+        StepTimer.setEnabled(true);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> {
+            long[] split = scenarioSplit.get();
+            split[0] = 0;
+            split[1] = 0;
+        });
+        publisher.registerHandlerFor(TestStepStarted.class, event -> StepTimer.startStep());
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::scenarioFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> write());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        StepTimer.Split split = StepTimer.stopStep();
+        long[] scenario = scenarioSplit.get();
+        scenario[0] += split.uiNanos();
+        scenario[1] += split.apiNanos();
+        Status status = event.getResult().getStatus();
+        if (status == Status.SKIPPED || status == Status.UNDEFINED) return;
+        TestStep step = event.getTestStep();
+        String pattern;
+        if (step instanceof PickleStepTestStep pickleStep) {
+            pattern = pickleStep.getPattern();
+        } else if (step instanceof HookTestStep hook) {
+            pattern = "@" + hook.getHookType() + " " + hook.getCodeLocation();
+        } else {
+            pattern = step.getCodeLocation();
+        }
+        TIMINGS.recordStep(pattern, step.getCodeLocation(), status == Status.PASSED,
+                event.getResult().getDuration().toNanos(), split);
+    }
+
+    private void scenarioFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        long[] split = scenarioSplit.get();
+        String location = relative(testCase.getUri()) + ":" + testCase.getLocation().getLine();
+        TIMINGS.recordScenario(testCase.getName(), location, event.getResult().getStatus().name(),
+                event.getResult().getDuration().toNanos(), split[0], split[1]);
+    }
+
+    private void write() {
+        StepTimer.setEnabled(false);
+        int top = Integer.getInteger("step.timings.top", 20);
+        Path json = Path.of("target", "step-timings.json");
+        try {
+            Files.createDirectories(json.getParent());
+            Files.writeString(json, TIMINGS.toJson(top));
+            Files.writeString(Path.of("target", "step-timings.md"),
+                    "### Slowest steps and scenarios\n\n" + TIMINGS.report(top));
+            Path samples = Path.of(System.getProperty("perf.samples", "target/perf-samples.json"));
+            if (samples.getParent() != null) Files.createDirectories(samples.getParent());
+            Files.writeString(samples, TIMINGS.samplesJson(environment()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write step timings", e);
+        }
+        System.out.println("Step timings written to: " + json.toAbsolutePath());
+    }
+
+    /** Settings that change what a run measures; perf_gate.py only compares runs that agree on them. */
+    private static Map<String, String> environment() {
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("api.mode", System.getProperty("api.mode", System.getenv().getOrDefault("API_MODE", "live")));
+        env.put("api.client", System.getProperty("api.client",
+                System.getenv().getOrDefault("API_CLIENT", "restassured")));
+        env.put("tags", System.getProperty("cucumber.filter.tags", ""));
+        env.put("headless", System.getProperty("headless", "true"));
+        env.put("java", System.getProperty("java.specification.version"));
+        env.put("cpus", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        return env;
+    }
+
+    /** Feature URI relative to the working directory, so sample names match across machines. */
+    private static String relative(URI uri) {
+        return Path.of("").toAbsolutePath().toUri().relativize(uri).toString();
+    }
+}
@@ -3,7 +3,8 @@ package support;
 import core.ui.UiActions;
 
 public class TestContext {
-    private static UiActions actions;
+    // Read by the hang watchdog from its own thread
+    private static volatile UiActions actions;
 
     public static UiActions actions() {
         if (actions == null) {
@@ -12,10 +13,22 @@ public class TestContext {
         return actions;
     }
 
+    /** The browser if one was started, without starting one. */
+    public static UiActions current() {
+        return actions;
+    }
+
     public static void close() {
         if (actions != null) {
             actions.close();
             actions = null;
         }
     }
+
+    /** Forget {@code stale} without closing it (it was recycled), so the next scenario starts a new browser. */
+    public static synchronized void abandon(UiActions stale) {
+        if (actions == stale) {
+            actions = null;
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package support;
 
+import core.timing.StepTimer;
+import core.ui.ParityActions;
+import core.ui.TimedUiActions;
 import core.ui.UiActions;
 import playwright.PlaywrightActions;
 import selenium.SeleniumActions;
@@ -7,10 +10,26 @@ import selenium.CdpWarningSilencer;
 
 public class UiFactory {
     public static UiActions create() {
+        if (!StepTimer.isEnabled()) return createEngine();
+        // Charge browser time, launch included, to the running step for the step timing report
+        long start = StepTimer.enter();
+        try {
+            return TimedUiActions.wrap(createEngine(), StepTimingPlugin.timings());
+        } finally {
+            StepTimer.exit(StepTimer.Layer.UI, start);
+        }
+    }
+
+    private static UiActions createEngine() {
         // Ensure Selenium CDP warning silencing is applied as early as possible
         CdpWarningSilencer.silence();
         String engine = System.getProperty("engine", System.getenv().getOrDefault("ENGINE", "playwright"));
         boolean headless = Boolean.parseBoolean(System.getProperty("headless", "true"));
+        if ("parity".equalsIgnoreCase(engine)) {
+            // Same steps against both engines at once; divergent outcomes fail the step
+            return new ParityActions("selenium", () -> new SeleniumActions(headless),
+                    "playwright", () -> new PlaywrightActions(headless));
+        }
         if ("selenium".equalsIgnoreCase(engine)) {
             // Honor headless flag for Selenium as well
             return new SeleniumActions(headless);
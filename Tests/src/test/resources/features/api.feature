@@ -5,3 +5,36 @@ Feature: Simple API checks with RestAssured
     When I GET "/json"
     Then the response status should be 200
     And the JSON path "slideshow.author" should equal "Yours Truly"
+
+  Scenario: Concurrent GETs all succeed
+    Given an API base URI of "https://httpbin.org"
+    When I GET "/get" 5 times concurrently
+    Then all responses should have status 200
+
+  Scenario: Stream NDJSON records and check every record
+    Given an API base URI of "https://httpbin.org"
+    When I stream GET "/stream/3"
+    Then the streamed response status should be 200
+    And every streamed record should have the fields:
+      | id  |
+      | url |
+    And the streamed response should contain 3 records
+
+  Scenario: Check many JSON paths in one pass
+    Given an API base URI of "https://httpbin.org"
+    When I GET "/json"
+    Then the JSON response should match:
+      | slideshow.author          | Yours Truly               |
+      | slideshow.title           | Sample Slide Show         |
+      | slideshow.slides[0].title | Wake up to WonderWidgets! |
+      | slideshow.slides.size()   | 2                         |
+
+  Scenario: Send a batch of requests concurrently
+    Given an API base URI of the fixture server
+    When I send these API requests with parallelism 4:
+      | method | path         |
+      | GET    | /login.html  |
+      | GET    | /secure.html |
+      | GET    | /login.html  |
+      | GET    | /secure.html |
+    Then all batch requests should have status 200
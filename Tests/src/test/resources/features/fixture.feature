@@ -0,0 +1,16 @@
+Feature: Local fixture pages served over http://localhost
+
+  @selenium @playwright
+  Scenario: Login against the local fixture server
+    Given I open the fixture page "login.html"
+    And I type "tomsmith" into "#username"
+    And I type "SuperSecretPassword!" into "#password"
+    When I click "button[type=submit]"
+    Then I should see text "Secure Area" in "h2"
+
+  @selenium @playwright
+  Scenario: Skip the login form with a session seeded through the API
+    Given I am logged in through the API as "tomsmith" with password "SuperSecretPassword!"
+    When I open the fixture page "account"
+    Then I should see text "Secure Area" in "h2"
+    And I should see text "tomsmith" in "#user"
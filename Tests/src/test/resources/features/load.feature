@@ -0,0 +1,10 @@
+@load
+Feature: Load smoke against the local fixture server
+  Run under load with: mvn -pl Tests test -Dtest=ApiLoadTest -Dload.tags=@load -Dload.users=20 -Dload.duration=30
+
+  Scenario: Fetch the login and secure pages
+    Given an API base URI of the fixture server
+    When I GET "/login.html"
+    Then the response status should be 200
+    When I GET "/secure.html"
+    Then the response status should be 200
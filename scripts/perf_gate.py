@@ -0,0 +1,267 @@
+#!/usr/bin/env python3
+"""
+Compare the step, scenario and action durations of Tests runs against a committed baseline.
+
+The Cucumber runner writes every individual duration of a run to target/perf-samples.json
+(see StepTimingPlugin). This script has two commands:
+
+  baseline  Merge the samples of one or more reference runs into a baseline file to commit:
+              python3 scripts/perf_gate.py baseline --out Tests/perf-baseline.json run1.json run2.json
+
+  check     Compare the samples of one or more new runs with the baseline and write a Markdown
+            section, which the PR workflow appends to the PR comment:
+              python3 scripts/perf_gate.py check --baseline Tests/perf-baseline.json \\
+                  --out Tests/target/perf-gate.md run1.json run2.json
+
+A name (step pattern, scenario or action) is reported as slower only when all of these hold:
+ - both sides have at least --min-samples durations; repeated runs add samples,
+ - its median grew by more than --tolerance (relative) and by at least --min-delta-ms,
+ - a one-sided Mann-Whitney U test says the new durations are larger with p < --alpha.
+A single slow outlier therefore never fails the gate, and neither does noise within the band.
+
+Runs are only compared with a baseline recorded with the same API mode, API client, tag filter,
+CPU count and Java version; otherwise the section says so and nothing is flagged. Baselines are
+hardware specific: record them with the "Record performance baseline" workflow, which runs on the
+same runner as the PR check and uploads the file to commit.
+"""
+
+import argparse
+import json
+import math
+import re
+import sys
+from pathlib import Path
+
+KINDS = ['steps', 'scenarios', 'actions']
+# Settings that must match between the baseline and the checked runs
+COMPARABLE = ['api.mode', 'api.client', 'tags', 'cpus', 'java']
+# Samples kept per name in a baseline file; the distribution is preserved by keeping evenly spaced quantiles
+MAX_BASELINE_SAMPLES = 500
+NUMBER_ARRAY = re.compile(r'\[\s*([-0-9.e,\s]+?)\s*\]')
+
+
+def load_runs(paths):
+    """Merge sample files into (environment, {kind: {name: [ms, ...]}}); the first file's environment wins."""
+    environment = None
+    merged = {kind: {} for kind in KINDS}
+    for path in paths:
+        data = json.loads(Path(path).read_text(encoding='utf-8'))
+        if environment is None:
+            environment = data.get('environment', {})
+        for kind in KINDS:
+            for name, values in data.get(kind, {}).items():
+                merged[kind].setdefault(name, []).extend(values)
+    return environment or {}, merged
+
+
+def percentile(sorted_values, p):
+    """Nearest-rank percentile of an ascending list."""
+    if not sorted_values:
+        return 0.0
+    rank = max(1, math.ceil(p / 100.0 * len(sorted_values)))
+    return sorted_values[rank - 1]
+
+
+def median(values):
+    s = sorted(values)
+    n = len(s)
+    if n == 0:
+        return 0.0
+    mid = n // 2
+    return s[mid] if n % 2 else (s[mid - 1] + s[mid]) / 2.0
+
+
+def thin(values, limit):
+    """At most limit values spread evenly over the sorted distribution."""
+    s = sorted(values)
+    if len(s) <= limit:
+        return s
+    step = (len(s) - 1) / (limit - 1)
+    return [s[round(i * step)] for i in range(limit)]
+
+
+def mann_whitney_greater(current, baseline):
+    """One-sided p-value that current tends to be larger than baseline (normal approximation, tie corrected)."""
+    n1, n2 = len(current), len(baseline)
+    pooled = sorted([(v, 0) for v in current] + [(v, 1) for v in baseline])
+    ranks = [0.0] * len(pooled)
+    tie_term = 0.0
+    i = 0
+    while i < len(pooled):
+        j = i
+        while j + 1 < len(pooled) and pooled[j + 1][0] == pooled[i][0]:
+            j += 1
+        average = (i + j) / 2.0 + 1
+        for k in range(i, j + 1):
+            ranks[k] = average
+        t = j - i + 1
+        tie_term += t ** 3 - t
+        i = j + 1
+    rank_sum = sum(r for r, (_, side) in zip(ranks, pooled) if side == 0)
+    u = rank_sum - n1 * (n1 + 1) / 2.0
+    n = n1 + n2
+    variance = n1 * n2 / 12.0 * ((n + 1) - tie_term / (n * (n - 1)))
+    if variance <= 0:
+        return 1.0
+    # Continuity correction towards the null hypothesis
+    z = (u - n1 * n2 / 2.0 - 0.5) / math.sqrt(variance)
+    return 0.5 * math.erfc(z / math.sqrt(2))
+
+
+def summarize(values):
+    s = sorted(values)
+    return {
+        'count': len(s),
+        'p50': percentile(s, 50),
+        'p90': percentile(s, 90),
+        'p95': percentile(s, 95),
+        'p99': percentile(s, 99),
+    }
+
+
+def cmd_baseline(args):
+    environment, merged = load_runs(args.samples)
+    baseline = {'environment': environment, 'runs': len(args.samples)}
+    for kind in KINDS:
+        baseline[kind] = {}
+        for name in sorted(merged[kind]):
+            values = merged[kind][name]
+            entry = summarize(values)
+            entry['samples'] = thin(values, MAX_BASELINE_SAMPLES)
+            baseline[kind][name] = entry
+    out = Path(args.out)
+    out.parent.mkdir(parents=True, exist_ok=True)
+    text = json.dumps(baseline, indent=1)
+    # One line per sample array keeps the committed file short and its diffs readable
+    text = NUMBER_ARRAY.sub(lambda m: '[' + ', '.join(v.strip() for v in m.group(1).split(',')) + ']', text)
+    out.write_text(text + '\n', encoding='utf-8')
+    counts = ', '.join(f"{len(baseline[kind])} {kind}" for kind in KINDS)
+    print(f"Baseline of {len(args.samples)} run(s) written to {out}: {counts}")
+    return 0
+
+
+def compare(baseline, merged, args):
+    """Return (regressions, improvements, compared, skipped) where the first two are lists of rows."""
+    regressions, improvements = [], []
+    compared = skipped = 0
+    for kind in KINDS:
+        base_kind = baseline.get(kind, {})
+        for name, values in sorted(merged[kind].items()):
+            base = base_kind.get(name)
+            if base is None or len(values) < args.min_samples or len(base['samples']) < args.min_samples:
+                skipped += 1
+                continue
+            compared += 1
+            base_values = base['samples']
+            base_median, cur_median = median(base_values), median(values)
+            delta = cur_median - base_median
+            change = delta / base_median if base_median > 0 else 0.0
+            row = {
+                'kind': kind[:-1],
+                'name': name,
+                'base_p50': base_median,
+                'cur_p50': cur_median,
+                'base_p95': percentile(sorted(base_values), 95),
+                'cur_p95': percentile(sorted(values), 95),
+                'change': change,
+                'samples': f"{len(base_values)}/{len(values)}",
+            }
+            if change > args.tolerance and delta >= args.min_delta_ms:
+                p = mann_whitney_greater(values, base_values)
+                if p < args.alpha:
+                    row['p'] = p
+                    regressions.append(row)
+            elif -change > args.tolerance and -delta >= args.min_delta_ms:
+                p = mann_whitney_greater(base_values, values)
+                if p < args.alpha:
+                    row['p'] = p
+                    improvements.append(row)
+    regressions.sort(key=lambda r: r['change'], reverse=True)
+    improvements.sort(key=lambda r: r['change'])
+    return regressions, improvements, compared, skipped
+
+
+def fmt_ms(value):
+    return f"{value:.1f}"
+
+
+def render(regressions, improvements, compared, skipped, args, runs):
+    lines = ["### Performance vs baseline", ""]
+    lines.append(f"{compared} names compared over {runs} run(s), {skipped} skipped (new or under "
+                 f"{args.min_samples} samples). Slower means median +{args.tolerance * 100:.0f}% and "
+                 f"+{args.min_delta_ms:g} ms with p < {args.alpha:g} (Mann-Whitney U).")
+    lines.append("")
+    if not regressions:
+        lines.append("No significant slowdowns.")
+    else:
+        lines.append(f"**{len(regressions)} significant slowdown(s):**")
+        lines.append("")
+        lines.append("| Kind | Name | Baseline p50 ms | p50 ms | Change | Baseline p95 ms | p95 ms | p | Samples |")
+        lines.append("|---|---|---:|---:|---:|---:|---:|---:|---:|")
+        for r in regressions:
+            name = r['name'].replace('|', '\\|')
+            lines.append(f"| {r['kind']} | `{name}` | {fmt_ms(r['base_p50'])} | {fmt_ms(r['cur_p50'])} | "
+                         f"+{r['change'] * 100:.0f}% | {fmt_ms(r['base_p95'])} | {fmt_ms(r['cur_p95'])} | "
+                         f"{r['p']:.1e} | {r['samples']} |")
+    if improvements:
+        lines.append("")
+        lines.append(f"{len(improvements)} significantly faster; consider refreshing the baseline.")
+    return "\n".join(lines) + "\n"
+
+
+def cmd_check(args):
+    baseline_path = Path(args.baseline)
+    if not baseline_path.exists():
+        text = (f"### Performance vs baseline\n\nNo baseline at `{args.baseline}`; nothing compared. Record one "
+                f"with the \"Record performance baseline\" workflow.\n")
+        return finish(text, args, 0)
+    baseline = json.loads(baseline_path.read_text(encoding='utf-8'))
+    environment, merged = load_runs(args.samples)
+    base_env = baseline.get('environment', {})
+    mismatched = [k for k in COMPARABLE if base_env.get(k, '') != environment.get(k, '')]
+    if mismatched:
+        details = ', '.join(f"{k}: baseline `{base_env.get(k, '')}`, run `{environment.get(k, '')}`"
+                            for k in mismatched)
+        text = (f"### Performance vs baseline\n\nBaseline not comparable, the runs differ from it ({details}); "
+                f"no verdicts.\n")
+        return finish(text, args, 0)
+    regressions, improvements, compared, skipped = compare(baseline, merged, args)
+    text = render(regressions, improvements, compared, skipped, args, len(args.samples))
+    return finish(text, args, 1 if regressions and args.fail_on_regression else 0)
+
+
+def finish(text, args, code):
+    if args.out:
+        out = Path(args.out)
+        out.parent.mkdir(parents=True, exist_ok=True)
+        out.write_text(text, encoding='utf-8')
+    sys.stdout.write(text)
+    return code
+
+
+def main(argv=None):
+    parser = argparse.ArgumentParser(description=__doc__.strip().splitlines()[0])
+    sub = parser.add_subparsers(dest='command', required=True)
+
+    base = sub.add_parser('baseline', help='merge reference runs into a baseline file')
+    base.add_argument('--out', required=True, help='baseline file to write')
+    base.add_argument('samples', nargs='+', help='perf-samples.json files of the reference runs')
+    base.set_defaults(func=cmd_baseline)
+
+    check = sub.add_parser('check', help='compare runs with a baseline')
+    check.add_argument('--baseline', required=True, help='baseline file written by the baseline command')
+    check.add_argument('--out', help='Markdown file to write the section to')
+    check.add_argument('--tolerance', type=float, default=0.25, help='relative median growth tolerated')
+    check.add_argument('--min-delta-ms', type=float, default=5.0, help='absolute median growth tolerated')
+    check.add_argument('--alpha', type=float, default=0.01, help='significance level of the U test')
+    check.add_argument('--min-samples', type=int, default=5, help='samples needed on each side')
+    check.add_argument('--fail-on-regression', action='store_true', help='exit with 1 on slowdowns')
+    check.add_argument('samples', nargs='+', help='perf-samples.json files of the runs to check')
+    check.set_defaults(func=cmd_check)
+
+    args = parser.parse_args(argv)
+    return args.func(args)
+
+
+if __name__ == '__main__':
+    sys.exit(main())
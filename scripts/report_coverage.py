@@ -9,6 +9,11 @@ directories to include (e.g., "Common Selenium Playwright"). For each module, th
 
 If a module has no JaCoCo report, coverage is reported as "n/a". If there are reports but
 no instructions found, coverage is reported as 0.0%.
+
+Modules whose test run exported per-endpoint API metrics (target/api-metrics.md, written by
+the Cucumber runner) get that table appended below the summary, so API latency and payload
+regressions of the system under test show up in the same comment. The slowest steps and
+scenarios (target/step-timings.md, written by the step timing plugin) follow the same way.
 """
 
 # noinspection PyUnresolvedReferences
@@ -152,6 +157,22 @@ def parse_jacoco(
         return None
 
 
+# Markdown sections exported by a module's test run, appended in this order
+REPORT_SECTIONS = ['api-metrics.md', 'step-timings.md']
+
+
+def read_section(module_dir: Path, name):
+    """Return a Markdown section exported to a module's target directory, or None."""
+    report = module_dir / 'target' / name
+    if not report.exists():
+        return None
+    try:
+        text = report.read_text(encoding='utf-8').strip()
+    except:
+        return None
+    return text or None
+
+
 # Removed unused helper to avoid linter warnings
 
 
@@ -235,6 +256,17 @@ def main():
         cov_str = 'n/a' if coverage is None else f"{coverage}%"
         sys.stdout.write(f"| {label} | {total} | {passed} | {failed} | {skipped} | {pass_rate_str} | {cov_str} |\n")
 
+    # Each module directory only once, even when listed under several labels
+    seen = []
+    for _, module in modules:
+        if module in seen:
+            continue
+        seen.append(module)
+        for name in REPORT_SECTIONS:
+            section = read_section(ROOT / module, name)
+            if section:
+                sys.stdout.write(f"\n{section}\n")
+
 
 if __name__ == '__main__':
     main()